@@ -0,0 +1,69 @@
+package com.andrewjamesjohnson.exceptions;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of wrapping checked exceptions with and without capturing a stack trace
+ *
+ * Each invocation parses a batch of inputs of which roughly one in ten fails
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class LambdaWrappedCheckedExceptionBenchmark {
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"true", "false"})
+    public boolean stackTraceEnabled;
+
+    private String[] inputs;
+    private final FunctionWithCheckedException<String, Integer> parse = LambdaWrappedCheckedExceptionBenchmark::parse;
+
+    @Setup
+    public void setUp() {
+        LambdaWrappedCheckedException.setStackTraceEnabled(stackTraceEnabled);
+        Random random = new Random(0);
+        inputs = new String[BATCH_SIZE];
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            inputs[i] = random.nextInt(10) == 0 ? "not a number" : Integer.toString(random.nextInt());
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        LambdaWrappedCheckedException.setStackTraceEnabled(true);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void parseWithFailures(Blackhole blackhole) {
+        for (String input : inputs) {
+            try {
+                blackhole.consume(parse.apply(input));
+            } catch (LambdaWrappedCheckedException e) {
+                blackhole.consume(e);
+            }
+        }
+    }
+
+    private static Integer parse(String input) throws DummyParseException {
+        try {
+            return Integer.valueOf(input);
+        } catch (NumberFormatException e) {
+            throw new DummyParseException(input);
+        }
+    }
+
+    private static final class DummyParseException extends Exception {
+        private DummyParseException(String input) {
+            super("Could not parse " + input);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.andrewjamesjohnson.functional;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Measures composed functions of increasing depth against the same stages written out by hand
+ *
+ * The stages cycle through several distinct lambdas, as a real pipeline would, so a composition can't get away
+ * with a single monomorphic call site. {@code nestedAndThen} and {@code nestedPairAndThen} build the nested lambda
+ * chains that {@link Function#andThen} produces; {@code functionChain} and {@code pairFunctionAndThen} use the
+ * flattened {@link FunctionChain}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CompositionBenchmark {
+    private static final int INPUTS = 1024;
+
+    @SuppressWarnings("unchecked")
+    private static final Function<Integer, Integer>[] STAGES = new Function[]{
+            (Function<Integer, Integer>) x -> x + 1,
+            (Function<Integer, Integer>) x -> x * 31,
+            (Function<Integer, Integer>) x -> x ^ (x >>> 7),
+            (Function<Integer, Integer>) x -> x - 3
+    };
+
+    @Param({"1", "2", "5", "10", "20"})
+    public int depth;
+
+    private final Integer[] inputs = new Integer[INPUTS];
+    private Function<Integer, Integer> nested;
+    private Function<Integer, Integer> chain;
+    private PairFunction<Integer, Integer, Integer> nestedPair;
+    private PairFunction<Integer, Integer, Integer> flattenedPair;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < INPUTS; i++) {
+            inputs[i] = i * 7919;
+        }
+        nested = Function.identity();
+        chain = FunctionChain.identity();
+        PairFunction<Integer, Integer, Integer> sum = Integer::sum;
+        nestedPair = sum;
+        flattenedPair = sum;
+        for (int i = 0; i < depth; i++) {
+            Function<Integer, Integer> stage = STAGES[i % STAGES.length];
+            nested = nested.andThen(stage);
+            chain = chain.andThen(stage);
+            PairFunction<Integer, Integer, Integer> previous = nestedPair;
+            nestedPair = (l, r) -> stage.apply(previous.apply(l, r));
+            flattenedPair = flattenedPair.andThen(stage);
+        }
+    }
+
+    private int handWrittenStages(int x) {
+        for (int i = 0; i < depth; i++) {
+            switch (i % 4) {
+                case 0:
+                    x = x + 1;
+                    break;
+                case 1:
+                    x = x * 31;
+                    break;
+                case 2:
+                    x = x ^ (x >>> 7);
+                    break;
+                default:
+                    x = x - 3;
+                    break;
+            }
+        }
+        return x;
+    }
+
+    @Benchmark
+    public void handWritten(Blackhole blackhole) {
+        for (Integer input : inputs) {
+            blackhole.consume(Integer.valueOf(handWrittenStages(input)));
+        }
+    }
+
+    @Benchmark
+    public void nestedAndThen(Blackhole blackhole) {
+        for (Integer input : inputs) {
+            blackhole.consume(nested.apply(input));
+        }
+    }
+
+    @Benchmark
+    public void functionChain(Blackhole blackhole) {
+        for (Integer input : inputs) {
+            blackhole.consume(chain.apply(input));
+        }
+    }
+
+    @Benchmark
+    public void handWrittenPair(Blackhole blackhole) {
+        for (Integer input : inputs) {
+            blackhole.consume(Integer.valueOf(handWrittenStages(input + input)));
+        }
+    }
+
+    @Benchmark
+    public void nestedPairAndThen(Blackhole blackhole) {
+        for (Integer input : inputs) {
+            blackhole.consume(nestedPair.apply(input, input));
+        }
+    }
+
+    @Benchmark
+    public void pairFunctionAndThen(Blackhole blackhole) {
+        for (Integer input : inputs) {
+            blackhole.consume(flattenedPair.apply(input, input));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.andrewjamesjohnson.streams;
+
+import com.andrewjamesjohnson.collections.IntObjectMap;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Measures the {@code toMap} and {@code toConcurrentMap} conversions of {@link RichStream} against the
+ * equivalent {@link Collectors}
+ *
+ * Unlike {@link RichStreamBenchmark}, every element is retained, so sizes stop at 10^7 to stay within a
+ * reasonable heap
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class CollectionConversionBenchmark {
+    @Param({"10", "1000", "100000", "10000000"})
+    public int size;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private Stream<Integer> source() {
+        Stream<Integer> stream = IntStream.range(0, size).boxed();
+        return parallel ? stream.parallel() : stream;
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> rawToMap() {
+        return source().collect(Collectors.toMap(Function.identity(), i -> i + 1));
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> richToMap() {
+        return RichStream.of(source()).toMap(Function.identity(), i -> i + 1);
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> richToMapAsKey() {
+        return RichStream.of(source()).toMapAsKey(i -> i + 1);
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> richToMapAsValue() {
+        return RichStream.of(source()).toMapAsValue(i -> i + 1);
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> rawToConcurrentMap() {
+        return source().collect(Collectors.toConcurrentMap(Function.identity(), i -> i + 1));
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> richToConcurrentMap() {
+        return RichStream.of(source()).toConcurrentMap(Function.identity(), i -> i + 1);
+    }
+
+    @Benchmark
+    public IntObjectMap<Integer> richToIntObjectMap() {
+        return RichStream.of(source()).toIntObjectMap(i -> i, i -> i + 1);
+    }
+}
@@ -0,0 +1,135 @@
+package com.andrewjamesjohnson.streams;
+
+import com.andrewjamesjohnson.exceptions.FunctionWithCheckedException;
+import com.andrewjamesjohnson.exceptions.PredicateWithCheckedException;
+import com.andrewjamesjohnson.metrics.InMemoryMetricsSink;
+import org.apache.commons.lang3.tuple.Pair;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Measures the overhead of {@link RichStream} operations against the equivalent plain {@link Stream} pipelines
+ *
+ * Each {@code raw} benchmark is the baseline for the {@code rich} benchmark of the same name. Elements are generated
+ * from a range rather than held in memory, so the largest sizes don't need a matching heap.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class RichStreamBenchmark {
+    @Param({"10", "1000", "100000", "10000000", "100000000"})
+    public int size;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private final Predicate<Integer> isEven = i -> (i & 1) == 0;
+    private final Function<Integer, Integer> square = i -> i * i;
+    private final PredicateWithCheckedException<Integer> checkedIsEven = i -> (i & 1) == 0;
+    private final FunctionWithCheckedException<Integer, Integer> checkedSquare = i -> i * i;
+    private final InMemoryMetricsSink metricsSink = new InMemoryMetricsSink();
+
+    private Stream<Integer> source() {
+        Stream<Integer> stream = IntStream.range(0, size).boxed();
+        return parallel ? stream.parallel() : stream;
+    }
+
+    @Benchmark
+    public void rawFilter(Blackhole blackhole) {
+        source().filter(isEven.negate()).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void richFilterNot(Blackhole blackhole) {
+        RichStream.of(source()).filterNot(isEven).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void rawMap(Blackhole blackhole) {
+        source().map(square).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void richMap(Blackhole blackhole) {
+        RichStream.of(source()).map(square).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void richMapWithCheckedException(Blackhole blackhole) {
+        RichStream.of(source()).map(checkedSquare).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void rawFilterMap(Blackhole blackhole) {
+        source().filter(isEven).map(square).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void richFilterMapWithCheckedException(Blackhole blackhole) {
+        RichStream.of(source()).filter(checkedIsEven).map(checkedSquare).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void richInstrumentedFilterMap(Blackhole blackhole) {
+        RichStream.of(source()).instrumented("benchmark", metricsSink).filter(isEven).map(square).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void rawZipWithIndex(Blackhole blackhole) {
+        // The closest plain equivalent: index a source whose elements are known to be their own positions
+        source().map(i -> Indexed.of(i, i)).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void richZipWithIndex(Blackhole blackhole) {
+        RichStream.of(source()).zipWithIndex().forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void rawZip(Blackhole blackhole) {
+        // A plain stream can only be zipped sequentially, by walking the other stream's iterator
+        Iterator<Integer> other = IntStream.range(0, size).boxed().iterator();
+        source().sequential().map(i -> Pair.of(i, other.next())).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void richZip(Blackhole blackhole) {
+        RichStream.of(source()).zip(IntStream.range(0, size).boxed()).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void richZipThenMap(Blackhole blackhole) {
+        RichStream.of(source()).zip(IntStream.range(0, size).boxed()).map(pair -> pair.getLeft() + pair.getRight())
+                .forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void richZipWith(Blackhole blackhole) {
+        RichStream.of(source()).zipWith(IntStream.range(0, size).boxed(), Integer::sum).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public void richZipWithIndexCombiner(Blackhole blackhole) {
+        RichStream.of(source()).zipWithIndex((value, index) -> value + index).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public long rawShortPipeline() {
+        return source().filter(isEven).map(square).filter(isEven.negate()).limit(size / 2).count();
+    }
+
+    @Benchmark
+    public long richShortPipeline() {
+        return RichStream.of(source()).filter(isEven).map(square).filterNot(isEven).limit(size / 2).count();
+    }
+}
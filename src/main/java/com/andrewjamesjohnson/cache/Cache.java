@@ -0,0 +1,238 @@
+package com.andrewjamesjohnson.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+
+/**
+ * Bounded, thread-safe cache loading values on demand
+ *
+ * Keys are spread over independently locked segments, each kept in access order, so lookups from the threads of
+ * a parallel stream rarely contend. Values are loaded outside the lock. Concurrent lookups of a key that is being
+ * loaded wait for that load instead of starting their own, so each value is computed once while it is cached.
+ * A load must not look up its own key in the same cache, which would wait forever.
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the values
+ */
+public final class Cache<K, V> {
+    // Entries a segment may hold before it is split further, so small caches keep an exact eviction order
+    private static final int MIN_SEGMENT_SIZE = 16;
+    private static final int LFU_SAMPLE_SIZE = 8;
+
+    /**
+     * Creates an empty cache
+     *
+     * @param policy The {@link CachePolicy} of the cache
+     * @param <K> The type of the keys
+     * @param <V> The type of the values
+     * @return The new cache
+     */
+    public static <K, V> Cache<K, V> of(CachePolicy policy) {
+        return new Cache<>(policy);
+    }
+
+    private final CachePolicy policy;
+    private final CacheStatistics statistics = new CacheStatistics();
+    private final Segment<K, V>[] segments;
+
+    @SuppressWarnings("unchecked")
+    private Cache(CachePolicy policy) {
+        this.policy = policy;
+        int count = 1;
+        long maxSegments = Math.min(4L * Runtime.getRuntime().availableProcessors(), policy.getMaxSize() / MIN_SEGMENT_SIZE);
+        while (count * 2L <= maxSegments) {
+            count *= 2;
+        }
+        segments = (Segment<K, V>[]) new Segment<?, ?>[count];
+        // Spread the remainder over the first segments, so the capacities add up to exactly the maximum size
+        long capacity = policy.getMaxSize() / count;
+        long remainder = policy.getMaxSize() % count;
+        for (int i = 0; i < count; i++) {
+            segments[i] = new Segment<>((int) Math.min(capacity + (i < remainder ? 1 : 0), Integer.MAX_VALUE));
+        }
+    }
+
+    private Segment<K, V> segmentFor(Object key) {
+        int hash = key == null ? 0 : key.hashCode();
+        hash ^= hash >>> 16;
+        return segments[hash & (segments.length - 1)];
+    }
+
+    /**
+     * Returns the value cached for a key, loading and caching it if there is none
+     *
+     * @param key The key
+     * @param loader The operation loading the value of the key
+     * @return The value of the key
+     * @throws Exception The exception thrown by the loader, or cached from an earlier load
+     */
+    public V get(K key, Callable<? extends V> loader) throws Exception {
+        long now = System.nanoTime();
+        Segment<K, V> segment = segmentFor(key);
+        Entry<V> entry;
+        Entry<V> loading = null;
+        synchronized (segment) {
+            entry = segment.map.get(key);
+            if (entry != null && isExpired(entry, now)) {
+                segment.map.remove(key);
+                entry = null;
+            }
+            if (entry == null) {
+                loading = new Entry<>();
+                segment.map.put(key, loading);
+                evict(segment);
+            } else {
+                entry.frequency++;
+                age(segment);
+            }
+        }
+        if (loading == null) {
+            statistics.recordHit();
+            return await(entry);
+        }
+        statistics.recordMiss();
+        return load(segment, key, loading, loader);
+    }
+
+    /**
+     * Returns the value cached for a key, computing and caching it if there is none
+     *
+     * See {@link #get(Object, Callable)}
+     *
+     * @param key The key
+     * @param function The function computing the value of the key
+     * @return The value of the key
+     */
+    public V computeIfAbsent(K key, Function<? super K, ? extends V> function) {
+        try {
+            return get(key, () -> function.apply(key));
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            // The function can't throw a checked exception
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private V load(Segment<K, V> segment, K key, Entry<V> entry, Callable<? extends V> loader) throws Exception {
+        V value;
+        try {
+            value = loader.call();
+        } catch (Exception | Error e) {
+            statistics.recordLoadFailure();
+            entry.loadedAt = System.nanoTime();
+            entry.future.completeExceptionally(e);
+            if (!policy.isCachingExceptions()) {
+                synchronized (segment) {
+                    segment.map.remove(key, entry);
+                }
+            }
+            throw e;
+        }
+        entry.loadedAt = System.nanoTime();
+        entry.future.complete(value);
+        return value;
+    }
+
+    private V await(Entry<V> entry) throws Exception {
+        try {
+            return entry.future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw (Exception) cause;
+        }
+    }
+
+    private boolean isExpired(Entry<V> entry, long now) {
+        long expireAfterWriteNanos = policy.getExpireAfterWriteNanos();
+        return expireAfterWriteNanos > 0 && entry.future.isDone() && now - entry.loadedAt >= expireAfterWriteNanos;
+    }
+
+    private void evict(Segment<K, V> segment) {
+        while (segment.map.size() > segment.capacity) {
+            Iterator<Entry<V>> entries = segment.map.values().iterator();
+            if (policy.getEviction() == CachePolicy.Eviction.LFU) {
+                // Entries are in access order, so the first few are the least recently used candidates
+                Entry<V> victim = entries.next();
+                for (int i = 1; i < LFU_SAMPLE_SIZE && entries.hasNext(); i++) {
+                    Entry<V> candidate = entries.next();
+                    if (candidate.frequency < victim.frequency && candidate.future.isDone()) {
+                        victim = candidate;
+                    }
+                }
+                segment.map.values().remove(victim);
+            } else {
+                entries.next();
+                entries.remove();
+            }
+            statistics.recordEviction();
+        }
+    }
+
+    /**
+     * Halves the frequencies of a segment's entries once in a while, so entries that were popular long ago don't
+     * stay cached forever
+     */
+    private void age(Segment<K, V> segment) {
+        if (policy.getEviction() == CachePolicy.Eviction.LFU && ++segment.hitsSinceAging >= 10L * segment.capacity) {
+            for (Entry<V> entry : segment.map.values()) {
+                entry.frequency >>>= 1;
+            }
+            segment.hitsSinceAging = 0;
+        }
+    }
+
+    /**
+     * @return The number of entries in the cache, including those being loaded
+     */
+    public long size() {
+        long size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.map.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Removes every entry from the cache
+     */
+    public void invalidateAll() {
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                segment.map.clear();
+            }
+        }
+    }
+
+    /**
+     * @return The statistics of this cache
+     */
+    public CacheStatistics getStatistics() {
+        return statistics;
+    }
+
+    private static final class Segment<K, V> {
+        final LinkedHashMap<K, Entry<V>> map = new LinkedHashMap<>(16, 0.75f, true);
+        final int capacity;
+        long hitsSinceAging;
+
+        Segment(int capacity) {
+            this.capacity = capacity;
+        }
+    }
+
+    private static final class Entry<V> {
+        final CompletableFuture<V> future = new CompletableFuture<>();
+        volatile long loadedAt;
+        int frequency;
+    }
+}
@@ -0,0 +1,102 @@
+package com.andrewjamesjohnson.cache;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Describes how a {@link Cache} bounds and expires its entries
+ *
+ * Policies are immutable, so one policy can be shared by any number of caches, each keeping its own
+ * {@link CacheStatistics}. By default a policy evicts the least recently used entries, never expires entries, and
+ * doesn't cache exceptions, so a failed load is retried by the next lookup.
+ */
+public final class CachePolicy {
+    /**
+     * How a full cache chooses the entry to evict
+     */
+    public enum Eviction {
+        /**
+         * Evicts the least recently used entry
+         */
+        LRU,
+        /**
+         * Evicts the least frequently used of a sample of the least recently used entries
+         */
+        LFU
+    }
+
+    /**
+     * Creates a policy bounding a cache to the given number of entries
+     *
+     * @param maxSize The maximum number of entries
+     * @return The new policy
+     */
+    public static CachePolicy maxSize(long maxSize) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        return new CachePolicy(maxSize, Eviction.LRU, 0, false);
+    }
+
+    private final long maxSize;
+    private final Eviction eviction;
+    private final long expireAfterWriteNanos;
+    private final boolean cacheExceptions;
+
+    private CachePolicy(long maxSize, Eviction eviction, long expireAfterWriteNanos, boolean cacheExceptions) {
+        this.maxSize = maxSize;
+        this.eviction = eviction;
+        this.expireAfterWriteNanos = expireAfterWriteNanos;
+        this.cacheExceptions = cacheExceptions;
+    }
+
+    /**
+     * Returns a copy of this policy that evicts entries in the given way
+     *
+     * @param eviction The {@link Eviction} to use
+     * @return The new policy
+     */
+    public CachePolicy withEviction(Eviction eviction) {
+        return new CachePolicy(maxSize, eviction, expireAfterWriteNanos, cacheExceptions);
+    }
+
+    /**
+     * Returns a copy of this policy that expires entries a fixed time after they are loaded
+     *
+     * @param duration The time after which an entry expires
+     * @param unit The unit of the duration
+     * @return The new policy
+     */
+    public CachePolicy expireAfterWrite(long duration, TimeUnit unit) {
+        if (duration < 1) {
+            throw new IllegalArgumentException("duration must be positive: " + duration);
+        }
+        return new CachePolicy(maxSize, eviction, unit.toNanos(duration), cacheExceptions);
+    }
+
+    /**
+     * Returns a copy of this policy that caches exceptions thrown by loads, rethrowing them on later lookups
+     * until the entry is evicted or expires
+     *
+     * @param cacheExceptions Whether exceptions are cached
+     * @return The new policy
+     */
+    public CachePolicy cacheExceptions(boolean cacheExceptions) {
+        return new CachePolicy(maxSize, eviction, expireAfterWriteNanos, cacheExceptions);
+    }
+
+    long getMaxSize() {
+        return maxSize;
+    }
+
+    Eviction getEviction() {
+        return eviction;
+    }
+
+    long getExpireAfterWriteNanos() {
+        return expireAfterWriteNanos;
+    }
+
+    boolean isCachingExceptions() {
+        return cacheExceptions;
+    }
+}
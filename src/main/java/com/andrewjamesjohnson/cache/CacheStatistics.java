@@ -0,0 +1,77 @@
+package com.andrewjamesjohnson.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts of the lookups made in a {@link Cache}
+ *
+ * Counters are striped, so recording lookups from parallel streams does not contend
+ */
+public final class CacheStatistics {
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder loadFailures = new LongAdder();
+
+    CacheStatistics() {
+    }
+
+    void recordHit() {
+        hits.increment();
+    }
+
+    void recordMiss() {
+        misses.increment();
+    }
+
+    void recordEviction() {
+        evictions.increment();
+    }
+
+    void recordLoadFailure() {
+        loadFailures.increment();
+    }
+
+    /**
+     * @return The number of lookups that found a value, or a value being loaded by another thread
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return The number of lookups that loaded a value
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * @return The number of entries removed to keep caches within their maximum size
+     */
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    /**
+     * @return The number of loads that threw an exception
+     */
+    public long getLoadFailures() {
+        return loadFailures.sum();
+    }
+
+    /**
+     * @return The fraction of lookups that were hits, or 1 if there were no lookups
+     */
+    public double getHitRate() {
+        long hitCount = getHits();
+        long lookups = hitCount + getMisses();
+        return lookups == 0 ? 1 : (double) hitCount / lookups;
+    }
+
+    @Override
+    public String toString() {
+        return "CacheStatistics(hits=" + getHits() + ", misses=" + getMisses() + ", evictions=" + getEvictions()
+                + ", loadFailures=" + getLoadFailures() + ")";
+    }
+}
@@ -0,0 +1,62 @@
+package com.andrewjamesjohnson.collections;
+
+/**
+ * Hashing and sizing shared by the open addressing collections
+ */
+final class Hashing {
+    static final float LOAD_FACTOR = 0.75f;
+    static final int DEFAULT_EXPECTED_SIZE = 12;
+    private static final int MAX_CAPACITY = 1 << 30;
+
+    private Hashing() {
+    }
+
+    /**
+     * Spreads the bits of a key, so that sequential keys don't occupy consecutive slots
+     */
+    static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    /**
+     * Returns the power of two table capacity needed to hold the given number of entries without resizing
+     *
+     * @param expectedSize The expected number of entries
+     * @return The capacity
+     */
+    static int capacityFor(long expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize must not be negative: " + expectedSize);
+        }
+        long needed = (long) Math.ceil(expectedSize / (double) LOAD_FACTOR);
+        if (needed >= MAX_CAPACITY) {
+            return MAX_CAPACITY;
+        }
+        return Math.max(2, Integer.highestOneBit((int) needed - 1) << 1);
+    }
+
+    /**
+     * Returns the number of entries at which a table of the given capacity is grown
+     */
+    static int resizeThreshold(int capacity) {
+        return capacity == MAX_CAPACITY ? capacity - 1 : (int) (capacity * LOAD_FACTOR);
+    }
+
+    /**
+     * Returns the doubled capacity of a full table
+     *
+     * @throws IllegalStateException If the table cannot grow any further
+     */
+    static int grow(int capacity) {
+        if (capacity == MAX_CAPACITY) {
+            throw new IllegalStateException("Collection is full");
+        }
+        return capacity << 1;
+    }
+}
@@ -0,0 +1,17 @@
+package com.andrewjamesjohnson.collections;
+
+/**
+ * Operation accepting an {@code int} key and an object value, the entries of an {@link IntObjectMap}
+ *
+ * @param <V> The type of the value
+ */
+@FunctionalInterface
+public interface IntObjectConsumer<V> {
+    /**
+     * Performs this operation on the given arguments.
+     *
+     * @param key the key
+     * @param value the value
+     */
+    void accept(int key, V value);
+}
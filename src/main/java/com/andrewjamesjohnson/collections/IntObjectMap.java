@@ -0,0 +1,375 @@
+package com.andrewjamesjohnson.collections;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.function.ToIntFunction;
+import java.util.stream.Collector;
+
+/**
+ * Map from {@code int} keys to object values that stores its keys without boxing
+ *
+ * Entries are held in a pair of arrays using open addressing with linear probing, so each entry costs an
+ * {@code int} and a reference rather than a {@code HashMap} node and a boxed key. Null values are not permitted.
+ * This class is not thread-safe.
+ *
+ * @param <V> The type of the map values
+ */
+public final class IntObjectMap<V> {
+    /**
+     * Returns a {@link Collector} that accumulates elements into an {@code IntObjectMap}
+     *
+     * @param keyFunction A {@code ToIntFunction} on elements to produce the map keys
+     * @param valueFunction A {@code Function} on elements to produce the map values
+     * @param <T> The type of the elements
+     * @param <V> The type of the map values
+     * @return The new {@code Collector}
+     * @throws IllegalStateException From the collector, if two elements have the same key
+     */
+    public static <T, V> Collector<T, ?, IntObjectMap<V>> collector(ToIntFunction<? super T> keyFunction,
+                                                                      Function<? super T, ? extends V> valueFunction) {
+        return Collector.of(
+                IntObjectMap::new,
+                (map, element) -> map.putUnique(keyFunction.applyAsInt(element), valueFunction.apply(element)),
+                (first, second) -> {
+                    second.forEach(first::putUnique);
+                    return first;
+                });
+    }
+
+    /**
+     * Returns a {@link Collector} that accumulates elements into an {@code IntObjectMap}, merging the values
+     * of elements with the same key
+     *
+     * @param keyFunction A {@code ToIntFunction} on elements to produce the map keys
+     * @param valueFunction A {@code Function} on elements to produce the map values
+     * @param mergeFunction A {@code BinaryOperator} combining the values of elements with the same key
+     * @param <T> The type of the elements
+     * @param <V> The type of the map values
+     * @return The new {@code Collector}
+     */
+    public static <T, V> Collector<T, ?, IntObjectMap<V>> collector(ToIntFunction<? super T> keyFunction,
+                                                                      Function<? super T, ? extends V> valueFunction,
+                                                                      BinaryOperator<V> mergeFunction) {
+        return Collector.of(
+                IntObjectMap::new,
+                (map, element) -> map.merge(keyFunction.applyAsInt(element), valueFunction.apply(element), mergeFunction),
+                (first, second) -> {
+                    second.forEach((key, value) -> first.merge(key, value, mergeFunction));
+                    return first;
+                });
+    }
+
+    private int[] keys;
+    // A null value marks a free slot, so no key value needs to be reserved
+    private Object[] values;
+    private int size;
+    private int mask;
+    private int resizeAt;
+
+    /**
+     * Creates an empty map
+     */
+    public IntObjectMap() {
+        this(Hashing.DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * Creates an empty map that can hold the given number of entries without resizing
+     *
+     * @param expectedSize The expected number of entries
+     */
+    public IntObjectMap(int expectedSize) {
+        allocate(Hashing.capacityFor(expectedSize));
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeAt = Hashing.resizeThreshold(capacity);
+    }
+
+    /**
+     * Returns the slot holding the given key, or the free slot where it would be inserted
+     */
+    private int slot(int key) {
+        int i = Hashing.mix(key) & mask;
+        while (values[i] != null && keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    /**
+     * @param key The key
+     * @return The value for the key, or null if the map doesn't contain it
+     */
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        return (V) values[slot(key)];
+    }
+
+    /**
+     * @param key The key
+     * @param defaultValue The value to return if the map doesn't contain the key
+     * @return The value for the key, or {@code defaultValue} if the map doesn't contain it
+     */
+    public V getOrDefault(int key, V defaultValue) {
+        V value = get(key);
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * @param key The key
+     * @return true if the map contains the key
+     */
+    public boolean containsKey(int key) {
+        return values[slot(key)] != null;
+    }
+
+    /**
+     * Associates a value with a key, replacing any existing value
+     *
+     * @param key The key
+     * @param value The value
+     * @return The previous value for the key, or null if there was none
+     */
+    @SuppressWarnings("unchecked")
+    public V put(int key, V value) {
+        Objects.requireNonNull(value);
+        int i = slot(key);
+        V previous = (V) values[i];
+        if (previous == null) {
+            insert(i, key, value);
+        } else {
+            values[i] = value;
+        }
+        return previous;
+    }
+
+    /**
+     * Associates a value with a key if the map doesn't already contain the key
+     *
+     * @param key The key
+     * @param value The value
+     * @return The existing value for the key, or null if the value was added
+     */
+    @SuppressWarnings("unchecked")
+    public V putIfAbsent(int key, V value) {
+        Objects.requireNonNull(value);
+        int i = slot(key);
+        V existing = (V) values[i];
+        if (existing == null) {
+            insert(i, key, value);
+        }
+        return existing;
+    }
+
+    private void putUnique(int key, V value) {
+        if (putIfAbsent(key, value) != null) {
+            throw new IllegalStateException("Duplicate key " + key);
+        }
+    }
+
+    /**
+     * Associates a value with a key, or combines it with the existing value for the key
+     *
+     * @param key The key
+     * @param value The value
+     * @param mergeFunction A {@code BinaryOperator} combining the existing value with the new one,
+     *                      or returning null to remove the key
+     * @return The new value for the key, or null if it was removed
+     */
+    @SuppressWarnings("unchecked")
+    public V merge(int key, V value, BinaryOperator<V> mergeFunction) {
+        Objects.requireNonNull(value);
+        int i = slot(key);
+        V existing = (V) values[i];
+        if (existing == null) {
+            insert(i, key, value);
+            return value;
+        }
+        V merged = mergeFunction.apply(existing, value);
+        if (merged == null) {
+            delete(i);
+        } else {
+            values[i] = merged;
+        }
+        return merged;
+    }
+
+    /**
+     * Removes a key from the map
+     *
+     * @param key The key
+     * @return The value for the key, or null if the map didn't contain it
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(int key) {
+        int i = slot(key);
+        V previous = (V) values[i];
+        if (previous != null) {
+            delete(i);
+        }
+        return previous;
+    }
+
+    private void insert(int i, int key, V value) {
+        if (size >= resizeAt) {
+            rehash(Hashing.grow(keys.length));
+            i = slot(key);
+        }
+        keys[i] = key;
+        values[i] = value;
+        size++;
+    }
+
+    /**
+     * Empties a slot, shifting back any later entries of the same probe sequence so that none are cut off from
+     * their home slot
+     */
+    private void delete(int gap) {
+        values[gap] = null;
+        size--;
+        int i = gap;
+        while (true) {
+            i = (i + 1) & mask;
+            if (values[i] == null) {
+                return;
+            }
+            int home = Hashing.mix(keys[i]) & mask;
+            boolean reachable = gap <= i ? gap < home && home <= i : gap < home || home <= i;
+            if (!reachable) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                values[i] = null;
+                gap = i;
+            }
+        }
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != null) {
+                int slot = slot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * @return The number of entries in the map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if the map contains no entries
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all entries from the map
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+        size = 0;
+    }
+
+    /**
+     * Performs an action on each entry of the map, in no particular order
+     *
+     * @param action The action to perform
+     */
+    @SuppressWarnings("unchecked")
+    public void forEach(IntObjectConsumer<? super V> action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] != null) {
+                action.accept(keys[i], (V) values[i]);
+            }
+        }
+    }
+
+    /**
+     * @return A new array of the keys in the map, in no particular order
+     */
+    public int[] keys() {
+        int[] result = new int[size];
+        int j = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] != null) {
+                result[j++] = keys[i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return A new list of the values in the map, in no particular order
+     */
+    @SuppressWarnings("unchecked")
+    public List<V> values() {
+        List<V> result = new ArrayList<>(size);
+        for (Object value : values) {
+            if (value != null) {
+                result.add((V) value);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof IntObjectMap)) {
+            return false;
+        }
+        IntObjectMap<?> other = (IntObjectMap<?>) obj;
+        if (size != other.size) {
+            return false;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] != null && !values[i].equals(other.get(keys[i]))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        // Matches the hash code of an equivalent java.util.Map<Integer, V>
+        int hash = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (values[i] != null) {
+                hash += Integer.hashCode(keys[i]) ^ values[i].hashCode();
+            }
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        forEach((key, value) -> {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(key).append('=').append(value);
+        });
+        return builder.append('}').toString();
+    }
+}
@@ -0,0 +1,17 @@
+package com.andrewjamesjohnson.collections;
+
+/**
+ * Operation accepting an {@code long} key and an object value, the entries of an {@link LongObjectMap}
+ *
+ * @param <V> The type of the value
+ */
+@FunctionalInterface
+public interface LongObjectConsumer<V> {
+    /**
+     * Performs this operation on the given arguments.
+     *
+     * @param key the key
+     * @param value the value
+     */
+    void accept(long key, V value);
+}
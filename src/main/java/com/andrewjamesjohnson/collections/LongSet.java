@@ -0,0 +1,247 @@
+package com.andrewjamesjohnson.collections;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Set of {@code long} values that stores its elements without boxing
+ *
+ * Elements are held in a single array using open addressing with linear probing, with zero marking a free slot
+ * and tracked separately when it is an element. This class is not thread-safe.
+ */
+public final class LongSet {
+    private long[] elements;
+    private boolean containsZero;
+    private int size;
+    private int mask;
+    private int resizeAt;
+
+    /**
+     * Creates an empty set
+     */
+    public LongSet() {
+        this(Hashing.DEFAULT_EXPECTED_SIZE);
+    }
+
+    /**
+     * Creates an empty set that can hold the given number of elements without resizing
+     *
+     * @param expectedSize The expected number of elements
+     */
+    public LongSet(int expectedSize) {
+        allocate(Hashing.capacityFor(expectedSize));
+    }
+
+    private void allocate(int capacity) {
+        elements = new long[capacity];
+        mask = capacity - 1;
+        resizeAt = Hashing.resizeThreshold(capacity);
+    }
+
+    /**
+     * Returns the slot holding the given non-zero element, or the free slot where it would be inserted
+     */
+    private int slot(long element) {
+        int i = Hashing.mix(element) & mask;
+        while (elements[i] != 0 && elements[i] != element) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    /**
+     * @param element The element
+     * @return true if the set contains the element
+     */
+    public boolean contains(long element) {
+        return element == 0 ? containsZero : elements[slot(element)] != 0;
+    }
+
+    /**
+     * Adds an element to the set
+     *
+     * @param element The element
+     * @return true if the set didn't already contain the element
+     */
+    public boolean add(long element) {
+        if (element == 0) {
+            if (containsZero) {
+                return false;
+            }
+            containsZero = true;
+            size++;
+            return true;
+        }
+        int i = slot(element);
+        if (elements[i] != 0) {
+            return false;
+        }
+        if (size >= resizeAt) {
+            rehash(Hashing.grow(elements.length));
+            i = slot(element);
+        }
+        elements[i] = element;
+        size++;
+        return true;
+    }
+
+    /**
+     * Adds all elements of another set to this one
+     *
+     * @param other The other set
+     */
+    public void addAll(LongSet other) {
+        other.forEach(this::add);
+    }
+
+    /**
+     * Removes an element from the set
+     *
+     * @param element The element
+     * @return true if the set contained the element
+     */
+    public boolean remove(long element) {
+        if (element == 0) {
+            if (!containsZero) {
+                return false;
+            }
+            containsZero = false;
+            size--;
+            return true;
+        }
+        int i = slot(element);
+        if (elements[i] == 0) {
+            return false;
+        }
+        delete(i);
+        return true;
+    }
+
+    /**
+     * Empties a slot, shifting back any later elements of the same probe sequence so that none are cut off from
+     * their home slot
+     */
+    private void delete(int gap) {
+        elements[gap] = 0;
+        size--;
+        int i = gap;
+        while (true) {
+            i = (i + 1) & mask;
+            if (elements[i] == 0) {
+                return;
+            }
+            int home = Hashing.mix(elements[i]) & mask;
+            boolean reachable = gap <= i ? gap < home && home <= i : gap < home || home <= i;
+            if (!reachable) {
+                elements[gap] = elements[i];
+                elements[i] = 0;
+                gap = i;
+            }
+        }
+    }
+
+    private void rehash(int capacity) {
+        long[] oldElements = elements;
+        allocate(capacity);
+        for (long element : oldElements) {
+            if (element != 0) {
+                elements[slot(element)] = element;
+            }
+        }
+    }
+
+    /**
+     * @return The number of elements in the set
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return true if the set contains no elements
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Removes all elements from the set
+     */
+    public void clear() {
+        Arrays.fill(elements, 0);
+        containsZero = false;
+        size = 0;
+    }
+
+    /**
+     * Performs an action on each element of the set, in no particular order
+     *
+     * @param action The action to perform
+     */
+    public void forEach(LongConsumer action) {
+        if (containsZero) {
+            action.accept(0);
+        }
+        for (long element : elements) {
+            if (element != 0) {
+                action.accept(element);
+            }
+        }
+    }
+
+    /**
+     * @return A new array of the elements in the set, in no particular order
+     */
+    public long[] toArray() {
+        long[] result = new long[size];
+        int j = containsZero ? 1 : 0;
+        for (long element : elements) {
+            if (element != 0) {
+                result[j++] = element;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof LongSet)) {
+            return false;
+        }
+        LongSet other = (LongSet) obj;
+        if (size != other.size || containsZero != other.containsZero) {
+            return false;
+        }
+        for (long element : elements) {
+            if (element != 0 && !other.contains(element)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public int hashCode() {
+        // Matches the hash code of an equivalent java.util.Set<Long>
+        int hash = 0;
+        for (long element : elements) {
+            hash += Long.hashCode(element);
+        }
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("[");
+        forEach(element -> {
+            if (builder.length() > 1) {
+                builder.append(", ");
+            }
+            builder.append(element);
+        });
+        return builder.append(']').toString();
+    }
+}
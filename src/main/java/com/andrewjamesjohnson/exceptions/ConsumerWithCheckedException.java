@@ -22,7 +22,20 @@ public interface ConsumerWithCheckedException<T> extends Consumer<T> {
         try {
             acceptWithCheckedException(t);
         } catch (Exception e) {
-            throw new LambdaWrappedCheckedException(e);
+            throw LambdaWrappedCheckedException.wrap(e);
         }
     }
+
+    /**
+     * Returns a consumer that retries this consumer according to the given policy
+     *
+     * @param policy The {@link RetryPolicy} to apply
+     * @return The retrying consumer
+     */
+    default ConsumerWithCheckedException<T> withRetry(RetryPolicy policy) {
+        return t -> policy.call(() -> {
+            acceptWithCheckedException(t);
+            return null;
+        });
+    }
 }
@@ -0,0 +1,28 @@
+package com.andrewjamesjohnson.exceptions;
+
+import java.util.function.DoubleBinaryOperator;
+
+/**
+ * {@link DoubleBinaryOperator} implementation that allows throwing checked exceptions
+ */
+@FunctionalInterface
+public interface DoubleBinaryOperatorWithCheckedException extends DoubleBinaryOperator {
+    /**
+     * Applies this operator to the given operands.
+     *
+     * @param left the first operand
+     * @param right the second operand
+     * @return the operator result
+     * @throws Exception any checked exception
+     */
+    double applyAsDoubleWithCheckedException(double left, double right) throws Exception;
+
+    @Override
+    default double applyAsDouble(double left, double right) {
+        try {
+            return applyAsDoubleWithCheckedException(left, right);
+        } catch (Exception e) {
+            throw LambdaWrappedCheckedException.wrap(e);
+        }
+    }
+}
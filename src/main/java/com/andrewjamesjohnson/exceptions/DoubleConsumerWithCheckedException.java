@@ -0,0 +1,26 @@
+package com.andrewjamesjohnson.exceptions;
+
+import java.util.function.DoubleConsumer;
+
+/**
+ * {@link DoubleConsumer} implementation that allows throwing checked exceptions
+ */
+@FunctionalInterface
+public interface DoubleConsumerWithCheckedException extends DoubleConsumer {
+    /**
+     * Performs this operation on the given argument.
+     *
+     * @param value the input argument
+     * @throws Exception any checked exception
+     */
+    void acceptWithCheckedException(double value) throws Exception;
+
+    @Override
+    default void accept(double value) {
+        try {
+            acceptWithCheckedException(value);
+        } catch (Exception e) {
+            throw LambdaWrappedCheckedException.wrap(e);
+        }
+    }
+}
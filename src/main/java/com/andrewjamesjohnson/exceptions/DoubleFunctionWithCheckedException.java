@@ -0,0 +1,29 @@
+package com.andrewjamesjohnson.exceptions;
+
+import java.util.function.DoubleFunction;
+
+/**
+ * {@link DoubleFunction} implementation that allows throwing checked exceptions
+ *
+ * @param <R> the type of the result of the function
+ */
+@FunctionalInterface
+public interface DoubleFunctionWithCheckedException<R> extends DoubleFunction<R> {
+    /**
+     * Applies this function to the given argument.
+     *
+     * @param value the function argument
+     * @return the function result
+     * @throws Exception any checked exception
+     */
+    R applyWithCheckedException(double value) throws Exception;
+
+    @Override
+    default R apply(double value) {
+        try {
+            return applyWithCheckedException(value);
+        } catch (Exception e) {
+            throw LambdaWrappedCheckedException.wrap(e);
+        }
+    }
+}
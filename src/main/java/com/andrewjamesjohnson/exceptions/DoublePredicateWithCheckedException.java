@@ -0,0 +1,28 @@
+package com.andrewjamesjohnson.exceptions;
+
+import java.util.function.DoublePredicate;
+
+/**
+ * {@link DoublePredicate} implementation that allows throwing checked exceptions
+ */
+@FunctionalInterface
+public interface DoublePredicateWithCheckedException extends DoublePredicate {
+    /**
+     * Evaluates this predicate on the given argument.
+     *
+     * @param value the input argument
+     * @return {@code true} if the input argument matches the predicate,
+     * otherwise {@code false}
+     * @throws Exception any checked exception
+     */
+    boolean testWithCheckedException(double value) throws Exception;
+
+    @Override
+    default boolean test(double value) {
+        try {
+            return testWithCheckedException(value);
+        } catch (Exception e) {
+            throw LambdaWrappedCheckedException.wrap(e);
+        }
+    }
+}
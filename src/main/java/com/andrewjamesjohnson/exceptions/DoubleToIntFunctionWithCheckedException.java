@@ -0,0 +1,27 @@
+package com.andrewjamesjohnson.exceptions;
+
+import java.util.function.DoubleToIntFunction;
+
+/**
+ * {@link DoubleToIntFunction} implementation that allows throwing checked exceptions
+ */
+@FunctionalInterface
+public interface DoubleToIntFunctionWithCheckedException extends DoubleToIntFunction {
+    /**
+     * Applies this function to the given argument.
+     *
+     * @param value the function argument
+     * @return the function result
+     * @throws Exception any checked exception
+     */
+    int applyAsIntWithCheckedException(double value) throws Exception;
+
+    @Override
+    default int applyAsInt(double value) {
+        try {
+            return applyAsIntWithCheckedException(value);
+        } catch (Exception e) {
+            throw LambdaWrappedCheckedException.wrap(e);
+        }
+    }
+}
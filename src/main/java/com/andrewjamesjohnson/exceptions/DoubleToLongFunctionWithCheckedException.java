@@ -0,0 +1,27 @@
+package com.andrewjamesjohnson.exceptions;
+
+import java.util.function.DoubleToLongFunction;
+
+/**
+ * {@link DoubleToLongFunction} implementation that allows throwing checked exceptions
+ */
+@FunctionalInterface
+public interface DoubleToLongFunctionWithCheckedException extends DoubleToLongFunction {
+    /**
+     * Applies this function to the given argument.
+     *
+     * @param value the function argument
+     * @return the function result
+     * @throws Exception any checked exception
+     */
+    long applyAsLongWithCheckedException(double value) throws Exception;
+
+    @Override
+    default long applyAsLong(double value) {
+        try {
+            return applyAsLongWithCheckedException(value);
+        } catch (Exception e) {
+            throw LambdaWrappedCheckedException.wrap(e);
+        }
+    }
+}
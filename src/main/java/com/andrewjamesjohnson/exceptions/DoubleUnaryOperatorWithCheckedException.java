@@ -0,0 +1,27 @@
+package com.andrewjamesjohnson.exceptions;
+
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * {@link DoubleUnaryOperator} implementation that allows throwing checked exceptions
+ */
+@FunctionalInterface
+public interface DoubleUnaryOperatorWithCheckedException extends DoubleUnaryOperator {
+    /**
+     * Applies this operator to the given operand.
+     *
+     * @param operand the operand
+     * @return the operator result
+     * @throws Exception any checked exception
+     */
+    double applyAsDoubleWithCheckedException(double operand) throws Exception;
+
+    @Override
+    default double applyAsDouble(double operand) {
+        try {
+            return applyAsDoubleWithCheckedException(operand);
+        } catch (Exception e) {
+            throw LambdaWrappedCheckedException.wrap(e);
+        }
+    }
+}
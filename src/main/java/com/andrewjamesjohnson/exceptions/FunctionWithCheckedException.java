@@ -1,5 +1,8 @@
 package com.andrewjamesjohnson.exceptions;
 
+import com.andrewjamesjohnson.cache.Cache;
+import com.andrewjamesjohnson.cache.CachePolicy;
+
 import java.util.function.Function;
 
 /**
@@ -24,7 +27,55 @@ public interface FunctionWithCheckedException<T, R> extends Function<T, R> {
         try {
             return applyWithCheckedException(t);
         } catch (Exception e) {
-            throw new LambdaWrappedCheckedException(e);
+            throw LambdaWrappedCheckedException.wrap(e);
         }
     }
+
+    /**
+     * Returns a function that retries this function according to the given policy
+     *
+     * @param policy The {@link RetryPolicy} to apply
+     * @return The retrying function
+     */
+    default FunctionWithCheckedException<T, R> withRetry(RetryPolicy policy) {
+        return t -> policy.call(() -> applyWithCheckedException(t));
+    }
+
+    /**
+     * Returns a function that caches the results of this function, evicting the least recently used
+     *
+     * See {@link #memoized(CachePolicy)}
+     *
+     * @param maxSize The maximum number of results to cache
+     * @return The memoizing function
+     */
+    default FunctionWithCheckedException<T, R> memoized(long maxSize) {
+        return memoized(CachePolicy.maxSize(maxSize));
+    }
+
+    /**
+     * Returns a function that caches the results of this function by argument
+     *
+     * This function must be deterministic. Whether its exceptions are cached as well is up to the policy. The
+     * returned function is thread-safe, and is meant to be shared across a parallel stream.
+     *
+     * @param policy The {@link CachePolicy} of the cache
+     * @return The memoizing function
+     */
+    default FunctionWithCheckedException<T, R> memoized(CachePolicy policy) {
+        return memoized(Cache.of(policy));
+    }
+
+    /**
+     * Returns a function that caches the results of this function by argument in the given cache
+     *
+     * See {@link #memoized(CachePolicy)}. Passing a cache in lets the caller read its {@link Cache#getStatistics()}
+     * or clear it.
+     *
+     * @param cache The cache to store results in, which should not be shared with other functions
+     * @return The memoizing function
+     */
+    default FunctionWithCheckedException<T, R> memoized(Cache<T, R> cache) {
+        return t -> cache.get(t, () -> applyWithCheckedException(t));
+    }
 }
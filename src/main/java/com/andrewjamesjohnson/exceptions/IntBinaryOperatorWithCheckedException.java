@@ -0,0 +1,28 @@
+package com.andrewjamesjohnson.exceptions;
+
+import java.util.function.IntBinaryOperator;
+
+/**
+ * {@link IntBinaryOperator} implementation that allows throwing checked exceptions
+ */
+@FunctionalInterface
+public interface IntBinaryOperatorWithCheckedException extends IntBinaryOperator {
+    /**
+     * Applies this operator to the given operands.
+     *
+     * @param left the first operand
+     * @param right the second operand
+     * @return the operator result
+     * @throws Exception any checked exception
+     */
+    int applyAsIntWithCheckedException(int left, int right) throws Exception;
+
+    @Override
+    default int applyAsInt(int left, int right) {
+        try {
+            return applyAsIntWithCheckedException(left, right);
+        } catch (Exception e) {
+            throw LambdaWrappedCheckedException.wrap(e);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.andrewjamesjohnson.exceptions;
+
+import java.util.function.IntConsumer;
+
+/**
+ * {@link IntConsumer} implementation that allows throwing checked exceptions
+ */
+@FunctionalInterface
+public interface IntConsumerWithCheckedException extends IntConsumer {
+    /**
+     * Performs this operation on the given argument.
+     *
+     * @param value the input argument
+     * @throws Exception any checked exception
+     */
+    void acceptWithCheckedException(int value) throws Exception;
+
+    @Override
+    default void accept(int value) {
+        try {
+            acceptWithCheckedException(value);
+        } catch (Exception e) {
+            throw LambdaWrappedCheckedException.wrap(e);
+        }
+    }
+}
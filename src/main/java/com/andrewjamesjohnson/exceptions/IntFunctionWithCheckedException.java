@@ -0,0 +1,29 @@
+package com.andrewjamesjohnson.exceptions;
+
+import java.util.function.IntFunction;
+
+/**
+ * {@link IntFunction} implementation that allows throwing checked exceptions
+ *
+ * @param <R> the type of the result of the function
+ */
+@FunctionalInterface
+public interface IntFunctionWithCheckedException<R> extends IntFunction<R> {
+    /**
+     * Applies this function to the given argument.
+     *
+     * @param value the function argument
+     * @return the function result
+     * @throws Exception any checked exception
+     */
+    R applyWithCheckedException(int value) throws Exception;
+
+    @Override
+    default R apply(int value) {
+        try {
+            return applyWithCheckedException(value);
+        } catch (Exception e) {
+            throw LambdaWrappedCheckedException.wrap(e);
+        }
+    }
+}
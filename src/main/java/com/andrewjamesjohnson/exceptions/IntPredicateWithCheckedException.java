@@ -0,0 +1,28 @@
+package com.andrewjamesjohnson.exceptions;
+
+import java.util.function.IntPredicate;
+
+/**
+ * {@link IntPredicate} implementation that allows throwing checked exceptions
+ */
+@FunctionalInterface
+public interface IntPredicateWithCheckedException extends IntPredicate {
+    /**
+     * Evaluates this predicate on the given argument.
+     *
+     * @param value the input argument
+     * @return {@code true} if the input argument matches the predicate,
+     * otherwise {@code false}
+     * @throws Exception any checked exception
+     */
+    boolean testWithCheckedException(int value) throws Exception;
+
+    @Override
+    default boolean test(int value) {
+        try {
+            return testWithCheckedException(value);
+        } catch (Exception e) {
+            throw LambdaWrappedCheckedException.wrap(e);
+        }
+    }
+}
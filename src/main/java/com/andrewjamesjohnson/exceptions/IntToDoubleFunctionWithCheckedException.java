@@ -0,0 +1,27 @@
+package com.andrewjamesjohnson.exceptions;
+
+import java.util.function.IntToDoubleFunction;
+
+/**
+ * {@link IntToDoubleFunction} implementation that allows throwing checked exceptions
+ */
+@FunctionalInterface
+public interface IntToDoubleFunctionWithCheckedException extends IntToDoubleFunction {
+    /**
+     * Applies this function to the given argument.
+     *
+     * @param value the function argument
+     * @return the function result
+     * @throws Exception any checked exception
+     */
+    double applyAsDoubleWithCheckedException(int value) throws Exception;
+
+    @Override
+    default double applyAsDouble(int value) {
+        try {
+            return applyAsDoubleWithCheckedException(value);
+        } catch (Exception e) {
+            throw LambdaWrappedCheckedException.wrap(e);
+        }
+    }
+}
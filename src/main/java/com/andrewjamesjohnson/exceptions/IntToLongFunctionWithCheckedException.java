@@ -0,0 +1,27 @@
+package com.andrewjamesjohnson.exceptions;
+
+import java.util.function.IntToLongFunction;
+
+/**
+ * {@link IntToLongFunction} implementation that allows throwing checked exceptions
+ */
+@FunctionalInterface
+public interface IntToLongFunctionWithCheckedException extends IntToLongFunction {
+    /**
+     * Applies this function to the given argument.
+     *
+     * @param value the function argument
+     * @return the function result
+     * @throws Exception any checked exception
+     */
+    long applyAsLongWithCheckedException(int value) throws Exception;
+
+    @Override
+    default long applyAsLong(int value) {
+        try {
+            return applyAsLongWithCheckedException(value);
+        } catch (Exception e) {
+            throw LambdaWrappedCheckedException.wrap(e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.andrewjamesjohnson.exceptions;
+
+import java.util.function.IntUnaryOperator;
+
+/**
+ * {@link IntUnaryOperator} implementation that allows throwing checked exceptions
+ */
+@FunctionalInterface
+public interface IntUnaryOperatorWithCheckedException extends IntUnaryOperator {
+    /**
+     * Applies this operator to the given operand.
+     *
+     * @param operand the operand
+     * @return the operator result
+     * @throws Exception any checked exception
+     */
+    int applyAsIntWithCheckedException(int operand) throws Exception;
+
+    @Override
+    default int applyAsInt(int operand) {
+        try {
+            return applyAsIntWithCheckedException(operand);
+        } catch (Exception e) {
+            throw LambdaWrappedCheckedException.wrap(e);
+        }
+    }
+}
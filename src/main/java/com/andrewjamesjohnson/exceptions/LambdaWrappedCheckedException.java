@@ -1,9 +1,89 @@
 package com.andrewjamesjohnson.exceptions;
 
+import java.util.function.Supplier;
+
 /**
  * Unchecked exception used to wrap checked exceptions thrown inside of a lambda expression
+ *
+ * By default a stack trace is captured for each wrapper. As the wrapped exception already carries its own
+ * stack trace, this can be disabled with {@link #setStackTraceEnabled(boolean)} or by setting the
+ * {@value #STACKLESS_PROPERTY} system property to {@code true}, which makes wrapping considerably cheaper
+ * when checked exceptions are expected to be thrown frequently.
  */
 public class LambdaWrappedCheckedException extends RuntimeException {
+    /**
+     * System property that disables capturing stack traces for wrapped exceptions when set to {@code true}
+     */
+    public static final String STACKLESS_PROPERTY = "com.andrewjamesjohnson.exceptions.stackless";
+
+    private static volatile boolean stackTraceEnabled = !Boolean.getBoolean(STACKLESS_PROPERTY);
+
+    /**
+     * Sets whether wrapped exceptions capture their own stack trace
+     *
+     * @param enabled false to create wrappers without a stack trace
+     */
+    public static void setStackTraceEnabled(boolean enabled) {
+        stackTraceEnabled = enabled;
+    }
+
+    /**
+     * @return Whether wrapped exceptions capture their own stack trace
+     */
+    public static boolean isStackTraceEnabled() {
+        return stackTraceEnabled;
+    }
+
+    /**
+     * Wraps a checked exception, capturing a stack trace only if enabled
+     *
+     * @param cause The exception to wrap
+     * @return The new wrapper
+     */
+    public static LambdaWrappedCheckedException wrap(Exception cause) {
+        if (stackTraceEnabled) {
+            return new LambdaWrappedCheckedException(cause);
+        }
+        return new LambdaWrappedCheckedException(cause == null ? null : cause.toString(), cause, true, false);
+    }
+
+    /**
+     * Performs an operation, rethrowing the original checked exception if it was wrapped by a lambda
+     *
+     * Intended to surround the terminal operation of a stream, e.g.
+     * {@code unwrap(IOException.class, () -> stream.map(this::read).toList())}
+     *
+     * @param exceptionClass The type of checked exception to unwrap
+     * @param operation The operation to perform
+     * @param <R> The type of the result of the operation
+     * @param <E> The type of checked exception to unwrap
+     * @return The result of the operation
+     * @throws E If the operation threw a wrapped exception of this type
+     */
+    public static <R, E extends Exception> R unwrap(Class<E> exceptionClass, Supplier<R> operation) throws E {
+        try {
+            return operation.get();
+        } catch (LambdaWrappedCheckedException e) {
+            throw e.unwrap(exceptionClass);
+        }
+    }
+
+    /**
+     * Performs an operation, rethrowing the original checked exception if it was wrapped by a lambda
+     *
+     * @param exceptionClass The type of checked exception to unwrap
+     * @param operation The operation to perform
+     * @param <E> The type of checked exception to unwrap
+     * @throws E If the operation threw a wrapped exception of this type
+     */
+    public static <E extends Exception> void unwrap(Class<E> exceptionClass, Runnable operation) throws E {
+        try {
+            operation.run();
+        } catch (LambdaWrappedCheckedException e) {
+            throw e.unwrap(exceptionClass);
+        }
+    }
+
     public LambdaWrappedCheckedException() {
     }
 
@@ -22,4 +102,26 @@ public class LambdaWrappedCheckedException extends RuntimeException {
     public LambdaWrappedCheckedException(String message, Throwable cause, boolean enableSuppression, boolean writableStackTrace) {
         super(message, cause, enableSuppression, writableStackTrace);
     }
+
+    /**
+     * Returns the wrapped exception if it is of the given type, so that it can be rethrown
+     *
+     * When a parallel stream rethrows this exception in a thread other than the one that threw it, ForkJoinTask
+     * may throw a copy wrapping the original instead, so the exception is looked for beneath any such copies
+     *
+     * @param exceptionClass The type of checked exception to unwrap
+     * @param <E> The type of checked exception to unwrap
+     * @return The wrapped exception
+     * @throws LambdaWrappedCheckedException This exception, if the wrapped exception is not of the given type
+     */
+    public <E extends Exception> E unwrap(Class<E> exceptionClass) {
+        Throwable cause = getCause();
+        while (cause instanceof LambdaWrappedCheckedException && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (exceptionClass.isInstance(cause)) {
+            return exceptionClass.cast(cause);
+        }
+        throw this;
+    }
 }
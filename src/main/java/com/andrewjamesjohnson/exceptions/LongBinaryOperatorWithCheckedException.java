@@ -0,0 +1,28 @@
+package com.andrewjamesjohnson.exceptions;
+
+import java.util.function.LongBinaryOperator;
+
+/**
+ * {@link LongBinaryOperator} implementation that allows throwing checked exceptions
+ */
+@FunctionalInterface
+public interface LongBinaryOperatorWithCheckedException extends LongBinaryOperator {
+    /**
+     * Applies this operator to the given operands.
+     *
+     * @param left the first operand
+     * @param right the second operand
+     * @return the operator result
+     * @throws Exception any checked exception
+     */
+    long applyAsLongWithCheckedException(long left, long right) throws Exception;
+
+    @Override
+    default long applyAsLong(long left, long right) {
+        try {
+            return applyAsLongWithCheckedException(left, right);
+        } catch (Exception e) {
+            throw LambdaWrappedCheckedException.wrap(e);
+        }
+    }
+}
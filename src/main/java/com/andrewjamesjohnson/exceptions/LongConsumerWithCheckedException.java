@@ -0,0 +1,26 @@
+package com.andrewjamesjohnson.exceptions;
+
+import java.util.function.LongConsumer;
+
+/**
+ * {@link LongConsumer} implementation that allows throwing checked exceptions
+ */
+@FunctionalInterface
+public interface LongConsumerWithCheckedException extends LongConsumer {
+    /**
+     * Performs this operation on the given argument.
+     *
+     * @param value the input argument
+     * @throws Exception any checked exception
+     */
+    void acceptWithCheckedException(long value) throws Exception;
+
+    @Override
+    default void accept(long value) {
+        try {
+            acceptWithCheckedException(value);
+        } catch (Exception e) {
+            throw LambdaWrappedCheckedException.wrap(e);
+        }
+    }
+}
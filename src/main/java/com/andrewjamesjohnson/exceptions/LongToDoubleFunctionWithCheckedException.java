@@ -0,0 +1,27 @@
+package com.andrewjamesjohnson.exceptions;
+
+import java.util.function.LongToDoubleFunction;
+
+/**
+ * {@link LongToDoubleFunction} implementation that allows throwing checked exceptions
+ */
+@FunctionalInterface
+public interface LongToDoubleFunctionWithCheckedException extends LongToDoubleFunction {
+    /**
+     * Applies this function to the given argument.
+     *
+     * @param value the function argument
+     * @return the function result
+     * @throws Exception any checked exception
+     */
+    double applyAsDoubleWithCheckedException(long value) throws Exception;
+
+    @Override
+    default double applyAsDouble(long value) {
+        try {
+            return applyAsDoubleWithCheckedException(value);
+        } catch (Exception e) {
+            throw LambdaWrappedCheckedException.wrap(e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.andrewjamesjohnson.exceptions;
+
+import java.util.function.LongToIntFunction;
+
+/**
+ * {@link LongToIntFunction} implementation that allows throwing checked exceptions
+ */
+@FunctionalInterface
+public interface LongToIntFunctionWithCheckedException extends LongToIntFunction {
+    /**
+     * Applies this function to the given argument.
+     *
+     * @param value the function argument
+     * @return the function result
+     * @throws Exception any checked exception
+     */
+    int applyAsIntWithCheckedException(long value) throws Exception;
+
+    @Override
+    default int applyAsInt(long value) {
+        try {
+            return applyAsIntWithCheckedException(value);
+        } catch (Exception e) {
+            throw LambdaWrappedCheckedException.wrap(e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.andrewjamesjohnson.exceptions;
+
+import java.util.function.LongUnaryOperator;
+
+/**
+ * {@link LongUnaryOperator} implementation that allows throwing checked exceptions
+ */
+@FunctionalInterface
+public interface LongUnaryOperatorWithCheckedException extends LongUnaryOperator {
+    /**
+     * Applies this operator to the given operand.
+     *
+     * @param operand the operand
+     * @return the operator result
+     * @throws Exception any checked exception
+     */
+    long applyAsLongWithCheckedException(long operand) throws Exception;
+
+    @Override
+    default long applyAsLong(long operand) {
+        try {
+            return applyAsLongWithCheckedException(operand);
+        } catch (Exception e) {
+            throw LambdaWrappedCheckedException.wrap(e);
+        }
+    }
+}
@@ -24,7 +24,17 @@ public interface PredicateWithCheckedException<T> extends Predicate<T> {
         try {
             return testWithCheckedException(t);
         } catch (Exception e) {
-            throw new LambdaWrappedCheckedException(e);
+            throw LambdaWrappedCheckedException.wrap(e);
         }
     }
+
+    /**
+     * Returns a predicate that retries this predicate according to the given policy
+     *
+     * @param policy The {@link RetryPolicy} to apply
+     * @return The retrying predicate
+     */
+    default PredicateWithCheckedException<T> withRetry(RetryPolicy policy) {
+        return t -> policy.call(() -> testWithCheckedException(t));
+    }
 }
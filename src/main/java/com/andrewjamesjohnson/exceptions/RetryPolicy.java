@@ -0,0 +1,160 @@
+package com.andrewjamesjohnson.exceptions;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Describes how an operation that throws an exception should be retried
+ *
+ * Delays between attempts grow exponentially from an initial delay up to a maximum. Waiting is done through
+ * {@link ForkJoinPool#managedBlock}, so a waiting worker of a parallel stream is compensated for rather than
+ * pinning a thread of the pool. Policies are immutable; each policy keeps its own {@link RetryStatistics}.
+ */
+public final class RetryPolicy {
+    /**
+     * Creates a policy that retries on any exception without delay
+     *
+     * @param maxAttempts The maximum number of attempts, including the first
+     * @return The new policy
+     */
+    public static RetryPolicy of(int maxAttempts) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("maxAttempts must be at least 1: " + maxAttempts);
+        }
+        return new RetryPolicy(maxAttempts, 0, 1, Long.MAX_VALUE, Collections.singletonList(Exception.class));
+    }
+
+    private final int maxAttempts;
+    private final long initialDelayNanos;
+    private final double multiplier;
+    private final long maxDelayNanos;
+    private final List<Class<? extends Exception>> retryableExceptions;
+    private final RetryStatistics statistics = new RetryStatistics();
+
+    private RetryPolicy(int maxAttempts, long initialDelayNanos, double multiplier, long maxDelayNanos,
+                        List<Class<? extends Exception>> retryableExceptions) {
+        this.maxAttempts = maxAttempts;
+        this.initialDelayNanos = initialDelayNanos;
+        this.multiplier = multiplier;
+        this.maxDelayNanos = maxDelayNanos;
+        this.retryableExceptions = retryableExceptions;
+    }
+
+    /**
+     * Returns a copy of this policy that waits between attempts, multiplying the delay after each one
+     *
+     * @param initialDelay The delay before the first retry
+     * @param unit The unit of the delay
+     * @param multiplier The factor the delay is multiplied by after each retry
+     * @return The new policy
+     */
+    public RetryPolicy withBackoff(long initialDelay, TimeUnit unit, double multiplier) {
+        if (initialDelay < 0 || multiplier < 1) {
+            throw new IllegalArgumentException("initialDelay must not be negative and multiplier must be at least 1");
+        }
+        return new RetryPolicy(maxAttempts, unit.toNanos(initialDelay), multiplier, maxDelayNanos, retryableExceptions);
+    }
+
+    /**
+     * Returns a copy of this policy that never waits longer than the given delay between attempts
+     *
+     * @param maxDelay The maximum delay
+     * @param unit The unit of the delay
+     * @return The new policy
+     */
+    public RetryPolicy withMaxDelay(long maxDelay, TimeUnit unit) {
+        if (maxDelay < 0) {
+            throw new IllegalArgumentException("maxDelay must not be negative: " + maxDelay);
+        }
+        return new RetryPolicy(maxAttempts, initialDelayNanos, multiplier, unit.toNanos(maxDelay), retryableExceptions);
+    }
+
+    /**
+     * Returns a copy of this policy that only retries exceptions of the given types
+     *
+     * @param exceptionClasses The types of exception to retry
+     * @return The new policy
+     */
+    @SafeVarargs
+    public final RetryPolicy retryOn(Class<? extends Exception>... exceptionClasses) {
+        List<Class<? extends Exception>> classes = new ArrayList<>(exceptionClasses.length);
+        for (Class<? extends Exception> exceptionClass : exceptionClasses) {
+            classes.add(exceptionClass);
+        }
+        return new RetryPolicy(maxAttempts, initialDelayNanos, multiplier, maxDelayNanos,
+                Collections.unmodifiableList(classes));
+    }
+
+    /**
+     * @return The statistics of operations performed under this policy
+     */
+    public RetryStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Performs an operation, retrying it according to this policy
+     *
+     * @param operation The operation to perform
+     * @param <R> The type of the result of the operation
+     * @return The result of the operation
+     * @throws Exception The exception thrown by the last attempt, if no attempt succeeded
+     */
+    public <R> R call(Callable<R> operation) throws Exception {
+        statistics.recordCall();
+        long delayNanos = initialDelayNanos;
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return operation.call();
+            } catch (Exception e) {
+                if (attempt >= maxAttempts || !isRetryable(e)) {
+                    statistics.recordFailure();
+                    throw e;
+                }
+            }
+            statistics.recordRetry();
+            if (delayNanos > 0) {
+                sleep(Math.min(delayNanos, maxDelayNanos));
+                delayNanos = (long) Math.min(delayNanos * multiplier, maxDelayNanos);
+            }
+        }
+    }
+
+    private boolean isRetryable(Exception e) {
+        for (Class<? extends Exception> exceptionClass : retryableExceptions) {
+            if (exceptionClass.isInstance(e)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void sleep(long delayNanos) throws InterruptedException {
+        long deadline = System.nanoTime() + delayNanos;
+        ForkJoinPool.ManagedBlocker sleeper = new ForkJoinPool.ManagedBlocker() {
+            @Override
+            public boolean block() throws InterruptedException {
+                long remaining = deadline - System.nanoTime();
+                if (remaining > 0) {
+                    TimeUnit.NANOSECONDS.sleep(remaining);
+                }
+                return isReleasable();
+            }
+
+            @Override
+            public boolean isReleasable() {
+                return deadline - System.nanoTime() <= 0;
+            }
+        };
+        try {
+            ForkJoinPool.managedBlock(sleeper);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.andrewjamesjohnson.exceptions;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts of the retries performed under a {@link RetryPolicy}
+ *
+ * Counters are striped, so updating them from parallel streams does not contend
+ */
+public final class RetryStatistics {
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    RetryStatistics() {
+    }
+
+    void recordCall() {
+        calls.increment();
+    }
+
+    void recordRetry() {
+        retries.increment();
+    }
+
+    void recordFailure() {
+        failures.increment();
+    }
+
+    /**
+     * @return The number of operations performed, not counting retries
+     */
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    /**
+     * @return The number of times an operation was retried
+     */
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    /**
+     * @return The number of operations that failed after any retries
+     */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    @Override
+    public String toString() {
+        return "RetryStatistics(calls=" + getCalls() + ", retries=" + getRetries() + ", failures=" + getFailures() + ")";
+    }
+}
@@ -23,7 +23,7 @@ public interface ToDoubleFunctionWithCheckedException<T> extends ToDoubleFunctio
         try {
             return applyAsDoubleWithCheckedException(value);
         } catch (Exception e) {
-            throw new LambdaWrappedCheckedException(e);
+            throw LambdaWrappedCheckedException.wrap(e);
         }
     }
 }
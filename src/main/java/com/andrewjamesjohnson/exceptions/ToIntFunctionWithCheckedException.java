@@ -23,7 +23,7 @@ public interface ToIntFunctionWithCheckedException<T> extends ToIntFunction<T> {
         try {
             return applyAsIntWithCheckedException(value);
         } catch (Exception e) {
-            throw new LambdaWrappedCheckedException(e);
+            throw LambdaWrappedCheckedException.wrap(e);
         }
     }
 }
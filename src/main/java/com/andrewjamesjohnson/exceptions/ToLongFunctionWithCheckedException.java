@@ -16,14 +16,14 @@ public interface ToLongFunctionWithCheckedException<T> extends ToLongFunction<T>
      * @return the function result
      * @throws Exception any checked exception
      */
-    int applyAsLongWithCheckedException(T value) throws Exception;
+    long applyAsLongWithCheckedException(T value) throws Exception;
 
     @Override
     default long applyAsLong(T value) {
         try {
             return applyAsLongWithCheckedException(value);
         } catch (Exception e) {
-            throw new LambdaWrappedCheckedException(e);
+            throw LambdaWrappedCheckedException.wrap(e);
         }
     }
 }
@@ -0,0 +1,183 @@
+package com.andrewjamesjohnson.exceptions;
+
+import org.apache.commons.lang3.tuple.Pair;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collector;
+
+/**
+ * The result of an operation that may have thrown an exception, holding either a value or the exception
+ *
+ * Allows failures to be carried through a stream as values rather than aborting it
+ *
+ * @param <T> The type of the value
+ */
+public final class Try<T> {
+    /**
+     * Creates a successful {@code Try}
+     *
+     * @param value The value
+     * @param <T> The type of the value
+     * @return The new {@code Try}
+     */
+    public static <T> Try<T> success(T value) {
+        return new Try<>(value, null);
+    }
+
+    /**
+     * Creates a failed {@code Try}
+     *
+     * @param exception The exception that caused the failure
+     * @param <T> The type of the value
+     * @return The new {@code Try}
+     */
+    public static <T> Try<T> failure(Exception exception) {
+        return new Try<>(null, Objects.requireNonNull(exception));
+    }
+
+    /**
+     * Applies a function to an input, capturing any exception it throws
+     *
+     * @param function The function to apply
+     * @param input The input to the function
+     * @param <T> The type of the input
+     * @param <R> The type of the result
+     * @return A successful {@code Try} holding the result, or a failed one holding the exception thrown
+     */
+    public static <T, R> Try<R> of(FunctionWithCheckedException<? super T, ? extends R> function, T input) {
+        try {
+            return success(function.applyWithCheckedException(input));
+        } catch (Exception e) {
+            return failure(e);
+        }
+    }
+
+    /**
+     * Returns a {@link Collector} that separates successful values from failures in a single pass
+     *
+     * @param <T> The type of the values
+     * @return A {@code Collector} producing a {@link Pair} of the successful values and the exceptions of the failures
+     */
+    public static <T> Collector<Try<T>, ?, Pair<List<T>, List<Exception>>> partition() {
+        return Collector.of(
+                () -> Pair.<List<T>, List<Exception>>of(new ArrayList<>(), new ArrayList<>()),
+                (lists, element) -> {
+                    if (element.isSuccess()) {
+                        lists.getLeft().add(element.value);
+                    } else {
+                        lists.getRight().add(element.exception);
+                    }
+                },
+                (first, second) -> {
+                    first.getLeft().addAll(second.getLeft());
+                    first.getRight().addAll(second.getRight());
+                    return first;
+                });
+    }
+
+    private final T value;
+    private final Exception exception;
+
+    private Try(T value, Exception exception) {
+        this.value = value;
+        this.exception = exception;
+    }
+
+    /**
+     * @return true if the operation succeeded
+     */
+    public boolean isSuccess() {
+        return exception == null;
+    }
+
+    /**
+     * @return true if the operation threw an exception
+     */
+    public boolean isFailure() {
+        return exception != null;
+    }
+
+    /**
+     * Returns the value if the operation succeeded, otherwise throws the exception
+     *
+     * @return The value
+     * @throws LambdaWrappedCheckedException If the operation threw a checked exception
+     */
+    public T get() {
+        if (exception instanceof RuntimeException) {
+            throw (RuntimeException) exception;
+        }
+        if (exception != null) {
+            throw LambdaWrappedCheckedException.wrap(exception);
+        }
+        return value;
+    }
+
+    /**
+     * Returns the exception thrown by the operation
+     *
+     * @return The exception
+     * @throws NoSuchElementException If the operation succeeded
+     */
+    public Exception getException() {
+        if (exception == null) {
+            throw new NoSuchElementException("Try was successful");
+        }
+        return exception;
+    }
+
+    /**
+     * Returns the value if the operation succeeded, otherwise the given value
+     *
+     * @param other The value to return on failure
+     * @return The value or {@code other}
+     */
+    public T orElse(T other) {
+        return exception == null ? value : other;
+    }
+
+    /**
+     * @return An {@link Optional} holding the value if the operation succeeded and the value was non-null
+     */
+    public Optional<T> toOptional() {
+        return exception == null ? Optional.ofNullable(value) : Optional.empty();
+    }
+
+    /**
+     * Applies a function to the value if the operation succeeded
+     *
+     * @param mapper The function to apply
+     * @param <R> The type of the result of the function
+     * @return The result of the function, or this failure
+     */
+    @SuppressWarnings("unchecked")
+    public <R> Try<R> map(FunctionWithCheckedException<? super T, ? extends R> mapper) {
+        return exception == null ? of(mapper, value) : (Try<R>) this;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Try)) {
+            return false;
+        }
+        Try<?> other = (Try<?>) obj;
+        return Objects.equals(value, other.value) && Objects.equals(exception, other.exception);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hashCode(value) + Objects.hashCode(exception);
+    }
+
+    @Override
+    public String toString() {
+        return exception == null ? "Success(" + value + ")" : "Failure(" + exception + ")";
+    }
+}
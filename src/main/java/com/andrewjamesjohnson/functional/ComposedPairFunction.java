@@ -0,0 +1,33 @@
+package com.andrewjamesjohnson.functional;
+
+import java.util.function.Function;
+
+/**
+ * A {@link PairFunction} followed by a {@link FunctionChain}
+ *
+ * Further calls to {@code andThen} extend the chain, so composition never nests more than one level deep
+ *
+ * @param <L> The type of the first element of the pair
+ * @param <R> The type of the second element of the pair
+ * @param <M> The type of the result of the pair function
+ * @param <U> The type of the result of the composition
+ */
+final class ComposedPairFunction<L, R, M, U> implements PairFunction<L, R, U> {
+    private final PairFunction<L, R, M> first;
+    private final FunctionChain<M, U> rest;
+
+    ComposedPairFunction(PairFunction<L, R, M> first, FunctionChain<M, U> rest) {
+        this.first = first;
+        this.rest = rest;
+    }
+
+    @Override
+    public U apply(L left, R right) {
+        return rest.apply(first.apply(left, right));
+    }
+
+    @Override
+    public <V> PairFunction<L, R, V> andThen(Function<? super U, ? extends V> after) {
+        return new ComposedPairFunction<>(first, rest.andThen(after));
+    }
+}
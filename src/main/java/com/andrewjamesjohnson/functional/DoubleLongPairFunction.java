@@ -0,0 +1,33 @@
+package com.andrewjamesjohnson.functional;
+
+import java.util.function.Function;
+
+/**
+ * A function of a {@code double} and a {@code long}, applied without boxing either argument or allocating a pair
+ *
+ * Used to combine an element of a stream with its index, as in {@code zipWithIndex}
+ *
+ * @param <U> The type of the result of the function
+ */
+@FunctionalInterface
+public interface DoubleLongPairFunction<U> {
+    /**
+     * Applies this function to a value and its index
+     *
+     * @param value The value
+     * @param index The index of the value
+     * @return The result of the function
+     */
+    U apply(double value, long index);
+
+    /**
+     * Returns a function that applies this function and then the given function to its result
+     *
+     * @param after The function to apply to the result of this function
+     * @param <V> The type of the result of the new function
+     * @return The new function
+     */
+    default <V> DoubleLongPairFunction<V> andThen(Function<? super U, ? extends V> after) {
+        return (value, index) -> after.apply(apply(value, index));
+    }
+}
@@ -0,0 +1,95 @@
+package com.andrewjamesjohnson.functional;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * A {@link Function} composed of a sequence of functions, applied one after another in a loop
+ *
+ * Composing with {@link Function#andThen} nests a new lambda around the previous composition at every step, so
+ * applying a chain of depth n goes through n nested calls of the same lambda class. Once the nesting is deeper
+ * than the JIT is willing to inline, every stage becomes an out-of-line megamorphic call. A {@code FunctionChain}
+ * instead keeps its stages in a flat array, and composing it with another function, or another chain, copies the
+ * stages into a new chain rather than wrapping it. Chains are immutable, so a prefix can be shared by several
+ * compositions.
+ *
+ * @param <T> The type of the input to the function
+ * @param <R> The type of the result of the function
+ */
+public final class FunctionChain<T, R> implements Function<T, R> {
+    /**
+     * Creates a chain of a single function
+     *
+     * @param function The function
+     * @param <T> The type of the input to the function
+     * @param <R> The type of the result of the function
+     * @return The new chain, or the function itself if it is already a chain
+     */
+    public static <T, R> FunctionChain<T, R> of(Function<T, R> function) {
+        if (function instanceof FunctionChain) {
+            return (FunctionChain<T, R>) function;
+        }
+        return new FunctionChain<>(new Function<?, ?>[]{Objects.requireNonNull(function)});
+    }
+
+    /**
+     * Creates a chain applying no functions, which returns its input
+     *
+     * @param <T> The type of the input
+     * @return The new chain
+     */
+    public static <T> FunctionChain<T, T> identity() {
+        return new FunctionChain<>(new Function<?, ?>[0]);
+    }
+
+    private final Function<?, ?>[] stages;
+
+    private FunctionChain(Function<?, ?>[] stages) {
+        this.stages = stages;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public R apply(T t) {
+        if (stages.length == 1) {
+            // Skip the loop for a single stage, so wrapping a function in a chain costs next to nothing
+            return ((Function<T, R>) stages[0]).apply(t);
+        }
+        Object value = t;
+        for (Function<?, ?> stage : stages) {
+            value = ((Function<Object, Object>) stage).apply(value);
+        }
+        return (R) value;
+    }
+
+    @Override
+    public <V> FunctionChain<T, V> andThen(Function<? super R, ? extends V> after) {
+        return new FunctionChain<>(concat(stages, stagesOf(after)));
+    }
+
+    @Override
+    public <V> FunctionChain<V, R> compose(Function<? super V, ? extends T> before) {
+        return new FunctionChain<>(concat(stagesOf(before), stages));
+    }
+
+    /**
+     * @return The number of functions in this chain
+     */
+    public int depth() {
+        return stages.length;
+    }
+
+    private static Function<?, ?>[] stagesOf(Function<?, ?> function) {
+        if (function instanceof FunctionChain) {
+            return ((FunctionChain<?, ?>) function).stages;
+        }
+        return new Function<?, ?>[]{Objects.requireNonNull(function)};
+    }
+
+    private static Function<?, ?>[] concat(Function<?, ?>[] first, Function<?, ?>[] second) {
+        Function<?, ?>[] stages = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, stages, first.length, second.length);
+        return stages;
+    }
+}
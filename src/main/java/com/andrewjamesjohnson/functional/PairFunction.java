@@ -1,5 +1,7 @@
 package com.andrewjamesjohnson.functional;
 
+import com.andrewjamesjohnson.cache.Cache;
+import com.andrewjamesjohnson.cache.CachePolicy;
 import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.Objects;
@@ -21,8 +23,128 @@ public interface PairFunction<L, R, U> extends Function<Pair<L, R>, U>, BiFuncti
         return apply(pair.getLeft(), pair.getRight());
     }
 
+    /**
+     * Creates a {@code PairFunction} from a {@link BiFunction}
+     *
+     * @param function The function
+     * @param <L> The type of the first argument
+     * @param <R> The type of the second argument
+     * @param <U> The type of the result of the function
+     * @return The new {@code PairFunction}, or the function itself if it already is one
+     */
+    static <L, R, U> PairFunction<L, R, U> of(BiFunction<L, R, U> function) {
+        if (function instanceof PairFunction) {
+            return (PairFunction<L, R, U>) function;
+        }
+        return function::apply;
+    }
+
+    /**
+     * Creates a {@code PairFunction} from a curried function, the reverse of {@link #curry()}
+     *
+     * @param function The curried function
+     * @param <L> The type of the first argument
+     * @param <R> The type of the second argument
+     * @param <U> The type of the result of the function
+     * @return The new {@code PairFunction}
+     */
+    static <L, R, U> PairFunction<L, R, U> uncurry(Function<L, ? extends Function<R, U>> function) {
+        return (l, r) -> function.apply(l).apply(r);
+    }
+
+    /**
+     * Creates a {@code PairFunction} from a function on {@link Pair}, the reverse of {@link #tupled()}
+     *
+     * @param function The function on pairs
+     * @param <L> The type of the first element of the pair
+     * @param <R> The type of the second element of the pair
+     * @param <U> The type of the result of the function
+     * @return The new {@code PairFunction}
+     */
+    static <L, R, U> PairFunction<L, R, U> untupled(Function<? super Pair<L, R>, U> function) {
+        return (l, r) -> function.apply(Pair.of(l, r));
+    }
+
+    /**
+     * Returns a function that applies this function and then the given function to its result
+     *
+     * Repeated calls don't nest: the functions applied after this one are kept in a flat {@link FunctionChain}
+     *
+     * @param after The function to apply to the result of this function
+     * @param <V> The type of the result of the new function
+     * @return The new function
+     */
     @Override
     default <V> PairFunction<L, R, V> andThen(Function<? super U, ? extends V> after) {
-        return (l, r) -> after.apply(apply(l, r));
+        return new ComposedPairFunction<>(this, FunctionChain.<U>identity().andThen(after));
+    }
+
+    /**
+     * Returns a function that applies the given functions to the arguments before passing them to this function
+     *
+     * @param left The function applied to the first argument
+     * @param right The function applied to the second argument
+     * @param <A> The type of the first argument of the new function
+     * @param <B> The type of the second argument of the new function
+     * @return The new function
+     */
+    default <A, B> PairFunction<A, B, U> compose(Function<? super A, ? extends L> left, Function<? super B, ? extends R> right) {
+        return (a, b) -> apply(left.apply(a), right.apply(b));
+    }
+
+    /**
+     * Returns this function in curried form, taking the first argument and returning a function of the second
+     *
+     * @return The curried function
+     */
+    default Function<L, Function<R, U>> curry() {
+        return l -> r -> apply(l, r);
+    }
+
+    /**
+     * Returns this function as a plain {@link Function} on {@link Pair}
+     *
+     * @return The function on pairs
+     */
+    default Function<Pair<L, R>, U> tupled() {
+        return this::apply;
+    }
+
+    /**
+     * Returns a function that caches the results of this function, evicting the least recently used
+     *
+     * See {@link #memoized(CachePolicy)}
+     *
+     * @param maxSize The maximum number of results to cache
+     * @return The memoizing function
+     */
+    default PairFunction<L, R, U> memoized(long maxSize) {
+        return memoized(CachePolicy.maxSize(maxSize));
+    }
+
+    /**
+     * Returns a function that caches the results of this function by pair of arguments
+     *
+     * This function must be deterministic. The returned function is thread-safe, and is meant to be shared
+     * across a parallel stream.
+     *
+     * @param policy The {@link CachePolicy} of the cache
+     * @return The memoizing function
+     */
+    default PairFunction<L, R, U> memoized(CachePolicy policy) {
+        return memoized(Cache.of(policy));
+    }
+
+    /**
+     * Returns a function that caches the results of this function by pair of arguments in the given cache
+     *
+     * See {@link #memoized(CachePolicy)}. Passing a cache in lets the caller read its {@link Cache#getStatistics()}
+     * or clear it.
+     *
+     * @param cache The cache to store results in, which should not be shared with other functions
+     * @return The memoizing function
+     */
+    default PairFunction<L, R, U> memoized(Cache<Pair<L, R>, U> cache) {
+        return (l, r) -> cache.computeIfAbsent(Pair.of(l, r), pair -> apply(l, r));
     }
 }
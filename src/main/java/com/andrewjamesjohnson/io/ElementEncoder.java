@@ -0,0 +1,67 @@
+package com.andrewjamesjohnson.io;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes values as bytes appended to a {@link ByteBuffer}
+ *
+ * An encoder writes at the buffer's position with relative puts. When the value doesn't fit, it may throw
+ * {@link BufferOverflowException} at any point; the caller then resets the position, makes room and encodes the
+ * value again, so an encoder should not keep state between calls.
+ *
+ * @param <T> The type of the values
+ */
+@FunctionalInterface
+public interface ElementEncoder<T> {
+    /**
+     * Creates an encoder writing each value's {@code toString} as a UTF-8 line terminated by {@code '\n'}
+     *
+     * @param <T> The type of the values
+     * @return The new encoder
+     */
+    static <T> ElementEncoder<T> lines() {
+        return lines(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates an encoder writing each value's {@code toString} as a line terminated by {@code '\n'}
+     *
+     * @param charset The charset to encode the lines with
+     * @param <T> The type of the values
+     * @return The new encoder
+     */
+    static <T> ElementEncoder<T> lines(Charset charset) {
+        byte[] newline = "\n".getBytes(charset);
+        return (value, buffer) -> buffer.put(String.valueOf(value).getBytes(charset)).put(newline);
+    }
+
+    /**
+     * Creates an encoder writing each value as a fixed-size record
+     *
+     * @param codec The codec writing each record
+     * @param <T> The type of the values
+     * @return The new encoder
+     */
+    static <T> ElementEncoder<T> of(RecordCodec<T> codec) {
+        int recordSize = codec.recordSize();
+        return (value, buffer) -> {
+            if (buffer.remaining() < recordSize) {
+                throw new BufferOverflowException();
+            }
+            codec.write(buffer, buffer.position(), value);
+            buffer.position(buffer.position() + recordSize);
+        };
+    }
+
+    /**
+     * Appends a value to a buffer
+     *
+     * @param value The value to encode
+     * @param buffer The buffer to write to, starting at its position
+     * @throws BufferOverflowException If the value doesn't fit in the remaining space of the buffer
+     */
+    void encode(T value, ByteBuffer buffer);
+}
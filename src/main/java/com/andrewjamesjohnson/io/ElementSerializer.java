@@ -0,0 +1,100 @@
+package com.andrewjamesjohnson.io;
+
+import java.nio.BufferOverflowException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * An {@link ElementEncoder} that can also decode the values it encodes, so values can be written out and read back
+ *
+ * Decoding reads from the buffer's position with relative gets. When the buffer ends before the value does, the
+ * decoder may throw {@link BufferUnderflowException} at any point; the caller then resets the position, reads more
+ * bytes and decodes the value again.
+ *
+ * @param <T> The type of the values
+ */
+public interface ElementSerializer<T> extends ElementEncoder<T> {
+    /**
+     * Creates a serializer from an encoder and a matching decoder
+     *
+     * @param encoder The encoder writing each value
+     * @param decoder The decoder reading back a value written by the encoder
+     * @param <T> The type of the values
+     * @return The new serializer
+     */
+    static <T> ElementSerializer<T> of(ElementEncoder<T> encoder, Decoder<T> decoder) {
+        return new ElementSerializer<T>() {
+            @Override
+            public void encode(T value, ByteBuffer buffer) {
+                encoder.encode(value, buffer);
+            }
+
+            @Override
+            public T decode(ByteBuffer buffer) {
+                return decoder.decode(buffer);
+            }
+        };
+    }
+
+    /**
+     * Creates a serializer writing each value as a fixed-size record
+     *
+     * @param codec The codec reading and writing each record
+     * @param <T> The type of the values
+     * @return The new serializer
+     */
+    static <T> ElementSerializer<T> of(RecordCodec<T> codec) {
+        int recordSize = codec.recordSize();
+        return of(ElementEncoder.of(codec), buffer -> {
+            if (buffer.remaining() < recordSize) {
+                throw new BufferUnderflowException();
+            }
+            T value = codec.read(buffer, buffer.position());
+            buffer.position(buffer.position() + recordSize);
+            return value;
+        });
+    }
+
+    /**
+     * Creates a serializer writing each string as its length followed by its UTF-8 bytes
+     *
+     * @return The new serializer
+     */
+    static ElementSerializer<String> strings() {
+        return of((value, buffer) -> {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            if (buffer.remaining() < Integer.BYTES + bytes.length) {
+                throw new BufferOverflowException();
+            }
+            buffer.putInt(bytes.length).put(bytes);
+        }, buffer -> {
+            int length = buffer.getInt();
+            if (buffer.remaining() < length) {
+                throw new BufferUnderflowException();
+            }
+            byte[] bytes = new byte[length];
+            buffer.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        });
+    }
+
+    /**
+     * Reads the value at the buffer's position, moving the position past it
+     *
+     * @param buffer The buffer to read from
+     * @return The value
+     * @throws BufferUnderflowException If the buffer ends before the value does
+     */
+    T decode(ByteBuffer buffer);
+
+    /**
+     * Function reading a value at the position of a buffer
+     *
+     * @param <T> The type of the values
+     */
+    @FunctionalInterface
+    interface Decoder<T> {
+        T decode(ByteBuffer buffer);
+    }
+}
@@ -0,0 +1,88 @@
+package com.andrewjamesjohnson.io;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Reads and writes values as fixed-size records in a {@link ByteBuffer}
+ *
+ * Records are accessed at absolute offsets, so a codec never changes the position of a buffer and several
+ * threads can read or write disjoint records of the same buffer at once. Because every record has the same size,
+ * a buffer of records can be split at any record boundary.
+ *
+ * @param <T> The type of the values
+ */
+public interface RecordCodec<T> {
+    /**
+     * Creates a codec from functions reading and writing a record
+     *
+     * @param recordSize The number of bytes in each record
+     * @param reader The function reading a record
+     * @param writer The function writing a record
+     * @param <T> The type of the values
+     * @return The new codec
+     */
+    static <T> RecordCodec<T> of(int recordSize, Reader<T> reader, Writer<T> writer) {
+        if (recordSize < 1) {
+            throw new IllegalArgumentException("recordSize must be positive: " + recordSize);
+        }
+        return new RecordCodec<T>() {
+            @Override
+            public int recordSize() {
+                return recordSize;
+            }
+
+            @Override
+            public T read(ByteBuffer buffer, int offset) {
+                return reader.read(buffer, offset);
+            }
+
+            @Override
+            public void write(ByteBuffer buffer, int offset, T value) {
+                writer.write(buffer, offset, value);
+            }
+        };
+    }
+
+    /**
+     * @return The number of bytes in each record
+     */
+    int recordSize();
+
+    /**
+     * Reads the record at the given offset
+     *
+     * @param buffer The buffer to read from
+     * @param offset The absolute offset of the record in the buffer
+     * @return The value of the record
+     */
+    T read(ByteBuffer buffer, int offset);
+
+    /**
+     * Writes a value as the record at the given offset
+     *
+     * @param buffer The buffer to write to
+     * @param offset The absolute offset of the record in the buffer
+     * @param value The value to write
+     */
+    void write(ByteBuffer buffer, int offset, T value);
+
+    /**
+     * Function reading the record at an absolute offset in a buffer
+     *
+     * @param <T> The type of the values
+     */
+    @FunctionalInterface
+    interface Reader<T> {
+        T read(ByteBuffer buffer, int offset);
+    }
+
+    /**
+     * Function writing a value as the record at an absolute offset in a buffer
+     *
+     * @param <T> The type of the values
+     */
+    @FunctionalInterface
+    interface Writer<T> {
+        void write(ByteBuffer buffer, int offset, T value);
+    }
+}
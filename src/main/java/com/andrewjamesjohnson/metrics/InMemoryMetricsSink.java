@@ -0,0 +1,69 @@
+package com.andrewjamesjohnson.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * {@link MetricsSink} keeping the {@link StageMetrics} of every stage in memory
+ *
+ * Stages are identified by the names of their pipeline and stage, so running the same pipeline repeatedly
+ * accumulates into the same metrics.
+ */
+public final class InMemoryMetricsSink implements MetricsSink {
+    private final ConcurrentMap<String, StageMetrics> stages = new ConcurrentHashMap<>();
+
+    @Override
+    public StageMetrics stage(String pipeline, String stage) {
+        return stages.computeIfAbsent(key(pipeline, stage), key -> new StageMetrics(pipeline, stage));
+    }
+
+    /**
+     * Returns the metrics of a stage, if it has been recorded
+     *
+     * @param pipeline The name of the pipeline
+     * @param stage The name of the stage
+     * @return The metrics of the stage, or null if there are none
+     */
+    public StageMetrics get(String pipeline, String stage) {
+        return stages.get(key(pipeline, stage));
+    }
+
+    /**
+     * Returns the metrics of every stage of a pipeline, in the order of the stages
+     *
+     * @param pipeline The name of the pipeline
+     * @return The metrics of the stages
+     */
+    public List<StageMetrics> getStages(String pipeline) {
+        List<StageMetrics> result = new ArrayList<>();
+        for (StageMetrics metrics : stages.values()) {
+            if (metrics.getPipeline().equals(pipeline)) {
+                result.add(metrics);
+            }
+        }
+        result.sort((a, b) -> Integer.compare(position(a.getStage()), position(b.getStage())));
+        return result;
+    }
+
+    /**
+     * Removes all recorded metrics
+     */
+    public void clear() {
+        stages.clear();
+    }
+
+    private static String key(String pipeline, String stage) {
+        return pipeline + '\u0000' + stage;
+    }
+
+    private static int position(String stage) {
+        int separator = stage.indexOf(':');
+        try {
+            return separator < 0 ? Integer.MAX_VALUE : Integer.parseInt(stage.substring(0, separator));
+        } catch (NumberFormatException e) {
+            return Integer.MAX_VALUE;
+        }
+    }
+}
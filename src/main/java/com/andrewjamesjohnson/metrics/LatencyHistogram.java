@@ -0,0 +1,74 @@
+package com.andrewjamesjohnson.metrics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histogram of latencies in buckets of powers of two nanoseconds
+ *
+ * Bucket {@code i} counts latencies from {@code 2^(i-1)} up to {@code 2^i - 1} nanoseconds, and bucket 0 counts
+ * latencies of zero. Recording a value is a single striped increment, at the cost of percentiles only being
+ * accurate to within a factor of two.
+ */
+public final class LatencyHistogram {
+    private static final int BUCKETS = 64;
+
+    private final LongAdder[] buckets = new LongAdder[BUCKETS];
+
+    LatencyHistogram() {
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = new LongAdder();
+        }
+    }
+
+    void record(long nanos) {
+        buckets[nanos <= 0 ? 0 : BUCKETS - Long.numberOfLeadingZeros(nanos)].increment();
+    }
+
+    /**
+     * @return The number of latencies recorded
+     */
+    public long getCount() {
+        long count = 0;
+        for (LongAdder bucket : buckets) {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /**
+     * @return The number of latencies recorded in each bucket
+     */
+    public long[] getBucketCounts() {
+        long[] counts = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+        }
+        return counts;
+    }
+
+    /**
+     * Returns an upper bound of the given percentile of the recorded latencies
+     *
+     * @param percentile The percentile, between 0 and 100
+     * @return The upper bound of the bucket holding the percentile, in nanoseconds, or 0 if nothing was recorded
+     */
+    public long getPercentile(double percentile) {
+        if (percentile < 0 || percentile > 100) {
+            throw new IllegalArgumentException("percentile must be between 0 and 100: " + percentile);
+        }
+        long[] counts = getBucketCounts();
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        long rank = (long) Math.ceil(total * percentile / 100);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (counts[i] > 0 && seen >= rank) {
+                return i == 0 ? 0 : i == BUCKETS - 1 ? Long.MAX_VALUE : (1L << i) - 1;
+            }
+        }
+        return 0;
+    }
+}
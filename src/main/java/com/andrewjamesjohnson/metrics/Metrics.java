@@ -0,0 +1,56 @@
+package com.andrewjamesjohnson.metrics;
+
+import java.util.Objects;
+
+/**
+ * Global settings for instrumented pipelines
+ *
+ * Instrumentation can be switched off with {@link #setEnabled(boolean)} or by setting the
+ * {@value #DISABLED_PROPERTY} system property to {@code true}. Pipelines built while it is off are not wrapped at
+ * all, so {@code instrumented} calls can be left in production code at no cost.
+ */
+public final class Metrics {
+    /**
+     * System property that disables instrumentation when set to {@code true}
+     */
+    public static final String DISABLED_PROPERTY = "com.andrewjamesjohnson.metrics.disabled";
+
+    private static volatile boolean enabled = !Boolean.getBoolean(DISABLED_PROPERTY);
+    private static volatile MetricsSink defaultSink = new InMemoryMetricsSink();
+
+    private Metrics() {
+    }
+
+    /**
+     * Sets whether pipelines built from now on are instrumented
+     *
+     * @param enabled false to build pipelines without instrumentation
+     */
+    public static void setEnabled(boolean enabled) {
+        Metrics.enabled = enabled;
+    }
+
+    /**
+     * @return Whether pipelines are instrumented
+     */
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets the sink used by pipelines instrumented without an explicit sink
+     *
+     * @param sink The new default sink
+     */
+    public static void setDefaultSink(MetricsSink sink) {
+        defaultSink = Objects.requireNonNull(sink);
+    }
+
+    /**
+     * @return The sink used by pipelines instrumented without an explicit sink, an {@link InMemoryMetricsSink}
+     * unless replaced
+     */
+    public static MetricsSink getDefaultSink() {
+        return defaultSink;
+    }
+}
@@ -0,0 +1,20 @@
+package com.andrewjamesjohnson.metrics;
+
+/**
+ * Destination for the measurements of instrumented pipelines
+ *
+ * The sink is asked for a {@link StageRecorder} once per stage when the pipeline is built, not once per element,
+ * so it can look up or register its metrics there. {@link InMemoryMetricsSink} keeps them in memory; an adapter
+ * to another metrics library implements this interface.
+ */
+@FunctionalInterface
+public interface MetricsSink {
+    /**
+     * Returns the recorder for a stage of a pipeline
+     *
+     * @param pipeline The name of the pipeline
+     * @param stage The name of the stage, made of its position in the pipeline and its operation, e.g. {@code 1:map}
+     * @return The recorder of the stage
+     */
+    StageRecorder stage(String pipeline, String stage);
+}
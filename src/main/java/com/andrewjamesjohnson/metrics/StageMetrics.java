@@ -0,0 +1,114 @@
+package com.andrewjamesjohnson.metrics;
+
+import com.andrewjamesjohnson.exceptions.LambdaWrappedCheckedException;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Element counts, latencies and exception counts of one stage of a pipeline, kept by {@link InMemoryMetricsSink}
+ *
+ * Counters are striped, so recording from parallel streams does not contend
+ */
+public final class StageMetrics implements StageRecorder {
+    private final String pipeline;
+    private final String stage;
+    private final LongAdder elementsOut = new LongAdder();
+    private final LongAdder exceptions = new LongAdder();
+    private final LongAdder checkedExceptions = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LatencyHistogram latencies = new LatencyHistogram();
+
+    StageMetrics(String pipeline, String stage) {
+        this.pipeline = pipeline;
+        this.stage = stage;
+    }
+
+    @Override
+    public void record(long latencyNanos, boolean emitted) {
+        latencies.record(latencyNanos);
+        totalNanos.add(latencyNanos);
+        if (emitted) {
+            elementsOut.increment();
+        }
+    }
+
+    @Override
+    public void recordException(Throwable exception) {
+        exceptions.increment();
+        if (exception instanceof LambdaWrappedCheckedException) {
+            checkedExceptions.increment();
+        }
+    }
+
+    /**
+     * @return The name of the pipeline
+     */
+    public String getPipeline() {
+        return pipeline;
+    }
+
+    /**
+     * @return The name of the stage
+     */
+    public String getStage() {
+        return stage;
+    }
+
+    /**
+     * @return The number of elements that reached the stage, including those that threw an exception
+     */
+    public long getElementsIn() {
+        return latencies.getCount() + exceptions.sum();
+    }
+
+    /**
+     * @return The number of elements passed on to the next stage
+     */
+    public long getElementsOut() {
+        return elementsOut.sum();
+    }
+
+    /**
+     * @return The fraction of the elements processed without an exception that the stage dropped, or 0 if none were
+     */
+    public double getDropRate() {
+        long processed = latencies.getCount();
+        return processed == 0 ? 0 : (double) (processed - getElementsOut()) / processed;
+    }
+
+    /**
+     * @return The number of exceptions thrown by the stage
+     */
+    public long getExceptions() {
+        return exceptions.sum();
+    }
+
+    /**
+     * @return The number of exceptions thrown by the stage that were checked exceptions wrapped in a
+     * {@link LambdaWrappedCheckedException}
+     */
+    public long getCheckedExceptions() {
+        return checkedExceptions.sum();
+    }
+
+    /**
+     * @return The total time spent processing elements that didn't throw, in nanoseconds
+     */
+    public long getTotalNanos() {
+        return totalNanos.sum();
+    }
+
+    /**
+     * @return The histogram of the time spent on each element that didn't throw
+     */
+    public LatencyHistogram getLatencies() {
+        return latencies;
+    }
+
+    @Override
+    public String toString() {
+        return "StageMetrics(" + pipeline + "/" + stage + ", in=" + getElementsIn() + ", out=" + getElementsOut()
+                + ", exceptions=" + getExceptions() + ", p50=" + latencies.getPercentile(50) + "ns, p99="
+                + latencies.getPercentile(99) + "ns)";
+    }
+}
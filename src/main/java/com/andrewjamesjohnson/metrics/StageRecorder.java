@@ -0,0 +1,24 @@
+package com.andrewjamesjohnson.metrics;
+
+/**
+ * Receives the measurements of one stage of an instrumented pipeline
+ *
+ * Implementations are called from every thread running the pipeline, so they must be thread-safe and should
+ * avoid contended writes.
+ */
+public interface StageRecorder {
+    /**
+     * Records an element processed by the stage
+     *
+     * @param latencyNanos The time taken to process the element, in nanoseconds
+     * @param emitted Whether the element was passed on to the next stage, which is false when a filter dropped it
+     */
+    void record(long latencyNanos, boolean emitted);
+
+    /**
+     * Records an exception thrown while processing an element
+     *
+     * @param exception The exception
+     */
+    void recordException(Throwable exception);
+}
@@ -0,0 +1,144 @@
+package com.andrewjamesjohnson.sketches;
+
+import java.util.stream.Collector;
+
+/**
+ * Estimates how many times each element was seen, in a fixed amount of memory
+ *
+ * Each of {@code depth} rows of {@code width} counters is indexed by a different hash of the element, and an
+ * element's estimate is its smallest counter. Collisions only ever add to a counter, so estimates are never too
+ * low; with a width of {@code e / epsilon} and a depth of {@code ln(1 / (1 - confidence))}, an estimate exceeds
+ * the true count by more than {@code epsilon} times the total count with probability at most
+ * {@code 1 - confidence}. Sketches of the same dimensions are merged by adding their counters.
+ */
+public final class CountMinSketch {
+    /**
+     * Returns a {@link Collector} into a {@code CountMinSketch}
+     *
+     * See {@link #CountMinSketch(double, double)}
+     *
+     * @param epsilon The error of the estimates, as a fraction of the total count
+     * @param confidence The probability that an estimate is within the error
+     * @param <T> The type of the elements
+     * @return The new {@code Collector}
+     */
+    public static <T> Collector<T, ?, CountMinSketch> collector(double epsilon, double confidence) {
+        return Collector.of(() -> new CountMinSketch(epsilon, confidence), CountMinSketch::add, CountMinSketch::merge,
+                Collector.Characteristics.UNORDERED, Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    private final int width;
+    private final int depth;
+    private final long[] counters;
+    private long totalCount;
+
+    /**
+     * Creates a sketch whose estimates are within {@code epsilon} times the total count, with the given confidence
+     *
+     * @param epsilon The error of the estimates, as a fraction of the total count
+     * @param confidence The probability that an estimate is within the error
+     */
+    public CountMinSketch(double epsilon, double confidence) {
+        this(dimension("epsilon", epsilon, Math.E / epsilon), dimension("confidence", confidence, -Math.log(1 - confidence)));
+    }
+
+    /**
+     * @param width The number of counters in each row
+     * @param depth The number of rows
+     */
+    public CountMinSketch(int width, int depth) {
+        if (width < 1 || depth < 1 || (long) width * depth > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Invalid dimensions " + width + "x" + depth);
+        }
+        this.width = width;
+        this.depth = depth;
+        this.counters = new long[width * depth];
+    }
+
+    private static int dimension(String name, double parameter, double value) {
+        if (!(parameter > 0 && parameter < 1)) {
+            throw new IllegalArgumentException(name + " must be between 0 and 1: " + parameter);
+        }
+        return (int) Math.max(1, Math.min(Math.ceil(value), Integer.MAX_VALUE));
+    }
+
+    /**
+     * Counts an occurrence of an element, by its {@code hashCode}
+     *
+     * @param element The element
+     */
+    public void add(Object element) {
+        add(element, 1);
+    }
+
+    /**
+     * Counts several occurrences of an element
+     *
+     * @param element The element
+     * @param count The number of occurrences
+     */
+    public void add(Object element, long count) {
+        if (count < 0) {
+            throw new IllegalArgumentException("count must not be negative: " + count);
+        }
+        long hash = Hashing.hash(element);
+        for (int row = 0; row < depth; row++) {
+            counters[row * width + column(hash, row)] += count;
+        }
+        totalCount += count;
+    }
+
+    /**
+     * Returns the estimated number of occurrences of an element, which is never less than the true number
+     *
+     * @param element The element
+     * @return The estimate
+     */
+    public long estimate(Object element) {
+        long hash = Hashing.hash(element);
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters[row * width + column(hash, row)]);
+        }
+        return estimate;
+    }
+
+    // Derives the hash of each row from the two halves of one hash, which is as good as independent hashes
+    private int column(long hash, int row) {
+        int combined = (int) hash + row * (int) (hash >>> 32);
+        return (combined & Integer.MAX_VALUE) % width;
+    }
+
+    /**
+     * Adds the counters of another sketch to this one
+     *
+     * @param other The other sketch, which must have the same dimensions
+     * @return This sketch
+     */
+    public CountMinSketch merge(CountMinSketch other) {
+        if (other.width != width || other.depth != depth) {
+            throw new IllegalArgumentException("Cannot merge a " + other.width + "x" + other.depth + " sketch into a "
+                    + width + "x" + depth + " sketch");
+        }
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] += other.counters[i];
+        }
+        totalCount += other.totalCount;
+        return this;
+    }
+
+    /**
+     * @return The total number of occurrences counted
+     */
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+}
@@ -0,0 +1,28 @@
+package com.andrewjamesjohnson.sketches;
+
+import java.util.Objects;
+
+/**
+ * 64-bit hashes for the sketches
+ *
+ * Object hashes start from {@link Object#hashCode()}, so elements with equal hash codes are indistinguishable to
+ * a sketch. The finalizer of MurmurHash3 spreads the 32 bits of a hash code, or a primitive value, over all 64
+ * bits, which the sketches slice into several independent-looking parts.
+ */
+final class Hashing {
+    private Hashing() {
+    }
+
+    static long hash(Object element) {
+        return mix(Objects.hashCode(element));
+    }
+
+    static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        value ^= value >>> 33;
+        return value;
+    }
+}
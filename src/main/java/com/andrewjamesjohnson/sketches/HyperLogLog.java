@@ -0,0 +1,146 @@
+package com.andrewjamesjohnson.sketches;
+
+import java.util.stream.Collector;
+
+/**
+ * Estimates the number of distinct elements seen, in a fixed amount of memory
+ *
+ * The hash of each element picks one of 2^precision registers, which keeps the largest number of leading zeros
+ * seen in the rest of the hash. The harmonic mean of the registers estimates the number of distinct hashes, with a
+ * relative standard error of about {@code 1.04 / sqrt(2^precision)}: 1.6% for the default precision of 12, using
+ * 4KB. Small counts are estimated by linear counting of the empty registers instead. Merging two sketches of the
+ * same precision takes the maximum of each register, giving the sketch of the union of their elements.
+ */
+public final class HyperLogLog {
+    /**
+     * The precision used when none is given
+     */
+    public static final int DEFAULT_PRECISION = 12;
+
+    /**
+     * Returns a {@link Collector} into a {@code HyperLogLog} of the default precision
+     *
+     * @param <T> The type of the elements
+     * @return The new {@code Collector}
+     */
+    public static <T> Collector<T, ?, HyperLogLog> collector() {
+        return collector(DEFAULT_PRECISION);
+    }
+
+    /**
+     * Returns a {@link Collector} into a {@code HyperLogLog}
+     *
+     * @param precision The number of bits of each hash used to pick a register, from 4 to 18
+     * @param <T> The type of the elements
+     * @return The new {@code Collector}
+     */
+    public static <T> Collector<T, ?, HyperLogLog> collector(int precision) {
+        return Collector.of(() -> new HyperLogLog(precision), HyperLogLog::add, HyperLogLog::merge,
+                Collector.Characteristics.UNORDERED, Collector.Characteristics.IDENTITY_FINISH);
+    }
+
+    private final int precision;
+    private final byte[] registers;
+
+    /**
+     * Creates a sketch of the default precision
+     */
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    /**
+     * @param precision The number of bits of each hash used to pick a register, from 4 to 18
+     */
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 18) {
+            throw new IllegalArgumentException("precision must be between 4 and 18: " + precision);
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    /**
+     * Adds an element, by its {@code hashCode}
+     *
+     * @param element The element
+     */
+    public void add(Object element) {
+        addHash(Hashing.hash(element));
+    }
+
+    /**
+     * Adds a {@code long} value
+     *
+     * @param value The value
+     */
+    public void addLong(long value) {
+        addHash(Hashing.mix(value));
+    }
+
+    /**
+     * Adds an {@code int} value
+     *
+     * @param value The value
+     */
+    public void addInt(int value) {
+        addHash(Hashing.mix(value));
+    }
+
+    private void addHash(long hash) {
+        int register = (int) (hash >>> (64 - precision));
+        // Set the lowest of the remaining bits, so the rank is at most 64 - precision + 1
+        long rest = (hash << precision) | (1L << (precision - 1));
+        byte rank = (byte) (Long.numberOfLeadingZeros(rest) + 1);
+        if (rank > registers[register]) {
+            registers[register] = rank;
+        }
+    }
+
+    /**
+     * Merges another sketch into this one, which then estimates the distinct elements seen by either
+     *
+     * @param other The other sketch, which must have the same precision
+     * @return This sketch
+     */
+    public HyperLogLog merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge a sketch of precision " + other.precision
+                    + " into one of precision " + precision);
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+        return this;
+    }
+
+    /**
+     * @return The estimated number of distinct elements seen
+     */
+    public long cardinality() {
+        int m = registers.length;
+        double sum = 0;
+        int empty = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                empty++;
+            }
+        }
+        double alpha = m == 16 ? 0.673 : m == 32 ? 0.697 : m == 64 ? 0.709 : 0.7213 / (1 + 1.079 / m);
+        double estimate = alpha * m * m / sum;
+        if (estimate <= 2.5 * m && empty > 0) {
+            estimate = m * Math.log((double) m / empty);
+        }
+        return Math.round(estimate);
+    }
+
+    /**
+     * @return The precision of this sketch
+     */
+    public int getPrecision() {
+        return precision;
+    }
+}
@@ -0,0 +1,115 @@
+package com.andrewjamesjohnson.sketches;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collector;
+
+/**
+ * A uniform random sample of fixed size of the elements seen so far
+ *
+ * Uses reservoir sampling: the first k elements fill the reservoir, and the n-th element after that replaces a
+ * random element of it with probability k/n, so every element seen has the same chance of being in the sample.
+ * Merging two reservoirs draws each element of the merged sample from one or the other in proportion to the
+ * number of elements each has seen, which keeps the sample uniform over both.
+ *
+ * @param <T> The type of the elements
+ */
+public final class Reservoir<T> {
+    /**
+     * Returns a {@link Collector} of a uniform random sample of the elements
+     *
+     * @param size The number of elements to sample
+     * @param <T> The type of the elements
+     * @return The new {@code Collector}, returning every element if there are no more than {@code size}
+     */
+    public static <T> Collector<T, ?, List<T>> collector(int size) {
+        return Collector.of(() -> new Reservoir<T>(size), Reservoir::add, Reservoir::merge, Reservoir::toList,
+                Collector.Characteristics.UNORDERED);
+    }
+
+    private final int size;
+    private final List<T> sample;
+    private long seen;
+
+    /**
+     * @param size The number of elements to sample
+     */
+    public Reservoir(int size) {
+        if (size < 0) {
+            throw new IllegalArgumentException("size must not be negative: " + size);
+        }
+        this.size = size;
+        this.sample = new ArrayList<>(Math.min(size, 1 << 16));
+    }
+
+    /**
+     * Offers an element, which replaces a random element of the sample with the right probability
+     *
+     * @param element The element
+     */
+    public void add(T element) {
+        seen++;
+        if (sample.size() < size) {
+            sample.add(element);
+        } else {
+            long slot = ThreadLocalRandom.current().nextLong(seen);
+            if (slot < size) {
+                sample.set((int) slot, element);
+            }
+        }
+    }
+
+    /**
+     * Replaces the sample with a uniform sample of the elements seen by this reservoir and another
+     *
+     * @param other The other reservoir, which must have the same size
+     * @return This reservoir
+     */
+    public Reservoir<T> merge(Reservoir<T> other) {
+        if (other.size != size) {
+            throw new IllegalArgumentException("Cannot merge a sample of " + other.size + " into a sample of " + size);
+        }
+        if (seen + other.seen <= size) {
+            sample.addAll(other.sample);
+        } else {
+            List<T> mine = new ArrayList<>(sample);
+            List<T> theirs = new ArrayList<>(other.sample);
+            Collections.shuffle(mine, ThreadLocalRandom.current());
+            Collections.shuffle(theirs, ThreadLocalRandom.current());
+            sample.clear();
+            // Each draw takes the next element of one shuffled sample, with odds set by the elements left unsampled
+            long mineLeft = seen;
+            long theirsLeft = other.seen;
+            int mineIndex = 0;
+            int theirsIndex = 0;
+            while (sample.size() < size) {
+                boolean fromMine = ThreadLocalRandom.current().nextLong(mineLeft + theirsLeft) < mineLeft;
+                if (fromMine && mineIndex < mine.size() || theirsIndex >= theirs.size()) {
+                    sample.add(mine.get(mineIndex++));
+                    mineLeft--;
+                } else {
+                    sample.add(theirs.get(theirsIndex++));
+                    theirsLeft--;
+                }
+            }
+        }
+        seen += other.seen;
+        return this;
+    }
+
+    /**
+     * @return A copy of the sample, in no particular order
+     */
+    public List<T> toList() {
+        return new ArrayList<>(sample);
+    }
+
+    /**
+     * @return The number of elements offered to this reservoir, including those of merged reservoirs
+     */
+    public long getSeen() {
+        return seen;
+    }
+}
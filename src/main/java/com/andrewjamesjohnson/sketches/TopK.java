@@ -0,0 +1,94 @@
+package com.andrewjamesjohnson.sketches;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Collector;
+
+/**
+ * The k greatest elements seen so far, according to a comparator
+ *
+ * Elements are kept in a heap of at most k elements whose root is the smallest of them, so each new element is
+ * compared with the root and replaces it only if it is greater. Finding the top k of n elements takes O(k) memory
+ * and O(n log k) time rather than sorting all n. Two {@code TopK}s with the same k and comparator can be merged,
+ * so the top k of a parallel stream is the merge of the top k of each part.
+ *
+ * @param <T> The type of the elements
+ */
+public final class TopK<T> {
+    /**
+     * Returns a {@link Collector} of the k greatest elements, greatest first
+     *
+     * @param k The number of elements to keep
+     * @param comparator The comparator ordering the elements
+     * @param <T> The type of the elements
+     * @return The new {@code Collector}
+     */
+    public static <T> Collector<T, ?, List<T>> collector(int k, Comparator<? super T> comparator) {
+        return Collector.of(() -> new TopK<T>(k, comparator), TopK::add, TopK::merge, TopK::toList);
+    }
+
+    private final int k;
+    private final Comparator<? super T> comparator;
+    private final PriorityQueue<T> heap;
+
+    /**
+     * @param k The number of elements to keep
+     * @param comparator The comparator ordering the elements
+     */
+    public TopK(int k, Comparator<? super T> comparator) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k must not be negative: " + k);
+        }
+        this.k = k;
+        this.comparator = comparator;
+        this.heap = new PriorityQueue<>(Math.max(1, Math.min(k, 1 << 16)), comparator);
+    }
+
+    /**
+     * Offers an element, which is kept if it is among the k greatest seen so far
+     *
+     * @param element The element
+     */
+    public void add(T element) {
+        if (heap.size() < k) {
+            heap.add(element);
+        } else if (k > 0 && comparator.compare(element, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(element);
+        }
+    }
+
+    /**
+     * Adds the elements kept by another {@code TopK} to this one
+     *
+     * @param other The other {@code TopK}, which must keep the same number of elements
+     * @return This {@code TopK}
+     */
+    public TopK<T> merge(TopK<T> other) {
+        if (other.k != k) {
+            throw new IllegalArgumentException("Cannot merge the top " + other.k + " into the top " + k);
+        }
+        for (T element : other.heap) {
+            add(element);
+        }
+        return this;
+    }
+
+    /**
+     * @return The elements kept, greatest first
+     */
+    public List<T> toList() {
+        List<T> list = new ArrayList<>(heap);
+        list.sort(comparator.reversed());
+        return list;
+    }
+
+    /**
+     * @return The number of elements kept, which is at most k
+     */
+    public int size() {
+        return heap.size();
+    }
+}
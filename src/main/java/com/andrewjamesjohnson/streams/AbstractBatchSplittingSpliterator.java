@@ -0,0 +1,73 @@
+package com.andrewjamesjohnson.streams;
+
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
+/**
+ * Base class for spliterators that cannot always split their source directly
+ *
+ * Provides the same fallback the JDK uses for iterator-backed sources: a batch of elements is
+ * copied into an array, which is then handed off as the prefix, with batches growing arithmetically.
+ * Batches are sized in the elements of the source, so a spliterator whose elements each hold many
+ * source elements, like a window, buffers proportionally fewer of them per split
+ *
+ * @param <T> The type of elements returned by this spliterator
+ */
+abstract class AbstractBatchSplittingSpliterator<T> implements Spliterator<T> {
+    private static final int BATCH_UNIT = 1 << 10;
+    private static final int MAX_BATCH = 1 << 25;
+
+    private int batch;
+
+    /**
+     * @return The number of source elements held by each element of this spliterator
+     */
+    protected int elementWeight() {
+        return 1;
+    }
+
+    /**
+     * Splits off a prefix of this spliterator by buffering elements obtained through {@link #tryAdvance}
+     *
+     * @return An array-backed spliterator covering the buffered elements, or null if this spliterator is exhausted
+     */
+    protected Spliterator<T> trySplitBatch() {
+        long size = estimateSize();
+        if (size <= 1) {
+            return null;
+        }
+        int weight = elementWeight();
+        int n = batch + Math.max(1, BATCH_UNIT / weight);
+        if (n > size) {
+            n = (int) size;
+        }
+        n = Math.min(n, Math.max(1, MAX_BATCH / weight));
+
+        Object[] elements = new Object[n];
+        HoldingConsumer<T> holder = new HoldingConsumer<>();
+        int j = 0;
+        while (j < n && tryAdvance(holder)) {
+            elements[j++] = holder.value;
+        }
+        if (j == 0) {
+            return null;
+        }
+        batch = j;
+        return Spliterators.spliterator(elements, 0, j, characteristics());
+    }
+
+    /**
+     * {@link Consumer} that records the last element it accepted
+     *
+     * @param <T> The type of element accepted
+     */
+    static final class HoldingConsumer<T> implements Consumer<T> {
+        T value;
+
+        @Override
+        public void accept(T value) {
+            this.value = value;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.andrewjamesjohnson.streams;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Provides the executor used for asynchronous stream stages when none is given
+ *
+ * Uses a virtual thread per task when running on a JVM that supports them, and otherwise a shared
+ * pool of daemon threads, so that blocking tasks never run on the common {@code ForkJoinPool}
+ */
+final class AsyncExecutors {
+    private static final Executor DEFAULT_EXECUTOR = createDefaultExecutor();
+
+    private AsyncExecutors() {
+    }
+
+    static Executor defaultExecutor() {
+        return DEFAULT_EXECUTOR;
+    }
+
+    private static Executor createDefaultExecutor() {
+        try {
+            return (Executor) MethodHandles.publicLookup()
+                    .findStatic(Executors.class, "newVirtualThreadPerTaskExecutor", MethodType.methodType(ExecutorService.class))
+                    .invoke();
+        } catch (Throwable e) {
+            AtomicInteger threadCount = new AtomicInteger();
+            ThreadFactory threadFactory = runnable -> {
+                Thread thread = new Thread(runnable, "rich-stream-async-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+            return Executors.newCachedThreadPool(threadFactory);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.andrewjamesjohnson.streams;
+
+import com.andrewjamesjohnson.exceptions.FunctionWithCheckedException;
+import com.andrewjamesjohnson.exceptions.LambdaWrappedCheckedException;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.Spliterator;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator applying a function to the elements of a source spliterator on an {@link Executor}
+ *
+ * At most {@code maxInFlight} elements are being mapped at once, and further elements are only taken from the
+ * source as results are consumed, so a fast source is never drained into memory. Results are returned either in
+ * the order of the source or in the order they complete.
+ *
+ * @param <T> The type of elements in the source
+ * @param <R> The type of the mapped elements
+ */
+final class AsyncMapSpliterator<T, R> implements Spliterator<R> {
+    private final Spliterator<T> source;
+    private final FunctionWithCheckedException<? super T, ? extends R> mapper;
+    private final int maxInFlight;
+    private final Executor executor;
+    private final boolean ordered;
+
+    // Futures in submission order, used to preserve ordering and to cancel outstanding work
+    private final Queue<CompletableFuture<R>> inFlight = new ArrayDeque<>();
+    // Futures in completion order, only used when unordered
+    private final BlockingQueue<CompletableFuture<R>> completed = new LinkedBlockingQueue<>();
+    private boolean sourceExhausted;
+
+    AsyncMapSpliterator(Spliterator<T> source, FunctionWithCheckedException<? super T, ? extends R> mapper,
+                        int maxInFlight, Executor executor, boolean ordered) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be positive: " + maxInFlight);
+        }
+        this.source = source;
+        this.mapper = mapper;
+        this.maxInFlight = maxInFlight;
+        this.executor = executor;
+        this.ordered = ordered;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super R> action) {
+        while (!sourceExhausted && inFlight.size() < maxInFlight) {
+            sourceExhausted = !source.tryAdvance(this::submit);
+        }
+        if (inFlight.isEmpty()) {
+            return false;
+        }
+
+        CompletableFuture<R> next;
+        if (ordered) {
+            next = inFlight.remove();
+        } else {
+            next = takeCompleted();
+            inFlight.remove(next);
+        }
+        action.accept(join(next));
+        return true;
+    }
+
+    private void submit(T element) {
+        CompletableFuture<R> future = CompletableFuture.supplyAsync(() -> mapper.apply(element), executor);
+        if (!ordered) {
+            future.whenComplete((result, exception) -> completed.add(future));
+        }
+        inFlight.add(future);
+    }
+
+    private CompletableFuture<R> takeCompleted() {
+        try {
+            return completed.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancel();
+            throw LambdaWrappedCheckedException.wrap(e);
+        }
+    }
+
+    private R join(CompletableFuture<R> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            cancel();
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Cancels any elements still being mapped
+     */
+    void cancel() {
+        sourceExhausted = true;
+        CompletableFuture<R> future;
+        while ((future = inFlight.poll()) != null) {
+            future.cancel(false);
+        }
+    }
+
+    @Override
+    public Spliterator<R> trySplit() {
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        long sourceSize = source.estimateSize();
+        return sourceSize == Long.MAX_VALUE ? Long.MAX_VALUE : sourceSize + inFlight.size();
+    }
+
+    @Override
+    public int characteristics() {
+        return source.characteristics() & (ordered ? ORDERED | SIZED : SIZED);
+    }
+}
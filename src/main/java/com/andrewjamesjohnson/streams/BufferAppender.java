@@ -0,0 +1,69 @@
+package com.andrewjamesjohnson.streams;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Appends fixed-size records to a direct {@link ByteBuffer}, growing it as needed
+ *
+ * Used to collect a stream whose size isn't known in advance into off-heap memory
+ */
+final class BufferAppender {
+    /**
+     * Allocates a direct buffer in native byte order for the given number of records
+     *
+     * @param records The number of records
+     * @param recordSize The number of bytes in each record
+     * @return The new buffer
+     * @throws IllegalArgumentException If the records don't fit in a single buffer
+     */
+    static ByteBuffer allocate(long records, int recordSize) {
+        long bytes = records * recordSize;
+        if (records < 0 || bytes / recordSize != records || bytes > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException(records + " records of " + recordSize + " bytes do not fit in a buffer");
+        }
+        return ByteBuffer.allocateDirect((int) bytes).order(ByteOrder.nativeOrder());
+    }
+
+    private final int recordSize;
+    private ByteBuffer buffer;
+    private int position;
+
+    BufferAppender(int recordSize) {
+        this.recordSize = recordSize;
+        this.buffer = allocate(16, recordSize);
+    }
+
+    /**
+     * Reserves space for the next record, growing the buffer if it is full
+     *
+     * @return The offset to write the record at, in the buffer returned by {@link #buffer()}
+     */
+    int reserve() {
+        if (buffer.capacity() - position < recordSize) {
+            long records = position / recordSize;
+            ByteBuffer grown = allocate(Math.max(records * 2, records + 1), recordSize);
+            buffer.limit(position);
+            grown.put(buffer);
+            // Records are written at absolute offsets, so leave the new buffer's position at zero
+            grown.clear();
+            buffer = grown;
+        }
+        int offset = position;
+        position += recordSize;
+        return offset;
+    }
+
+    ByteBuffer buffer() {
+        return buffer;
+    }
+
+    /**
+     * @return The buffer holding the records appended so far, from position zero up to its limit
+     */
+    ByteBuffer finish() {
+        buffer.limit(position);
+        buffer.position(0);
+        return buffer;
+    }
+}
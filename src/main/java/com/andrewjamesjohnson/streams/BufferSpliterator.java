@@ -0,0 +1,248 @@
+package com.andrewjamesjohnson.streams;
+
+import com.andrewjamesjohnson.io.RecordCodec;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Spliterator over the elements of a {@link java.nio.Buffer}, from its position up to its limit
+ *
+ * Elements are read at absolute indices, so the buffer's position is never changed, and the range of indices
+ * is halved on each split in the same way as an array spliterator. The buffer is not copied and may still be
+ * written by its owner, so the spliterator is not {@link Spliterator#IMMUTABLE}.
+ *
+ * @param <T> The type of elements
+ * @param <S> The type of spliterator
+ */
+abstract class BufferSpliterator<T, S extends Spliterator<T>> implements Spliterator<T> {
+    int index;
+    final int fence;
+
+    private BufferSpliterator(int index, int fence) {
+        this.index = index;
+        this.fence = fence;
+    }
+
+    /**
+     * Creates a spliterator over the given range of this one's buffer
+     */
+    abstract S prefix(int index, int fence);
+
+    @Override
+    public S trySplit() {
+        int mid = (index + fence) >>> 1;
+        if (index >= mid) {
+            return null;
+        }
+        S prefix = prefix(index, mid);
+        index = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return fence - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED;
+    }
+
+    /**
+     * Spliterator over the fixed-size records of a {@link ByteBuffer}
+     *
+     * @param <T> The type of the records
+     */
+    static final class OfRecords<T> extends BufferSpliterator<T, OfRecords<T>> {
+        private final ByteBuffer buffer;
+        private final RecordCodec<T> codec;
+        private final int base;
+        private final int recordSize;
+
+        OfRecords(ByteBuffer buffer, RecordCodec<T> codec) {
+            this(buffer, codec, buffer.position(), 0, recordCount(buffer, codec.recordSize()));
+        }
+
+        private OfRecords(ByteBuffer buffer, RecordCodec<T> codec, int base, int index, int fence) {
+            super(index, fence);
+            this.buffer = buffer;
+            this.codec = codec;
+            this.base = base;
+            this.recordSize = codec.recordSize();
+        }
+
+        private static int recordCount(ByteBuffer buffer, int recordSize) {
+            if (buffer.remaining() % recordSize != 0) {
+                throw new IllegalArgumentException("Buffer of " + buffer.remaining()
+                        + " bytes does not hold a whole number of " + recordSize + " byte records");
+            }
+            return buffer.remaining() / recordSize;
+        }
+
+        private T read(int record) {
+            return codec.read(buffer, base + record * recordSize);
+        }
+
+        @Override
+        OfRecords<T> prefix(int index, int fence) {
+            return new OfRecords<>(buffer, codec, base, index, fence);
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            if (index >= fence) {
+                return false;
+            }
+            action.accept(read(index++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            for (; index < fence; index++) {
+                action.accept(read(index));
+            }
+        }
+    }
+
+    static final class OfInt extends BufferSpliterator<Integer, Spliterator.OfInt> implements Spliterator.OfInt {
+        private final IntBuffer buffer;
+
+        OfInt(IntBuffer buffer) {
+            this(buffer, buffer.position(), buffer.limit());
+        }
+
+        private OfInt(IntBuffer buffer, int index, int fence) {
+            super(index, fence);
+            this.buffer = buffer;
+        }
+
+        @Override
+        Spliterator.OfInt prefix(int index, int fence) {
+            return new BufferSpliterator.OfInt(buffer, index, fence);
+        }
+
+        @Override
+        public Spliterator.OfInt trySplit() {
+            return super.trySplit();
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (index >= fence) {
+                return false;
+            }
+            action.accept(buffer.get(index++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(IntConsumer action) {
+            for (; index < fence; index++) {
+                action.accept(buffer.get(index));
+            }
+        }
+
+        @Override
+        public int characteristics() {
+            return super.characteristics() | NONNULL;
+        }
+    }
+
+    static final class OfLong extends BufferSpliterator<Long, Spliterator.OfLong> implements Spliterator.OfLong {
+        private final LongBuffer buffer;
+
+        OfLong(LongBuffer buffer) {
+            this(buffer, buffer.position(), buffer.limit());
+        }
+
+        private OfLong(LongBuffer buffer, int index, int fence) {
+            super(index, fence);
+            this.buffer = buffer;
+        }
+
+        @Override
+        Spliterator.OfLong prefix(int index, int fence) {
+            return new BufferSpliterator.OfLong(buffer, index, fence);
+        }
+
+        @Override
+        public Spliterator.OfLong trySplit() {
+            return super.trySplit();
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            if (index >= fence) {
+                return false;
+            }
+            action.accept(buffer.get(index++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(LongConsumer action) {
+            for (; index < fence; index++) {
+                action.accept(buffer.get(index));
+            }
+        }
+
+        @Override
+        public int characteristics() {
+            return super.characteristics() | NONNULL;
+        }
+    }
+
+    static final class OfDouble extends BufferSpliterator<Double, Spliterator.OfDouble> implements Spliterator.OfDouble {
+        private final DoubleBuffer buffer;
+
+        OfDouble(DoubleBuffer buffer) {
+            this(buffer, buffer.position(), buffer.limit());
+        }
+
+        private OfDouble(DoubleBuffer buffer, int index, int fence) {
+            super(index, fence);
+            this.buffer = buffer;
+        }
+
+        @Override
+        Spliterator.OfDouble prefix(int index, int fence) {
+            return new BufferSpliterator.OfDouble(buffer, index, fence);
+        }
+
+        @Override
+        public Spliterator.OfDouble trySplit() {
+            return super.trySplit();
+        }
+
+        @Override
+        public boolean tryAdvance(DoubleConsumer action) {
+            if (index >= fence) {
+                return false;
+            }
+            action.accept(buffer.get(index++));
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(DoubleConsumer action) {
+            for (; index < fence; index++) {
+                action.accept(buffer.get(index));
+            }
+        }
+
+        @Override
+        public int characteristics() {
+            return super.characteristics() | NONNULL;
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.andrewjamesjohnson.streams;
+
+import com.andrewjamesjohnson.io.ElementEncoder;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.WritableByteChannel;
+import java.util.List;
+
+/**
+ * Writes encoded elements to a channel through a single reusable buffer
+ *
+ * Elements are encoded into the buffer until it is full, and the whole buffer is then written in one call, so the
+ * channel sees a few large writes rather than one per element. The buffer only grows if a single element doesn't
+ * fit in it.
+ *
+ * @param <T> The type of elements
+ */
+final class ChannelWriter<T> {
+    static final int BUFFER_SIZE = 1 << 16;
+
+    private final WritableByteChannel channel;
+    private final ElementEncoder<? super T> encoder;
+    private ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.nativeOrder());
+    private long count;
+
+    ChannelWriter(WritableByteChannel channel, ElementEncoder<? super T> encoder) {
+        this.channel = channel;
+        this.encoder = encoder;
+    }
+
+    /**
+     * Encodes a batch of elements into a new heap buffer, so batches can be encoded concurrently
+     *
+     * @return The buffer holding the encoded elements, from position zero up to its limit
+     */
+    static <T> ByteBuffer encode(List<T> batch, ElementEncoder<? super T> encoder) {
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE).order(ByteOrder.nativeOrder());
+        for (T element : batch) {
+            while (!tryEncode(encoder, element, buffer)) {
+                buffer = grow(buffer);
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    private static <T> boolean tryEncode(ElementEncoder<? super T> encoder, T element, ByteBuffer buffer) {
+        int start = buffer.position();
+        try {
+            encoder.encode(element, buffer);
+            return true;
+        } catch (BufferOverflowException e) {
+            buffer.position(start);
+            return false;
+        }
+    }
+
+    private static ByteBuffer grow(ByteBuffer buffer) {
+        if (buffer.capacity() > Integer.MAX_VALUE / 2) {
+            throw new IllegalStateException("Encoded elements do not fit in a buffer");
+        }
+        ByteBuffer grown = buffer.isDirect()
+                ? ByteBuffer.allocateDirect(buffer.capacity() * 2)
+                : ByteBuffer.allocate(buffer.capacity() * 2);
+        buffer.flip();
+        return grown.order(buffer.order()).put(buffer);
+    }
+
+    void write(T element) throws IOException {
+        while (!tryEncode(encoder, element, buffer)) {
+            if (buffer.position() > 0) {
+                flush();
+            } else {
+                buffer = grow(buffer);
+            }
+        }
+        count++;
+    }
+
+    /**
+     * Writes a batch of elements encoded by {@link #encode(List, ElementEncoder)}
+     */
+    void write(ByteBuffer encoded, int elements) throws IOException {
+        if (encoded.remaining() <= buffer.remaining()) {
+            buffer.put(encoded);
+        } else {
+            flush();
+            writeFully(encoded);
+        }
+        count += elements;
+    }
+
+    void flush() throws IOException {
+        buffer.flip();
+        writeFully(buffer);
+        buffer.clear();
+    }
+
+    private void writeFully(ByteBuffer bytes) throws IOException {
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+    }
+
+    /**
+     * @return The number of elements written
+     */
+    long count() {
+        return count;
+    }
+}
@@ -0,0 +1,82 @@
+package com.andrewjamesjohnson.streams;
+
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * A key together with the elements of two streams that have that key, as produced by
+ * {@link RichStream#cogroup(java.util.stream.Stream, java.util.function.Function, java.util.function.Function)}
+ *
+ * @param <K> The type of the key
+ * @param <L> The type of the elements of the first stream
+ * @param <R> The type of the elements of the second stream
+ */
+public final class CoGroup<K, L, R> {
+    /**
+     * Creates a {@code CoGroup} from a key and the elements with that key
+     *
+     * @param key The key
+     * @param left The elements of the first stream with the key
+     * @param right The elements of the second stream with the key
+     * @param <K> The type of the key
+     * @param <L> The type of the elements of the first stream
+     * @param <R> The type of the elements of the second stream
+     * @return The new {@code CoGroup}
+     */
+    public static <K, L, R> CoGroup<K, L, R> of(K key, List<L> left, List<R> right) {
+        return new CoGroup<>(key, left, right);
+    }
+
+    private final K key;
+    private final List<L> left;
+    private final List<R> right;
+
+    private CoGroup(K key, List<L> left, List<R> right) {
+        this.key = key;
+        this.left = Objects.requireNonNull(left);
+        this.right = Objects.requireNonNull(right);
+    }
+
+    /**
+     * @return The key
+     */
+    public K getKey() {
+        return key;
+    }
+
+    /**
+     * @return The elements of the first stream with the key, in encounter order, which may be empty
+     */
+    public List<L> getLeft() {
+        return left;
+    }
+
+    /**
+     * @return The elements of the second stream with the key, in encounter order, which may be empty
+     */
+    public List<R> getRight() {
+        return right;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof CoGroup)) {
+            return false;
+        }
+        CoGroup<?, ?, ?> other = (CoGroup<?, ?, ?>) obj;
+        return Objects.equals(key, other.key) && left.equals(other.left) && right.equals(other.right);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(key, left, right);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + key + "," + left + "," + right + ")";
+    }
+}
@@ -0,0 +1,387 @@
+package com.andrewjamesjohnson.streams;
+
+import com.andrewjamesjohnson.io.ElementSerializer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Collector;
+
+/**
+ * Sorts a stream too large for memory by spilling sorted runs to temporary files and merging them
+ *
+ * Each run is sorted in memory and written through a {@link ChannelWriter}. The runs are then merged lazily
+ * through a heap holding the next element of every run, so the merge only reads as far ahead as one buffer per
+ * run. When there are more runs than can be merged at once, groups of them are first merged into longer runs,
+ * which keeps the number of open files and read buffers bounded. Ties between runs go to the earlier run, and
+ * runs are sorted stably, so the sort as a whole is stable. Each run file is deleted once it has been read, and
+ * closing the sort deletes any that are left.
+ *
+ * @param <T> The type of elements
+ */
+final class ExternalSort<T> implements Closeable {
+    static final int MAX_MERGE_WIDTH = 128;
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+
+    private final Comparator<? super T> comparator;
+    private final ElementSerializer<T> serializer;
+    private final boolean distinct;
+    private final int mergeWidth;
+    private final List<Path> files = Collections.synchronizedList(new ArrayList<>());
+    private final List<RunReader> readers = new ArrayList<>();
+
+    /**
+     * @param comparator The comparator ordering the elements
+     * @param serializer The serializer writing and reading back the elements of each run
+     * @param distinct Whether to drop all but the first of the elements comparing equal
+     */
+    ExternalSort(Comparator<? super T> comparator, ElementSerializer<T> serializer, boolean distinct) {
+        this(comparator, serializer, distinct, MAX_MERGE_WIDTH);
+    }
+
+    /**
+     * @param mergeWidth The number of runs merged at once
+     */
+    ExternalSort(Comparator<? super T> comparator, ElementSerializer<T> serializer, boolean distinct, int mergeWidth) {
+        this.comparator = comparator;
+        this.serializer = serializer;
+        this.distinct = distinct;
+        this.mergeWidth = mergeWidth;
+    }
+
+    /**
+     * Returns a spliterator over a run small enough to be sorted without spilling it
+     */
+    Spliterator<T> sortInMemory(List<T> run) {
+        return merge(Collections.singletonList(sort(run).iterator()));
+    }
+
+    /**
+     * Sorts a run in place, dropping duplicates if the sort is distinct
+     */
+    private List<T> sort(List<T> run) {
+        run.sort(comparator);
+        if (!distinct || run.isEmpty()) {
+            return run;
+        }
+        List<T> unique = new ArrayList<>(run.size());
+        T previous = run.get(0);
+        unique.add(previous);
+        for (T element : run) {
+            if (comparator.compare(previous, element) != 0) {
+                unique.add(element);
+                previous = element;
+            }
+        }
+        return unique;
+    }
+
+    /**
+     * Sorts a run and writes it to a new temporary file
+     *
+     * @return The file holding the run
+     */
+    Run spill(List<T> run) {
+        List<T> sorted = sort(run);
+        return write(sorted.iterator());
+    }
+
+    /**
+     * Returns a collector cutting the elements of a stream into runs and spilling each as soon as it is full
+     *
+     * Each part of a parallel stream fills a buffer of its own, so a thread holds no more than one run at a time,
+     * and parts that have finished hold only what they have not spilled yet. When two parts are combined, the
+     * unspilled elements of the first are spilled unless they can be topped up with those of the second, so the
+     * runs stay in encounter order.
+     *
+     * @param runSize The number of elements in each full run
+     * @return The collector, producing the runs in encounter order
+     */
+    Collector<T, ?, List<Run>> runs(int runSize) {
+        return Collector.of(() -> new RunBuilder(runSize), RunBuilder::add, RunBuilder::combine, RunBuilder::finish);
+    }
+
+    private Run write(Iterator<T> elements) {
+        try {
+            Path file = Files.createTempFile("sorted-run-", ".tmp");
+            files.add(file);
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                ChannelWriter<T> writer = new ChannelWriter<>(channel, serializer);
+                while (elements.hasNext()) {
+                    writer.write(elements.next());
+                }
+                writer.flush();
+                return new Run(file, writer.count());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns a spliterator merging runs that have been spilled, in the order of the elements
+     *
+     * @param runs The runs, in the encounter order of their elements
+     */
+    Spliterator<T> mergeRuns(List<Run> runs) {
+        // Merging too many runs at once would open too many files, so merge groups of them into longer runs first
+        while (runs.size() > mergeWidth) {
+            List<Run> merged = new ArrayList<>((runs.size() + mergeWidth - 1) / mergeWidth);
+            for (int i = 0; i < runs.size(); i += mergeWidth) {
+                Spliterator<T> group = open(runs.subList(i, Math.min(i + mergeWidth, runs.size())));
+                merged.add(write(Spliterators.iterator(group)));
+            }
+            runs = merged;
+        }
+        return open(runs);
+    }
+
+    private Spliterator<T> open(List<Run> runs) {
+        List<Iterator<T>> iterators = new ArrayList<>(runs.size());
+        for (Run run : runs) {
+            RunReader reader = new RunReader(run);
+            synchronized (readers) {
+                readers.add(reader);
+            }
+            iterators.add(reader);
+        }
+        return merge(iterators);
+    }
+
+    private Spliterator<T> merge(List<Iterator<T>> iterators) {
+        return new MergeSpliterator(iterators);
+    }
+
+    @Override
+    public void close() {
+        synchronized (readers) {
+            readers.forEach(RunReader::close);
+        }
+        synchronized (files) {
+            for (Path file : files) {
+                try {
+                    Files.deleteIfExists(file);
+                } catch (IOException e) {
+                    // Leave the file for the system to clean up with the rest of its temporary files
+                }
+            }
+        }
+    }
+
+    /**
+     * A sorted run written to a file
+     */
+    static final class Run {
+        final Path file;
+        final long size;
+
+        Run(Path file, long size) {
+            this.file = file;
+            this.size = size;
+        }
+    }
+
+    /**
+     * Reads back the elements of a run, a buffer at a time
+     */
+    /**
+     * Runs spilled from a part of a stream, followed by the elements of that part not spilled yet
+     */
+    private final class RunBuilder {
+        private final int runSize;
+        private final List<Run> runs = new ArrayList<>();
+        private List<T> buffer;
+
+        RunBuilder(int runSize) {
+            this.runSize = runSize;
+            this.buffer = new ArrayList<>(Math.min(runSize, 1 << 10));
+        }
+
+        void add(T element) {
+            buffer.add(element);
+            if (buffer.size() >= runSize) {
+                spillBuffer();
+            }
+        }
+
+        private void spillBuffer() {
+            if (!buffer.isEmpty()) {
+                runs.add(spill(buffer));
+                buffer = new ArrayList<>(Math.min(runSize, 1 << 10));
+            }
+        }
+
+        RunBuilder combine(RunBuilder other) {
+            if (other.runs.isEmpty()) {
+                other.buffer.forEach(this::add);
+            } else {
+                spillBuffer();
+                runs.addAll(other.runs);
+                buffer = other.buffer;
+            }
+            return this;
+        }
+
+        List<Run> finish() {
+            spillBuffer();
+            return runs;
+        }
+    }
+
+    private final class RunReader implements Iterator<T>, Closeable {
+        private final Path file;
+        private long remaining;
+        private FileChannel channel;
+        private ByteBuffer buffer;
+
+        RunReader(Run run) {
+            this.file = run.file;
+            this.remaining = run.size;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (remaining == 0) {
+                close();
+            }
+            return remaining > 0;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                if (channel == null) {
+                    channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.DELETE_ON_CLOSE);
+                    buffer = ByteBuffer.allocate(READ_BUFFER_SIZE).order(ByteOrder.nativeOrder());
+                    buffer.flip();
+                }
+                while (true) {
+                    int start = buffer.position();
+                    try {
+                        T element = serializer.decode(buffer);
+                        remaining--;
+                        return element;
+                    } catch (BufferUnderflowException e) {
+                        buffer.position(start);
+                        fill();
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        /**
+         * Keeps the unread bytes and reads more after them, growing the buffer if an element fills all of it
+         */
+        private void fill() throws IOException {
+            buffer.compact();
+            if (!buffer.hasRemaining()) {
+                buffer.flip();
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2).order(buffer.order()).put(buffer);
+            }
+            int read = channel.read(buffer);
+            buffer.flip();
+            if (read < 0) {
+                throw new IllegalStateException("Run file " + file + " ended in the middle of an element");
+            }
+        }
+
+        @Override
+        public void close() {
+            if (channel != null) {
+                try {
+                    channel.close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            remaining = 0;
+        }
+    }
+
+    /**
+     * Spliterator over the smallest remaining element of several sorted iterators at a time
+     */
+    private final class MergeSpliterator extends Spliterators.AbstractSpliterator<T> {
+        private final PriorityQueue<Head> heap;
+        private boolean started;
+        private T previous;
+
+        MergeSpliterator(List<Iterator<T>> iterators) {
+            super(Long.MAX_VALUE, ORDERED);
+            heap = new PriorityQueue<>((first, second) -> {
+                int order = comparator.compare(first.element, second.element);
+                return order != 0 ? order : Integer.compare(first.index, second.index);
+            });
+            int index = 0;
+            for (Iterator<T> iterator : iterators) {
+                Head head = new Head(iterator, index++);
+                if (head.advance()) {
+                    heap.add(head);
+                }
+            }
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            while (!heap.isEmpty()) {
+                Head head = heap.poll();
+                T element = head.element;
+                if (head.advance()) {
+                    heap.add(head);
+                }
+                if (distinct && started && comparator.compare(previous, element) == 0) {
+                    continue;
+                }
+                started = true;
+                previous = element;
+                action.accept(element);
+                return true;
+            }
+            return false;
+        }
+    }
+
+    /**
+     * The next element of one of the merged iterators
+     */
+    private final class Head {
+        final Iterator<T> iterator;
+        final int index;
+        T element;
+
+        Head(Iterator<T> iterator, int index) {
+            this.iterator = iterator;
+            this.index = index;
+        }
+
+        boolean advance() {
+            if (!iterator.hasNext()) {
+                return false;
+            }
+            element = iterator.next();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package com.andrewjamesjohnson.streams;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Spliterator joining each element of a probe spliterator with the elements of a hash table that have its key
+ *
+ * The table is built before traversal and only read afterwards, so the probe side can be split and the table
+ * shared by every split. An element with several matches is only split from the elements after it once all of
+ * its matches have been emitted, so splitting never reorders the output.
+ *
+ * @param <P> The type of the elements of the probe side
+ * @param <B> The type of the elements in the hash table
+ * @param <K> The type of the join key
+ * @param <R> The type of the joined elements
+ */
+final class HashJoinSpliterator<P, B, K, R> implements Spliterator<R> {
+    private final Spliterator<P> probe;
+    private final Map<K, List<B>> table;
+    private final Function<? super P, ? extends K> keyFunction;
+    private final BiFunction<? super P, ? super B, ? extends R> combiner;
+    private final boolean outer;
+    // The probe element being joined, and the index of its next match
+    private P current;
+    private List<B> matches;
+    private int next;
+
+    /**
+     * @param probe The spliterator of the elements to look up in the table
+     * @param table The elements of the build side, grouped by key
+     * @param keyFunction The function producing the key of a probe element
+     * @param combiner The function combining a probe element with a match
+     * @param outer Whether a probe element without a match is combined with {@code null} rather than dropped
+     */
+    HashJoinSpliterator(Spliterator<P> probe, Map<K, List<B>> table, Function<? super P, ? extends K> keyFunction,
+                        BiFunction<? super P, ? super B, ? extends R> combiner, boolean outer) {
+        this.probe = probe;
+        this.table = table;
+        this.keyFunction = keyFunction;
+        this.combiner = combiner;
+        this.outer = outer;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super R> action) {
+        while (true) {
+            if (matches != null && next < matches.size()) {
+                action.accept(combiner.apply(current, matches.get(next++)));
+                return true;
+            }
+            matches = null;
+            if (!probe.tryAdvance(this::lookUp)) {
+                return false;
+            }
+            if (matches == null && outer) {
+                action.accept(combiner.apply(current, null));
+                return true;
+            }
+        }
+    }
+
+    private void lookUp(P element) {
+        current = element;
+        matches = table.get(keyFunction.apply(element));
+        next = 0;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super R> action) {
+        if (matches != null) {
+            for (; next < matches.size(); next++) {
+                action.accept(combiner.apply(current, matches.get(next)));
+            }
+            matches = null;
+        }
+        probe.forEachRemaining(element -> {
+            List<B> found = table.get(keyFunction.apply(element));
+            if (found != null) {
+                for (B match : found) {
+                    action.accept(combiner.apply(element, match));
+                }
+            } else if (outer) {
+                action.accept(combiner.apply(element, null));
+            }
+        });
+    }
+
+    @Override
+    public Spliterator<R> trySplit() {
+        if (matches != null && next < matches.size()) {
+            return null;
+        }
+        Spliterator<P> prefix = probe.trySplit();
+        return prefix == null ? null : new HashJoinSpliterator<>(prefix, table, keyFunction, combiner, outer);
+    }
+
+    @Override
+    public long estimateSize() {
+        // Assume each probe element has one match
+        return probe.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED;
+    }
+}
@@ -0,0 +1,69 @@
+package com.andrewjamesjohnson.streams;
+
+import java.util.Objects;
+
+/**
+ * An element of a stream paired with its index in that stream
+ *
+ * Unlike a {@link org.apache.commons.lang3.tuple.Pair}, the index is held as a primitive {@code long},
+ * so no boxing takes place and streams longer than {@link Integer#MAX_VALUE} elements are supported
+ *
+ * @param <T> The type of the element
+ */
+public final class Indexed<T> {
+    /**
+     * Creates an {@code Indexed} from an element and its index
+     *
+     * @param value The element
+     * @param index The index of the element
+     * @param <T> The type of the element
+     * @return The new {@code Indexed}
+     */
+    public static <T> Indexed<T> of(T value, long index) {
+        return new Indexed<>(value, index);
+    }
+
+    private final T value;
+    private final long index;
+
+    private Indexed(T value, long index) {
+        this.value = value;
+        this.index = index;
+    }
+
+    /**
+     * @return The element
+     */
+    public T getValue() {
+        return value;
+    }
+
+    /**
+     * @return The index of the element, starting from 0
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof Indexed)) {
+            return false;
+        }
+        Indexed<?> other = (Indexed<?>) obj;
+        return index == other.index && Objects.equals(value, other.value);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hashCode(value) + Long.hashCode(index);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + value + "," + index + ")";
+    }
+}
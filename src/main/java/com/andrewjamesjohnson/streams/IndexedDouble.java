@@ -0,0 +1,63 @@
+package com.andrewjamesjohnson.streams;
+
+/**
+ * A {@code double} element of a stream paired with its index in that stream
+ *
+ * Primitive specialization of {@link Indexed}
+ */
+public final class IndexedDouble {
+    /**
+     * Creates an {@code IndexedDouble} from an element and its index
+     *
+     * @param value The element
+     * @param index The index of the element
+     * @return The new {@code IndexedDouble}
+     */
+    public static IndexedDouble of(double value, long index) {
+        return new IndexedDouble(value, index);
+    }
+
+    private final double value;
+    private final long index;
+
+    private IndexedDouble(double value, long index) {
+        this.value = value;
+        this.index = index;
+    }
+
+    /**
+     * @return The element
+     */
+    public double getValue() {
+        return value;
+    }
+
+    /**
+     * @return The index of the element, starting from 0
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof IndexedDouble)) {
+            return false;
+        }
+        IndexedDouble other = (IndexedDouble) obj;
+        return index == other.index && Double.compare(value, other.value) == 0;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Double.hashCode(value) + Long.hashCode(index);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + value + "," + index + ")";
+    }
+}
@@ -0,0 +1,63 @@
+package com.andrewjamesjohnson.streams;
+
+/**
+ * An {@code int} element of a stream paired with its index in that stream
+ *
+ * Primitive specialization of {@link Indexed}
+ */
+public final class IndexedInt {
+    /**
+     * Creates an {@code IndexedInt} from an element and its index
+     *
+     * @param value The element
+     * @param index The index of the element
+     * @return The new {@code IndexedInt}
+     */
+    public static IndexedInt of(int value, long index) {
+        return new IndexedInt(value, index);
+    }
+
+    private final int value;
+    private final long index;
+
+    private IndexedInt(int value, long index) {
+        this.value = value;
+        this.index = index;
+    }
+
+    /**
+     * @return The element
+     */
+    public int getValue() {
+        return value;
+    }
+
+    /**
+     * @return The index of the element, starting from 0
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof IndexedInt)) {
+            return false;
+        }
+        IndexedInt other = (IndexedInt) obj;
+        return index == other.index && value == other.value;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Integer.hashCode(value) + Long.hashCode(index);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + value + "," + index + ")";
+    }
+}
@@ -0,0 +1,63 @@
+package com.andrewjamesjohnson.streams;
+
+/**
+ * A {@code long} element of a stream paired with its index in that stream
+ *
+ * Primitive specialization of {@link Indexed}
+ */
+public final class IndexedLong {
+    /**
+     * Creates an {@code IndexedLong} from an element and its index
+     *
+     * @param value The element
+     * @param index The index of the element
+     * @return The new {@code IndexedLong}
+     */
+    public static IndexedLong of(long value, long index) {
+        return new IndexedLong(value, index);
+    }
+
+    private final long value;
+    private final long index;
+
+    private IndexedLong(long value, long index) {
+        this.value = value;
+        this.index = index;
+    }
+
+    /**
+     * @return The element
+     */
+    public long getValue() {
+        return value;
+    }
+
+    /**
+     * @return The index of the element, starting from 0
+     */
+    public long getIndex() {
+        return index;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof IndexedLong)) {
+            return false;
+        }
+        IndexedLong other = (IndexedLong) obj;
+        return index == other.index && value == other.value;
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Long.hashCode(value) + Long.hashCode(index);
+    }
+
+    @Override
+    public String toString() {
+        return "(" + value + "," + index + ")";
+    }
+}
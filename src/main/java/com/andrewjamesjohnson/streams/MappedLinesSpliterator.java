@@ -0,0 +1,173 @@
+package com.andrewjamesjohnson.streams;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over the lines of a file, decoded from memory-mapped windows of the file
+ *
+ * Each spliterator covers a range of bytes starting at the beginning of a line. Splitting picks the middle of
+ * the range and moves forward to the start of the next line, so every line falls in exactly one half and the
+ * halves hold roughly equal numbers of bytes. Lines are only decoded as they are consumed.
+ *
+ * Only usable with charsets in which a line feed is always the single byte {@code '\n'}, and that byte never
+ * appears within the encoding of another character, such as UTF-8 and ISO-8859-1.
+ */
+final class MappedLinesSpliterator implements Spliterator<String> {
+    static final int WINDOW_SIZE = 1 << 26;
+    private static final int SCAN_SIZE = 1 << 13;
+
+    private final FileChannel channel;
+    private final Charset charset;
+    private final int windowSize;
+    // The file offset of the next line to read
+    private long position;
+    private final long fence;
+    private MappedByteBuffer window;
+    private long windowStart;
+
+    /**
+     * @param channel The channel of the file
+     * @param charset The charset of the file
+     * @param position The offset of the first line to read
+     * @param fence The offset of the end of the last line to read
+     */
+    MappedLinesSpliterator(FileChannel channel, Charset charset, long position, long fence) {
+        this(channel, charset, position, fence, WINDOW_SIZE);
+    }
+
+    /**
+     * @param windowSize The number of bytes to map at a time, unless a longer line needs a larger window
+     */
+    MappedLinesSpliterator(FileChannel channel, Charset charset, long position, long fence, int windowSize) {
+        this.channel = channel;
+        this.charset = charset;
+        this.windowSize = windowSize;
+        this.position = position;
+        this.fence = fence;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super String> action) {
+        if (position >= fence) {
+            return false;
+        }
+        action.accept(nextLine());
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super String> action) {
+        while (position < fence) {
+            action.accept(nextLine());
+        }
+    }
+
+    private String nextLine() {
+        int minimum = 0;
+        while (true) {
+            if (window == null || position - windowStart + minimum >= window.limit()) {
+                map(minimum);
+            }
+            int start = (int) (position - windowStart);
+            int end = start;
+            int limit = window.limit();
+            while (end < limit && window.get(end) != '\n') {
+                end++;
+            }
+            boolean lastInRange = windowStart + limit >= fence;
+            if (end < limit || lastInRange) {
+                position = windowStart + Math.min(end + 1, limit);
+                return decode(start, end);
+            }
+            // The line continues past the window, so map a window starting at the line that holds all of it
+            minimum = limit - start + 1;
+        }
+    }
+
+    /**
+     * Maps a window starting at the current position, holding at least the given number of bytes
+     */
+    private void map(int minimum) {
+        long size = Math.min(fence - position, Math.max(windowSize, minimum * 2L));
+        if (size > Integer.MAX_VALUE) {
+            size = Math.min(fence - position, Integer.MAX_VALUE);
+        }
+        if (size < minimum) {
+            throw new IllegalStateException("Line at offset " + position + " is too long to map");
+        }
+        try {
+            window = channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        windowStart = position;
+    }
+
+    private String decode(int start, int end) {
+        if (end > start && window.get(end - 1) == '\r') {
+            end--;
+        }
+        byte[] bytes = new byte[end - start];
+        window.position(start);
+        window.get(bytes);
+        return new String(bytes, charset);
+    }
+
+    @Override
+    public Spliterator<String> trySplit() {
+        if (window != null) {
+            return null;
+        }
+        long split = nextLineStart(position + (fence - position) / 2);
+        if (split <= position || split >= fence) {
+            return null;
+        }
+        Spliterator<String> prefix = new MappedLinesSpliterator(channel, charset, position, split, windowSize);
+        position = split;
+        return prefix;
+    }
+
+    /**
+     * Returns the offset of the start of the first line beginning after the given offset, or the fence if none does
+     */
+    private long nextLineStart(long offset) {
+        ByteBuffer scan = ByteBuffer.allocate(SCAN_SIZE);
+        try {
+            while (offset < fence) {
+                scan.clear();
+                scan.limit((int) Math.min(SCAN_SIZE, fence - offset));
+                int read = channel.read(scan, offset);
+                if (read <= 0) {
+                    return fence;
+                }
+                for (int i = 0; i < read; i++) {
+                    if (scan.get(i) == '\n') {
+                        return offset + i + 1;
+                    }
+                }
+                offset += read;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return fence;
+    }
+
+    @Override
+    public long estimateSize() {
+        // The number of lines is unknown, but the remaining bytes are proportional to it
+        return fence - position;
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | NONNULL;
+    }
+}
@@ -0,0 +1,123 @@
+package com.andrewjamesjohnson.streams;
+
+import com.andrewjamesjohnson.io.RecordCodec;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator over the fixed-size records of a file, decoded from memory-mapped windows of the file
+ *
+ * A single mapping is limited to 2GB, so the range of records is mapped a window at a time as it is traversed.
+ * Splitting halves the remaining records. The rest of the current window comes before the unmapped range, so
+ * it is handed to the prefix along with the start of that range, and a spliterator that has started reading can
+ * still split the records it has not mapped yet. Windows use the native byte order, like the buffers written by
+ * {@link RichStream#toByteBuffer(RecordCodec)}.
+ *
+ * @param <T> The type of the records
+ */
+final class MappedRecordSpliterator<T> implements Spliterator<T> {
+    static final long WINDOW_SIZE = 1 << 26;
+
+    private final FileChannel channel;
+    private final RecordCodec<T> codec;
+    private final long recordsPerWindow;
+    private long index;
+    private final long fence;
+    private Spliterator<T> window;
+
+    /**
+     * @param channel The channel of the file, which must hold a whole number of records
+     * @param codec The codec decoding each record
+     * @param index The index of the first record to read
+     * @param fence One past the index of the last record to read
+     */
+    MappedRecordSpliterator(FileChannel channel, RecordCodec<T> codec, long index, long fence) {
+        this(channel, codec, index, fence, Math.max(1, WINDOW_SIZE / codec.recordSize()), null);
+    }
+
+    /**
+     * @param recordsPerWindow The number of records to map at a time
+     * @param window The records of a window mapped already, which precede the index
+     */
+    MappedRecordSpliterator(FileChannel channel, RecordCodec<T> codec, long index, long fence, long recordsPerWindow,
+                            Spliterator<T> window) {
+        this.channel = channel;
+        this.codec = codec;
+        this.recordsPerWindow = recordsPerWindow;
+        this.index = index;
+        this.fence = fence;
+        this.window = window;
+    }
+
+    private boolean mapNextWindow() {
+        if (index >= fence) {
+            return false;
+        }
+        long records = Math.min(fence - index, recordsPerWindow);
+        int recordSize = codec.recordSize();
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, index * recordSize, records * recordSize);
+            buffer.order(ByteOrder.nativeOrder());
+            window = new BufferSpliterator.OfRecords<>(buffer, codec);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        index += records;
+        return true;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super T> action) {
+        do {
+            if (window != null && window.tryAdvance(action)) {
+                return true;
+            }
+        } while (mapNextWindow());
+        return false;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super T> action) {
+        do {
+            if (window != null) {
+                window.forEachRemaining(action);
+            }
+        } while (mapNextWindow());
+    }
+
+    @Override
+    public Spliterator<T> trySplit() {
+        long windowRecords = window == null ? 0 : window.estimateSize();
+        long unmapped = fence - index;
+        if (windowRecords >= unmapped) {
+            // Most of the remaining records are mapped already, so split the current window
+            return windowRecords > 0 ? window.trySplit() : null;
+        }
+        // Give the prefix the rest of the window and enough of the unmapped range to make up half the records
+        long mid = index + ((unmapped - windowRecords) >>> 1);
+        if (windowRecords == 0 && mid == index) {
+            return null;
+        }
+        Spliterator<T> prefix = new MappedRecordSpliterator<>(channel, codec, index, mid, recordsPerWindow,
+                windowRecords > 0 ? window : null);
+        window = null;
+        index = mid;
+        return prefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return fence - index + (window == null ? 0 : window.estimateSize());
+    }
+
+    @Override
+    public int characteristics() {
+        return ORDERED | SIZED | SUBSIZED | IMMUTABLE;
+    }
+}
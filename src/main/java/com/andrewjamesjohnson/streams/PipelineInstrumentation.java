@@ -0,0 +1,112 @@
+package com.andrewjamesjohnson.streams;
+
+import com.andrewjamesjohnson.metrics.MetricsSink;
+import com.andrewjamesjohnson.metrics.StageRecorder;
+
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+/**
+ * Wraps the functions of an instrumented pipeline's stages so they report to a {@link MetricsSink}
+ *
+ * Each wrapped stage gets its own {@link StageRecorder}, named after its position in the pipeline and its
+ * operation. The wrappers time each call with {@link System#nanoTime()} and record any exception before
+ * rethrowing it.
+ */
+final class PipelineInstrumentation {
+    private final String pipeline;
+    private final MetricsSink sink;
+    private int stages;
+
+    PipelineInstrumentation(String pipeline, MetricsSink sink) {
+        this.pipeline = pipeline;
+        this.sink = sink;
+    }
+
+    private StageRecorder nextStage(String operation) {
+        return sink.stage(pipeline, stages++ + ":" + operation);
+    }
+
+    <T> Predicate<T> filter(String operation, Predicate<? super T> predicate) {
+        StageRecorder recorder = nextStage(operation);
+        return element -> {
+            long start = System.nanoTime();
+            boolean result;
+            try {
+                result = predicate.test(element);
+            } catch (RuntimeException | Error e) {
+                recorder.recordException(e);
+                throw e;
+            }
+            recorder.record(System.nanoTime() - start, result);
+            return result;
+        };
+    }
+
+    <T, R> Function<T, R> map(String operation, Function<? super T, ? extends R> mapper) {
+        StageRecorder recorder = nextStage(operation);
+        return element -> {
+            long start = System.nanoTime();
+            R result;
+            try {
+                result = mapper.apply(element);
+            } catch (RuntimeException | Error e) {
+                recorder.recordException(e);
+                throw e;
+            }
+            recorder.record(System.nanoTime() - start, true);
+            return result;
+        };
+    }
+
+    <T> ToIntFunction<T> mapToInt(ToIntFunction<? super T> mapper) {
+        StageRecorder recorder = nextStage("mapToInt");
+        return element -> {
+            long start = System.nanoTime();
+            int result;
+            try {
+                result = mapper.applyAsInt(element);
+            } catch (RuntimeException | Error e) {
+                recorder.recordException(e);
+                throw e;
+            }
+            recorder.record(System.nanoTime() - start, true);
+            return result;
+        };
+    }
+
+    <T> ToLongFunction<T> mapToLong(ToLongFunction<? super T> mapper) {
+        StageRecorder recorder = nextStage("mapToLong");
+        return element -> {
+            long start = System.nanoTime();
+            long result;
+            try {
+                result = mapper.applyAsLong(element);
+            } catch (RuntimeException | Error e) {
+                recorder.recordException(e);
+                throw e;
+            }
+            recorder.record(System.nanoTime() - start, true);
+            return result;
+        };
+    }
+
+    <T> ToDoubleFunction<T> mapToDouble(ToDoubleFunction<? super T> mapper) {
+        StageRecorder recorder = nextStage("mapToDouble");
+        return element -> {
+            long start = System.nanoTime();
+            double result;
+            try {
+                result = mapper.applyAsDouble(element);
+            } catch (RuntimeException | Error e) {
+                recorder.recordException(e);
+                throw e;
+            }
+            recorder.record(System.nanoTime() - start, true);
+            return result;
+        };
+    }
+}
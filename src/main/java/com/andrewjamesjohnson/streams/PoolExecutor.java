@@ -0,0 +1,81 @@
+package com.andrewjamesjohnson.streams;
+
+import com.andrewjamesjohnson.exceptions.LambdaWrappedCheckedException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
+
+/**
+ * Runs the terminal operations of streams bound to a {@link ForkJoinPool}
+ *
+ * A parallel stream's work is forked into the pool of the thread running its terminal operation, so running
+ * that operation inside a given pool confines the whole computation to it
+ */
+final class PoolExecutor {
+    private PoolExecutor() {
+    }
+
+    /**
+     * Performs an operation in the given pool, or in the current thread if there is no pool
+     * or the current thread already belongs to it
+     *
+     * @param pool The pool to run in, or null
+     * @param operation The operation to perform
+     * @param <R> The type of the result of the operation
+     * @return The result of the operation
+     */
+    static <R> R call(ForkJoinPool pool, Supplier<R> operation) {
+        if (pool == null || ForkJoinTask.getPool() == pool) {
+            return operation.get();
+        }
+        // CompletableFuture reports the original exception, where ForkJoinTask may rethrow a copy of it
+        try {
+            return CompletableFuture.supplyAsync(operation, pool).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw LambdaWrappedCheckedException.wrap(e);
+        } catch (ExecutionException e) {
+            Throwable cause = unwrapCopies(e.getCause());
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            if (cause instanceof Exception) {
+                throw LambdaWrappedCheckedException.wrap((Exception) cause);
+            }
+            throw new LambdaWrappedCheckedException(cause);
+        }
+    }
+
+    /**
+     * Performs an operation in the given pool, or in the current thread if there is no pool
+     * or the current thread already belongs to it
+     *
+     * @param pool The pool to run in, or null
+     * @param operation The operation to perform
+     */
+    static void run(ForkJoinPool pool, Runnable operation) {
+        call(pool, () -> {
+            operation.run();
+            return null;
+        });
+    }
+
+    /**
+     * Strips the copies ForkJoinTask makes of an exception when rethrowing it in a thread other than the one
+     * that threw it, so that a wrapped checked exception keeps the original exception as its cause
+     */
+    private static Throwable unwrapCopies(Throwable exception) {
+        while (exception instanceof LambdaWrappedCheckedException
+                && exception.getCause() != null
+                && exception.getCause().getClass() == exception.getClass()) {
+            exception = exception.getCause();
+        }
+        return exception;
+    }
+}
@@ -0,0 +1,47 @@
+package com.andrewjamesjohnson.streams;
+
+import com.andrewjamesjohnson.collections.IntObjectMap;
+import com.andrewjamesjohnson.collections.LongObjectMap;
+
+import java.util.Spliterator;
+
+/**
+ * Helpers for collecting streams into the primitive collections of {@link com.andrewjamesjohnson.collections}
+ */
+final class PrimitiveCollections {
+    private static final int DEFAULT_EXPECTED_SIZE = 16;
+
+    private PrimitiveCollections() {
+    }
+
+    /**
+     * Returns the number of elements a collection built from a spliterator should be presized for
+     *
+     * @param spliterator The spliterator
+     * @return The exact size of the spliterator if known, otherwise a small default
+     */
+    static int expectedSize(Spliterator<?> spliterator) {
+        long size = spliterator.getExactSizeIfKnown();
+        return size < 0 ? DEFAULT_EXPECTED_SIZE : (int) Math.min(size, Integer.MAX_VALUE);
+    }
+
+    static <V> void putUnique(IntObjectMap<V> map, int key, V value) {
+        if (map.putIfAbsent(key, value) != null) {
+            throw new IllegalStateException("Duplicate key " + key);
+        }
+    }
+
+    static <V> void putUnique(LongObjectMap<V> map, long key, V value) {
+        if (map.putIfAbsent(key, value) != null) {
+            throw new IllegalStateException("Duplicate key " + key);
+        }
+    }
+
+    static <V> void putAllUnique(IntObjectMap<V> map, IntObjectMap<V> other) {
+        other.forEach((key, value) -> putUnique(map, key, value));
+    }
+
+    static <V> void putAllUnique(LongObjectMap<V> map, LongObjectMap<V> other) {
+        other.forEach((key, value) -> putUnique(map, key, value));
+    }
+}
@@ -0,0 +1,181 @@
+package com.andrewjamesjohnson.streams;
+
+import java.util.Spliterator;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongConsumer;
+import java.util.stream.DoubleStream;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Primitive specialization of {@link ZipSpliterator}, combining elements without boxing
+ *
+ * Sources are only split when they can be split in lock-step; there is no batching fallback.
+ *
+ * @param <T> The wrapper type of the primitive elements
+ * @param <C> The primitive consumer type
+ * @param <S> The primitive spliterator type
+ */
+abstract class PrimitiveZipSpliterator<T, C, S extends Spliterator.OfPrimitive<T, C, S>> implements Spliterator.OfPrimitive<T, C, S> {
+    S left;
+    S right;
+    private boolean splitInLockStep = true;
+
+    private PrimitiveZipSpliterator(S left, S right) {
+        this.left = left;
+        this.right = right;
+    }
+
+    /**
+     * Creates a spliterator zipping the given prefixes of the sources
+     *
+     * @param left The prefix of the first source
+     * @param right The prefix of the second source
+     * @return The new spliterator
+     */
+    abstract S prefix(S left, S right);
+
+    /**
+     * Concatenates two spliterators of the source type
+     *
+     * @param first The first spliterator
+     * @param second The second spliterator
+     * @return A spliterator covering the elements of both
+     */
+    abstract S concat(S first, S second);
+
+    @Override
+    public S trySplit() {
+        if (!splitInLockStep || !left.hasCharacteristics(SUBSIZED) || !right.hasCharacteristics(SUBSIZED)
+                || left.estimateSize() != right.estimateSize()) {
+            return null;
+        }
+        S leftPrefix = left.trySplit();
+        if (leftPrefix == null) {
+            return null;
+        }
+        S rightPrefix = right.trySplit();
+        if (rightPrefix != null && leftPrefix.getExactSizeIfKnown() == rightPrefix.getExactSizeIfKnown()) {
+            return prefix(leftPrefix, rightPrefix);
+        }
+
+        // The sources split at different points, so put the prefixes back and stop trying
+        splitInLockStep = false;
+        left = concat(leftPrefix, left);
+        if (rightPrefix != null) {
+            right = concat(rightPrefix, right);
+        }
+        return null;
+    }
+
+    @Override
+    public long estimateSize() {
+        return Math.min(left.estimateSize(), right.estimateSize());
+    }
+
+    @Override
+    public int characteristics() {
+        return left.characteristics() & right.characteristics() & (ORDERED | SIZED | SUBSIZED);
+    }
+
+    static final class OfInt extends PrimitiveZipSpliterator<Integer, IntConsumer, Spliterator.OfInt> implements Spliterator.OfInt {
+        private final IntBinaryOperator combiner;
+        private int leftValue;
+        private int rightValue;
+        private final IntConsumer leftHolder = value -> leftValue = value;
+        private final IntConsumer rightHolder = value -> rightValue = value;
+
+        OfInt(Spliterator.OfInt left, Spliterator.OfInt right, IntBinaryOperator combiner) {
+            super(left, right);
+            this.combiner = combiner;
+        }
+
+        @Override
+        public boolean tryAdvance(IntConsumer action) {
+            if (left.tryAdvance(leftHolder) && right.tryAdvance(rightHolder)) {
+                action.accept(combiner.applyAsInt(leftValue, rightValue));
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        Spliterator.OfInt prefix(Spliterator.OfInt left, Spliterator.OfInt right) {
+            return new PrimitiveZipSpliterator.OfInt(left, right, combiner);
+        }
+
+        @Override
+        Spliterator.OfInt concat(Spliterator.OfInt first, Spliterator.OfInt second) {
+            return IntStream.concat(StreamSupport.intStream(first, false), StreamSupport.intStream(second, false)).spliterator();
+        }
+    }
+
+    static final class OfLong extends PrimitiveZipSpliterator<Long, LongConsumer, Spliterator.OfLong> implements Spliterator.OfLong {
+        private final LongBinaryOperator combiner;
+        private long leftValue;
+        private long rightValue;
+        private final LongConsumer leftHolder = value -> leftValue = value;
+        private final LongConsumer rightHolder = value -> rightValue = value;
+
+        OfLong(Spliterator.OfLong left, Spliterator.OfLong right, LongBinaryOperator combiner) {
+            super(left, right);
+            this.combiner = combiner;
+        }
+
+        @Override
+        public boolean tryAdvance(LongConsumer action) {
+            if (left.tryAdvance(leftHolder) && right.tryAdvance(rightHolder)) {
+                action.accept(combiner.applyAsLong(leftValue, rightValue));
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        Spliterator.OfLong prefix(Spliterator.OfLong left, Spliterator.OfLong right) {
+            return new PrimitiveZipSpliterator.OfLong(left, right, combiner);
+        }
+
+        @Override
+        Spliterator.OfLong concat(Spliterator.OfLong first, Spliterator.OfLong second) {
+            return LongStream.concat(StreamSupport.longStream(first, false), StreamSupport.longStream(second, false)).spliterator();
+        }
+    }
+
+    static final class OfDouble extends PrimitiveZipSpliterator<Double, DoubleConsumer, Spliterator.OfDouble> implements Spliterator.OfDouble {
+        private final DoubleBinaryOperator combiner;
+        private double leftValue;
+        private double rightValue;
+        private final DoubleConsumer leftHolder = value -> leftValue = value;
+        private final DoubleConsumer rightHolder = value -> rightValue = value;
+
+        OfDouble(Spliterator.OfDouble left, Spliterator.OfDouble right, DoubleBinaryOperator combiner) {
+            super(left, right);
+            this.combiner = combiner;
+        }
+
+        @Override
+        public boolean tryAdvance(DoubleConsumer action) {
+            if (left.tryAdvance(leftHolder) && right.tryAdvance(rightHolder)) {
+                action.accept(combiner.applyAsDouble(leftValue, rightValue));
+                return true;
+            }
+            return false;
+        }
+
+        @Override
+        Spliterator.OfDouble prefix(Spliterator.OfDouble left, Spliterator.OfDouble right) {
+            return new PrimitiveZipSpliterator.OfDouble(left, right, combiner);
+        }
+
+        @Override
+        Spliterator.OfDouble concat(Spliterator.OfDouble first, Spliterator.OfDouble second) {
+            return DoubleStream.concat(StreamSupport.doubleStream(first, false), StreamSupport.doubleStream(second, false)).spliterator();
+        }
+    }
+}
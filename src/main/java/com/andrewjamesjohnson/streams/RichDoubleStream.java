@@ -0,0 +1,408 @@
+package com.andrewjamesjohnson.streams;
+
+import com.andrewjamesjohnson.exceptions.*;
+import com.andrewjamesjohnson.functional.DoubleLongPairFunction;
+import com.andrewjamesjohnson.io.RecordCodec;
+
+import java.nio.DoubleBuffer;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.*;
+import java.util.stream.*;
+
+/**
+ * Wrapper class to support enhancements to {@link DoubleStream}
+ *
+ * Primitive specialization of {@link RichStream}
+ */
+public final class RichDoubleStream implements DoubleStream {
+    /**
+     * Creates a {@code RichDoubleStream} from a {@code DoubleStream}
+     *
+     * @param stream The stream to wrap
+     * @return A {@code RichDoubleStream} wrapping the given stream
+     */
+    public static RichDoubleStream of(DoubleStream stream) {
+        return new RichDoubleStream(stream, null);
+    }
+
+    /**
+     * Creates a {@code RichDoubleStream} from an array
+     *
+     * @param array The array to wrap
+     * @return A {@code RichDoubleStream} wrapping the given array
+     */
+    public static RichDoubleStream of(double[] array) {
+        return of(Arrays.stream(array));
+    }
+
+    /**
+     * Creates a {@code RichDoubleStream} of the elements of a {@code DoubleBuffer}, from its position up to its limit
+     *
+     * The buffer may be a view of off-heap memory, and a parallel stream splits it into ranges of elements.
+     * The buffer's position is not changed.
+     *
+     * @param buffer The buffer to read
+     * @return A {@code RichDoubleStream} of the elements of the buffer
+     */
+    public static RichDoubleStream of(DoubleBuffer buffer) {
+        return of(StreamSupport.doubleStream(new BufferSpliterator.OfDouble(buffer), false));
+    }
+
+    private final DoubleStream stream;
+    private final ForkJoinPool pool;
+
+    RichDoubleStream(DoubleStream stream, ForkJoinPool pool) {
+        this.stream = stream;
+        this.pool = pool;
+    }
+
+    private RichDoubleStream chain(DoubleStream next) {
+        return new RichDoubleStream(next, pool);
+    }
+
+    /**
+     * Returns a stream consisting of the elements of this stream that do not match
+     * the given predicate.
+     *
+     * @param predicate A {@code DoublePredicate} returning true if an element should not be included
+     * @return the new stream
+     */
+    public RichDoubleStream filterNot(DoublePredicate predicate) {
+        return chain(stream.filter(element -> !predicate.test(element)));
+    }
+
+    /**
+     * Returns a stream consisting of the elements of this stream that do not match
+     * the given predicate.
+     *
+     * @param predicate A {@link DoublePredicateWithCheckedException} returning true if an element should not be included
+     * @return the new stream
+     */
+    public RichDoubleStream filterNot(DoublePredicateWithCheckedException predicate) {
+        return chain(stream.filter((DoublePredicateWithCheckedException) element -> !predicate.testWithCheckedException(element)));
+    }
+
+    /**
+     * Returns a stream consisting of each original element paired with the index of that element
+     *
+     * Indices are assigned from the position of each element rather than a shared counter,
+     * so they remain correct when the stream is parallel
+     *
+     * @return The new stream
+     */
+    public RichStream<IndexedDouble> zipWithIndex() {
+        return zipWithIndex(IndexedDouble::of);
+    }
+
+    /**
+     * Returns a stream consisting of the results of combining each original element with the index of that element
+     *
+     * Unlike {@link #zipWithIndex()}, no {@link IndexedDouble} is allocated for each element
+     *
+     * @param combiner A {@code DoubleLongPairFunction} combining an element with its index
+     * @param <U> The type of elements in the new stream
+     * @return The new stream
+     */
+    public <U> RichStream<U> zipWithIndex(DoubleLongPairFunction<? extends U> combiner) {
+        return new RichStream<>(StreamSupport.stream(new ZipWithIndexSpliterator.OfDouble<U>(stream.spliterator(), combiner), stream.isParallel())
+                .onClose(stream::close), pool);
+    }
+
+    /**
+     * Returns a stream consisting of the results of combining elements from this stream and another
+     *
+     * The resulting stream has the same length as the shorter of the two streams
+     * Not recommended for use on infinite streams!
+     *
+     * @param other The other stream
+     * @param combiner A {@code DoubleBinaryOperator} combining an element of this stream with an element of the other
+     * @return The new stream
+     */
+    public RichDoubleStream zip(DoubleStream other, DoubleBinaryOperator combiner) {
+        Spliterator.OfDouble spliterator = new PrimitiveZipSpliterator.OfDouble(stream.spliterator(), other.spliterator(), combiner);
+        return chain(StreamSupport.doubleStream(spliterator, stream.isParallel())
+                .onClose(stream::close)
+                .onClose(other::close));
+    }
+
+    /**
+     * Writes this stream to a new {@code DoubleBuffer} backed by off-heap memory
+     *
+     * See {@link RichStream#toByteBuffer(RecordCodec)}
+     *
+     * @return The new buffer in native byte order, with the elements from position zero up to its limit
+     * @throws IllegalArgumentException If the elements don't fit in a single buffer
+     */
+    public DoubleBuffer toDoubleBuffer() {
+        Spliterator.OfDouble spliterator = stream.spliterator();
+        DoubleStream source = StreamSupport.doubleStream(spliterator, stream.isParallel());
+        if (spliterator.hasCharacteristics(Spliterator.SIZED)) {
+            DoubleBuffer buffer = BufferAppender.allocate(spliterator.getExactSizeIfKnown(), Double.BYTES).asDoubleBuffer();
+            new RichDoubleStream(source, pool).zipWithIndex()
+                    .forEach(element -> buffer.put((int) element.getIndex(), element.getValue()));
+            return buffer;
+        }
+        BufferAppender appender = new BufferAppender(Double.BYTES);
+        PoolExecutor.run(pool, () -> source.forEachOrdered(element -> {
+            int offset = appender.reserve();
+            appender.buffer().putDouble(offset, element);
+        }));
+        return appender.finish().asDoubleBuffer();
+    }
+
+    // Wrapped methods below
+
+    @Override
+    public RichDoubleStream filter(DoublePredicate predicate) {
+        return chain(stream.filter(predicate));
+    }
+
+    public RichDoubleStream filter(DoublePredicateWithCheckedException predicate) {
+        return chain(stream.filter(predicate));
+    }
+
+    @Override
+    public RichDoubleStream map(DoubleUnaryOperator mapper) {
+        return chain(stream.map(mapper));
+    }
+
+    public RichDoubleStream map(DoubleUnaryOperatorWithCheckedException mapper) {
+        return chain(stream.map(mapper));
+    }
+
+    @Override
+    public <U> RichStream<U> mapToObj(DoubleFunction<? extends U> mapper) {
+        return new RichStream<>(stream.mapToObj(mapper), pool);
+    }
+
+    public <U> RichStream<U> mapToObj(DoubleFunctionWithCheckedException<? extends U> mapper) {
+        return new RichStream<>(stream.mapToObj(mapper), pool);
+    }
+
+    @Override
+    public RichIntStream mapToInt(DoubleToIntFunction mapper) {
+        return new RichIntStream(stream.mapToInt(mapper), pool);
+    }
+
+    public RichIntStream mapToInt(DoubleToIntFunctionWithCheckedException mapper) {
+        return new RichIntStream(stream.mapToInt(mapper), pool);
+    }
+
+    @Override
+    public RichLongStream mapToLong(DoubleToLongFunction mapper) {
+        return new RichLongStream(stream.mapToLong(mapper), pool);
+    }
+
+    public RichLongStream mapToLong(DoubleToLongFunctionWithCheckedException mapper) {
+        return new RichLongStream(stream.mapToLong(mapper), pool);
+    }
+
+    @Override
+    public RichDoubleStream flatMap(DoubleFunction<? extends DoubleStream> mapper) {
+        return chain(stream.flatMap(mapper));
+    }
+
+    public RichDoubleStream flatMap(DoubleFunctionWithCheckedException<? extends DoubleStream> mapper) {
+        return chain(stream.flatMap(mapper));
+    }
+
+    @Override
+    public RichDoubleStream distinct() {
+        return chain(stream.distinct());
+    }
+
+    @Override
+    public RichDoubleStream sorted() {
+        return chain(stream.sorted());
+    }
+
+    @Override
+    public RichDoubleStream peek(DoubleConsumer action) {
+        return chain(stream.peek(action));
+    }
+
+    public RichDoubleStream peek(DoubleConsumerWithCheckedException action) {
+        return chain(stream.peek(action));
+    }
+
+    @Override
+    public RichDoubleStream limit(long maxSize) {
+        return chain(stream.limit(maxSize));
+    }
+
+    @Override
+    public RichDoubleStream skip(long n) {
+        return chain(stream.skip(n));
+    }
+
+    @Override
+    public void forEach(DoubleConsumer action) {
+        PoolExecutor.run(pool, () -> stream.forEach(action));
+    }
+
+    public void forEach(DoubleConsumerWithCheckedException action) {
+        PoolExecutor.run(pool, () -> stream.forEach(action));
+    }
+
+    @Override
+    public void forEachOrdered(DoubleConsumer action) {
+        PoolExecutor.run(pool, () -> stream.forEachOrdered(action));
+    }
+
+    public void forEachOrdered(DoubleConsumerWithCheckedException action) {
+        PoolExecutor.run(pool, () -> stream.forEachOrdered(action));
+    }
+
+    @Override
+    public double[] toArray() {
+        return PoolExecutor.call(pool, () -> stream.toArray());
+    }
+
+    @Override
+    public double reduce(double identity, DoubleBinaryOperator op) {
+        return PoolExecutor.call(pool, () -> stream.reduce(identity, op));
+    }
+
+    public double reduce(double identity, DoubleBinaryOperatorWithCheckedException op) {
+        return PoolExecutor.call(pool, () -> stream.reduce(identity, op));
+    }
+
+    @Override
+    public OptionalDouble reduce(DoubleBinaryOperator op) {
+        return PoolExecutor.call(pool, () -> stream.reduce(op));
+    }
+
+    public OptionalDouble reduce(DoubleBinaryOperatorWithCheckedException op) {
+        return PoolExecutor.call(pool, () -> stream.reduce(op));
+    }
+
+    @Override
+    public <R> R collect(Supplier<R> supplier, ObjDoubleConsumer<R> accumulator, BiConsumer<R, R> combiner) {
+        return PoolExecutor.call(pool, () -> stream.collect(supplier, accumulator, combiner));
+    }
+
+    @Override
+    public double sum() {
+        return PoolExecutor.call(pool, () -> stream.sum());
+    }
+
+    @Override
+    public OptionalDouble min() {
+        return PoolExecutor.call(pool, () -> stream.min());
+    }
+
+    @Override
+    public OptionalDouble max() {
+        return PoolExecutor.call(pool, () -> stream.max());
+    }
+
+    @Override
+    public long count() {
+        return PoolExecutor.call(pool, () -> stream.count());
+    }
+
+    @Override
+    public OptionalDouble average() {
+        return PoolExecutor.call(pool, () -> stream.average());
+    }
+
+    @Override
+    public DoubleSummaryStatistics summaryStatistics() {
+        return PoolExecutor.call(pool, () -> stream.summaryStatistics());
+    }
+
+    @Override
+    public boolean anyMatch(DoublePredicate predicate) {
+        return PoolExecutor.call(pool, () -> stream.anyMatch(predicate));
+    }
+
+    public boolean anyMatch(DoublePredicateWithCheckedException predicate) {
+        return PoolExecutor.call(pool, () -> stream.anyMatch(predicate));
+    }
+
+    @Override
+    public boolean allMatch(DoublePredicate predicate) {
+        return PoolExecutor.call(pool, () -> stream.allMatch(predicate));
+    }
+
+    public boolean allMatch(DoublePredicateWithCheckedException predicate) {
+        return PoolExecutor.call(pool, () -> stream.allMatch(predicate));
+    }
+
+    @Override
+    public boolean noneMatch(DoublePredicate predicate) {
+        return PoolExecutor.call(pool, () -> stream.noneMatch(predicate));
+    }
+
+    public boolean noneMatch(DoublePredicateWithCheckedException predicate) {
+        return PoolExecutor.call(pool, () -> stream.noneMatch(predicate));
+    }
+
+    @Override
+    public OptionalDouble findFirst() {
+        return PoolExecutor.call(pool, () -> stream.findFirst());
+    }
+
+    @Override
+    public OptionalDouble findAny() {
+        return PoolExecutor.call(pool, () -> stream.findAny());
+    }
+
+    @Override
+    public RichStream<Double> boxed() {
+        return new RichStream<>(stream.boxed(), pool);
+    }
+
+    @Override
+    public RichDoubleStream sequential() {
+        return chain(stream.sequential());
+    }
+
+    @Override
+    public RichDoubleStream parallel() {
+        return chain(stream.parallel());
+    }
+
+    /**
+     * Returns an equivalent parallel stream whose terminal operation runs in the given pool
+     *
+     * See {@link RichStream#parallel(ForkJoinPool)}
+     *
+     * @param pool The pool to run the terminal operation in
+     * @return The new stream
+     */
+    public RichDoubleStream parallel(ForkJoinPool pool) {
+        return new RichDoubleStream(stream.parallel(), Objects.requireNonNull(pool));
+    }
+
+    @Override
+    public RichDoubleStream unordered() {
+        return chain(stream.unordered());
+    }
+
+    @Override
+    public RichDoubleStream onClose(Runnable closeHandler) {
+        return chain(stream.onClose(closeHandler));
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+
+    @Override
+    public PrimitiveIterator.OfDouble iterator() {
+        return stream.iterator();
+    }
+
+    @Override
+    public Spliterator.OfDouble spliterator() {
+        return stream.spliterator();
+    }
+
+    @Override
+    public boolean isParallel() {
+        return stream.isParallel();
+    }
+}
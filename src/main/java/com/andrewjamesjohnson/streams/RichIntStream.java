@@ -0,0 +1,481 @@
+package com.andrewjamesjohnson.streams;
+
+import com.andrewjamesjohnson.collections.IntObjectMap;
+import com.andrewjamesjohnson.collections.IntSet;
+import com.andrewjamesjohnson.exceptions.*;
+import com.andrewjamesjohnson.functional.IntLongPairFunction;
+import com.andrewjamesjohnson.io.RecordCodec;
+import com.andrewjamesjohnson.sketches.HyperLogLog;
+
+import java.nio.IntBuffer;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.*;
+import java.util.stream.*;
+
+/**
+ * Wrapper class to support enhancements to {@link IntStream}
+ *
+ * Primitive specialization of {@link RichStream}
+ */
+public final class RichIntStream implements IntStream {
+    /**
+     * Creates a {@code RichIntStream} from an {@code IntStream}
+     *
+     * @param stream The stream to wrap
+     * @return A {@code RichIntStream} wrapping the given stream
+     */
+    public static RichIntStream of(IntStream stream) {
+        return new RichIntStream(stream, null);
+    }
+
+    /**
+     * Creates a {@code RichIntStream} from an array
+     *
+     * @param array The array to wrap
+     * @return A {@code RichIntStream} wrapping the given array
+     */
+    public static RichIntStream of(int[] array) {
+        return of(Arrays.stream(array));
+    }
+
+    /**
+     * Creates a {@code RichIntStream} of the elements of an {@code IntBuffer}, from its position up to its limit
+     *
+     * The buffer may be a view of off-heap memory, and a parallel stream splits it into ranges of elements.
+     * The buffer's position is not changed.
+     *
+     * @param buffer The buffer to read
+     * @return A {@code RichIntStream} of the elements of the buffer
+     */
+    public static RichIntStream of(IntBuffer buffer) {
+        return of(StreamSupport.intStream(new BufferSpliterator.OfInt(buffer), false));
+    }
+
+    private final IntStream stream;
+    private final ForkJoinPool pool;
+
+    RichIntStream(IntStream stream, ForkJoinPool pool) {
+        this.stream = stream;
+        this.pool = pool;
+    }
+
+    private RichIntStream chain(IntStream next) {
+        return new RichIntStream(next, pool);
+    }
+
+    /**
+     * Returns a stream consisting of the elements of this stream that do not match
+     * the given predicate.
+     *
+     * @param predicate An {@code IntPredicate} returning true if an element should not be included
+     * @return the new stream
+     */
+    public RichIntStream filterNot(IntPredicate predicate) {
+        return chain(stream.filter(element -> !predicate.test(element)));
+    }
+
+    /**
+     * Returns a stream consisting of the elements of this stream that do not match
+     * the given predicate.
+     *
+     * @param predicate A {@link IntPredicateWithCheckedException} returning true if an element should not be included
+     * @return the new stream
+     */
+    public RichIntStream filterNot(IntPredicateWithCheckedException predicate) {
+        return chain(stream.filter((IntPredicateWithCheckedException) element -> !predicate.testWithCheckedException(element)));
+    }
+
+    /**
+     * Returns a stream consisting of each original element paired with the index of that element
+     *
+     * Indices are assigned from the position of each element rather than a shared counter,
+     * so they remain correct when the stream is parallel
+     *
+     * @return The new stream
+     */
+    public RichStream<IndexedInt> zipWithIndex() {
+        return zipWithIndex(IndexedInt::of);
+    }
+
+    /**
+     * Returns a stream consisting of the results of combining each original element with the index of that element
+     *
+     * Unlike {@link #zipWithIndex()}, no {@link IndexedInt} is allocated for each element
+     *
+     * @param combiner An {@code IntLongPairFunction} combining an element with its index
+     * @param <U> The type of elements in the new stream
+     * @return The new stream
+     */
+    public <U> RichStream<U> zipWithIndex(IntLongPairFunction<? extends U> combiner) {
+        return new RichStream<>(StreamSupport.stream(new ZipWithIndexSpliterator.OfInt<U>(stream.spliterator(), combiner), stream.isParallel())
+                .onClose(stream::close), pool);
+    }
+
+    /**
+     * Returns a stream consisting of the results of combining elements from this stream and another
+     *
+     * The resulting stream has the same length as the shorter of the two streams
+     * Not recommended for use on infinite streams!
+     *
+     * @param other The other stream
+     * @param combiner An {@code IntBinaryOperator} combining an element of this stream with an element of the other
+     * @return The new stream
+     */
+    public RichIntStream zip(IntStream other, IntBinaryOperator combiner) {
+        Spliterator.OfInt spliterator = new PrimitiveZipSpliterator.OfInt(stream.spliterator(), other.spliterator(), combiner);
+        return chain(StreamSupport.intStream(spliterator, stream.isParallel())
+                .onClose(stream::close)
+                .onClose(other::close));
+    }
+
+    /**
+     * Converts this stream to a set of primitive {@code int} values, which are not boxed
+     *
+     * @return The new set
+     */
+    public IntSet toIntSet() {
+        if (stream.isParallel()) {
+            return collect(IntSet::new, IntSet::add, IntSet::addAll);
+        }
+        Spliterator.OfInt spliterator = stream.spliterator();
+        IntSet set = new IntSet(PrimitiveCollections.expectedSize(spliterator));
+        spliterator.forEachRemaining((IntConsumer) set::add);
+        return set;
+    }
+
+    /**
+     * Estimates the number of distinct elements of this stream with a {@link HyperLogLog}, in constant memory
+     *
+     * @return The estimated number of distinct elements
+     */
+    public long countDistinctApproximately() {
+        return collect(HyperLogLog::new, HyperLogLog::addInt, HyperLogLog::merge).cardinality();
+    }
+
+    /**
+     * Converts this stream to a map, with the elements as primitive {@code int} keys
+     *
+     * @param valueFunction An {@code IntFunction} on elements to produce the map values
+     * @param <V> The type of the map values
+     * @return The new map
+     * @throws IllegalStateException If the stream contains duplicate elements
+     */
+    public <V> IntObjectMap<V> toIntObjectMap(IntFunction<V> valueFunction) {
+        return collectToIntObjectMap(valueFunction);
+    }
+
+    /**
+     * Converts this stream to a map, with the elements as primitive {@code int} keys
+     *
+     * @param valueFunction An {@link IntFunctionWithCheckedException} on elements to produce the map values
+     * @param <V> The type of the map values
+     * @return The new map
+     * @throws IllegalStateException If the stream contains duplicate elements
+     */
+    public <V> IntObjectMap<V> toIntObjectMap(IntFunctionWithCheckedException<V> valueFunction) {
+        return collectToIntObjectMap(valueFunction);
+    }
+
+    private <V> IntObjectMap<V> collectToIntObjectMap(IntFunction<? extends V> valueFunction) {
+        if (stream.isParallel()) {
+            return collect(IntObjectMap<V>::new,
+                    (map, element) -> PrimitiveCollections.putUnique(map, element, valueFunction.apply(element)),
+                    PrimitiveCollections::putAllUnique);
+        }
+        Spliterator.OfInt spliterator = stream.spliterator();
+        IntObjectMap<V> map = new IntObjectMap<>(PrimitiveCollections.expectedSize(spliterator));
+        spliterator.forEachRemaining((IntConsumer) element -> PrimitiveCollections.putUnique(map, element, valueFunction.apply(element)));
+        return map;
+    }
+
+    /**
+     * Writes this stream to a new {@code IntBuffer} backed by off-heap memory
+     *
+     * See {@link RichStream#toByteBuffer(RecordCodec)}
+     *
+     * @return The new buffer in native byte order, with the elements from position zero up to its limit
+     * @throws IllegalArgumentException If the elements don't fit in a single buffer
+     */
+    public IntBuffer toIntBuffer() {
+        Spliterator.OfInt spliterator = stream.spliterator();
+        IntStream source = StreamSupport.intStream(spliterator, stream.isParallel());
+        if (spliterator.hasCharacteristics(Spliterator.SIZED)) {
+            IntBuffer buffer = BufferAppender.allocate(spliterator.getExactSizeIfKnown(), Integer.BYTES).asIntBuffer();
+            new RichIntStream(source, pool).zipWithIndex()
+                    .forEach(element -> buffer.put((int) element.getIndex(), element.getValue()));
+            return buffer;
+        }
+        BufferAppender appender = new BufferAppender(Integer.BYTES);
+        PoolExecutor.run(pool, () -> source.forEachOrdered(element -> {
+            int offset = appender.reserve();
+            appender.buffer().putInt(offset, element);
+        }));
+        return appender.finish().asIntBuffer();
+    }
+
+    // Wrapped methods below
+
+    @Override
+    public RichIntStream filter(IntPredicate predicate) {
+        return chain(stream.filter(predicate));
+    }
+
+    public RichIntStream filter(IntPredicateWithCheckedException predicate) {
+        return chain(stream.filter(predicate));
+    }
+
+    @Override
+    public RichIntStream map(IntUnaryOperator mapper) {
+        return chain(stream.map(mapper));
+    }
+
+    public RichIntStream map(IntUnaryOperatorWithCheckedException mapper) {
+        return chain(stream.map(mapper));
+    }
+
+    @Override
+    public <U> RichStream<U> mapToObj(IntFunction<? extends U> mapper) {
+        return new RichStream<>(stream.mapToObj(mapper), pool);
+    }
+
+    public <U> RichStream<U> mapToObj(IntFunctionWithCheckedException<? extends U> mapper) {
+        return new RichStream<>(stream.mapToObj(mapper), pool);
+    }
+
+    @Override
+    public RichLongStream mapToLong(IntToLongFunction mapper) {
+        return new RichLongStream(stream.mapToLong(mapper), pool);
+    }
+
+    public RichLongStream mapToLong(IntToLongFunctionWithCheckedException mapper) {
+        return new RichLongStream(stream.mapToLong(mapper), pool);
+    }
+
+    @Override
+    public RichDoubleStream mapToDouble(IntToDoubleFunction mapper) {
+        return new RichDoubleStream(stream.mapToDouble(mapper), pool);
+    }
+
+    public RichDoubleStream mapToDouble(IntToDoubleFunctionWithCheckedException mapper) {
+        return new RichDoubleStream(stream.mapToDouble(mapper), pool);
+    }
+
+    @Override
+    public RichIntStream flatMap(IntFunction<? extends IntStream> mapper) {
+        return chain(stream.flatMap(mapper));
+    }
+
+    public RichIntStream flatMap(IntFunctionWithCheckedException<? extends IntStream> mapper) {
+        return chain(stream.flatMap(mapper));
+    }
+
+    @Override
+    public RichIntStream distinct() {
+        return chain(stream.distinct());
+    }
+
+    @Override
+    public RichIntStream sorted() {
+        return chain(stream.sorted());
+    }
+
+    @Override
+    public RichIntStream peek(IntConsumer action) {
+        return chain(stream.peek(action));
+    }
+
+    public RichIntStream peek(IntConsumerWithCheckedException action) {
+        return chain(stream.peek(action));
+    }
+
+    @Override
+    public RichIntStream limit(long maxSize) {
+        return chain(stream.limit(maxSize));
+    }
+
+    @Override
+    public RichIntStream skip(long n) {
+        return chain(stream.skip(n));
+    }
+
+    @Override
+    public void forEach(IntConsumer action) {
+        PoolExecutor.run(pool, () -> stream.forEach(action));
+    }
+
+    public void forEach(IntConsumerWithCheckedException action) {
+        PoolExecutor.run(pool, () -> stream.forEach(action));
+    }
+
+    @Override
+    public void forEachOrdered(IntConsumer action) {
+        PoolExecutor.run(pool, () -> stream.forEachOrdered(action));
+    }
+
+    public void forEachOrdered(IntConsumerWithCheckedException action) {
+        PoolExecutor.run(pool, () -> stream.forEachOrdered(action));
+    }
+
+    @Override
+    public int[] toArray() {
+        return PoolExecutor.call(pool, () -> stream.toArray());
+    }
+
+    @Override
+    public int reduce(int identity, IntBinaryOperator op) {
+        return PoolExecutor.call(pool, () -> stream.reduce(identity, op));
+    }
+
+    public int reduce(int identity, IntBinaryOperatorWithCheckedException op) {
+        return PoolExecutor.call(pool, () -> stream.reduce(identity, op));
+    }
+
+    @Override
+    public OptionalInt reduce(IntBinaryOperator op) {
+        return PoolExecutor.call(pool, () -> stream.reduce(op));
+    }
+
+    public OptionalInt reduce(IntBinaryOperatorWithCheckedException op) {
+        return PoolExecutor.call(pool, () -> stream.reduce(op));
+    }
+
+    @Override
+    public <R> R collect(Supplier<R> supplier, ObjIntConsumer<R> accumulator, BiConsumer<R, R> combiner) {
+        return PoolExecutor.call(pool, () -> stream.collect(supplier, accumulator, combiner));
+    }
+
+    @Override
+    public int sum() {
+        return PoolExecutor.call(pool, () -> stream.sum());
+    }
+
+    @Override
+    public OptionalInt min() {
+        return PoolExecutor.call(pool, () -> stream.min());
+    }
+
+    @Override
+    public OptionalInt max() {
+        return PoolExecutor.call(pool, () -> stream.max());
+    }
+
+    @Override
+    public long count() {
+        return PoolExecutor.call(pool, () -> stream.count());
+    }
+
+    @Override
+    public OptionalDouble average() {
+        return PoolExecutor.call(pool, () -> stream.average());
+    }
+
+    @Override
+    public IntSummaryStatistics summaryStatistics() {
+        return PoolExecutor.call(pool, () -> stream.summaryStatistics());
+    }
+
+    @Override
+    public boolean anyMatch(IntPredicate predicate) {
+        return PoolExecutor.call(pool, () -> stream.anyMatch(predicate));
+    }
+
+    public boolean anyMatch(IntPredicateWithCheckedException predicate) {
+        return PoolExecutor.call(pool, () -> stream.anyMatch(predicate));
+    }
+
+    @Override
+    public boolean allMatch(IntPredicate predicate) {
+        return PoolExecutor.call(pool, () -> stream.allMatch(predicate));
+    }
+
+    public boolean allMatch(IntPredicateWithCheckedException predicate) {
+        return PoolExecutor.call(pool, () -> stream.allMatch(predicate));
+    }
+
+    @Override
+    public boolean noneMatch(IntPredicate predicate) {
+        return PoolExecutor.call(pool, () -> stream.noneMatch(predicate));
+    }
+
+    public boolean noneMatch(IntPredicateWithCheckedException predicate) {
+        return PoolExecutor.call(pool, () -> stream.noneMatch(predicate));
+    }
+
+    @Override
+    public OptionalInt findFirst() {
+        return PoolExecutor.call(pool, () -> stream.findFirst());
+    }
+
+    @Override
+    public OptionalInt findAny() {
+        return PoolExecutor.call(pool, () -> stream.findAny());
+    }
+
+    @Override
+    public RichLongStream asLongStream() {
+        return new RichLongStream(stream.asLongStream(), pool);
+    }
+
+    @Override
+    public RichDoubleStream asDoubleStream() {
+        return new RichDoubleStream(stream.asDoubleStream(), pool);
+    }
+
+    @Override
+    public RichStream<Integer> boxed() {
+        return new RichStream<>(stream.boxed(), pool);
+    }
+
+    @Override
+    public RichIntStream sequential() {
+        return chain(stream.sequential());
+    }
+
+    @Override
+    public RichIntStream parallel() {
+        return chain(stream.parallel());
+    }
+
+    /**
+     * Returns an equivalent parallel stream whose terminal operation runs in the given pool
+     *
+     * See {@link RichStream#parallel(ForkJoinPool)}
+     *
+     * @param pool The pool to run the terminal operation in
+     * @return The new stream
+     */
+    public RichIntStream parallel(ForkJoinPool pool) {
+        return new RichIntStream(stream.parallel(), Objects.requireNonNull(pool));
+    }
+
+    @Override
+    public RichIntStream unordered() {
+        return chain(stream.unordered());
+    }
+
+    @Override
+    public RichIntStream onClose(Runnable closeHandler) {
+        return chain(stream.onClose(closeHandler));
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+
+    @Override
+    public PrimitiveIterator.OfInt iterator() {
+        return stream.iterator();
+    }
+
+    @Override
+    public Spliterator.OfInt spliterator() {
+        return stream.spliterator();
+    }
+
+    @Override
+    public boolean isParallel() {
+        return stream.isParallel();
+    }
+}
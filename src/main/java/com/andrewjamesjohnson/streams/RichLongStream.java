@@ -0,0 +1,476 @@
+package com.andrewjamesjohnson.streams;
+
+import com.andrewjamesjohnson.collections.LongObjectMap;
+import com.andrewjamesjohnson.collections.LongSet;
+import com.andrewjamesjohnson.exceptions.*;
+import com.andrewjamesjohnson.functional.LongLongPairFunction;
+import com.andrewjamesjohnson.io.RecordCodec;
+import com.andrewjamesjohnson.sketches.HyperLogLog;
+
+import java.nio.LongBuffer;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.*;
+import java.util.stream.*;
+
+/**
+ * Wrapper class to support enhancements to {@link LongStream}
+ *
+ * Primitive specialization of {@link RichStream}
+ */
+public final class RichLongStream implements LongStream {
+    /**
+     * Creates a {@code RichLongStream} from a {@code LongStream}
+     *
+     * @param stream The stream to wrap
+     * @return A {@code RichLongStream} wrapping the given stream
+     */
+    public static RichLongStream of(LongStream stream) {
+        return new RichLongStream(stream, null);
+    }
+
+    /**
+     * Creates a {@code RichLongStream} from an array
+     *
+     * @param array The array to wrap
+     * @return A {@code RichLongStream} wrapping the given array
+     */
+    public static RichLongStream of(long[] array) {
+        return of(Arrays.stream(array));
+    }
+
+    /**
+     * Creates a {@code RichLongStream} of the elements of a {@code LongBuffer}, from its position up to its limit
+     *
+     * The buffer may be a view of off-heap memory, and a parallel stream splits it into ranges of elements.
+     * The buffer's position is not changed.
+     *
+     * @param buffer The buffer to read
+     * @return A {@code RichLongStream} of the elements of the buffer
+     */
+    public static RichLongStream of(LongBuffer buffer) {
+        return of(StreamSupport.longStream(new BufferSpliterator.OfLong(buffer), false));
+    }
+
+    private final LongStream stream;
+    private final ForkJoinPool pool;
+
+    RichLongStream(LongStream stream, ForkJoinPool pool) {
+        this.stream = stream;
+        this.pool = pool;
+    }
+
+    private RichLongStream chain(LongStream next) {
+        return new RichLongStream(next, pool);
+    }
+
+    /**
+     * Returns a stream consisting of the elements of this stream that do not match
+     * the given predicate.
+     *
+     * @param predicate A {@code LongPredicate} returning true if an element should not be included
+     * @return the new stream
+     */
+    public RichLongStream filterNot(LongPredicate predicate) {
+        return chain(stream.filter(element -> !predicate.test(element)));
+    }
+
+    /**
+     * Returns a stream consisting of the elements of this stream that do not match
+     * the given predicate.
+     *
+     * @param predicate A {@link LongPredicateWithCheckedException} returning true if an element should not be included
+     * @return the new stream
+     */
+    public RichLongStream filterNot(LongPredicateWithCheckedException predicate) {
+        return chain(stream.filter((LongPredicateWithCheckedException) element -> !predicate.testWithCheckedException(element)));
+    }
+
+    /**
+     * Returns a stream consisting of each original element paired with the index of that element
+     *
+     * Indices are assigned from the position of each element rather than a shared counter,
+     * so they remain correct when the stream is parallel
+     *
+     * @return The new stream
+     */
+    public RichStream<IndexedLong> zipWithIndex() {
+        return zipWithIndex(IndexedLong::of);
+    }
+
+    /**
+     * Returns a stream consisting of the results of combining each original element with the index of that element
+     *
+     * Unlike {@link #zipWithIndex()}, no {@link IndexedLong} is allocated for each element
+     *
+     * @param combiner A {@code LongLongPairFunction} combining an element with its index
+     * @param <U> The type of elements in the new stream
+     * @return The new stream
+     */
+    public <U> RichStream<U> zipWithIndex(LongLongPairFunction<? extends U> combiner) {
+        return new RichStream<>(StreamSupport.stream(new ZipWithIndexSpliterator.OfLong<U>(stream.spliterator(), combiner), stream.isParallel())
+                .onClose(stream::close), pool);
+    }
+
+    /**
+     * Returns a stream consisting of the results of combining elements from this stream and another
+     *
+     * The resulting stream has the same length as the shorter of the two streams
+     * Not recommended for use on infinite streams!
+     *
+     * @param other The other stream
+     * @param combiner A {@code LongBinaryOperator} combining an element of this stream with an element of the other
+     * @return The new stream
+     */
+    public RichLongStream zip(LongStream other, LongBinaryOperator combiner) {
+        Spliterator.OfLong spliterator = new PrimitiveZipSpliterator.OfLong(stream.spliterator(), other.spliterator(), combiner);
+        return chain(StreamSupport.longStream(spliterator, stream.isParallel())
+                .onClose(stream::close)
+                .onClose(other::close));
+    }
+
+    /**
+     * Converts this stream to a set of primitive {@code long} values, which are not boxed
+     *
+     * @return The new set
+     */
+    public LongSet toLongSet() {
+        if (stream.isParallel()) {
+            return collect(LongSet::new, LongSet::add, LongSet::addAll);
+        }
+        Spliterator.OfLong spliterator = stream.spliterator();
+        LongSet set = new LongSet(PrimitiveCollections.expectedSize(spliterator));
+        spliterator.forEachRemaining((LongConsumer) set::add);
+        return set;
+    }
+
+    /**
+     * Estimates the number of distinct elements of this stream with a {@link HyperLogLog}, in constant memory
+     *
+     * @return The estimated number of distinct elements
+     */
+    public long countDistinctApproximately() {
+        return collect(HyperLogLog::new, HyperLogLog::addLong, HyperLogLog::merge).cardinality();
+    }
+
+    /**
+     * Converts this stream to a map, with the elements as primitive {@code long} keys
+     *
+     * @param valueFunction A {@code LongFunction} on elements to produce the map values
+     * @param <V> The type of the map values
+     * @return The new map
+     * @throws IllegalStateException If the stream contains duplicate elements
+     */
+    public <V> LongObjectMap<V> toLongObjectMap(LongFunction<V> valueFunction) {
+        return collectToLongObjectMap(valueFunction);
+    }
+
+    /**
+     * Converts this stream to a map, with the elements as primitive {@code long} keys
+     *
+     * @param valueFunction A {@link LongFunctionWithCheckedException} on elements to produce the map values
+     * @param <V> The type of the map values
+     * @return The new map
+     * @throws IllegalStateException If the stream contains duplicate elements
+     */
+    public <V> LongObjectMap<V> toLongObjectMap(LongFunctionWithCheckedException<V> valueFunction) {
+        return collectToLongObjectMap(valueFunction);
+    }
+
+    private <V> LongObjectMap<V> collectToLongObjectMap(LongFunction<? extends V> valueFunction) {
+        if (stream.isParallel()) {
+            return collect(LongObjectMap<V>::new,
+                    (map, element) -> PrimitiveCollections.putUnique(map, element, valueFunction.apply(element)),
+                    PrimitiveCollections::putAllUnique);
+        }
+        Spliterator.OfLong spliterator = stream.spliterator();
+        LongObjectMap<V> map = new LongObjectMap<>(PrimitiveCollections.expectedSize(spliterator));
+        spliterator.forEachRemaining((LongConsumer) element -> PrimitiveCollections.putUnique(map, element, valueFunction.apply(element)));
+        return map;
+    }
+
+    /**
+     * Writes this stream to a new {@code LongBuffer} backed by off-heap memory
+     *
+     * See {@link RichStream#toByteBuffer(RecordCodec)}
+     *
+     * @return The new buffer in native byte order, with the elements from position zero up to its limit
+     * @throws IllegalArgumentException If the elements don't fit in a single buffer
+     */
+    public LongBuffer toLongBuffer() {
+        Spliterator.OfLong spliterator = stream.spliterator();
+        LongStream source = StreamSupport.longStream(spliterator, stream.isParallel());
+        if (spliterator.hasCharacteristics(Spliterator.SIZED)) {
+            LongBuffer buffer = BufferAppender.allocate(spliterator.getExactSizeIfKnown(), Long.BYTES).asLongBuffer();
+            new RichLongStream(source, pool).zipWithIndex()
+                    .forEach(element -> buffer.put((int) element.getIndex(), element.getValue()));
+            return buffer;
+        }
+        BufferAppender appender = new BufferAppender(Long.BYTES);
+        PoolExecutor.run(pool, () -> source.forEachOrdered(element -> {
+            int offset = appender.reserve();
+            appender.buffer().putLong(offset, element);
+        }));
+        return appender.finish().asLongBuffer();
+    }
+
+    // Wrapped methods below
+
+    @Override
+    public RichLongStream filter(LongPredicate predicate) {
+        return chain(stream.filter(predicate));
+    }
+
+    public RichLongStream filter(LongPredicateWithCheckedException predicate) {
+        return chain(stream.filter(predicate));
+    }
+
+    @Override
+    public RichLongStream map(LongUnaryOperator mapper) {
+        return chain(stream.map(mapper));
+    }
+
+    public RichLongStream map(LongUnaryOperatorWithCheckedException mapper) {
+        return chain(stream.map(mapper));
+    }
+
+    @Override
+    public <U> RichStream<U> mapToObj(LongFunction<? extends U> mapper) {
+        return new RichStream<>(stream.mapToObj(mapper), pool);
+    }
+
+    public <U> RichStream<U> mapToObj(LongFunctionWithCheckedException<? extends U> mapper) {
+        return new RichStream<>(stream.mapToObj(mapper), pool);
+    }
+
+    @Override
+    public RichIntStream mapToInt(LongToIntFunction mapper) {
+        return new RichIntStream(stream.mapToInt(mapper), pool);
+    }
+
+    public RichIntStream mapToInt(LongToIntFunctionWithCheckedException mapper) {
+        return new RichIntStream(stream.mapToInt(mapper), pool);
+    }
+
+    @Override
+    public RichDoubleStream mapToDouble(LongToDoubleFunction mapper) {
+        return new RichDoubleStream(stream.mapToDouble(mapper), pool);
+    }
+
+    public RichDoubleStream mapToDouble(LongToDoubleFunctionWithCheckedException mapper) {
+        return new RichDoubleStream(stream.mapToDouble(mapper), pool);
+    }
+
+    @Override
+    public RichLongStream flatMap(LongFunction<? extends LongStream> mapper) {
+        return chain(stream.flatMap(mapper));
+    }
+
+    public RichLongStream flatMap(LongFunctionWithCheckedException<? extends LongStream> mapper) {
+        return chain(stream.flatMap(mapper));
+    }
+
+    @Override
+    public RichLongStream distinct() {
+        return chain(stream.distinct());
+    }
+
+    @Override
+    public RichLongStream sorted() {
+        return chain(stream.sorted());
+    }
+
+    @Override
+    public RichLongStream peek(LongConsumer action) {
+        return chain(stream.peek(action));
+    }
+
+    public RichLongStream peek(LongConsumerWithCheckedException action) {
+        return chain(stream.peek(action));
+    }
+
+    @Override
+    public RichLongStream limit(long maxSize) {
+        return chain(stream.limit(maxSize));
+    }
+
+    @Override
+    public RichLongStream skip(long n) {
+        return chain(stream.skip(n));
+    }
+
+    @Override
+    public void forEach(LongConsumer action) {
+        PoolExecutor.run(pool, () -> stream.forEach(action));
+    }
+
+    public void forEach(LongConsumerWithCheckedException action) {
+        PoolExecutor.run(pool, () -> stream.forEach(action));
+    }
+
+    @Override
+    public void forEachOrdered(LongConsumer action) {
+        PoolExecutor.run(pool, () -> stream.forEachOrdered(action));
+    }
+
+    public void forEachOrdered(LongConsumerWithCheckedException action) {
+        PoolExecutor.run(pool, () -> stream.forEachOrdered(action));
+    }
+
+    @Override
+    public long[] toArray() {
+        return PoolExecutor.call(pool, () -> stream.toArray());
+    }
+
+    @Override
+    public long reduce(long identity, LongBinaryOperator op) {
+        return PoolExecutor.call(pool, () -> stream.reduce(identity, op));
+    }
+
+    public long reduce(long identity, LongBinaryOperatorWithCheckedException op) {
+        return PoolExecutor.call(pool, () -> stream.reduce(identity, op));
+    }
+
+    @Override
+    public OptionalLong reduce(LongBinaryOperator op) {
+        return PoolExecutor.call(pool, () -> stream.reduce(op));
+    }
+
+    public OptionalLong reduce(LongBinaryOperatorWithCheckedException op) {
+        return PoolExecutor.call(pool, () -> stream.reduce(op));
+    }
+
+    @Override
+    public <R> R collect(Supplier<R> supplier, ObjLongConsumer<R> accumulator, BiConsumer<R, R> combiner) {
+        return PoolExecutor.call(pool, () -> stream.collect(supplier, accumulator, combiner));
+    }
+
+    @Override
+    public long sum() {
+        return PoolExecutor.call(pool, () -> stream.sum());
+    }
+
+    @Override
+    public OptionalLong min() {
+        return PoolExecutor.call(pool, () -> stream.min());
+    }
+
+    @Override
+    public OptionalLong max() {
+        return PoolExecutor.call(pool, () -> stream.max());
+    }
+
+    @Override
+    public long count() {
+        return PoolExecutor.call(pool, () -> stream.count());
+    }
+
+    @Override
+    public OptionalDouble average() {
+        return PoolExecutor.call(pool, () -> stream.average());
+    }
+
+    @Override
+    public LongSummaryStatistics summaryStatistics() {
+        return PoolExecutor.call(pool, () -> stream.summaryStatistics());
+    }
+
+    @Override
+    public boolean anyMatch(LongPredicate predicate) {
+        return PoolExecutor.call(pool, () -> stream.anyMatch(predicate));
+    }
+
+    public boolean anyMatch(LongPredicateWithCheckedException predicate) {
+        return PoolExecutor.call(pool, () -> stream.anyMatch(predicate));
+    }
+
+    @Override
+    public boolean allMatch(LongPredicate predicate) {
+        return PoolExecutor.call(pool, () -> stream.allMatch(predicate));
+    }
+
+    public boolean allMatch(LongPredicateWithCheckedException predicate) {
+        return PoolExecutor.call(pool, () -> stream.allMatch(predicate));
+    }
+
+    @Override
+    public boolean noneMatch(LongPredicate predicate) {
+        return PoolExecutor.call(pool, () -> stream.noneMatch(predicate));
+    }
+
+    public boolean noneMatch(LongPredicateWithCheckedException predicate) {
+        return PoolExecutor.call(pool, () -> stream.noneMatch(predicate));
+    }
+
+    @Override
+    public OptionalLong findFirst() {
+        return PoolExecutor.call(pool, () -> stream.findFirst());
+    }
+
+    @Override
+    public OptionalLong findAny() {
+        return PoolExecutor.call(pool, () -> stream.findAny());
+    }
+
+    @Override
+    public RichDoubleStream asDoubleStream() {
+        return new RichDoubleStream(stream.asDoubleStream(), pool);
+    }
+
+    @Override
+    public RichStream<Long> boxed() {
+        return new RichStream<>(stream.boxed(), pool);
+    }
+
+    @Override
+    public RichLongStream sequential() {
+        return chain(stream.sequential());
+    }
+
+    @Override
+    public RichLongStream parallel() {
+        return chain(stream.parallel());
+    }
+
+    /**
+     * Returns an equivalent parallel stream whose terminal operation runs in the given pool
+     *
+     * See {@link RichStream#parallel(ForkJoinPool)}
+     *
+     * @param pool The pool to run the terminal operation in
+     * @return The new stream
+     */
+    public RichLongStream parallel(ForkJoinPool pool) {
+        return new RichLongStream(stream.parallel(), Objects.requireNonNull(pool));
+    }
+
+    @Override
+    public RichLongStream unordered() {
+        return chain(stream.unordered());
+    }
+
+    @Override
+    public RichLongStream onClose(Runnable closeHandler) {
+        return chain(stream.onClose(closeHandler));
+    }
+
+    @Override
+    public void close() {
+        stream.close();
+    }
+
+    @Override
+    public PrimitiveIterator.OfLong iterator() {
+        return stream.iterator();
+    }
+
+    @Override
+    public Spliterator.OfLong spliterator() {
+        return stream.spliterator();
+    }
+
+    @Override
+    public boolean isParallel() {
+        return stream.isParallel();
+    }
+}
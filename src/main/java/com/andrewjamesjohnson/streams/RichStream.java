@@ -1,16 +1,48 @@
 package com.andrewjamesjohnson.streams;
 
+import com.andrewjamesjohnson.collections.IntObjectMap;
+import com.andrewjamesjohnson.collections.LongObjectMap;
 import com.andrewjamesjohnson.exceptions.*;
+import com.andrewjamesjohnson.functional.ObjLongPairFunction;
+import com.andrewjamesjohnson.functional.PairFunction;
+import com.andrewjamesjohnson.io.ElementEncoder;
+import com.andrewjamesjohnson.io.ElementSerializer;
+import com.andrewjamesjohnson.io.RecordCodec;
+import com.andrewjamesjohnson.metrics.Metrics;
+import com.andrewjamesjohnson.metrics.MetricsSink;
+import com.andrewjamesjohnson.sketches.CountMinSketch;
+import com.andrewjamesjohnson.sketches.HyperLogLog;
+import com.andrewjamesjohnson.sketches.Reservoir;
+import com.andrewjamesjohnson.sketches.TopK;
 import org.apache.commons.lang3.tuple.Pair;
 
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.*;
 import java.util.stream.*;
 
 /**
  * Wrapper class to support enhancements to {@link Stream}
  *
+ * Each intermediate operation wraps the next stage of the pipeline in a new {@code RichStream}, carrying the pool
+ * and instrumentation of this one. Stages are not fused, so an uninstrumented pipeline runs the same stages as the
+ * equivalent {@code Stream}, plus one small wrapper per stage. As with any stream, a {@code RichStream} can have
+ * only one operation applied to it; applying another throws {@code IllegalStateException}.
+ *
  * @param <T> The type of elements contained in the stream
  */
 public final class RichStream<T> implements Stream<T> {
@@ -21,455 +53,1707 @@ public final class RichStream<T> implements Stream<T> {
      * @param <T> The type of elements in the stream
      * @return A {@code RichStream} wrapping the given stream
      */
-    public static <T> RichStream<T> of(Stream<T> stream) {
-        return new RichStream<>(stream);
+    public static <T> RichStream<T> of(Stream<T> stream) {
+        return new RichStream<>(stream, null);
+    }
+
+    /**
+     * Creates a {@code RichStream} from a {@code Collection}
+     *
+     * @param collection The collection to wrap
+     * @param <T> The type of elements in the collection
+     * @return A {@code RichStream} wrapping the given collection
+     */
+    public static <T> RichStream<T> of(Collection<T> collection) {
+        return of(collection.stream());
+    }
+
+    /**
+     * Creates a {@code RichStream} from an array
+     *
+     * @param array The array to wrap
+     * @param <T> The type of elements in the array
+     * @return A {@code RichStream} wrapping the given array
+     */
+    public static <T> RichStream<T> of(T[] array) {
+        return of(Arrays.stream(array));
+    }
+
+    /**
+     * Creates a {@code RichStream} from an {@code Iterable}
+     * 
+     * @param iterable The iterable to wrap
+     * @param <T> The type of elements in the iterable
+     * @return A {@code RichStream} wrapping the given array
+     */
+    public static <T> RichStream<T> of(Iterable<T> iterable) {
+        return of(StreamSupport.stream(iterable.spliterator(), false));
+    }
+
+    /**
+     * Creates a {@code RichStream} from an {@code Iterator}
+     *
+     * @param iterator The iterator to wrap
+     * @param <T> The type of elements in the iterator
+     * @return A {@code RichStream} wrapping the given array
+     */
+    public static <T> RichStream<T> of(Iterator<T> iterator) {
+        return of(() -> iterator);
+    }
+
+    /**
+     * Creates a {@code RichStream} of the fixed-size records in a {@code ByteBuffer}
+     *
+     * Records from the buffer's position up to its limit are decoded as they are consumed, so a large dataset
+     * held in a direct buffer never needs to be on the heap all at once. A parallel stream splits the buffer
+     * into ranges of whole records. The buffer's position is not changed.
+     *
+     * @param buffer The buffer holding the records
+     * @param codec The {@link RecordCodec} decoding each record
+     * @param <T> The type of the records
+     * @return A {@code RichStream} of the decoded records
+     * @throws IllegalArgumentException If the buffer doesn't hold a whole number of records
+     */
+    public static <T> RichStream<T> of(ByteBuffer buffer, RecordCodec<T> codec) {
+        return of(StreamSupport.stream(new BufferSpliterator.OfRecords<>(buffer, codec), false));
+    }
+
+    /**
+     * Creates a {@code RichStream} of the lines of a UTF-8 file
+     *
+     * See {@link #lines(Path, Charset)}
+     *
+     * @param path The path of the file
+     * @return A {@code RichStream} of the lines of the file
+     * @throws IOException If the file can't be opened
+     */
+    public static RichStream<String> lines(Path path) throws IOException {
+        return lines(path, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates a {@code RichStream} of the lines of a file, which is memory-mapped rather than read through a reader
+     *
+     * Lines are decoded lazily as they are consumed. A parallel stream splits the file into chunks of roughly
+     * equal size at line boundaries, so parsing a large file scales with the number of threads. Lines are
+     * terminated by {@code \n} or {@code \r\n}. Charsets other than UTF-8, ISO-8859-1 and US-ASCII can't be
+     * split at line boundaries without decoding, and fall back to {@link Files#lines(Path, Charset)}.
+     *
+     * The stream should be closed, for instance with a try-with-resources statement, to close the file.
+     *
+     * @param path The path of the file
+     * @param charset The charset of the file
+     * @return A {@code RichStream} of the lines of the file
+     * @throws IOException If the file can't be opened
+     */
+    public static RichStream<String> lines(Path path, Charset charset) throws IOException {
+        if (!charset.equals(StandardCharsets.UTF_8) && !charset.equals(StandardCharsets.ISO_8859_1)
+                && !charset.equals(StandardCharsets.US_ASCII)) {
+            return of(Files.lines(path, charset));
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            Spliterator<String> spliterator = new MappedLinesSpliterator(channel, charset, 0, channel.size());
+            return of(StreamSupport.stream(spliterator, false).onClose(closing(channel)));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Creates a {@code RichStream} of the fixed-size records in a file, which is memory-mapped
+     *
+     * Records are decoded lazily as they are consumed, and a parallel stream splits the file into ranges of
+     * whole records. The file is read in the native byte order, so a file holding a buffer written by
+     * {@link #toByteBuffer(RecordCodec)} is read back unchanged. The stream should be closed to close the file.
+     *
+     * @param path The path of the file
+     * @param codec The {@link RecordCodec} decoding each record
+     * @param <T> The type of the records
+     * @return A {@code RichStream} of the decoded records
+     * @throws IOException If the file can't be opened
+     * @throws IllegalArgumentException If the file doesn't hold a whole number of records
+     */
+    public static <T> RichStream<T> of(Path path, RecordCodec<T> codec) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size % codec.recordSize() != 0) {
+                throw new IllegalArgumentException("File of " + size + " bytes does not hold a whole number of "
+                        + codec.recordSize() + " byte records");
+            }
+            Spliterator<T> spliterator = new MappedRecordSpliterator<>(channel, codec, 0, size / codec.recordSize());
+            return of(StreamSupport.stream(spliterator, false).onClose(closing(channel)));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static Runnable closing(Closeable closeable) {
+        return () -> {
+            try {
+                closeable.close();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        };
+    }
+
+    private static final int WRITE_BATCH_SIZE = 1024;
+
+    private final Stream<T> stream;
+    private final ForkJoinPool pool;
+    private final PipelineInstrumentation instrumentation;
+
+    RichStream(Stream<T> stream, ForkJoinPool pool) {
+        this(stream, pool, null);
+    }
+
+    private RichStream(Stream<T> stream, ForkJoinPool pool, PipelineInstrumentation instrumentation) {
+        this.stream = stream;
+        this.pool = pool;
+        this.instrumentation = instrumentation;
+    }
+
+    private Predicate<? super T> instrumentFilter(String operation, Predicate<? super T> predicate) {
+        return instrumentation == null ? predicate : instrumentation.filter(operation, predicate);
+    }
+
+    private <R> Function<? super T, ? extends R> instrumentMap(Function<? super T, ? extends R> mapper) {
+        return instrumentation == null ? mapper : instrumentation.map("map", mapper);
+    }
+
+    /**
+     * Wraps the next stage of the pipeline, keeping this stream's pool and instrumentation
+     *
+     * Each stage gets its own wrapper, so a wrapper always holds elements of its own type, and applying a second
+     * operation to a wrapper throws {@code IllegalStateException} from the wrapped stream, as it would for any
+     * other stream.
+     *
+     * @param next The next stage of the pipeline
+     * @param <R> The element type of the next stage
+     * @return The new wrapper
+     */
+    private <R> RichStream<R> chain(Stream<R> next) {
+        return new RichStream<>(next, pool, instrumentation);
+    }
+
+    /**
+     * Instruments the {@code filter}, {@code filterNot}, {@code map} and {@code mapToInt}/{@code mapToLong}/{@code
+     * mapToDouble} stages added to this pipeline from now on, reporting to {@link Metrics#getDefaultSink()}
+     *
+     * See {@link #instrumented(String, MetricsSink)}
+     *
+     * @param name The name of the pipeline
+     * @return An equivalent stream whose later stages are instrumented
+     */
+    public RichStream<T> instrumented(String name) {
+        return instrumented(name, Metrics.getDefaultSink());
+    }
+
+    /**
+     * Instruments the {@code filter}, {@code filterNot}, {@code map} and {@code mapToInt}/{@code mapToLong}/{@code
+     * mapToDouble} stages added to this pipeline from now on
+     *
+     * Each stage reports the number of elements it receives and passes on, the time spent on each element and the
+     * exceptions thrown, including wrapped checked exceptions, to a {@link com.andrewjamesjohnson.metrics.StageRecorder}
+     * of the sink. When {@link Metrics#isEnabled()} is false, this does nothing and the pipeline runs unwrapped.
+     *
+     * @param name The name of the pipeline
+     * @param sink The sink receiving the measurements
+     * @return An equivalent stream whose later stages are instrumented, or this stream if instrumentation is disabled
+     */
+    public RichStream<T> instrumented(String name, MetricsSink sink) {
+        if (Metrics.isEnabled()) {
+            return new RichStream<>(stream, pool, new PipelineInstrumentation(name, Objects.requireNonNull(sink)));
+        }
+        return this;
+    }
+
+    /**
+     * Returns a stream consisting of the elements of this stream that do not match
+     * the given predicate.
+     *
+     * @param predicate A {@code Predicate} returning true if an element should not be included
+     * @return the new stream
+     */
+    public RichStream<T> filterNot(Predicate<? super T> predicate) {
+        return chain(stream.filter(instrumentFilter("filterNot", element -> !predicate.test(element))));
+    }
+
+
+    /**
+     * Returns a stream consisting of the elements of this stream that do not match
+     * the given predicate.
+     *
+     * @param predicate A {@link PredicateWithCheckedException} returning true if an element should not be included
+     * @return the new stream
+     */
+    public RichStream<T> filterNot(PredicateWithCheckedException<? super T> predicate) {
+        // Negates inside a single checked predicate, rather than wrapping the unchecked test in Predicate.negate
+        return chain(stream.filter(instrumentFilter("filterNot",
+                (PredicateWithCheckedException<T>) element -> !predicate.testWithCheckedException(element))));
+    }
+
+    /**
+     * Returns a stream consisting of the results of applying the given function to the elements of this stream,
+     * with any exception thrown captured as a failed {@link Try} rather than aborting the stream
+     *
+     * @param mapper A {@link FunctionWithCheckedException} to apply to each element
+     * @param <R> The element type of the new stream
+     * @return the new stream
+     */
+    public <R> RichStream<Try<R>> mapTry(FunctionWithCheckedException<? super T, ? extends R> mapper) {
+        return chain(stream.map(element -> Try.of(mapper, element)));
+    }
+
+    /**
+     * Returns a stream consisting of the elements of this stream that match the given predicate as successful
+     * {@link Try}s, along with a failed {@code Try} for each element on which the predicate threw an exception
+     *
+     * @param predicate A {@link PredicateWithCheckedException} returning true if an element should be included
+     * @return the new stream
+     */
+    public RichStream<Try<T>> filterTry(PredicateWithCheckedException<? super T> predicate) {
+        return chain(stream.map(element -> {
+            try {
+                return predicate.testWithCheckedException(element) ? Try.success(element) : null;
+            } catch (Exception e) {
+                return Try.<T>failure(e);
+            }
+        }).filter(Objects::nonNull));
+    }
+
+    /**
+     * Returns a stream consisting of the results of applying the given function to the elements of this stream,
+     * retrying the function according to the given policy when it throws an exception
+     *
+     * @param mapper A {@link FunctionWithCheckedException} to apply to each element
+     * @param policy The {@link RetryPolicy} to apply
+     * @param <R> The element type of the new stream
+     * @return the new stream
+     */
+    public <R> RichStream<R> mapWithRetry(FunctionWithCheckedException<? super T, ? extends R> mapper, RetryPolicy policy) {
+        return map(mapper.withRetry(policy));
+    }
+
+    /**
+     * Returns a stream consisting of the results of applying the given function to the elements of this stream
+     * on the given executor, keeping the order of this stream
+     *
+     * At most {@code maxInFlight} elements are mapped at once, and elements are only taken from this stream
+     * as results are consumed. Intended for blocking functions, such as those performing I/O.
+     *
+     * @param mapper A {@link FunctionWithCheckedException} to apply to each element
+     * @param maxInFlight The maximum number of elements to map concurrently
+     * @param executor The {@link Executor} to apply the function on
+     * @param <R> The element type of the new stream
+     * @return the new stream
+     */
+    public <R> RichStream<R> mapAsync(FunctionWithCheckedException<? super T, ? extends R> mapper, int maxInFlight, Executor executor) {
+        return mapAsync(mapper, maxInFlight, executor, true);
+    }
+
+    /**
+     * Returns a stream consisting of the results of applying the given function to the elements of this stream
+     * asynchronously, keeping the order of this stream
+     *
+     * The function is applied on virtual threads when they are available, and otherwise on a shared pool
+     * of daemon threads.
+     *
+     * @param mapper A {@link FunctionWithCheckedException} to apply to each element
+     * @param maxInFlight The maximum number of elements to map concurrently
+     * @param <R> The element type of the new stream
+     * @return the new stream
+     */
+    public <R> RichStream<R> mapAsync(FunctionWithCheckedException<? super T, ? extends R> mapper, int maxInFlight) {
+        return mapAsync(mapper, maxInFlight, AsyncExecutors.defaultExecutor(), true);
+    }
+
+    /**
+     * Returns a stream consisting of the results of applying the given function to the elements of this stream
+     * on the given executor, in the order the results become available
+     *
+     * @param mapper A {@link FunctionWithCheckedException} to apply to each element
+     * @param maxInFlight The maximum number of elements to map concurrently
+     * @param executor The {@link Executor} to apply the function on
+     * @param <R> The element type of the new stream
+     * @return the new stream
+     */
+    public <R> RichStream<R> mapAsyncUnordered(FunctionWithCheckedException<? super T, ? extends R> mapper, int maxInFlight, Executor executor) {
+        return mapAsync(mapper, maxInFlight, executor, false);
+    }
+
+    /**
+     * Returns a stream consisting of the results of applying the given function to the elements of this stream
+     * asynchronously, in the order the results become available
+     *
+     * @param mapper A {@link FunctionWithCheckedException} to apply to each element
+     * @param maxInFlight The maximum number of elements to map concurrently
+     * @param <R> The element type of the new stream
+     * @return the new stream
+     */
+    public <R> RichStream<R> mapAsyncUnordered(FunctionWithCheckedException<? super T, ? extends R> mapper, int maxInFlight) {
+        return mapAsync(mapper, maxInFlight, AsyncExecutors.defaultExecutor(), false);
+    }
+
+    private <R> RichStream<R> mapAsync(FunctionWithCheckedException<? super T, ? extends R> mapper, int maxInFlight,
+                                       Executor executor, boolean ordered) {
+        AsyncMapSpliterator<T, R> spliterator = new AsyncMapSpliterator<>(stream.spliterator(), mapper, maxInFlight, executor, ordered);
+        return chain(StreamSupport.stream(spliterator, stream.isParallel())
+                .onClose(spliterator::cancel)
+                .onClose(stream::close));
+    }
+
+    /**
+     * Returns a stream consisting of each original element paired with the index of that element
+     *
+     * Indices are assigned from the position of each element rather than a shared counter,
+     * so they remain correct when the stream is parallel
+     *
+     * @return The new stream
+     */
+    public RichStream<Indexed<T>> zipWithIndex() {
+        return zipWithIndex(Indexed::of);
+    }
+
+    /**
+     * Returns a stream consisting of the results of combining each original element with the index of that element
+     *
+     * Unlike {@link #zipWithIndex()}, no {@link Indexed} is allocated for each element
+     *
+     * @param combiner An {@code ObjLongPairFunction} combining an element with its index
+     * @param <U> The type of elements in the new stream
+     * @return The new stream
+     */
+    public <U> RichStream<U> zipWithIndex(ObjLongPairFunction<? super T, ? extends U> combiner) {
+        return chain(StreamSupport.stream(new ZipWithIndexSpliterator.OfRef<T, U>(stream.spliterator(), combiner), stream.isParallel())
+                .onClose(stream::close));
+    }
+
+    /**
+     * Returns a stream consisting of {@link Pair}s of elements from this stream and another
+     * 
+     * The resulting stream has the same length as the shorter of the two streams
+     * If both streams are sized, so is the resulting stream, and if both can be split evenly
+     * (e.g. both are backed by arrays or lists of the same length) they are split together when parallel
+     * Not recommended for use on infinite streams!
+     *
+     * @param other The other stream
+     * @param <R> The type of elements in the other stream
+     * @return The new stream
+     */
+    public <R> RichStream<Pair<T, R>> zip(Stream<R> other) {
+        return zipWith(other, Pair::of);
+    }
+
+    /**
+     * Returns a stream consisting of the results of combining elements from this stream and another
+     *
+     * Behaves like {@link #zip(Stream)} followed by a {@code map}, but passes both elements straight to the
+     * combiner, such as a {@link com.andrewjamesjohnson.functional.PairFunction}, without allocating a {@link Pair}
+     *
+     * @param other The other stream
+     * @param combiner A {@code BiFunction} combining an element of this stream with an element of the other
+     * @param <R> The type of elements in the other stream
+     * @param <U> The type of elements in the new stream
+     * @return The new stream
+     */
+    public <R, U> RichStream<U> zipWith(Stream<R> other, BiFunction<? super T, ? super R, ? extends U> combiner) {
+        Spliterator<U> spliterator = new ZipSpliterator<>(stream.spliterator(), other.spliterator(), combiner);
+        return chain(StreamSupport.stream(spliterator, stream.isParallel())
+                .onClose(stream::close)
+                .onClose(other::close));
+    }
+
+    /**
+     * Returns a stream consisting of the results of combining each pair of elements from this stream and another
+     * that have equal keys
+     *
+     * The elements of whichever stream is estimated to be smaller are collected into a hash table by key when the
+     * stream is consumed, and the elements of the other stream are streamed past it, so only the smaller side
+     * needs to fit in memory. The larger side is split as usual when parallel, with every thread probing the same
+     * table. The output follows the encounter order of the larger side. Keys are compared with {@code equals},
+     * and a {@code null} key matches other {@code null} keys.
+     *
+     * @param other The other stream
+     * @param keyFunction A {@code Function} producing the key of an element of this stream
+     * @param otherKeyFunction A {@code Function} producing the key of an element of the other stream
+     * @param combiner A {@link PairFunction} combining two elements with equal keys, without allocating a {@link Pair}
+     * @param <U> The type of elements in the other stream
+     * @param <K> The type of the keys
+     * @param <R> The type of elements in the new stream
+     * @return The new stream
+     */
+    public <U, K, R> RichStream<R> join(Stream<U> other, Function<? super T, ? extends K> keyFunction,
+                                        Function<? super U, ? extends K> otherKeyFunction,
+                                        PairFunction<? super T, ? super U, ? extends R> combiner) {
+        return hashJoin(other, keyFunction, otherKeyFunction, combiner, false);
+    }
+
+    /**
+     * See {@link #join(Stream, Function, Function, PairFunction)}
+     */
+    public <U, K, R> RichStream<R> join(Stream<U> other, FunctionWithCheckedException<? super T, ? extends K> keyFunction,
+                                        FunctionWithCheckedException<? super U, ? extends K> otherKeyFunction,
+                                        PairFunction<? super T, ? super U, ? extends R> combiner) {
+        return hashJoin(other, keyFunction, otherKeyFunction, combiner, false);
+    }
+
+    /**
+     * Returns a stream consisting of the results of combining each element of this stream with each element of
+     * another that has an equal key, or with {@code null} if none does
+     *
+     * Behaves like {@link #join(Stream, Function, Function, PairFunction)}, except that the hash table is always
+     * built from the other stream, so the output follows the encounter order of this stream
+     *
+     * @param other The other stream
+     * @param keyFunction A {@code Function} producing the key of an element of this stream
+     * @param otherKeyFunction A {@code Function} producing the key of an element of the other stream
+     * @param combiner A {@link PairFunction} combining an element of this stream with a match, or with {@code null}
+     * @param <U> The type of elements in the other stream
+     * @param <K> The type of the keys
+     * @param <R> The type of elements in the new stream
+     * @return The new stream
+     */
+    public <U, K, R> RichStream<R> leftJoin(Stream<U> other, Function<? super T, ? extends K> keyFunction,
+                                            Function<? super U, ? extends K> otherKeyFunction,
+                                            PairFunction<? super T, ? super U, ? extends R> combiner) {
+        return hashJoin(other, keyFunction, otherKeyFunction, combiner, true);
+    }
+
+    /**
+     * See {@link #leftJoin(Stream, Function, Function, PairFunction)}
+     */
+    public <U, K, R> RichStream<R> leftJoin(Stream<U> other, FunctionWithCheckedException<? super T, ? extends K> keyFunction,
+                                            FunctionWithCheckedException<? super U, ? extends K> otherKeyFunction,
+                                            PairFunction<? super T, ? super U, ? extends R> combiner) {
+        return hashJoin(other, keyFunction, otherKeyFunction, combiner, true);
+    }
+
+    private <U, K, R> RichStream<R> hashJoin(Stream<U> other, Function<? super T, ? extends K> keyFunction,
+                                             Function<? super U, ? extends K> otherKeyFunction,
+                                             PairFunction<? super T, ? super U, ? extends R> combiner, boolean outer) {
+        Stream<T> source = stream;
+        boolean parallel = source.isParallel();
+        boolean otherParallel = other.isParallel();
+        // Both sides are only consumed once the new stream is, so the table is built inside its terminal operation
+        Supplier<Spliterator<R>> supplier = () -> {
+            Spliterator<T> spliterator = source.spliterator();
+            Spliterator<U> otherSpliterator = other.spliterator();
+            if (!outer && spliterator.estimateSize() < otherSpliterator.estimateSize()) {
+                Map<K, List<T>> table = groupByKey(spliterator, parallel, keyFunction, HashMap::new);
+                return new HashJoinSpliterator<U, T, K, R>(otherSpliterator, table, otherKeyFunction,
+                        (u, t) -> combiner.apply(t, u), false);
+            }
+            Map<K, List<U>> table = groupByKey(otherSpliterator, otherParallel, otherKeyFunction, HashMap::new);
+            return new HashJoinSpliterator<T, U, K, R>(spliterator, table, keyFunction, combiner, outer);
+        };
+        return chain(StreamSupport.stream(supplier, Spliterator.ORDERED, parallel)
+                .onClose(source::close)
+                .onClose(other::close));
+    }
+
+    /**
+     * Returns a stream with a {@link CoGroup} for each distinct key of the elements of this stream and another,
+     * holding the elements of each stream that have that key
+     *
+     * Both streams are grouped in memory when the new stream is consumed. Groups follow the order in which their
+     * keys first appear in this stream, followed by the keys that only appear in the other stream.
+     *
+     * @param other The other stream
+     * @param keyFunction A {@code Function} producing the key of an element of this stream
+     * @param otherKeyFunction A {@code Function} producing the key of an element of the other stream
+     * @param <U> The type of elements in the other stream
+     * @param <K> The type of the keys
+     * @return The new stream
+     */
+    public <U, K> RichStream<CoGroup<K, T, U>> cogroup(Stream<U> other, Function<? super T, ? extends K> keyFunction,
+                                                       Function<? super U, ? extends K> otherKeyFunction) {
+        Stream<T> source = stream;
+        boolean parallel = source.isParallel();
+        boolean otherParallel = other.isParallel();
+        Supplier<Spliterator<CoGroup<K, T, U>>> supplier = () -> {
+            Map<K, List<T>> groups = groupByKey(source.spliterator(), parallel, keyFunction, LinkedHashMap::new);
+            Map<K, List<U>> otherGroups = groupByKey(other.spliterator(), otherParallel, otherKeyFunction, LinkedHashMap::new);
+            List<CoGroup<K, T, U>> cogroups = new ArrayList<>(groups.size() + otherGroups.size());
+            groups.forEach((key, elements) ->
+                    cogroups.add(CoGroup.of(key, elements, otherGroups.getOrDefault(key, Collections.emptyList()))));
+            otherGroups.forEach((key, elements) -> {
+                if (!groups.containsKey(key)) {
+                    cogroups.add(CoGroup.of(key, Collections.emptyList(), elements));
+                }
+            });
+            return cogroups.spliterator();
+        };
+        return chain(StreamSupport.stream(supplier, Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED, parallel)
+                .onClose(source::close)
+                .onClose(other::close));
+    }
+
+    /**
+     * See {@link #cogroup(Stream, Function, Function)}
+     */
+    public <U, K> RichStream<CoGroup<K, T, U>> cogroup(Stream<U> other, FunctionWithCheckedException<? super T, ? extends K> keyFunction,
+                                                       FunctionWithCheckedException<? super U, ? extends K> otherKeyFunction) {
+        return cogroup(other, (Function<? super T, ? extends K>) keyFunction, (Function<? super U, ? extends K>) otherKeyFunction);
+    }
+
+    /**
+     * Groups the elements of a spliterator into lists by key, keeping the encounter order within each list
+     *
+     * @param mapFactory The constructor of the map, given its initial capacity
+     */
+    private static <E, K> Map<K, List<E>> groupByKey(Spliterator<E> spliterator, boolean parallel,
+                                                     Function<? super E, ? extends K> keyFunction,
+                                                     IntFunction<Map<K, List<E>>> mapFactory) {
+        if (parallel) {
+            return StreamSupport.stream(spliterator, true).collect(() -> mapFactory.apply(16),
+                    (map, element) -> addToGroup(map, keyFunction.apply(element), element),
+                    (map, other) -> other.forEach((key, elements) -> map.merge(key, elements, (first, second) -> {
+                        first.addAll(second);
+                        return first;
+                    })));
+        }
+        Map<K, List<E>> map = mapFactory.apply(capacityFor(spliterator.getExactSizeIfKnown()));
+        spliterator.forEachRemaining(element -> addToGroup(map, keyFunction.apply(element), element));
+        return map;
+    }
+
+    private static <E, K> void addToGroup(Map<K, List<E>> map, K key, E element) {
+        map.computeIfAbsent(key, k -> new ArrayList<>(1)).add(element);
+    }
+
+    /**
+     * Returns a stream consisting of the elements of this stream grouped into lists of the given size
+     *
+     * The last list may contain fewer elements. Lists are created lazily, so a sequential stream, or a parallel
+     * stream that splits exactly, holds only one batch per thread at a time. A parallel stream of unknown size is
+     * split by buffering a group of batches, starting at about 1024 elements and growing by as much with each split,
+     * and the groups waiting for a thread of the pool are held until one takes them.
+     *
+     * @param size The number of elements in each batch
+     * @return The new stream
+     */
+    public RichStream<List<T>> batched(int size) {
+        return windowed(size, size, true);
+    }
+
+    /**
+     * Returns a stream consisting of windows of consecutive elements of this stream
+     *
+     * Each window starts {@code step} elements after the previous one, so windows overlap when {@code step}
+     * is less than {@code size}, and elements are skipped when it is greater. Only complete windows are included.
+     *
+     * @param size The number of elements in each window
+     * @param step The number of elements between the start of one window and the next
+     * @return The new stream
+     */
+    public RichStream<List<T>> windowed(int size, int step) {
+        return windowed(size, step, false);
+    }
+
+    private RichStream<List<T>> windowed(int size, int step, boolean partial) {
+        return chain(StreamSupport.stream(new WindowSpliterator<>(stream.spliterator(), size, step, partial), stream.isParallel())
+                .onClose(stream::close));
+    }
+
+    /**
+     * Returns a stream consisting of the elements of this stream sorted by a comparator, without holding them all
+     * in memory
+     *
+     * The elements are cut into runs of {@code runSize} elements, each of which is sorted in memory and spilled to
+     * a temporary file by the serializer. When parallel, each part of the stream cuts its own runs, which are
+     * sorted and written concurrently, with one run per thread in memory at a time. The runs are then merged lazily as the new stream is consumed, reading a
+     * buffer of each run at a time. A stream known to fit in a single run is sorted in memory instead. The sort is
+     * stable, and the new stream is traversed sequentially. Each run file is deleted once it has been merged, and
+     * closing the stream deletes any that are left if it isn't consumed to the end.
+     *
+     * @param comparator The comparator ordering the elements
+     * @param serializer The {@link ElementSerializer} writing elements to the run files and reading them back
+     * @param runSize The number of elements sorted in memory at a time by each thread
+     * @return The new stream
+     */
+    public RichStream<T> sortedExternal(Comparator<? super T> comparator, ElementSerializer<T> serializer, int runSize) {
+        return external(comparator, serializer, runSize, false);
+    }
+
+    /**
+     * Returns a stream consisting of the distinct elements of this stream, in the order of a comparator, without
+     * holding them all in memory
+     *
+     * Elements are distinct if the comparator doesn't find them equal, and only the first of several equal
+     * elements is kept. Works like {@link #sortedExternal(Comparator, ElementSerializer, int)}, dropping
+     * duplicates from each run before it is spilled as well as while the runs are merged.
+     *
+     * @param comparator The comparator ordering the elements
+     * @param serializer The {@link ElementSerializer} writing elements to the run files and reading them back
+     * @param runSize The number of elements sorted in memory at a time by each thread
+     * @return The new stream
+     */
+    public RichStream<T> distinctExternal(Comparator<? super T> comparator, ElementSerializer<T> serializer, int runSize) {
+        return external(comparator, serializer, runSize, true);
+    }
+
+    private RichStream<T> external(Comparator<? super T> comparator, ElementSerializer<T> serializer, int runSize, boolean distinct) {
+        if (runSize < 1) {
+            throw new IllegalArgumentException("runSize must be positive: " + runSize);
+        }
+        ExternalSort<T> sort = new ExternalSort<>(comparator, serializer, distinct);
+        Stream<T> source = stream;
+        boolean parallel = source.isParallel();
+        Supplier<Spliterator<T>> supplier = () -> {
+            Spliterator<T> spliterator = source.spliterator();
+            long size = spliterator.getExactSizeIfKnown();
+            if (size >= 0 && size <= runSize) {
+                List<T> run = new ArrayList<>((int) size);
+                spliterator.forEachRemaining(run::add);
+                return sort.sortInMemory(run);
+            }
+            List<ExternalSort.Run> runs = new RichStream<>(StreamSupport.stream(spliterator, parallel), pool)
+                    .collect(sort.runs(runSize));
+            return sort.mergeRuns(runs);
+        };
+        return chain(StreamSupport.stream(supplier, Spliterator.ORDERED, parallel)
+                .onClose(sort::close)
+                .onClose(source::close));
+    }
+
+    /**
+     * Converts this stream to a list
+     *
+     * @return The new list
+     */
+    public List<T> toList() {
+        if (stream.isParallel()) {
+            return collect(Collectors.toList());
+        }
+        // Collectors.toList cannot presize its list when the stream is sized, so fill one from the spliterator
+        Spliterator<T> spliterator = stream.spliterator();
+        long size = spliterator.getExactSizeIfKnown();
+        List<T> list = size >= 0 && size < Integer.MAX_VALUE ? new ArrayList<>((int) size) : new ArrayList<>();
+        spliterator.forEachRemaining(list::add);
+        return list;
+    }
+
+    /**
+     * Returns the k greatest elements of this stream, keeping no more than k elements in memory
+     *
+     * @param k The number of elements to return
+     * @param comparator The comparator ordering the elements
+     * @return The k greatest elements, greatest first, or every element if there are fewer than k
+     */
+    public List<T> topK(int k, Comparator<? super T> comparator) {
+        return collect(TopK.collector(k, comparator));
+    }
+
+    /**
+     * Returns a uniform random sample of the elements of this stream, keeping no more than the sample in memory
+     *
+     * @param size The number of elements to sample
+     * @return The sample, in no particular order, or every element if there are no more than {@code size}
+     */
+    public List<T> sample(int size) {
+        return collect(Reservoir.collector(size));
+    }
+
+    /**
+     * Estimates the number of distinct elements of this stream with a {@link HyperLogLog}, in constant memory
+     *
+     * Elements are told apart by their {@code hashCode}, and the estimate is usually within 2% of the true count.
+     *
+     * @return The estimated number of distinct elements
+     */
+    public long countDistinctApproximately() {
+        return collect(HyperLogLog.collector()).cardinality();
+    }
+
+    /**
+     * Counts the elements of this stream in a {@link CountMinSketch}, which estimates how often each one occurs
+     *
+     * @param epsilon The error of the estimates, as a fraction of the number of elements
+     * @param confidence The probability that an estimate is within the error
+     * @return The new sketch
+     */
+    public CountMinSketch toCountMinSketch(double epsilon, double confidence) {
+        return collect(CountMinSketch.collector(epsilon, confidence));
+    }
+
+    /**
+     * Encodes this stream as fixed-size records in a new direct {@code ByteBuffer}, off the heap
+     *
+     * When the size of the stream is known, the buffer is allocated up front and a parallel stream writes each
+     * record straight to its offset. Otherwise records are appended in order to a buffer that grows as needed.
+     *
+     * @param codec The {@link RecordCodec} encoding each element
+     * @return The new buffer in native byte order, with the records from position zero up to its limit
+     * @throws IllegalArgumentException If the records don't fit in a single buffer
+     */
+    public ByteBuffer toByteBuffer(RecordCodec<? super T> codec) {
+        int recordSize = codec.recordSize();
+        Spliterator<T> spliterator = stream.spliterator();
+        Stream<T> source = StreamSupport.stream(spliterator, stream.isParallel());
+        if (spliterator.hasCharacteristics(Spliterator.SIZED)) {
+            ByteBuffer buffer = BufferAppender.allocate(spliterator.getExactSizeIfKnown(), recordSize);
+            new RichStream<>(source, pool).zipWithIndex()
+                    .forEach(element -> codec.write(buffer, (int) element.getIndex() * recordSize, element.getValue()));
+            return buffer;
+        }
+        BufferAppender appender = new BufferAppender(recordSize);
+        PoolExecutor.run(pool, () -> source.forEachOrdered(element -> {
+            int offset = appender.reserve();
+            codec.write(appender.buffer(), offset, element);
+        }));
+        return appender.finish();
+    }
+
+    /**
+     * Writes the elements of this stream to a file, replacing its contents
+     *
+     * See {@link #writeTo(WritableByteChannel, ElementEncoder)}
+     *
+     * @param path The path of the file, which is created if it doesn't exist
+     * @param encoder The {@link ElementEncoder} encoding each element
+     * @return The number of elements written
+     * @throws IOException If the file can't be written
+     */
+    public long writeTo(Path path, ElementEncoder<? super T> encoder) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            return writeTo(channel, encoder);
+        }
+    }
+
+    /**
+     * Writes the elements of this stream to a channel in encounter order, without collecting them first
+     *
+     * A sequential stream encodes its elements into a reusable buffer that is written to the channel whenever it
+     * fills up, so its memory use doesn't depend on the size of the stream. A parallel stream encodes batches of
+     * 1024 elements concurrently, each into a buffer of its own, and writes them in encounter order. Batches encoded
+     * ahead of an earlier one are held in memory until it is written, so a parallel stream may buffer a large part
+     * of its output when its parts finish out of order. A parallel stream of unknown size is also split by
+     * buffering groups of batches that grow with each split, as described for {@link #batched(int)}, so the
+     * memory it holds grows with the size of the stream. The channel is not closed.
+     *
+     * @param channel The channel to write to
+     * @param encoder The {@link ElementEncoder} encoding each element
+     * @return The number of elements written
+     * @throws IOException If the channel can't be written
+     */
+    public long writeTo(WritableByteChannel channel, ElementEncoder<? super T> encoder) throws IOException {
+        ChannelWriter<T> writer = new ChannelWriter<>(channel, encoder);
+        try {
+            if (stream.isParallel()) {
+                // Built without this stream's instrumentation, so the internal stages aren't reported as the user's
+                new RichStream<>(stream, pool).batched(WRITE_BATCH_SIZE)
+                        .map(batch -> Pair.of(ChannelWriter.encode(batch, encoder), batch.size()))
+                        .forEachOrdered(encoded -> {
+                            try {
+                                writer.write(encoded.getLeft(), encoded.getRight());
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        });
+            } else {
+                forEachOrdered(element -> {
+                    try {
+                        writer.write(element);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        return writer.count();
+    }
+
+    /**
+     * Converts this stream to a set
+     *
+     * @return The new set
+     */
+    public Set<T> toSet() {
+        return collect(Collectors.toSet());
+    }
+
+    /**
+     * Converts this stream to a map, with the elements as keys
+     *
+     * @param valueFunction A {@code Function} on elements to produce the map values
+     * @param <V> The type of the map values
+     * @return The new map
+     */
+    public <V> Map<T, V> toMapAsKey(Function<T, V> valueFunction) {
+        return collectToMap(Function.identity(), valueFunction, null);
+    }
+
+    /**
+     * Converts this stream to a map, with the elements as keys
+     *
+     * @param valueFunction A {@link FunctionWithCheckedException} on elements to produce the map values
+     * @param <V> The type of the map values
+     * @return The new map
+     */
+    public <V> Map<T, V> toMapAsKey(FunctionWithCheckedException<T, V> valueFunction) {
+        return collectToMap(Function.identity(), valueFunction, null);
+    }
+
+    /**
+     * Converts this stream to a map, with the elements as values
+     *
+     * @param keyFunction A {@code Function} on elements to produce the map keys
+     * @param <K> The type of the map keys
+     * @return The new map
+     */
+    public <K> Map<K, T> toMapAsValue(Function<T, K> keyFunction) {
+        return collectToMap(keyFunction, Function.identity(), null);
+    }
+
+    /**
+     * Converts this stream to a map, with the elements as values
+     *
+     * @param keyFunction A {@link FunctionWithCheckedException} on elements to produce the map keys
+     * @param <K> The type of the map keys
+     * @return The new map
+     */
+    public <K> Map<K, T> toMapAsValue(FunctionWithCheckedException<T, K> keyFunction) {
+        return collectToMap(keyFunction, Function.identity(), null);
+    }
+
+    /**
+     * Converts this stream to a map
+     *
+     * @param keyFunction A {@code Function} on elements to produce the map keys
+     * @param valueFunction A {@code Function} on elements to produce the map values
+     * @param <K> The type of the map keys
+     * @param <V> The type of the map values
+     * @return The new map
+     */
+    public <K, V> Map<K, V> toMap(Function<T, K> keyFunction, Function<T, V> valueFunction) {
+        return collectToMap(keyFunction, valueFunction, null);
+    }
+
+    /**
+     * Converts this stream to a map
+     *
+     * @param keyFunction A {@link FunctionWithCheckedException} on elements to produce the map keys
+     * @param valueFunction A {@code Function} on elements to produce the map values
+     * @param <K> The type of the map keys
+     * @param <V> The type of the map values
+     * @return The new map
+     */
+    public <K, V> Map<K, V> toMap(FunctionWithCheckedException<T, K> keyFunction, Function<T, V> valueFunction) {
+        return collectToMap(keyFunction, valueFunction, null);
+    }
+
+    /**
+     * Converts this stream to a map
+     *
+     * @param keyFunction A {@code Function} on elements to produce the map keys
+     * @param valueFunction A {@link FunctionWithCheckedException} on elements to produce the map values
+     * @param <K> The type of the map keys
+     * @param <V> The type of the map values
+     * @return The new map
+     */
+    public <K, V> Map<K, V> toMap(Function<T, K> keyFunction, FunctionWithCheckedException<T, V> valueFunction) {
+        return collectToMap(keyFunction, valueFunction, null);
+    }
+
+    /**
+     * Converts this stream to a map
+     *
+     * @param keyFunction A {@link FunctionWithCheckedException} on elements to produce the map keys
+     * @param valueFunction A {@link FunctionWithCheckedException} on elements to produce the map values
+     * @param <K> The type of the map keys
+     * @param <V> The type of the map values
+     * @return The new map
+     */
+    public <K, V> Map<K, V> toMap(FunctionWithCheckedException<T, K> keyFunction, FunctionWithCheckedException<T, V> valueFunction) {
+        return collectToMap(keyFunction, valueFunction, null);
+    }
+
+    /**
+     * Converts this stream to a map, with the elements as keys, merging the values of equal elements
+     *
+     * @param valueFunction A {@code Function} on elements to produce the map values
+     * @param mergeFunction A {@code BinaryOperator} combining the values of elements with the same key
+     * @param <V> The type of the map values
+     * @return The new map
+     */
+    public <V> Map<T, V> toMapAsKey(Function<T, V> valueFunction, BinaryOperator<V> mergeFunction) {
+        return collectToMap(Function.identity(), valueFunction, Objects.requireNonNull(mergeFunction));
+    }
+
+    /**
+     * Converts this stream to a map, with the elements as keys, merging the values of equal elements
+     *
+     * @param valueFunction A {@link FunctionWithCheckedException} on elements to produce the map values
+     * @param mergeFunction A {@code BinaryOperator} combining the values of elements with the same key
+     * @param <V> The type of the map values
+     * @return The new map
+     */
+    public <V> Map<T, V> toMapAsKey(FunctionWithCheckedException<T, V> valueFunction, BinaryOperator<V> mergeFunction) {
+        return collectToMap(Function.identity(), valueFunction, Objects.requireNonNull(mergeFunction));
+    }
+
+    /**
+     * Converts this stream to a map, with the elements as values, merging elements with the same key
+     *
+     * @param keyFunction A {@code Function} on elements to produce the map keys
+     * @param mergeFunction A {@code BinaryOperator} combining the values of elements with the same key
+     * @param <K> The type of the map keys
+     * @return The new map
+     */
+    public <K> Map<K, T> toMapAsValue(Function<T, K> keyFunction, BinaryOperator<T> mergeFunction) {
+        return collectToMap(keyFunction, Function.identity(), Objects.requireNonNull(mergeFunction));
+    }
+
+    /**
+     * Converts this stream to a map, with the elements as values, merging elements with the same key
+     *
+     * @param keyFunction A {@link FunctionWithCheckedException} on elements to produce the map keys
+     * @param mergeFunction A {@code BinaryOperator} combining the values of elements with the same key
+     * @param <K> The type of the map keys
+     * @return The new map
+     */
+    public <K> Map<K, T> toMapAsValue(FunctionWithCheckedException<T, K> keyFunction, BinaryOperator<T> mergeFunction) {
+        return collectToMap(keyFunction, Function.identity(), Objects.requireNonNull(mergeFunction));
+    }
+
+    /**
+     * Converts this stream to a map, merging the values of elements with the same key
+     *
+     * @param keyFunction A {@code Function} on elements to produce the map keys
+     * @param valueFunction A {@code Function} on elements to produce the map values
+     * @param mergeFunction A {@code BinaryOperator} combining the values of elements with the same key
+     * @param <K> The type of the map keys
+     * @param <V> The type of the map values
+     * @return The new map
+     */
+    public <K, V> Map<K, V> toMap(Function<T, K> keyFunction, Function<T, V> valueFunction, BinaryOperator<V> mergeFunction) {
+        return collectToMap(keyFunction, valueFunction, Objects.requireNonNull(mergeFunction));
     }
 
     /**
-     * Creates a {@code RichStream} from a {@code Collection}
+     * Converts this stream to a map, merging the values of elements with the same key
      *
-     * @param collection The collection to wrap
-     * @param <T> The type of elements in the collection
-     * @return A {@code RichStream} wrapping the given collection
+     * @param keyFunction A {@code Function} on elements to produce the map keys
+     * @param valueFunction A {@link FunctionWithCheckedException} on elements to produce the map values
+     * @param mergeFunction A {@code BinaryOperator} combining the values of elements with the same key
+     * @param <K> The type of the map keys
+     * @param <V> The type of the map values
+     * @return The new map
      */
-    public static <T> RichStream<T> of(Collection<T> collection) {
-        return of(collection.stream());
+    public <K, V> Map<K, V> toMap(Function<T, K> keyFunction, FunctionWithCheckedException<T, V> valueFunction, BinaryOperator<V> mergeFunction) {
+        return collectToMap(keyFunction, valueFunction, Objects.requireNonNull(mergeFunction));
     }
 
     /**
-     * Creates a {@code RichStream} from an array
+     * Converts this stream to a map, merging the values of elements with the same key
      *
-     * @param array The array to wrap
-     * @param <T> The type of elements in the array
-     * @return A {@code RichStream} wrapping the given array
+     * @param keyFunction A {@link FunctionWithCheckedException} on elements to produce the map keys
+     * @param valueFunction A {@code Function} on elements to produce the map values
+     * @param mergeFunction A {@code BinaryOperator} combining the values of elements with the same key
+     * @param <K> The type of the map keys
+     * @param <V> The type of the map values
+     * @return The new map
      */
-    public static <T> RichStream<T> of(T[] array) {
-        return of(Arrays.stream(array));
+    public <K, V> Map<K, V> toMap(FunctionWithCheckedException<T, K> keyFunction, Function<T, V> valueFunction, BinaryOperator<V> mergeFunction) {
+        return collectToMap(keyFunction, valueFunction, Objects.requireNonNull(mergeFunction));
     }
 
     /**
-     * Creates a {@code RichStream} from an {@code Iterable}
-     * 
-     * @param iterable The iterable to wrap
-     * @param <T> The type of elements in the iterable
-     * @return A {@code RichStream} wrapping the given array
+     * Converts this stream to a map, merging the values of elements with the same key
+     *
+     * @param keyFunction A {@link FunctionWithCheckedException} on elements to produce the map keys
+     * @param valueFunction A {@link FunctionWithCheckedException} on elements to produce the map values
+     * @param mergeFunction A {@code BinaryOperator} combining the values of elements with the same key
+     * @param <K> The type of the map keys
+     * @param <V> The type of the map values
+     * @return The new map
      */
-    public static <T> RichStream<T> of(Iterable<T> iterable) {
-        return of(StreamSupport.stream(iterable.spliterator(), false));
+    public <K, V> Map<K, V> toMap(FunctionWithCheckedException<T, K> keyFunction, FunctionWithCheckedException<T, V> valueFunction, BinaryOperator<V> mergeFunction) {
+        return collectToMap(keyFunction, valueFunction, Objects.requireNonNull(mergeFunction));
     }
 
     /**
-     * Creates a {@code RichStream} from an {@code Iterator}
+     * Converts this stream to a concurrent map
      *
-     * @param iterator The iterator to wrap
-     * @param <T> The type of elements in the iterator
-     * @return A {@code RichStream} wrapping the given array
+     * When the stream is parallel, all threads insert into the one map rather than building and merging a
+     * map each, which is considerably faster for large streams
+     *
+     * @param keyFunction A {@code Function} on elements to produce the map keys
+     * @param valueFunction A {@code Function} on elements to produce the map values
+     * @param <K> The type of the map keys
+     * @param <V> The type of the map values
+     * @return The new map
+     * @throws IllegalStateException If two elements have the same key
      */
-    public static <T> RichStream<T> of(Iterator<T> iterator) {
-        return of(() -> iterator);
+    public <K, V> ConcurrentMap<K, V> toConcurrentMap(Function<T, K> keyFunction, Function<T, V> valueFunction) {
+        return collectToConcurrentMap(keyFunction, valueFunction, null);
     }
 
-    private Stream<T> stream;
-
-    private RichStream(Stream<T> stream) {
-        this.stream = stream;
+    /**
+     * Converts this stream to a concurrent map
+     *
+     * When the stream is parallel, all threads insert into the one map rather than building and merging a
+     * map each, which is considerably faster for large streams
+     *
+     * @param keyFunction A {@code Function} on elements to produce the map keys
+     * @param valueFunction A {@link FunctionWithCheckedException} on elements to produce the map values
+     * @param <K> The type of the map keys
+     * @param <V> The type of the map values
+     * @return The new map
+     * @throws IllegalStateException If two elements have the same key
+     */
+    public <K, V> ConcurrentMap<K, V> toConcurrentMap(Function<T, K> keyFunction, FunctionWithCheckedException<T, V> valueFunction) {
+        return collectToConcurrentMap(keyFunction, valueFunction, null);
     }
 
     /**
-     * Returns a stream consisting of the elements of this stream that do not match
-     * the given predicate.
+     * Converts this stream to a concurrent map
      *
-     * @param predicate A {@code Predicate} returning true if an element should not be included
-     * @return the new stream
+     * When the stream is parallel, all threads insert into the one map rather than building and merging a
+     * map each, which is considerably faster for large streams
+     *
+     * @param keyFunction A {@link FunctionWithCheckedException} on elements to produce the map keys
+     * @param valueFunction A {@code Function} on elements to produce the map values
+     * @param <K> The type of the map keys
+     * @param <V> The type of the map values
+     * @return The new map
+     * @throws IllegalStateException If two elements have the same key
      */
-    public RichStream<T> filterNot(Predicate<? super T> predicate) {
-        return filter(predicate.negate());
+    public <K, V> ConcurrentMap<K, V> toConcurrentMap(FunctionWithCheckedException<T, K> keyFunction, Function<T, V> valueFunction) {
+        return collectToConcurrentMap(keyFunction, valueFunction, null);
     }
 
-
     /**
-     * Returns a stream consisting of the elements of this stream that do not match
-     * the given predicate.
+     * Converts this stream to a concurrent map
      *
-     * @param predicate A {@link PredicateWithCheckedException} returning true if an element should not be included
-     * @return the new stream
+     * When the stream is parallel, all threads insert into the one map rather than building and merging a
+     * map each, which is considerably faster for large streams
+     *
+     * @param keyFunction A {@link FunctionWithCheckedException} on elements to produce the map keys
+     * @param valueFunction A {@link FunctionWithCheckedException} on elements to produce the map values
+     * @param <K> The type of the map keys
+     * @param <V> The type of the map values
+     * @return The new map
+     * @throws IllegalStateException If two elements have the same key
      */
-    public RichStream<T> filterNot(PredicateWithCheckedException<? super T> predicate) {
-        return filter(predicate.negate());
+    public <K, V> ConcurrentMap<K, V> toConcurrentMap(FunctionWithCheckedException<T, K> keyFunction, FunctionWithCheckedException<T, V> valueFunction) {
+        return collectToConcurrentMap(keyFunction, valueFunction, null);
     }
 
     /**
-     * Returns a stream consisting of {@link Pair}s of the original element and the index of that element
-     * Not recommended for use on infinite streams!
+     * Converts this stream to a concurrent map, merging the values of elements with the same key
      *
-     * @return The new stream
+     * @param keyFunction A {@code Function} on elements to produce the map keys
+     * @param valueFunction A {@code Function} on elements to produce the map values
+     * @param mergeFunction A {@code BinaryOperator} combining the values of elements with the same key
+     * @param <K> The type of the map keys
+     * @param <V> The type of the map values
+     * @return The new map
      */
-    public RichStream<Pair<T, Integer>> zipWithIndex() {
-        AtomicInteger index = new AtomicInteger(0);
-        return new RichStream<>(stream.map(element -> Pair.of(element, index.getAndIncrement())));
+    public <K, V> ConcurrentMap<K, V> toConcurrentMap(Function<T, K> keyFunction, Function<T, V> valueFunction, BinaryOperator<V> mergeFunction) {
+        return collectToConcurrentMap(keyFunction, valueFunction, Objects.requireNonNull(mergeFunction));
     }
 
     /**
-     * Returns a stream consisting of {@link Pair}s of elements from this stream and another
-     * 
-     * The resulting stream has the same length as the shorter of the two streams
-     * Not recommended for use on infinite streams!
+     * Converts this stream to a concurrent map, merging the values of elements with the same key
      *
-     * @param other The other stream
-     * @param <R> The type of elements in the other stream
-     * @return The new stream
+     * @param keyFunction A {@code Function} on elements to produce the map keys
+     * @param valueFunction A {@link FunctionWithCheckedException} on elements to produce the map values
+     * @param mergeFunction A {@code BinaryOperator} combining the values of elements with the same key
+     * @param <K> The type of the map keys
+     * @param <V> The type of the map values
+     * @return The new map
      */
-    public <R> RichStream<Pair<T, R>> zip(Stream<R> other) {
-        Iterator<T> iterator = iterator();
-        Iterator<R> otherIterator = other.iterator();
-        Iterator<Pair<T, R>> pairIterator = new Iterator<Pair<T, R>>() {
-            @Override
-            public boolean hasNext() {
-                return iterator.hasNext() && otherIterator.hasNext();
-            }
-
-            @Override
-            public Pair<T, R> next() {
-                return Pair.of(iterator.next(), otherIterator.next());
-            }
-        };
-        return RichStream.of(pairIterator);
+    public <K, V> ConcurrentMap<K, V> toConcurrentMap(Function<T, K> keyFunction, FunctionWithCheckedException<T, V> valueFunction, BinaryOperator<V> mergeFunction) {
+        return collectToConcurrentMap(keyFunction, valueFunction, Objects.requireNonNull(mergeFunction));
     }
 
     /**
-     * Converts this stream to a list
+     * Converts this stream to a concurrent map, merging the values of elements with the same key
      *
-     * @return The new list
+     * @param keyFunction A {@link FunctionWithCheckedException} on elements to produce the map keys
+     * @param valueFunction A {@code Function} on elements to produce the map values
+     * @param mergeFunction A {@code BinaryOperator} combining the values of elements with the same key
+     * @param <K> The type of the map keys
+     * @param <V> The type of the map values
+     * @return The new map
      */
-    public List<T> toList() {
-        return collect(Collectors.toList());
+    public <K, V> ConcurrentMap<K, V> toConcurrentMap(FunctionWithCheckedException<T, K> keyFunction, Function<T, V> valueFunction, BinaryOperator<V> mergeFunction) {
+        return collectToConcurrentMap(keyFunction, valueFunction, Objects.requireNonNull(mergeFunction));
     }
 
     /**
-     * Converts this stream to a set
+     * Converts this stream to a concurrent map, merging the values of elements with the same key
      *
-     * @return The new set
+     * @param keyFunction A {@link FunctionWithCheckedException} on elements to produce the map keys
+     * @param valueFunction A {@link FunctionWithCheckedException} on elements to produce the map values
+     * @param mergeFunction A {@code BinaryOperator} combining the values of elements with the same key
+     * @param <K> The type of the map keys
+     * @param <V> The type of the map values
+     * @return The new map
      */
-    public Set<T> toSet() {
-        return collect(Collectors.toSet());
+    public <K, V> ConcurrentMap<K, V> toConcurrentMap(FunctionWithCheckedException<T, K> keyFunction, FunctionWithCheckedException<T, V> valueFunction, BinaryOperator<V> mergeFunction) {
+        return collectToConcurrentMap(keyFunction, valueFunction, Objects.requireNonNull(mergeFunction));
     }
 
     /**
-     * Converts this stream to a map, with the elements as keys
+     * Converts this stream to a map with primitive {@code int} keys, which are not boxed
      *
+     * @param keyFunction A {@code ToIntFunction} on elements to produce the map keys
      * @param valueFunction A {@code Function} on elements to produce the map values
      * @param <V> The type of the map values
      * @return The new map
+     * @throws IllegalStateException If two elements have the same key
      */
-    public <V> Map<T, V> toMapAsKey(Function<T, V> valueFunction) {
-        return collect(Collectors.toMap(Function.identity(), valueFunction));
+    public <V> IntObjectMap<V> toIntObjectMap(ToIntFunction<T> keyFunction, Function<T, V> valueFunction) {
+        return collectToIntObjectMap(keyFunction, valueFunction);
     }
 
     /**
-     * Converts this stream to a map, with the elements as keys
+     * Converts this stream to a map with primitive {@code int} keys, which are not boxed
      *
+     * @param keyFunction A {@code ToIntFunction} on elements to produce the map keys
      * @param valueFunction A {@link FunctionWithCheckedException} on elements to produce the map values
      * @param <V> The type of the map values
      * @return The new map
+     * @throws IllegalStateException If two elements have the same key
      */
-    public <V> Map<T, V> toMapAsKey(FunctionWithCheckedException<T, V> valueFunction) {
-        return collect(Collectors.toMap(Function.identity(), valueFunction));
+    public <V> IntObjectMap<V> toIntObjectMap(ToIntFunction<T> keyFunction, FunctionWithCheckedException<T, V> valueFunction) {
+        return collectToIntObjectMap(keyFunction, valueFunction);
     }
 
     /**
-     * Converts this stream to a map, with the elements as values
+     * Converts this stream to a map with primitive {@code int} keys, which are not boxed
      *
-     * @param keyFunction A {@code Function} on elements to produce the map keys
-     * @param <K> The type of the map keys
+     * @param keyFunction A {@link ToIntFunctionWithCheckedException} on elements to produce the map keys
+     * @param valueFunction A {@code Function} on elements to produce the map values
+     * @param <V> The type of the map values
      * @return The new map
+     * @throws IllegalStateException If two elements have the same key
      */
-    public <K> Map<K, T> toMapAsValue(Function<T, K> keyFunction) {
-        return collect(Collectors.toMap(keyFunction, Function.identity()));
+    public <V> IntObjectMap<V> toIntObjectMap(ToIntFunctionWithCheckedException<T> keyFunction, Function<T, V> valueFunction) {
+        return collectToIntObjectMap(keyFunction, valueFunction);
     }
 
     /**
-     * Converts this stream to a map, with the elements as values
+     * Converts this stream to a map with primitive {@code int} keys, which are not boxed
      *
-     * @param keyFunction A {@link FunctionWithCheckedException} on elements to produce the map keys
-     * @param <K> The type of the map keys
+     * @param keyFunction A {@link ToIntFunctionWithCheckedException} on elements to produce the map keys
+     * @param valueFunction A {@link FunctionWithCheckedException} on elements to produce the map values
+     * @param <V> The type of the map values
      * @return The new map
+     * @throws IllegalStateException If two elements have the same key
      */
-    public <K> Map<K, T> toMapAsValue(FunctionWithCheckedException<T, K> keyFunction) {
-        return collect(Collectors.toMap(keyFunction, Function.identity()));
+    public <V> IntObjectMap<V> toIntObjectMap(ToIntFunctionWithCheckedException<T> keyFunction, FunctionWithCheckedException<T, V> valueFunction) {
+        return collectToIntObjectMap(keyFunction, valueFunction);
     }
 
     /**
-     * Converts this stream to a map
+     * Converts this stream to a map with primitive {@code long} keys, which are not boxed
      *
-     * @param keyFunction A {@code Function} on elements to produce the map keys
+     * @param keyFunction A {@code ToLongFunction} on elements to produce the map keys
      * @param valueFunction A {@code Function} on elements to produce the map values
-     * @param <K> The type of the map keys
      * @param <V> The type of the map values
      * @return The new map
+     * @throws IllegalStateException If two elements have the same key
      */
-    public <K, V> Map<K, V> toMap(Function<T, K> keyFunction, Function<T, V> valueFunction) {
-        return collect(Collectors.toMap(keyFunction, valueFunction));
+    public <V> LongObjectMap<V> toLongObjectMap(ToLongFunction<T> keyFunction, Function<T, V> valueFunction) {
+        return collectToLongObjectMap(keyFunction, valueFunction);
     }
 
     /**
-     * Converts this stream to a map
+     * Converts this stream to a map with primitive {@code long} keys, which are not boxed
      *
-     * @param keyFunction A {@link FunctionWithCheckedException} on elements to produce the map keys
-     * @param valueFunction A {@code Function} on elements to produce the map values
-     * @param <K> The type of the map keys
+     * @param keyFunction A {@code ToLongFunction} on elements to produce the map keys
+     * @param valueFunction A {@link FunctionWithCheckedException} on elements to produce the map values
      * @param <V> The type of the map values
      * @return The new map
+     * @throws IllegalStateException If two elements have the same key
      */
-    public <K, V> Map<K, V> toMap(FunctionWithCheckedException<T, K> keyFunction, Function<T, V> valueFunction) {
-        return collect(Collectors.toMap(keyFunction, valueFunction));
+    public <V> LongObjectMap<V> toLongObjectMap(ToLongFunction<T> keyFunction, FunctionWithCheckedException<T, V> valueFunction) {
+        return collectToLongObjectMap(keyFunction, valueFunction);
     }
 
     /**
-     * Converts this stream to a map
+     * Converts this stream to a map with primitive {@code long} keys, which are not boxed
      *
-     * @param keyFunction A {@code Function} on elements to produce the map keys
-     * @param valueFunction A {@link FunctionWithCheckedException} on elements to produce the map values
-     * @param <K> The type of the map keys
+     * @param keyFunction A {@link ToLongFunctionWithCheckedException} on elements to produce the map keys
+     * @param valueFunction A {@code Function} on elements to produce the map values
      * @param <V> The type of the map values
      * @return The new map
+     * @throws IllegalStateException If two elements have the same key
      */
-    public <K, V> Map<K, V> toMap(Function<T, K> keyFunction, FunctionWithCheckedException<T, V> valueFunction) {
-        return collect(Collectors.toMap(keyFunction, valueFunction));
+    public <V> LongObjectMap<V> toLongObjectMap(ToLongFunctionWithCheckedException<T> keyFunction, Function<T, V> valueFunction) {
+        return collectToLongObjectMap(keyFunction, valueFunction);
     }
 
     /**
-     * Converts this stream to a map
+     * Converts this stream to a map with primitive {@code long} keys, which are not boxed
      *
-     * @param keyFunction A {@link FunctionWithCheckedException} on elements to produce the map keys
+     * @param keyFunction A {@link ToLongFunctionWithCheckedException} on elements to produce the map keys
      * @param valueFunction A {@link FunctionWithCheckedException} on elements to produce the map values
-     * @param <K> The type of the map keys
      * @param <V> The type of the map values
      * @return The new map
+     * @throws IllegalStateException If two elements have the same key
      */
-    public <K, V> Map<K, V> toMap(FunctionWithCheckedException<T, K> keyFunction, FunctionWithCheckedException<T, V> valueFunction) {
-        return collect(Collectors.toMap(keyFunction, valueFunction));
+    public <V> LongObjectMap<V> toLongObjectMap(ToLongFunctionWithCheckedException<T> keyFunction, FunctionWithCheckedException<T, V> valueFunction) {
+        return collectToLongObjectMap(keyFunction, valueFunction);
+    }
+
+    private <V> IntObjectMap<V> collectToIntObjectMap(ToIntFunction<? super T> keyFunction, Function<? super T, ? extends V> valueFunction) {
+        if (stream.isParallel()) {
+            return collect(IntObjectMap.collector(keyFunction, valueFunction));
+        }
+        Spliterator<T> spliterator = stream.spliterator();
+        IntObjectMap<V> map = new IntObjectMap<>(PrimitiveCollections.expectedSize(spliterator));
+        spliterator.forEachRemaining(element -> PrimitiveCollections.putUnique(map, keyFunction.applyAsInt(element), valueFunction.apply(element)));
+        return map;
+    }
+
+    private <V> LongObjectMap<V> collectToLongObjectMap(ToLongFunction<? super T> keyFunction, Function<? super T, ? extends V> valueFunction) {
+        if (stream.isParallel()) {
+            return collect(LongObjectMap.collector(keyFunction, valueFunction));
+        }
+        Spliterator<T> spliterator = stream.spliterator();
+        LongObjectMap<V> map = new LongObjectMap<>(PrimitiveCollections.expectedSize(spliterator));
+        spliterator.forEachRemaining(element -> PrimitiveCollections.putUnique(map, keyFunction.applyAsLong(element), valueFunction.apply(element)));
+        return map;
+    }
+
+    /**
+     * Folds the elements of this stream with the same key into a mutable container per key, without grouping them
+     * first
+     *
+     * Each element is folded into its key's container as soon as it is reached, so no list of the elements of a
+     * group is ever built, and a container such as a {@code long[]} can be updated in place rather than replaced.
+     * Like {@link #collect(Supplier, BiConsumer, BiConsumer)}, a parallel stream folds each of its parts into a
+     * separate map without any locking, and the maps are then merged, combining the containers of keys found in
+     * more than one part.
+     *
+     * @param keyFunction A {@code Function} on elements to produce the keys
+     * @param supplier A {@code Supplier} of a new, empty container for a key
+     * @param fold A {@code BiConsumer} folding an element into the container of its key
+     * @param combine A {@code BiConsumer} folding the second container of a key into the first
+     * @param <K> The type of the keys
+     * @param <A> The type of the containers
+     * @return The new map
+     */
+    public <K, A> Map<K, A> aggregateByKey(Function<T, K> keyFunction, Supplier<A> supplier, BiConsumer<A, ? super T> fold,
+                                           BiConsumer<A, A> combine) {
+        return foldByKey(keyFunction, supplier, fold, combine);
+    }
+
+    /**
+     * See {@link #aggregateByKey(Function, Supplier, BiConsumer, BiConsumer)}
+     */
+    public <K, A> Map<K, A> aggregateByKey(FunctionWithCheckedException<T, K> keyFunction, Supplier<A> supplier,
+                                           BiConsumer<A, ? super T> fold, BiConsumer<A, A> combine) {
+        return foldByKey(keyFunction, supplier, fold, combine);
+    }
+
+    /**
+     * Counts the elements of this stream with each key
+     *
+     * Counts are kept in a {@code long[]} per key while folding, so only the final count of each key is boxed
+     *
+     * @param keyFunction A {@code Function} on elements to produce the keys
+     * @param <K> The type of the keys
+     * @return The new map
+     */
+    public <K> Map<K, Long> countByKey(Function<T, K> keyFunction) {
+        return sumLongs(keyFunction, element -> 1L);
+    }
+
+    /**
+     * See {@link #countByKey(Function)}
+     */
+    public <K> Map<K, Long> countByKey(FunctionWithCheckedException<T, K> keyFunction) {
+        return sumLongs(keyFunction, element -> 1L);
+    }
+
+    /**
+     * Sums a {@code long} value of the elements of this stream with each key
+     *
+     * Behaves like {@link #countByKey(Function)}, adding the value of each element rather than one
+     *
+     * @param keyFunction A {@code Function} on elements to produce the keys
+     * @param valueFunction A {@code ToLongFunction} on elements to produce the values to sum
+     * @param <K> The type of the keys
+     * @return The new map
+     */
+    public <K> Map<K, Long> sumLongByKey(Function<T, K> keyFunction, ToLongFunction<? super T> valueFunction) {
+        return sumLongs(keyFunction, valueFunction);
+    }
+
+    /**
+     * See {@link #sumLongByKey(Function, ToLongFunction)}
+     */
+    public <K> Map<K, Long> sumLongByKey(FunctionWithCheckedException<T, K> keyFunction, ToLongFunctionWithCheckedException<? super T> valueFunction) {
+        return sumLongs(keyFunction, valueFunction);
+    }
+
+    /**
+     * See {@link #sumLongByKey(Function, ToLongFunction)}
+     */
+    public <K> Map<K, Long> sumLongByKey(Function<T, K> keyFunction, ToLongFunctionWithCheckedException<? super T> valueFunction) {
+        return sumLongs(keyFunction, valueFunction);
+    }
+
+    /**
+     * See {@link #sumLongByKey(Function, ToLongFunction)}
+     */
+    public <K> Map<K, Long> sumLongByKey(FunctionWithCheckedException<T, K> keyFunction, ToLongFunction<? super T> valueFunction) {
+        return sumLongs(keyFunction, valueFunction);
+    }
+
+    /**
+     * Sums a {@code double} value of the elements of this stream with each key
+     *
+     * Behaves like {@link #sumLongByKey(Function, ToLongFunction)}. The parts of a parallel stream are summed
+     * separately, so its sums may differ from those of a sequential stream by rounding.
+     *
+     * @param keyFunction A {@code Function} on elements to produce the keys
+     * @param valueFunction A {@code ToDoubleFunction} on elements to produce the values to sum
+     * @param <K> The type of the keys
+     * @return The new map
+     */
+    public <K> Map<K, Double> sumDoubleByKey(Function<T, K> keyFunction, ToDoubleFunction<? super T> valueFunction) {
+        return sumDoubles(keyFunction, valueFunction);
+    }
+
+    /**
+     * See {@link #sumDoubleByKey(Function, ToDoubleFunction)}
+     */
+    public <K> Map<K, Double> sumDoubleByKey(FunctionWithCheckedException<T, K> keyFunction, ToDoubleFunctionWithCheckedException<? super T> valueFunction) {
+        return sumDoubles(keyFunction, valueFunction);
+    }
+
+    /**
+     * See {@link #sumDoubleByKey(Function, ToDoubleFunction)}
+     */
+    public <K> Map<K, Double> sumDoubleByKey(Function<T, K> keyFunction, ToDoubleFunctionWithCheckedException<? super T> valueFunction) {
+        return sumDoubles(keyFunction, valueFunction);
+    }
+
+    /**
+     * See {@link #sumDoubleByKey(Function, ToDoubleFunction)}
+     */
+    public <K> Map<K, Double> sumDoubleByKey(FunctionWithCheckedException<T, K> keyFunction, ToDoubleFunction<? super T> valueFunction) {
+        return sumDoubles(keyFunction, valueFunction);
+    }
+
+    private <K, A> Map<K, A> foldByKey(Function<? super T, ? extends K> keyFunction, Supplier<A> supplier,
+                                       BiConsumer<A, ? super T> fold, BiConsumer<A, A> combine) {
+        return collect(HashMap::new,
+                (Map<K, A> map, T element) -> fold.accept(map.computeIfAbsent(keyFunction.apply(element), key -> supplier.get()), element),
+                (map, other) -> other.forEach((key, container) -> {
+                    A existing = map.putIfAbsent(key, container);
+                    if (existing != null) {
+                        combine.accept(existing, container);
+                    }
+                }));
+    }
+
+    private <K> Map<K, Long> sumLongs(Function<? super T, ? extends K> keyFunction, ToLongFunction<? super T> valueFunction) {
+        Map<K, long[]> sums = foldByKey(keyFunction, () -> new long[1],
+                (sum, element) -> sum[0] += valueFunction.applyAsLong(element), (sum, other) -> sum[0] += other[0]);
+        Map<K, Long> result = new HashMap<>(capacityFor(sums.size()));
+        sums.forEach((key, sum) -> result.put(key, sum[0]));
+        return result;
+    }
+
+    private <K> Map<K, Double> sumDoubles(Function<? super T, ? extends K> keyFunction, ToDoubleFunction<? super T> valueFunction) {
+        Map<K, double[]> sums = foldByKey(keyFunction, () -> new double[1],
+                (sum, element) -> sum[0] += valueFunction.applyAsDouble(element), (sum, other) -> sum[0] += other[0]);
+        Map<K, Double> result = new HashMap<>(capacityFor(sums.size()));
+        sums.forEach((key, sum) -> result.put(key, sum[0]));
+        return result;
+    }
+
+    /**
+     * Collects this stream into a {@code HashMap}, presized when the stream is sequential and its size is known
+     *
+     * @param mergeFunction The function merging values with the same key, or null to reject duplicate keys
+     */
+    private <K, V> Map<K, V> collectToMap(Function<? super T, ? extends K> keyFunction,
+                                          Function<? super T, ? extends V> valueFunction,
+                                          BinaryOperator<V> mergeFunction) {
+        if (stream.isParallel()) {
+            return mergeFunction == null
+                    ? collect(Collectors.toMap(keyFunction, valueFunction))
+                    : collect(Collectors.toMap(keyFunction, valueFunction, mergeFunction));
+        }
+        Spliterator<T> spliterator = stream.spliterator();
+        Map<K, V> map = new HashMap<>(capacityFor(spliterator.getExactSizeIfKnown()));
+        spliterator.forEachRemaining(element -> putOrMerge(map, keyFunction.apply(element), valueFunction.apply(element), mergeFunction));
+        return map;
+    }
+
+    /**
+     * Collects this stream into a {@code ConcurrentHashMap} shared by all threads, presized when the size is known
+     *
+     * @param mergeFunction The function merging values with the same key, or null to reject duplicate keys
+     */
+    private <K, V> ConcurrentMap<K, V> collectToConcurrentMap(Function<? super T, ? extends K> keyFunction,
+                                                              Function<? super T, ? extends V> valueFunction,
+                                                              BinaryOperator<V> mergeFunction) {
+        Spliterator<T> spliterator = stream.spliterator();
+        ConcurrentMap<K, V> map = new ConcurrentHashMap<>(capacityFor(spliterator.getExactSizeIfKnown()));
+        Stream<T> sized = StreamSupport.stream(spliterator, stream.isParallel());
+        PoolExecutor.run(pool, () -> sized.forEach(element -> putOrMerge(map, keyFunction.apply(element), valueFunction.apply(element), mergeFunction)));
+        return map;
+    }
+
+    private static <K, V> void putOrMerge(Map<K, V> map, K key, V value, BinaryOperator<V> mergeFunction) {
+        Objects.requireNonNull(value);
+        if (mergeFunction != null) {
+            map.merge(key, value, mergeFunction);
+        } else if (map.putIfAbsent(key, value) != null) {
+            throw new IllegalStateException("Duplicate key " + key);
+        }
+    }
+
+    /**
+     * Returns the initial capacity for a hash map to hold the given number of entries without resizing
+     *
+     * @param size The number of entries, or -1 if unknown
+     */
+    private static int capacityFor(long size) {
+        if (size < 0) {
+            return 16;
+        }
+        return (int) Math.min(size / 0.75 + 1, 1 << 30);
     }
-    
+
     // Wrapped methods below
 
     @Override
     public RichStream<T> filter(Predicate<? super T> predicate) {
-        return new RichStream<>(stream.filter(predicate));
+        return chain(stream.filter(instrumentFilter("filter", predicate)));
     }
 
     public RichStream<T> filter(PredicateWithCheckedException<? super T> predicate) {
-        return new RichStream<>(stream.filter(predicate));
+        return chain(stream.filter(instrumentFilter("filter", predicate)));
     }
 
     @Override
     public <R> RichStream<R> map(Function<? super T, ? extends R> mapper) {
-        return new RichStream<>(stream.map(mapper));
+        return chain(stream.map(instrumentMap(mapper)));
     }
 
     public <R> RichStream<R> map(FunctionWithCheckedException<? super T, ? extends R> mapper) {
-        return new RichStream<>(stream.map(mapper));
+        return chain(stream.map(instrumentMap(mapper)));
     }
 
     @Override
-    public IntStream mapToInt(ToIntFunction<? super T> mapper) {
-        return stream.mapToInt(mapper);
+    public RichIntStream mapToInt(ToIntFunction<? super T> mapper) {
+        return new RichIntStream(stream.mapToInt(instrumentation == null ? mapper : instrumentation.mapToInt(mapper)), pool);
     }
 
-    public IntStream mapToInt(ToIntFunctionWithCheckedException<? super T> mapper) {
-        return stream.mapToInt(mapper);
+    public RichIntStream mapToInt(ToIntFunctionWithCheckedException<? super T> mapper) {
+        return new RichIntStream(stream.mapToInt(instrumentation == null ? mapper : instrumentation.mapToInt(mapper)), pool);
     }
 
     @Override
-    public LongStream mapToLong(ToLongFunction<? super T> mapper) {
-        return stream.mapToLong(mapper);
+    public RichLongStream mapToLong(ToLongFunction<? super T> mapper) {
+        return new RichLongStream(stream.mapToLong(instrumentation == null ? mapper : instrumentation.mapToLong(mapper)), pool);
     }
 
-    public LongStream mapToLong(ToLongFunctionWithCheckedException<? super T> mapper) {
-        return stream.mapToLong(mapper);
+    public RichLongStream mapToLong(ToLongFunctionWithCheckedException<? super T> mapper) {
+        return new RichLongStream(stream.mapToLong(instrumentation == null ? mapper : instrumentation.mapToLong(mapper)), pool);
     }
 
     @Override
-    public DoubleStream mapToDouble(ToDoubleFunction<? super T> mapper) {
-        return stream.mapToDouble(mapper);
+    public RichDoubleStream mapToDouble(ToDoubleFunction<? super T> mapper) {
+        return new RichDoubleStream(stream.mapToDouble(instrumentation == null ? mapper : instrumentation.mapToDouble(mapper)), pool);
     }
 
-    public DoubleStream mapToDouble(ToDoubleFunctionWithCheckedException<? super T> mapper) {
-        return stream.mapToDouble(mapper);
+    public RichDoubleStream mapToDouble(ToDoubleFunctionWithCheckedException<? super T> mapper) {
+        return new RichDoubleStream(stream.mapToDouble(instrumentation == null ? mapper : instrumentation.mapToDouble(mapper)), pool);
     }
 
     @Override
     public <R> Stream<R> flatMap(Function<? super T, ? extends Stream<? extends R>> mapper) {
-        return new RichStream<>(stream.flatMap(mapper));
+        return chain(stream.flatMap(mapper));
     }
 
     public <R> Stream<R> flatMap(FunctionWithCheckedException<? super T, ? extends Stream<? extends R>> mapper) {
-        return new RichStream<>(stream.flatMap(mapper));
+        return chain(stream.flatMap(mapper));
     }
 
     @Override
-    public IntStream flatMapToInt(Function<? super T, ? extends IntStream> mapper) {
-        return stream.flatMapToInt(mapper);
+    public RichIntStream flatMapToInt(Function<? super T, ? extends IntStream> mapper) {
+        return new RichIntStream(stream.flatMapToInt(mapper), pool);
     }
 
-    public IntStream flatMapToInt(FunctionWithCheckedException<? super T, ? extends IntStream> mapper) {
-        return stream.flatMapToInt(mapper);
+    public RichIntStream flatMapToInt(FunctionWithCheckedException<? super T, ? extends IntStream> mapper) {
+        return new RichIntStream(stream.flatMapToInt(mapper), pool);
     }
 
     @Override
-    public LongStream flatMapToLong(Function<? super T, ? extends LongStream> mapper) {
-        return stream.flatMapToLong(mapper);
+    public RichLongStream flatMapToLong(Function<? super T, ? extends LongStream> mapper) {
+        return new RichLongStream(stream.flatMapToLong(mapper), pool);
     }
 
-    public LongStream flatMapToLong(FunctionWithCheckedException<? super T, ? extends LongStream> mapper) {
-        return stream.flatMapToLong(mapper);
+    public RichLongStream flatMapToLong(FunctionWithCheckedException<? super T, ? extends LongStream> mapper) {
+        return new RichLongStream(stream.flatMapToLong(mapper), pool);
     }
 
     @Override
-    public DoubleStream flatMapToDouble(Function<? super T, ? extends DoubleStream> mapper) {
-        return stream.flatMapToDouble(mapper);
+    public RichDoubleStream flatMapToDouble(Function<? super T, ? extends DoubleStream> mapper) {
+        return new RichDoubleStream(stream.flatMapToDouble(mapper), pool);
     }
 
-    public DoubleStream flatMapToDouble(FunctionWithCheckedException<? super T, ? extends DoubleStream> mapper) {
-        return stream.flatMapToDouble(mapper);
+    public RichDoubleStream flatMapToDouble(FunctionWithCheckedException<? super T, ? extends DoubleStream> mapper) {
+        return new RichDoubleStream(stream.flatMapToDouble(mapper), pool);
     }
 
     @Override
     public RichStream<T> distinct() {
-        return new RichStream<>(stream.distinct());
+        return chain(stream.distinct());
     }
 
     @Override
     public RichStream<T> sorted() {
-        return new RichStream<>(stream.sorted());
+        return chain(stream.sorted());
     }
 
     @Override
     public RichStream<T> sorted(Comparator<? super T> comparator) {
-        return new RichStream<>(stream.sorted(comparator));
+        return chain(stream.sorted(comparator));
     }
 
     @Override
     public RichStream<T> peek(Consumer<? super T> action) {
-        return new RichStream<>(stream.peek(action));
+        return chain(stream.peek(action));
     }
 
     public RichStream<T> peek(ConsumerWithCheckedException<? super T> action) {
-        return new RichStream<>(stream.peek(action));
+        return chain(stream.peek(action));
     }
 
     @Override
     public RichStream<T> limit(long maxSize) {
-        return new RichStream<>(stream.limit(maxSize));
+        return chain(stream.limit(maxSize));
     }
 
     @Override
     public RichStream<T> skip(long n) {
-        return new RichStream<>(stream.skip(n));
+        return chain(stream.skip(n));
     }
 
     @Override
     public void forEach(Consumer<? super T> action) {
-        stream.forEach(action);
+        PoolExecutor.run(pool, () -> stream.forEach(action));
     }
 
     public void forEach(ConsumerWithCheckedException<? super T> action) {
-        stream.forEach(action);
+        PoolExecutor.run(pool, () -> stream.forEach(action));
     }
 
     @Override
     public void forEachOrdered(Consumer<? super T> action) {
-        stream.forEachOrdered(action);
+        PoolExecutor.run(pool, () -> stream.forEachOrdered(action));
     }
 
     public void forEachOrdered(ConsumerWithCheckedException<? super T> action) {
-        stream.forEachOrdered(action);
+        PoolExecutor.run(pool, () -> stream.forEachOrdered(action));
     }
 
     @Override
     public Object[] toArray() {
-        return stream.toArray();
+        return PoolExecutor.call(pool, () -> stream.toArray());
     }
 
     @Override
     public <A> A[] toArray(IntFunction<A[]> generator) {
-        return stream.toArray(generator);
+        return PoolExecutor.call(pool, () -> stream.toArray(generator));
     }
 
     @Override
     public T reduce(T identity, BinaryOperator<T> accumulator) {
-        return stream.reduce(identity, accumulator);
+        return PoolExecutor.call(pool, () -> stream.reduce(identity, accumulator));
     }
 
     @Override
     public Optional<T> reduce(BinaryOperator<T> accumulator) {
-        return stream.reduce(accumulator);
+        return PoolExecutor.call(pool, () -> stream.reduce(accumulator));
     }
 
     @Override
     public <U> U reduce(U identity, BiFunction<U, ? super T, U> accumulator, BinaryOperator<U> combiner) {
-        return stream.reduce(identity, accumulator, combiner);
+        return PoolExecutor.call(pool, () -> stream.reduce(identity, accumulator, combiner));
     }
 
     @Override
     public <R> R collect(Supplier<R> supplier, BiConsumer<R, ? super T> accumulator, BiConsumer<R, R> combiner) {
-        return stream.collect(supplier, accumulator, combiner);
+        return PoolExecutor.call(pool, () -> stream.collect(supplier, accumulator, combiner));
     }
 
     @Override
     public <R, A> R collect(Collector<? super T, A, R> collector) {
-        return stream.collect(collector);
+        return PoolExecutor.call(pool, () -> stream.collect(collector));
     }
 
     @Override
     public Optional<T> min(Comparator<? super T> comparator) {
-        return stream.min(comparator);
+        return PoolExecutor.call(pool, () -> stream.min(comparator));
     }
 
     @Override
     public Optional<T> max(Comparator<? super T> comparator) {
-        return stream.max(comparator);
+        return PoolExecutor.call(pool, () -> stream.max(comparator));
     }
 
     @Override
     public long count() {
-        return stream.count();
+        return PoolExecutor.call(pool, () -> stream.count());
     }
 
     @Override
     public boolean anyMatch(Predicate<? super T> predicate) {
-        return stream.anyMatch(predicate);
+        return PoolExecutor.call(pool, () -> stream.anyMatch(predicate));
     }
 
     public boolean anyMatch(PredicateWithCheckedException<? super T> predicate) {
-        return stream.anyMatch(predicate);
+        return PoolExecutor.call(pool, () -> stream.anyMatch(predicate));
     }
 
     @Override
     public boolean allMatch(Predicate<? super T> predicate) {
-        return stream.allMatch(predicate);
+        return PoolExecutor.call(pool, () -> stream.allMatch(predicate));
     }
 
     public boolean allMatch(PredicateWithCheckedException<? super T> predicate) {
-        return stream.allMatch(predicate);
+        return PoolExecutor.call(pool, () -> stream.allMatch(predicate));
     }
 
     @Override
     public boolean noneMatch(Predicate<? super T> predicate) {
-        return stream.noneMatch(predicate);
+        return PoolExecutor.call(pool, () -> stream.noneMatch(predicate));
     }
 
     public boolean noneMatch(PredicateWithCheckedException<? super T> predicate) {
-        return stream.noneMatch(predicate);
+        return PoolExecutor.call(pool, () -> stream.noneMatch(predicate));
     }
 
     @Override
     public Optional<T> findFirst() {
-        return stream.findFirst();
+        return PoolExecutor.call(pool, () -> stream.findFirst());
     }
 
     @Override
     public Optional<T> findAny() {
-        return stream.findAny();
+        return PoolExecutor.call(pool, () -> stream.findAny());
     }
 
     @Override
@@ -489,22 +1773,35 @@ public final class RichStream<T> implements Stream<T> {
 
     @Override
     public RichStream<T> sequential() {
-        return new RichStream<>(stream.sequential());
+        return chain(stream.sequential());
     }
 
     @Override
     public RichStream<T> parallel() {
-        return new RichStream<>(stream.parallel());
+        return chain(stream.parallel());
+    }
+
+    /**
+     * Returns an equivalent parallel stream whose terminal operation runs in the given pool
+     *
+     * Parallel streams otherwise run in the common pool, so blocking or long-running work in one stream
+     * can starve every other parallel stream in the application
+     *
+     * @param pool The pool to run the terminal operation in
+     * @return The new stream
+     */
+    public RichStream<T> parallel(ForkJoinPool pool) {
+        return new RichStream<>(stream.parallel(), Objects.requireNonNull(pool), instrumentation);
     }
 
     @Override
     public RichStream<T> unordered() {
-        return new RichStream<>(stream.unordered());
+        return chain(stream.unordered());
     }
 
     @Override
     public RichStream<T> onClose(Runnable closeHandler) {
-        return new RichStream<>(stream.onClose(closeHandler));
+        return chain(stream.onClose(closeHandler));
     }
 
     @Override
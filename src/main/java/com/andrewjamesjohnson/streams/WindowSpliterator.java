@@ -0,0 +1,170 @@
+package com.andrewjamesjohnson.streams;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * Spliterator grouping the elements of a source spliterator into windows of a fixed size
+ *
+ * Each window starts {@code step} elements after the previous one, so windows overlap when the step is smaller
+ * than the size and are disjoint when it is equal. When the step equals the size and the source is
+ * {@link Spliterator#SUBSIZED}, the source is split directly: the prefix borrows the few elements it needs from
+ * the remainder to complete its last window. Otherwise this falls back to splitting off batches of windows,
+ * holding about as many elements as the batches of an iterator-backed source would.
+ *
+ * @param <T> The type of elements in the source
+ */
+final class WindowSpliterator<T> extends AbstractBatchSplittingSpliterator<List<T>> {
+    private final Spliterator<T> source;
+    private final int size;
+    private final int step;
+    private final boolean partial;
+    private final HoldingConsumer<T> holder = new HoldingConsumer<>();
+
+    // Elements to emit once the source is exhausted, borrowed from the spliterator this one was split from
+    private Object[] tail;
+    private int tailIndex;
+
+    // Elements of the previous window, only used when windows overlap
+    private ArrayDeque<T> window;
+    private boolean finished;
+
+    /**
+     * @param source The source spliterator
+     * @param size The number of elements in each window
+     * @param step The number of elements between the start of one window and the next
+     * @param partial Whether a final window with fewer than {@code size} elements is emitted
+     */
+    WindowSpliterator(Spliterator<T> source, int size, int step, boolean partial) {
+        this(source, size, step, partial, new Object[0]);
+    }
+
+    private WindowSpliterator(Spliterator<T> source, int size, int step, boolean partial, Object[] tail) {
+        if (size < 1 || step < 1) {
+            throw new IllegalArgumentException("size and step must be positive: " + size + ", " + step);
+        }
+        this.source = source;
+        this.size = size;
+        this.step = step;
+        this.partial = partial;
+        this.tail = tail;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super List<T>> action) {
+        if (finished) {
+            return false;
+        }
+        List<T> next = step == size ? nextChunk() : nextWindow();
+        if (next == null) {
+            finished = true;
+            return false;
+        }
+        action.accept(next);
+        return true;
+    }
+
+    private List<T> nextChunk() {
+        long remaining = remainingElements();
+        List<T> chunk = new ArrayList<>(remaining < size ? (int) remaining : size);
+        while (chunk.size() < size && next()) {
+            chunk.add(holder.value);
+        }
+        return chunk.size() == size || (partial && !chunk.isEmpty()) ? chunk : null;
+    }
+
+    private List<T> nextWindow() {
+        if (window == null) {
+            window = new ArrayDeque<>(Math.min(size, 1 << 10));
+        } else {
+            int dropped = Math.min(step, window.size());
+            for (int i = 0; i < dropped; i++) {
+                window.removeFirst();
+            }
+            for (int i = dropped; i < step && next(); i++) {
+                // Skip elements between windows
+            }
+        }
+        while (window.size() < size && next()) {
+            window.addLast(holder.value);
+        }
+        return window.size() == size || (partial && !window.isEmpty()) ? new ArrayList<>(window) : null;
+    }
+
+    /**
+     * Advances to the next element of the source, followed by the borrowed tail, storing it in the holder
+     *
+     * @return false if there are no more elements
+     */
+    @SuppressWarnings("unchecked")
+    private boolean next() {
+        if (source.tryAdvance(holder)) {
+            return true;
+        }
+        if (tailIndex < tail.length) {
+            holder.value = (T) tail[tailIndex];
+            tail[tailIndex++] = null;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public Spliterator<List<T>> trySplit() {
+        if (step != size || window != null || finished || !source.hasCharacteristics(SUBSIZED)) {
+            return trySplitBatch();
+        }
+        Spliterator<T> prefix = source.trySplit();
+        if (prefix == null) {
+            return null;
+        }
+        int remainder = (int) (prefix.getExactSizeIfKnown() % size);
+        if (remainder == 0) {
+            return new WindowSpliterator<>(prefix, size, step, partial);
+        }
+
+        // Borrow elements from this spliterator to complete the last chunk of the prefix
+        List<T> borrowed = new ArrayList<>(size - remainder);
+        while (borrowed.size() < size - remainder && next()) {
+            borrowed.add(holder.value);
+        }
+        return new WindowSpliterator<>(prefix, size, step, partial, borrowed.toArray());
+    }
+
+    @Override
+    protected int elementWeight() {
+        return size;
+    }
+
+    private long remainingElements() {
+        long sourceSize = source.estimateSize();
+        return sourceSize == Long.MAX_VALUE ? Long.MAX_VALUE : sourceSize + tail.length - tailIndex;
+    }
+
+    @Override
+    public long estimateSize() {
+        if (finished) {
+            return 0;
+        }
+        long remaining = remainingElements();
+        if (remaining == Long.MAX_VALUE) {
+            return Long.MAX_VALUE;
+        }
+        if (step == size) {
+            return partial ? (remaining + size - 1) / size : remaining / size;
+        }
+        return remaining / step + 1;
+    }
+
+    @Override
+    public int characteristics() {
+        int characteristics = ORDERED | NONNULL;
+        if (step == size && window == null) {
+            characteristics |= source.characteristics() & (SIZED | SUBSIZED);
+        }
+        return characteristics;
+    }
+}
@@ -0,0 +1,79 @@
+package com.andrewjamesjohnson.streams;
+
+import java.util.Spliterator;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Spliterator combining the elements of two source spliterators positionally
+ *
+ * When both sources are {@link Spliterator#SUBSIZED} and the same size they are split in lock-step,
+ * as is the case for arrays and {@code ArrayList}s. Otherwise this falls back to splitting off
+ * batches of already-combined elements.
+ *
+ * @param <L> The type of elements in the first source
+ * @param <R> The type of elements in the second source
+ * @param <U> The type of the combined elements
+ */
+final class ZipSpliterator<L, R, U> extends AbstractBatchSplittingSpliterator<U> {
+    private Spliterator<L> left;
+    private Spliterator<R> right;
+    private final BiFunction<? super L, ? super R, ? extends U> combiner;
+    private final HoldingConsumer<L> leftHolder = new HoldingConsumer<>();
+    private final HoldingConsumer<R> rightHolder = new HoldingConsumer<>();
+    private boolean splitInLockStep = true;
+
+    ZipSpliterator(Spliterator<L> left, Spliterator<R> right, BiFunction<? super L, ? super R, ? extends U> combiner) {
+        this.left = left;
+        this.right = right;
+        this.combiner = combiner;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super U> action) {
+        if (left.tryAdvance(leftHolder) && right.tryAdvance(rightHolder)) {
+            action.accept(combiner.apply(leftHolder.value, rightHolder.value));
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    public Spliterator<U> trySplit() {
+        if (splitInLockStep && left.hasCharacteristics(SUBSIZED) && right.hasCharacteristics(SUBSIZED)
+                && left.estimateSize() == right.estimateSize()) {
+            Spliterator<L> leftPrefix = left.trySplit();
+            if (leftPrefix == null) {
+                return trySplitBatch();
+            }
+            Spliterator<R> rightPrefix = right.trySplit();
+            if (rightPrefix != null && leftPrefix.getExactSizeIfKnown() == rightPrefix.getExactSizeIfKnown()) {
+                return new ZipSpliterator<>(leftPrefix, rightPrefix, combiner);
+            }
+
+            // The sources split at different points, so put the prefixes back and stop trying
+            splitInLockStep = false;
+            left = concat(leftPrefix, left);
+            if (rightPrefix != null) {
+                right = concat(rightPrefix, right);
+            }
+        }
+        return trySplitBatch();
+    }
+
+    @Override
+    public long estimateSize() {
+        return Math.min(left.estimateSize(), right.estimateSize());
+    }
+
+    @Override
+    public int characteristics() {
+        return left.characteristics() & right.characteristics() & (ORDERED | SIZED | SUBSIZED);
+    }
+
+    private static <T> Spliterator<T> concat(Spliterator<T> first, Spliterator<T> second) {
+        return Stream.concat(StreamSupport.stream(first, false), StreamSupport.stream(second, false)).spliterator();
+    }
+}
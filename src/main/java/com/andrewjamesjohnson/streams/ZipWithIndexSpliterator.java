@@ -0,0 +1,179 @@
+package com.andrewjamesjohnson.streams;
+
+import com.andrewjamesjohnson.functional.DoubleLongPairFunction;
+import com.andrewjamesjohnson.functional.IntLongPairFunction;
+import com.andrewjamesjohnson.functional.LongLongPairFunction;
+import com.andrewjamesjohnson.functional.ObjLongPairFunction;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntConsumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Spliterator combining each element of a source spliterator with its index
+ *
+ * Sources that are {@link Spliterator#SUBSIZED} are split directly, with each half taking
+ * the range of indices it covers, so no shared counter is needed when running in parallel.
+ * Other sources fall back to splitting off batches of already-indexed elements.
+ *
+ * @param <S> The type of the source spliterator
+ * @param <E> The type of the combined elements
+ */
+abstract class ZipWithIndexSpliterator<S extends Spliterator<?>, E> extends AbstractBatchSplittingSpliterator<E> {
+    final S source;
+    long index;
+
+    private ZipWithIndexSpliterator(S source, long index) {
+        this.source = source;
+        this.index = index;
+    }
+
+    /**
+     * Creates a spliterator covering the given prefix of the source
+     *
+     * @param prefix The prefix split from the source
+     * @param index The index of the first element of the prefix
+     * @return The new spliterator
+     */
+    abstract Spliterator<E> prefix(S prefix, long index);
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Spliterator<E> trySplit() {
+        if (!source.hasCharacteristics(SUBSIZED)) {
+            return trySplitBatch();
+        }
+        S prefix = (S) source.trySplit();
+        if (prefix == null) {
+            return null;
+        }
+        Spliterator<E> indexedPrefix = prefix(prefix, index);
+        index += prefix.getExactSizeIfKnown();
+        return indexedPrefix;
+    }
+
+    @Override
+    public long estimateSize() {
+        return source.estimateSize();
+    }
+
+    @Override
+    public int characteristics() {
+        // The combiner may return null, so NONNULL isn't reported
+        return source.characteristics() & (ORDERED | SIZED | SUBSIZED);
+    }
+
+    static final class OfRef<T, U> extends ZipWithIndexSpliterator<Spliterator<T>, U> {
+        private final ObjLongPairFunction<? super T, ? extends U> combiner;
+
+        OfRef(Spliterator<T> source, ObjLongPairFunction<? super T, ? extends U> combiner) {
+            this(source, combiner, 0);
+        }
+
+        private OfRef(Spliterator<T> source, ObjLongPairFunction<? super T, ? extends U> combiner, long index) {
+            super(source, index);
+            this.combiner = combiner;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super U> action) {
+            return source.tryAdvance(element -> action.accept(combiner.apply(element, index++)));
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super U> action) {
+            source.forEachRemaining(element -> action.accept(combiner.apply(element, index++)));
+        }
+
+        @Override
+        Spliterator<U> prefix(Spliterator<T> prefix, long index) {
+            return new OfRef<>(prefix, combiner, index);
+        }
+    }
+
+    static final class OfInt<U> extends ZipWithIndexSpliterator<Spliterator.OfInt, U> {
+        private final IntLongPairFunction<? extends U> combiner;
+
+        OfInt(Spliterator.OfInt source, IntLongPairFunction<? extends U> combiner) {
+            this(source, combiner, 0);
+        }
+
+        private OfInt(Spliterator.OfInt source, IntLongPairFunction<? extends U> combiner, long index) {
+            super(source, index);
+            this.combiner = combiner;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super U> action) {
+            return source.tryAdvance((IntConsumer) element -> action.accept(combiner.apply(element, index++)));
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super U> action) {
+            source.forEachRemaining((IntConsumer) element -> action.accept(combiner.apply(element, index++)));
+        }
+
+        @Override
+        Spliterator<U> prefix(Spliterator.OfInt prefix, long index) {
+            return new OfInt<>(prefix, combiner, index);
+        }
+    }
+
+    static final class OfLong<U> extends ZipWithIndexSpliterator<Spliterator.OfLong, U> {
+        private final LongLongPairFunction<? extends U> combiner;
+
+        OfLong(Spliterator.OfLong source, LongLongPairFunction<? extends U> combiner) {
+            this(source, combiner, 0);
+        }
+
+        private OfLong(Spliterator.OfLong source, LongLongPairFunction<? extends U> combiner, long index) {
+            super(source, index);
+            this.combiner = combiner;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super U> action) {
+            return source.tryAdvance((LongConsumer) element -> action.accept(combiner.apply(element, index++)));
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super U> action) {
+            source.forEachRemaining((LongConsumer) element -> action.accept(combiner.apply(element, index++)));
+        }
+
+        @Override
+        Spliterator<U> prefix(Spliterator.OfLong prefix, long index) {
+            return new OfLong<>(prefix, combiner, index);
+        }
+    }
+
+    static final class OfDouble<U> extends ZipWithIndexSpliterator<Spliterator.OfDouble, U> {
+        private final DoubleLongPairFunction<? extends U> combiner;
+
+        OfDouble(Spliterator.OfDouble source, DoubleLongPairFunction<? extends U> combiner) {
+            this(source, combiner, 0);
+        }
+
+        private OfDouble(Spliterator.OfDouble source, DoubleLongPairFunction<? extends U> combiner, long index) {
+            super(source, index);
+            this.combiner = combiner;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super U> action) {
+            return source.tryAdvance((DoubleConsumer) element -> action.accept(combiner.apply(element, index++)));
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super U> action) {
+            source.forEachRemaining((DoubleConsumer) element -> action.accept(combiner.apply(element, index++)));
+        }
+
+        @Override
+        Spliterator<U> prefix(Spliterator.OfDouble prefix, long index) {
+            return new OfDouble<>(prefix, combiner, index);
+        }
+    }
+}
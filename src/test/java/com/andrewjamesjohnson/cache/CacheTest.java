@@ -0,0 +1,140 @@
+package com.andrewjamesjohnson.cache;
+
+import com.andrewjamesjohnson.exceptions.FunctionWithCheckedException;
+import com.andrewjamesjohnson.exceptions.LambdaWrappedCheckedException;
+import com.andrewjamesjohnson.functional.PairFunction;
+import com.andrewjamesjohnson.streams.RichStream;
+import com.pholser.junit.quickcheck.Property;
+import com.pholser.junit.quickcheck.generator.InRange;
+import com.pholser.junit.quickcheck.runner.JUnitQuickcheck;
+import org.junit.Assert;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+@RunWith(JUnitQuickcheck.class)
+public class CacheTest {
+    @Property
+    public void memoizedFunctionComputesEachKeyOnce(List<Integer> list) {
+        Cache<Integer, Integer> cache = Cache.of(CachePolicy.maxSize(1000));
+        Map<Integer, AtomicInteger> calls = new ConcurrentHashMap<>();
+        FunctionWithCheckedException<Integer, Integer> function = i -> {
+            calls.computeIfAbsent(i, k -> new AtomicInteger()).incrementAndGet();
+            return i * 2;
+        };
+        FunctionWithCheckedException<Integer, Integer> memoized = function.memoized(cache);
+
+        List<Integer> keys = list.stream().map(i -> Math.floorMod(i, 50)).collect(Collectors.toList());
+        List<Integer> result = RichStream.of(keys).parallel().map(memoized).toList();
+
+        Assert.assertEquals(keys.stream().map(i -> i * 2).collect(Collectors.toList()), result);
+        calls.values().forEach(count -> Assert.assertEquals(1, count.get()));
+        Assert.assertEquals(calls.size(), cache.getStatistics().getMisses());
+        Assert.assertEquals(keys.size() - calls.size(), cache.getStatistics().getHits());
+        Assert.assertEquals(0, cache.getStatistics().getEvictions());
+    }
+
+    @Property
+    public void cachesSharingAPolicyKeepTheirOwnStatistics(List<Integer> list) {
+        CachePolicy policy = CachePolicy.maxSize(1000);
+        Cache<Integer, Integer> first = Cache.of(policy);
+        Cache<Integer, Integer> second = Cache.of(policy);
+        list.forEach(i -> first.computeIfAbsent(i, k -> k));
+
+        Assert.assertEquals(list.size(), first.getStatistics().getHits() + first.getStatistics().getMisses());
+        Assert.assertEquals(0, second.getStatistics().getHits() + second.getStatistics().getMisses());
+    }
+
+    @Property
+    public void sizeIsBounded(List<Integer> list, @InRange(minInt = 1, maxInt = 200) int maxSize) {
+        Cache<Integer, Integer> cache = Cache.of(CachePolicy.maxSize(maxSize));
+        RichStream.of(list).parallel().forEach(i -> cache.computeIfAbsent(i, k -> k));
+        Assert.assertTrue(cache.size() <= maxSize);
+    }
+
+    @Property
+    public void leastRecentlyUsedIsEvicted(@InRange(minInt = 2, maxInt = 16) int maxSize) {
+        Cache<Integer, Integer> cache = Cache.of(CachePolicy.maxSize(maxSize));
+        AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < maxSize; i++) {
+            cache.computeIfAbsent(i, k -> loads.incrementAndGet());
+        }
+        // Touch the oldest entry so the second oldest is evicted instead
+        cache.computeIfAbsent(0, k -> loads.incrementAndGet());
+        cache.computeIfAbsent(maxSize, k -> loads.incrementAndGet());
+
+        cache.computeIfAbsent(0, k -> loads.incrementAndGet());
+        Assert.assertEquals(maxSize + 1, loads.get());
+        cache.computeIfAbsent(1, k -> loads.incrementAndGet());
+        Assert.assertEquals(maxSize + 2, loads.get());
+    }
+
+    @Property
+    public void frequentlyUsedEntriesSurviveScans(@InRange(minInt = 2, maxInt = 8) int maxSize) {
+        Cache<Integer, Integer> cache = Cache.of(CachePolicy.maxSize(maxSize).withEviction(CachePolicy.Eviction.LFU));
+        AtomicInteger loads = new AtomicInteger();
+        for (int i = 0; i < 5; i++) {
+            cache.computeIfAbsent(-1, k -> loads.incrementAndGet());
+        }
+        for (int i = 0; i < 100; i++) {
+            cache.computeIfAbsent(i, k -> loads.incrementAndGet());
+        }
+        cache.computeIfAbsent(-1, k -> loads.incrementAndGet());
+        Assert.assertEquals(101, loads.get());
+    }
+
+    @Property
+    public void entriesExpireAfterWrite(int key) throws InterruptedException {
+        Cache<Integer, Integer> cache = Cache.of(CachePolicy.maxSize(10).expireAfterWrite(1, TimeUnit.MILLISECONDS));
+        AtomicInteger loads = new AtomicInteger();
+        cache.computeIfAbsent(key, k -> loads.incrementAndGet());
+        Thread.sleep(2);
+        Assert.assertEquals(2, (int) cache.computeIfAbsent(key, k -> loads.incrementAndGet()));
+    }
+
+    @Property
+    public void exceptionsAreOnlyCachedWhenEnabled(int key) {
+        for (boolean cacheExceptions : new boolean[]{false, true}) {
+            Cache<Integer, Integer> cache = Cache.of(CachePolicy.maxSize(10).cacheExceptions(cacheExceptions));
+            AtomicInteger calls = new AtomicInteger();
+            FunctionWithCheckedException<Integer, Integer> function = i -> {
+                calls.incrementAndGet();
+                throw new IOException();
+            };
+            FunctionWithCheckedException<Integer, Integer> memoized = function.memoized(cache);
+            for (int i = 0; i < 3; i++) {
+                try {
+                    memoized.apply(key);
+                    Assert.fail();
+                } catch (LambdaWrappedCheckedException e) {
+                    Assert.assertTrue(e.getCause() instanceof IOException);
+                }
+            }
+            Assert.assertEquals(cacheExceptions ? 1 : 3, calls.get());
+            Assert.assertEquals(calls.get(), cache.getStatistics().getLoadFailures());
+        }
+    }
+
+    @Property
+    public void memoizedPairFunctionCachesByPair(List<Integer> list) {
+        AtomicInteger calls = new AtomicInteger();
+        PairFunction<Integer, Integer, Integer> function = (l, r) -> {
+            calls.incrementAndGet();
+            return l - r;
+        };
+        PairFunction<Integer, Integer, Integer> memoized = function.memoized(1000);
+
+        List<Integer> keys = list.stream().map(i -> i % 10).collect(Collectors.toList());
+        for (int key : keys) {
+            Assert.assertEquals(key - 1, (int) memoized.apply(key, 1));
+            Assert.assertEquals(1 - key, (int) memoized.apply(1, key));
+        }
+        Assert.assertEquals(keys.stream().flatMap(k -> RichStream.of(new String[]{k + ",1", "1," + k})).distinct().count(), calls.get());
+    }
+}
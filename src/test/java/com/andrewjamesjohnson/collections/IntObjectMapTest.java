@@ -0,0 +1,79 @@
+package com.andrewjamesjohnson.collections;
+
+import com.pholser.junit.quickcheck.Property;
+import com.pholser.junit.quickcheck.runner.JUnitQuickcheck;
+import org.junit.Assert;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@RunWith(JUnitQuickcheck.class)
+public class IntObjectMapTest {
+    @Property
+    public void behavesLikeHashMap(List<Integer> keys) {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        Map<Integer, String> expected = new HashMap<>();
+        for (int key : keys) {
+            // Narrow the keys so that puts and removes collide
+            int narrowed = key % 64;
+            if ((key & 1) == 0) {
+                Assert.assertEquals(expected.put(narrowed, "v" + key), map.put(narrowed, "v" + key));
+            } else {
+                Assert.assertEquals(expected.remove(narrowed), map.remove(narrowed));
+            }
+            Assert.assertEquals(expected.size(), map.size());
+        }
+        expected.forEach((key, value) -> Assert.assertEquals(value, map.get(key)));
+        Assert.assertEquals(expected.hashCode(), map.hashCode());
+    }
+
+    @Property
+    public void keysAndValuesMatchEntries(List<Integer> keys) {
+        IntObjectMap<Integer> map = new IntObjectMap<>(0);
+        keys.forEach(key -> map.put(key, key + 1));
+        List<Integer> mapKeys = new ArrayList<>();
+        for (int key : map.keys()) {
+            mapKeys.add(key);
+            Assert.assertEquals(Integer.valueOf(key + 1), map.get(key));
+        }
+        Collections.sort(mapKeys);
+        Assert.assertEquals(keys.stream().distinct().sorted().collect(Collectors.toList()), mapKeys);
+        Assert.assertEquals(map.size(), map.values().size());
+    }
+
+    @Property
+    public void mergeCombinesValues(List<Integer> keys) {
+        IntObjectMap<Long> map = new IntObjectMap<>();
+        keys.forEach(key -> map.merge(key % 10, 1L, Long::sum));
+        Map<Integer, Long> expected = keys.stream().collect(Collectors.groupingBy(key -> key % 10, Collectors.counting()));
+        Assert.assertEquals(expected.size(), map.size());
+        expected.forEach((key, count) -> Assert.assertEquals(count, map.get(key)));
+    }
+
+    @Property
+    public void collectorRejectsDuplicateKeys(List<Integer> keys) {
+        try {
+            IntObjectMap<Integer> map = keys.parallelStream().collect(IntObjectMap.collector(key -> key % 10, key -> key));
+            Assert.assertEquals(keys.size(), map.size());
+        } catch (IllegalStateException e) {
+            Assert.assertTrue(keys.stream().map(key -> key % 10).distinct().count() < keys.size());
+        }
+    }
+
+    @Property
+    public void equalMapsAreEqual(List<Integer> keys) {
+        IntObjectMap<Integer> first = new IntObjectMap<>();
+        IntObjectMap<Integer> second = new IntObjectMap<>(keys.size());
+        keys.forEach(key -> first.put(key, key));
+        for (int i = keys.size() - 1; i >= 0; i--) {
+            second.put(keys.get(i), keys.get(i));
+        }
+        Assert.assertEquals(first, second);
+        Assert.assertEquals(first.hashCode(), second.hashCode());
+    }
+}
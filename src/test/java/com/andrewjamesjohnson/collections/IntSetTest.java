@@ -0,0 +1,58 @@
+package com.andrewjamesjohnson.collections;
+
+import com.pholser.junit.quickcheck.Property;
+import com.pholser.junit.quickcheck.runner.JUnitQuickcheck;
+import org.junit.Assert;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+@RunWith(JUnitQuickcheck.class)
+public class IntSetTest {
+    @Property
+    public void behavesLikeHashSet(List<Integer> elements) {
+        IntSet set = new IntSet();
+        Set<Integer> expected = new HashSet<>();
+        for (int element : elements) {
+            // Narrow the elements so that adds and removes collide, including on zero
+            int narrowed = element % 64;
+            if ((element & 1) == 0) {
+                Assert.assertEquals(expected.add(narrowed), set.add(narrowed));
+            } else {
+                Assert.assertEquals(expected.remove(narrowed), set.remove(narrowed));
+            }
+            Assert.assertEquals(expected.size(), set.size());
+        }
+        for (int i = -64; i < 64; i++) {
+            Assert.assertEquals(expected.contains(i), set.contains(i));
+        }
+        Assert.assertEquals(expected.hashCode(), set.hashCode());
+    }
+
+    @Property
+    public void toArrayContainsEveryElement(List<Integer> elements) {
+        IntSet set = new IntSet(0);
+        elements.forEach(set::add);
+        Set<Integer> expected = new HashSet<>(elements);
+        int[] array = set.toArray();
+        Assert.assertEquals(expected.size(), array.length);
+        for (int element : array) {
+            Assert.assertTrue(expected.contains(element));
+        }
+    }
+
+    @Property
+    public void addAllProducesTheUnion(List<Integer> first, List<Integer> second) {
+        IntSet union = new IntSet();
+        first.forEach(union::add);
+        IntSet other = new IntSet();
+        second.forEach(other::add);
+        union.addAll(other);
+        IntSet expected = new IntSet();
+        first.forEach(expected::add);
+        second.forEach(expected::add);
+        Assert.assertEquals(expected, union);
+    }
+}
@@ -0,0 +1,59 @@
+package com.andrewjamesjohnson.collections;
+
+import com.pholser.junit.quickcheck.Property;
+import com.pholser.junit.quickcheck.runner.JUnitQuickcheck;
+import org.junit.Assert;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@RunWith(JUnitQuickcheck.class)
+public class LongSetTest {
+    @Property
+    public void behavesLikeHashSet(List<Integer> elements) {
+        LongSet set = new LongSet();
+        Set<Long> expected = new HashSet<>();
+        for (int element : elements) {
+            // Narrow the elements so that adds and removes collide, including on zero
+            long narrowed = element % 64L;
+            if ((element & 1) == 0) {
+                Assert.assertEquals(expected.add(narrowed), set.add(narrowed));
+            } else {
+                Assert.assertEquals(expected.remove(narrowed), set.remove(narrowed));
+            }
+            Assert.assertEquals(expected.size(), set.size());
+        }
+        for (long i = -64; i < 64; i++) {
+            Assert.assertEquals(expected.contains(i), set.contains(i));
+        }
+        Assert.assertEquals(expected.hashCode(), set.hashCode());
+    }
+
+    @Property
+    public void toArrayContainsEveryElement(List<Integer> elements) {
+        LongSet set = new LongSet(0);
+        elements.forEach(set::add);
+        Set<Long> expected = new HashSet<>(elements.stream().map(Integer::longValue).collect(Collectors.toSet()));
+        long[] array = set.toArray();
+        Assert.assertEquals(expected.size(), array.length);
+        for (long element : array) {
+            Assert.assertTrue(expected.contains(element));
+        }
+    }
+
+    @Property
+    public void addAllProducesTheUnion(List<Integer> first, List<Integer> second) {
+        LongSet union = new LongSet();
+        first.forEach(union::add);
+        LongSet other = new LongSet();
+        second.forEach(other::add);
+        union.addAll(other);
+        LongSet expected = new LongSet();
+        first.forEach(expected::add);
+        second.forEach(expected::add);
+        Assert.assertEquals(expected, union);
+    }
+}
@@ -0,0 +1,89 @@
+package com.andrewjamesjohnson.exceptions;
+
+import com.andrewjamesjohnson.streams.RichIntStream;
+import com.andrewjamesjohnson.streams.RichStream;
+import com.pholser.junit.quickcheck.Property;
+import com.pholser.junit.quickcheck.runner.JUnitQuickcheck;
+import org.hamcrest.core.IsInstanceOf;
+import org.junit.Rule;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+@RunWith(JUnitQuickcheck.class)
+public class IntFunctionsWithCheckedExceptionTest {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Property
+    public void checkedExceptionsWrappedFromPredicate(List<Integer> list) {
+        expectWrappedExceptionIfNonEmpty(list);
+        stream(list).filter(i -> {
+            throw new DummyException();
+        }).toArray();
+    }
+
+    @Property
+    public void checkedExceptionsWrappedFromUnaryOperator(List<Integer> list) {
+        expectWrappedExceptionIfNonEmpty(list);
+        stream(list).map(i -> {
+            throw new DummyException();
+        }).toArray();
+    }
+
+    @Property
+    public void checkedExceptionsWrappedFromFunction(List<Integer> list) {
+        expectWrappedExceptionIfNonEmpty(list);
+        stream(list).mapToObj(i -> {
+            throw new DummyException();
+        }).toList();
+    }
+
+    @Property
+    public void checkedExceptionsWrappedFromToLongFunction(List<Integer> list) {
+        expectWrappedExceptionIfNonEmpty(list);
+        stream(list).mapToLong(i -> {
+            throw new DummyException();
+        }).toArray();
+    }
+
+    @Property
+    public void checkedExceptionsWrappedFromToDoubleFunction(List<Integer> list) {
+        expectWrappedExceptionIfNonEmpty(list);
+        stream(list).mapToDouble(i -> {
+            throw new DummyException();
+        }).toArray();
+    }
+
+    @Property
+    public void checkedExceptionsWrappedFromConsumer(List<Integer> list) {
+        expectWrappedExceptionIfNonEmpty(list);
+        stream(list).forEach(i -> {
+            throw new DummyException();
+        });
+    }
+
+    @Property
+    public void checkedExceptionsWrappedFromBinaryOperator(List<Integer> list) {
+        if (list.size() > 1) {
+            exception.expect(LambdaWrappedCheckedException.class);
+            exception.expectCause(IsInstanceOf.instanceOf(DummyException.class));
+        }
+        stream(list).reduce((l, r) -> {
+            throw new DummyException();
+        });
+    }
+
+    private void expectWrappedExceptionIfNonEmpty(List<Integer> list) {
+        if (!list.isEmpty()) {
+            exception.expect(LambdaWrappedCheckedException.class);
+            exception.expectCause(IsInstanceOf.instanceOf(DummyException.class));
+        }
+    }
+
+    private static RichIntStream stream(List<Integer> list) {
+        return RichStream.of(list).mapToInt(Integer::intValue);
+    }
+}
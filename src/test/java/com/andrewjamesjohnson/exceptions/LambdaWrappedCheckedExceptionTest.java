@@ -0,0 +1,85 @@
+package com.andrewjamesjohnson.exceptions;
+
+import com.andrewjamesjohnson.streams.RichStream;
+import com.pholser.junit.quickcheck.Property;
+import com.pholser.junit.quickcheck.runner.JUnitQuickcheck;
+import org.hamcrest.core.IsInstanceOf;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.List;
+
+@RunWith(JUnitQuickcheck.class)
+public class LambdaWrappedCheckedExceptionTest {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Property
+    public void stacklessWrappersHaveNoStackTrace(String message) {
+        LambdaWrappedCheckedException.setStackTraceEnabled(false);
+        try {
+            IOException cause = new IOException(message);
+            LambdaWrappedCheckedException wrapped = LambdaWrappedCheckedException.wrap(cause);
+            Assert.assertEquals(0, wrapped.getStackTrace().length);
+            Assert.assertSame(cause, wrapped.getCause());
+            Assert.assertEquals(cause.toString(), wrapped.getMessage());
+        } finally {
+            LambdaWrappedCheckedException.setStackTraceEnabled(true);
+        }
+    }
+
+    @Property
+    public void wrappersHaveStackTraceByDefault(String message) {
+        IOException cause = new IOException(message);
+        LambdaWrappedCheckedException wrapped = LambdaWrappedCheckedException.wrap(cause);
+        Assert.assertTrue(wrapped.getStackTrace().length > 0);
+        Assert.assertSame(cause, wrapped.getCause());
+        Assert.assertEquals(cause.toString(), wrapped.getMessage());
+    }
+
+    @Property
+    public void unwrapRethrowsOriginalCheckedException(List<Integer> list) throws DummyException {
+        if (!list.isEmpty()) {
+            exception.expect(DummyException.class);
+        }
+
+        LambdaWrappedCheckedException.unwrap(DummyException.class, () -> RichStream.of(list).map(i -> {
+            throw new DummyException();
+        }).toList());
+    }
+
+    @Property
+    public void unwrapRethrowsOriginalCheckedExceptionFromParallelStream(List<Integer> list) throws DummyException {
+        if (!list.isEmpty()) {
+            exception.expect(DummyException.class);
+        }
+
+        LambdaWrappedCheckedException.unwrap(DummyException.class, () -> RichStream.of(list).parallel().map(i -> {
+            throw new DummyException();
+        }).toList());
+    }
+
+    @Property
+    public void unwrapLooksBeneathCopiesOfWrapper(String message) {
+        DummyException cause = new DummyException();
+        // ForkJoinTask rethrows a copy of an exception from another thread, with the original as its cause
+        LambdaWrappedCheckedException copy = new LambdaWrappedCheckedException(message, LambdaWrappedCheckedException.wrap(cause));
+        Assert.assertSame(cause, copy.unwrap(DummyException.class));
+    }
+
+    @Property
+    public void unwrapRethrowsWrapperForOtherExceptions(List<Integer> list) throws IllegalAccessException {
+        if (!list.isEmpty()) {
+            exception.expect(LambdaWrappedCheckedException.class);
+            exception.expectCause(IsInstanceOf.instanceOf(DummyException.class));
+        }
+
+        LambdaWrappedCheckedException.unwrap(IllegalAccessException.class, () -> RichStream.of(list).forEach(i -> {
+            throw new DummyException();
+        }));
+    }
+}
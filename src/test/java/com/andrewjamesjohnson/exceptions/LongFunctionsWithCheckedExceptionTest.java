@@ -0,0 +1,89 @@
+package com.andrewjamesjohnson.exceptions;
+
+import com.andrewjamesjohnson.streams.RichLongStream;
+import com.andrewjamesjohnson.streams.RichStream;
+import com.pholser.junit.quickcheck.Property;
+import com.pholser.junit.quickcheck.runner.JUnitQuickcheck;
+import org.hamcrest.core.IsInstanceOf;
+import org.junit.Rule;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+
+@RunWith(JUnitQuickcheck.class)
+public class LongFunctionsWithCheckedExceptionTest {
+
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Property
+    public void checkedExceptionsWrappedFromPredicate(List<Integer> list) {
+        expectWrappedExceptionIfNonEmpty(list);
+        stream(list).filter(i -> {
+            throw new DummyException();
+        }).toArray();
+    }
+
+    @Property
+    public void checkedExceptionsWrappedFromUnaryOperator(List<Integer> list) {
+        expectWrappedExceptionIfNonEmpty(list);
+        stream(list).map(i -> {
+            throw new DummyException();
+        }).toArray();
+    }
+
+    @Property
+    public void checkedExceptionsWrappedFromFunction(List<Integer> list) {
+        expectWrappedExceptionIfNonEmpty(list);
+        stream(list).mapToObj(i -> {
+            throw new DummyException();
+        }).toList();
+    }
+
+    @Property
+    public void checkedExceptionsWrappedFromToIntFunction(List<Integer> list) {
+        expectWrappedExceptionIfNonEmpty(list);
+        stream(list).mapToInt(i -> {
+            throw new DummyException();
+        }).toArray();
+    }
+
+    @Property
+    public void checkedExceptionsWrappedFromToDoubleFunction(List<Integer> list) {
+        expectWrappedExceptionIfNonEmpty(list);
+        stream(list).mapToDouble(i -> {
+            throw new DummyException();
+        }).toArray();
+    }
+
+    @Property
+    public void checkedExceptionsWrappedFromConsumer(List<Integer> list) {
+        expectWrappedExceptionIfNonEmpty(list);
+        stream(list).forEach(i -> {
+            throw new DummyException();
+        });
+    }
+
+    @Property
+    public void checkedExceptionsWrappedFromBinaryOperator(List<Integer> list) {
+        if (list.size() > 1) {
+            exception.expect(LambdaWrappedCheckedException.class);
+            exception.expectCause(IsInstanceOf.instanceOf(DummyException.class));
+        }
+        stream(list).reduce((l, r) -> {
+            throw new DummyException();
+        });
+    }
+
+    private void expectWrappedExceptionIfNonEmpty(List<Integer> list) {
+        if (!list.isEmpty()) {
+            exception.expect(LambdaWrappedCheckedException.class);
+            exception.expectCause(IsInstanceOf.instanceOf(DummyException.class));
+        }
+    }
+
+    private static RichLongStream stream(List<Integer> list) {
+        return RichStream.of(list).mapToLong(Integer::longValue);
+    }
+}
@@ -0,0 +1,102 @@
+package com.andrewjamesjohnson.exceptions;
+
+import com.andrewjamesjohnson.streams.RichStream;
+import com.pholser.junit.quickcheck.Property;
+import com.pholser.junit.quickcheck.generator.InRange;
+import com.pholser.junit.quickcheck.runner.JUnitQuickcheck;
+import org.hamcrest.core.IsInstanceOf;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.rules.ExpectedException;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(JUnitQuickcheck.class)
+public class RetryPolicyTest {
+    @Rule
+    public ExpectedException exception = ExpectedException.none();
+
+    @Property
+    public void mapWithRetryRecoversFromTransientFailures(List<Integer> list) {
+        RetryPolicy policy = RetryPolicy.of(3).withBackoff(1, TimeUnit.MICROSECONDS, 2);
+        Map<Integer, AtomicInteger> attempts = new ConcurrentHashMap<>();
+
+        List<Integer> result = RichStream.of(list).parallel().mapWithRetry(i -> {
+            if (attempts.computeIfAbsent(i, k -> new AtomicInteger()).incrementAndGet() < 2) {
+                throw new DummyException();
+            }
+            return i;
+        }, policy).toList();
+
+        Assert.assertEquals(list, result);
+        Assert.assertEquals(list.size(), policy.getStatistics().getCalls());
+        Assert.assertEquals(attempts.size(), policy.getStatistics().getRetries());
+        Assert.assertEquals(0, policy.getStatistics().getFailures());
+    }
+
+    @Property
+    public void retriesStopAfterMaxAttempts(@InRange(minInt = 1, maxInt = 5) int maxAttempts) {
+        exception.expect(LambdaWrappedCheckedException.class);
+        exception.expectCause(IsInstanceOf.instanceOf(DummyException.class));
+
+        RetryPolicy policy = RetryPolicy.of(maxAttempts);
+        AtomicInteger attempts = new AtomicInteger();
+        FunctionWithCheckedException<Integer, Integer> function = i -> {
+            attempts.incrementAndGet();
+            throw new DummyException();
+        };
+        try {
+            function.withRetry(policy).apply(0);
+        } finally {
+            Assert.assertEquals(maxAttempts, attempts.get());
+            Assert.assertEquals(maxAttempts - 1, policy.getStatistics().getRetries());
+            Assert.assertEquals(1, policy.getStatistics().getFailures());
+        }
+    }
+
+    @Property
+    public void nonRetryableExceptionsAreNotRetried(@InRange(minInt = 1, maxInt = 5) int maxAttempts) {
+        exception.expect(LambdaWrappedCheckedException.class);
+
+        RetryPolicy policy = RetryPolicy.of(maxAttempts).retryOn(IllegalAccessException.class);
+        AtomicInteger attempts = new AtomicInteger();
+        PredicateWithCheckedException<Integer> predicate = i -> {
+            attempts.incrementAndGet();
+            throw new DummyException();
+        };
+        try {
+            predicate.withRetry(policy).test(0);
+        } finally {
+            Assert.assertEquals(1, attempts.get());
+        }
+    }
+
+    @Property
+    public void maxDelayCapsTheFirstDelay(@InRange(minInt = 2, maxInt = 5) int maxAttempts) throws Exception {
+        RetryPolicy policy = RetryPolicy.of(maxAttempts).withBackoff(10, TimeUnit.SECONDS, 2)
+                .withMaxDelay(1, TimeUnit.MILLISECONDS);
+        AtomicInteger attempts = new AtomicInteger();
+        long start = System.nanoTime();
+
+        int result = policy.call(() -> {
+            if (attempts.incrementAndGet() < maxAttempts) {
+                throw new DummyException();
+            }
+            return attempts.get();
+        });
+
+        Assert.assertEquals(maxAttempts, result);
+        Assert.assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5));
+    }
+
+    @Property
+    public void negativeMaxDelayIsRejected(@InRange(minLong = Long.MIN_VALUE, maxLong = -1) long maxDelay) {
+        exception.expect(IllegalArgumentException.class);
+        RetryPolicy.of(2).withMaxDelay(maxDelay, TimeUnit.MILLISECONDS);
+    }
+}
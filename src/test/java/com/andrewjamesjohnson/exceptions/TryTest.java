@@ -0,0 +1,57 @@
+package com.andrewjamesjohnson.exceptions;
+
+import com.andrewjamesjohnson.streams.RichStream;
+import com.pholser.junit.quickcheck.Property;
+import com.pholser.junit.quickcheck.runner.JUnitQuickcheck;
+import org.apache.commons.lang3.tuple.Pair;
+import org.junit.Assert;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RunWith(JUnitQuickcheck.class)
+public class TryTest {
+    @Property
+    public void mapTryCapturesFailuresWithoutAbortingTheStream(List<Integer> list) {
+        Pair<List<Integer>, List<Exception>> results = RichStream.of(list).parallel().mapTry(i -> {
+            if (i % 2 == 0) {
+                throw new DummyException();
+            }
+            return i * 2;
+        }).collect(Try.partition());
+
+        List<Integer> expectedSuccesses = list.stream().filter(i -> i % 2 != 0).map(i -> i * 2).collect(Collectors.toList());
+        Assert.assertEquals(expectedSuccesses, results.getLeft());
+        Assert.assertEquals(list.size() - expectedSuccesses.size(), results.getRight().size());
+        results.getRight().forEach(e -> Assert.assertTrue(e instanceof DummyException));
+    }
+
+    @Property
+    public void filterTryKeepsMatchesAndFailures(List<Integer> list) {
+        List<Try<Integer>> results = RichStream.of(list).filterTry(i -> {
+            if (i < 0) {
+                throw new DummyException();
+            }
+            return i % 2 == 0;
+        }).toList();
+
+        long expectedSuccesses = list.stream().filter(i -> i >= 0 && i % 2 == 0).count();
+        long expectedFailures = list.stream().filter(i -> i < 0).count();
+        Assert.assertEquals(expectedSuccesses, results.stream().filter(Try::isSuccess).count());
+        Assert.assertEquals(expectedFailures, results.stream().filter(Try::isFailure).count());
+    }
+
+    @Property
+    public void getRethrowsWrappedFailure(String value) {
+        Try<String> failure = Try.failure(new DummyException());
+        try {
+            failure.get();
+            Assert.fail();
+        } catch (LambdaWrappedCheckedException e) {
+            Assert.assertTrue(e.getCause() instanceof DummyException);
+        }
+        Assert.assertEquals(value, failure.orElse(value));
+        Assert.assertEquals(value, Try.success(value).get());
+    }
+}
@@ -0,0 +1,48 @@
+package com.andrewjamesjohnson.functional;
+
+import com.andrewjamesjohnson.streams.RichStream;
+import com.pholser.junit.quickcheck.Property;
+import com.pholser.junit.quickcheck.generator.InRange;
+import com.pholser.junit.quickcheck.runner.JUnitQuickcheck;
+import org.junit.Assert;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.function.Function;
+
+@RunWith(JUnitQuickcheck.class)
+public class FunctionChainTest {
+    @Property
+    public void chainMatchesNestedComposition(List<Integer> list, @InRange(minInt = 0, maxInt = 20) int depth) {
+        Function<Integer, Integer> nested = Function.identity();
+        FunctionChain<Integer, Integer> chain = FunctionChain.identity();
+        for (int i = 0; i < depth; i++) {
+            int stage = i;
+            Function<Integer, Integer> step = x -> x * 31 + stage;
+            nested = nested.andThen(step);
+            chain = chain.andThen(step);
+        }
+        Assert.assertEquals(depth, chain.depth());
+        Assert.assertEquals(RichStream.of(list).map(nested).toList(), RichStream.of(list).parallel().map(chain).toList());
+    }
+
+    @Property
+    public void chainsAreFlattenedWhenComposed(int value) {
+        FunctionChain<Integer, Integer> increment = FunctionChain.of((Integer x) -> x + 1).andThen(x -> x + 1);
+        FunctionChain<Integer, String> chain = increment.compose((Integer x) -> x * 2).andThen(increment).andThen(String::valueOf);
+
+        Assert.assertEquals(6, chain.depth());
+        Assert.assertEquals(String.valueOf(value * 2 + 4), chain.apply(value));
+    }
+
+    @Property
+    public void branchesOfASharedPrefixAreIndependent(int value) {
+        FunctionChain<Integer, Integer> prefix = FunctionChain.of((Integer x) -> x + 1);
+        FunctionChain<Integer, Integer> doubled = prefix.andThen(x -> x * 2);
+        FunctionChain<Integer, Integer> negated = prefix.andThen(x -> -x);
+
+        Assert.assertEquals(value + 1, (int) prefix.apply(value));
+        Assert.assertEquals((value + 1) * 2, (int) doubled.apply(value));
+        Assert.assertEquals(-(value + 1), (int) negated.apply(value));
+    }
+}
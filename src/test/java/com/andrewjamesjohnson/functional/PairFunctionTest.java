@@ -2,6 +2,7 @@ package com.andrewjamesjohnson.functional;
 
 import com.andrewjamesjohnson.streams.RichStream;
 import com.pholser.junit.quickcheck.Property;
+import com.pholser.junit.quickcheck.generator.InRange;
 import com.pholser.junit.quickcheck.runner.JUnitQuickcheck;
 import org.apache.commons.lang3.tuple.Pair;
 import org.junit.Assert;
@@ -25,4 +26,32 @@ public class PairFunctionTest {
         PairFunction<String, String, String> pairFunction = (l, r) -> l + r;
         Assert.assertEquals(pairFunction.apply(Pair.of(left, right)), pairFunction.apply(left, right));
     }
-}
\ No newline at end of file
+
+    @Property
+    public void deepAndThenMatchesStepByStepApplication(int left, int right, @InRange(minInt = 1, maxInt = 20) int depth) {
+        PairFunction<Integer, Integer, Integer> function = Integer::sum;
+        int expected = left + right;
+        for (int i = 0; i < depth; i++) {
+            int stage = i;
+            function = function.andThen(x -> x * 31 + stage);
+            expected = expected * 31 + stage;
+        }
+        Assert.assertEquals(expected, (int) function.apply(left, right));
+    }
+
+    @Property
+    public void composeAppliesFunctionsToArguments(String left, String right) {
+        PairFunction<String, String, String> concat = (l, r) -> l + r;
+        PairFunction<Integer, Integer, String> composed = concat.compose(i -> left.substring(0, i), i -> right.substring(i));
+        Assert.assertEquals(left + right, composed.apply(left.length(), 0));
+    }
+
+    @Property
+    public void curryAndTupledRoundTrip(String left, String right) {
+        PairFunction<String, String, String> concat = (l, r) -> l + "|" + r;
+        Assert.assertEquals(concat.apply(left, right), concat.curry().apply(left).apply(right));
+        Assert.assertEquals(concat.apply(left, right), PairFunction.uncurry(concat.curry()).apply(left, right));
+        Assert.assertEquals(concat.apply(left, right), concat.tupled().apply(Pair.of(left, right)));
+        Assert.assertEquals(concat.apply(left, right), PairFunction.untupled(concat.tupled()).apply(left, right));
+    }
+}
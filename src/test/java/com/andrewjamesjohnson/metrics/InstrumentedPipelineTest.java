@@ -0,0 +1,107 @@
+package com.andrewjamesjohnson.metrics;
+
+import com.andrewjamesjohnson.exceptions.FunctionWithCheckedException;
+import com.andrewjamesjohnson.exceptions.LambdaWrappedCheckedException;
+import com.andrewjamesjohnson.io.ElementEncoder;
+import com.andrewjamesjohnson.streams.RichStream;
+import com.pholser.junit.quickcheck.Property;
+import com.pholser.junit.quickcheck.runner.JUnitQuickcheck;
+import org.junit.Assert;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RunWith(JUnitQuickcheck.class)
+public class InstrumentedPipelineTest {
+    @Property
+    public void stagesCountElementsInAndOut(List<Integer> list) {
+        InMemoryMetricsSink sink = new InMemoryMetricsSink();
+        List<Integer> result = RichStream.of(list).parallel().instrumented("test", sink)
+                .filter(i -> i % 2 == 0)
+                .map(i -> i / 2)
+                .filterNot(i -> i % 3 == 0)
+                .toList();
+
+        long evens = list.stream().filter(i -> i % 2 == 0).count();
+        List<StageMetrics> stages = sink.getStages("test");
+        Assert.assertEquals(3, stages.size());
+        Assert.assertEquals("0:filter", stages.get(0).getStage());
+        Assert.assertEquals("1:map", stages.get(1).getStage());
+        Assert.assertEquals("2:filterNot", stages.get(2).getStage());
+
+        Assert.assertEquals(list.size(), stages.get(0).getElementsIn());
+        Assert.assertEquals(evens, stages.get(0).getElementsOut());
+        Assert.assertEquals(evens, stages.get(1).getElementsIn());
+        Assert.assertEquals(evens, stages.get(1).getElementsOut());
+        Assert.assertEquals(evens, stages.get(2).getElementsIn());
+        Assert.assertEquals(result.size(), stages.get(2).getElementsOut());
+        Assert.assertEquals(evens, stages.get(1).getLatencies().getCount());
+        if (!list.isEmpty()) {
+            Assert.assertEquals(1 - (double) evens / list.size(), stages.get(0).getDropRate(), 1e-9);
+        }
+    }
+
+    @Property
+    public void wrappedCheckedExceptionsAreCounted(int value) {
+        InMemoryMetricsSink sink = new InMemoryMetricsSink();
+        FunctionWithCheckedException<Integer, Integer> failing = i -> {
+            throw new IOException();
+        };
+        try {
+            RichStream.of(new Integer[]{value}).instrumented("failing", sink).map(failing).toList();
+            Assert.fail();
+        } catch (LambdaWrappedCheckedException e) {
+            StageMetrics map = sink.get("failing", "0:map");
+            Assert.assertEquals(1, map.getElementsIn());
+            Assert.assertEquals(0, map.getElementsOut());
+            Assert.assertEquals(1, map.getExceptions());
+            Assert.assertEquals(1, map.getCheckedExceptions());
+        }
+    }
+
+    @Property
+    public void writeToReportsOnlyTheUserStages(List<Integer> list) throws IOException {
+        InMemoryMetricsSink sink = new InMemoryMetricsSink();
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        RichStream.of(list).parallel().instrumented("write", sink)
+                .map(i -> i + 1)
+                .writeTo(Channels.newChannel(output), ElementEncoder.lines());
+
+        List<StageMetrics> stages = sink.getStages("write");
+        Assert.assertEquals(1, stages.size());
+        Assert.assertEquals("0:map", stages.get(0).getStage());
+        Assert.assertEquals(list.size(), stages.get(0).getElementsOut());
+    }
+
+    @Property
+    public void disabledInstrumentationRecordsNothing(List<Integer> list) {
+        InMemoryMetricsSink sink = new InMemoryMetricsSink();
+        Metrics.setEnabled(false);
+        try {
+            List<Integer> result = RichStream.of(list).instrumented("disabled", sink).map(i -> i + 1).toList();
+            Assert.assertEquals(list.stream().map(i -> i + 1).collect(Collectors.toList()), result);
+            Assert.assertTrue(sink.getStages("disabled").isEmpty());
+        } finally {
+            Metrics.setEnabled(true);
+        }
+    }
+
+    @Property
+    public void percentilesBoundRecordedLatencies(List<Integer> list) {
+        StageMetrics metrics = new InMemoryMetricsSink().stage("histogram", "0:map");
+        long max = 0;
+        for (int i : list) {
+            long nanos = Math.abs((long) i);
+            max = Math.max(max, nanos);
+            metrics.record(nanos, true);
+        }
+        long p100 = metrics.getLatencies().getPercentile(100);
+        Assert.assertTrue(p100 >= max);
+        Assert.assertTrue(p100 <= Math.max(1, 2 * max));
+        Assert.assertTrue(metrics.getLatencies().getPercentile(50) <= p100);
+    }
+}
@@ -0,0 +1,112 @@
+package com.andrewjamesjohnson.sketches;
+
+import com.andrewjamesjohnson.streams.RichIntStream;
+import com.andrewjamesjohnson.streams.RichStream;
+import com.pholser.junit.quickcheck.Property;
+import com.pholser.junit.quickcheck.generator.InRange;
+import com.pholser.junit.quickcheck.runner.JUnitQuickcheck;
+import org.junit.Assert;
+import org.junit.runner.RunWith;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@RunWith(JUnitQuickcheck.class)
+public class SketchesTest {
+    @Property
+    public void topKIsPrefixOfSortedStream(List<Integer> list, @InRange(minInt = 0, maxInt = 20) int k) {
+        List<Integer> expected = list.stream().sorted(Comparator.reverseOrder()).limit(k).collect(Collectors.toList());
+
+        Assert.assertEquals(expected, RichStream.of(list).topK(k, Comparator.naturalOrder()));
+        Assert.assertEquals(expected, RichStream.of(list).parallel().topK(k, Comparator.naturalOrder()));
+    }
+
+    @Property
+    public void sampleHoldsElementsOfStream(List<Integer> list, @InRange(minInt = 0, maxInt = 20) int size) {
+        List<Integer> sample = RichStream.of(list).parallel().sample(size);
+
+        Assert.assertEquals(Math.min(size, list.size()), sample.size());
+        Map<Integer, Long> counts = list.stream().collect(Collectors.groupingBy(i -> i, Collectors.counting()));
+        sample.stream().collect(Collectors.groupingBy(i -> i, Collectors.counting()))
+                .forEach((i, count) -> Assert.assertTrue(count <= counts.getOrDefault(i, 0L)));
+    }
+
+    @Property
+    public void mergedReservoirIsUniform(@InRange(minInt = 1, maxInt = 5) int size) {
+        // Each element of two unequal halves should be sampled about size / 100 of the time
+        int[] hits = new int[100];
+        int trials = 10000;
+        for (int trial = 0; trial < trials; trial++) {
+            Reservoir<Integer> first = new Reservoir<>(size);
+            Reservoir<Integer> second = new Reservoir<>(size);
+            IntStream.range(0, 20).forEach(first::add);
+            IntStream.range(20, 100).forEach(second::add);
+            first.merge(second).toList().forEach(i -> hits[i]++);
+        }
+        double expected = (double) trials * size / 100;
+        for (int count : hits) {
+            Assert.assertEquals(expected, count, expected * 0.5);
+        }
+    }
+
+    @Property
+    public void hyperLogLogIsWithinErrorBound(List<Integer> list) {
+        int distinct = new HashSet<>(list).size();
+        Assert.assertEquals(distinct, RichStream.of(list).parallel().countDistinctApproximately(), 2 + distinct * 0.05);
+
+        long estimate = RichIntStream.of(IntStream.range(0, 100000)).parallel().countDistinctApproximately();
+        Assert.assertEquals(100000, estimate, 100000 * 0.05);
+    }
+
+    @Property
+    public void mergedHyperLogLogEstimatesUnion(@InRange(minInt = 0, maxInt = 5000) int overlap) {
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        HyperLogLog union = new HyperLogLog();
+        for (long i = 0; i < 10000; i++) {
+            first.addLong(i);
+            union.addLong(i);
+        }
+        for (long i = 10000 - overlap; i < 20000 - overlap; i++) {
+            second.addLong(i);
+            union.addLong(i);
+        }
+
+        Assert.assertEquals(union.cardinality(), first.merge(second).cardinality());
+    }
+
+    @Property
+    public void countMinSketchNeverUnderestimates(List<Integer> list) {
+        List<Integer> keys = list.stream().map(i -> Math.floorMod(i, 30)).collect(Collectors.toList());
+        Map<Integer, Integer> counts = new HashMap<>();
+        keys.forEach(i -> counts.merge(i, 1, Integer::sum));
+
+        CountMinSketch sketch = RichStream.of(keys).parallel().toCountMinSketch(0.01, 0.99);
+
+        Assert.assertEquals(keys.size(), sketch.getTotalCount());
+        counts.forEach((key, count) -> {
+            long estimate = sketch.estimate(key);
+            Assert.assertTrue(estimate >= count);
+            Assert.assertTrue(estimate <= count + 0.01 * keys.size() + 1);
+        });
+    }
+
+    @Property
+    public void sketchesOfDifferentShapesCannotBeMerged(@InRange(minInt = 4, maxInt = 17) int precision) {
+        try {
+            new HyperLogLog(precision).merge(new HyperLogLog(precision + 1));
+            Assert.fail();
+        } catch (IllegalArgumentException expected) {
+        }
+        try {
+            new CountMinSketch(precision, 2).merge(new CountMinSketch(precision, 3));
+            Assert.fail();
+        } catch (IllegalArgumentException expected) {
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.andrewjamesjohnson.streams;
+
+import com.andrewjamesjohnson.exceptions.FunctionWithCheckedException;
+import com.andrewjamesjohnson.exceptions.LambdaWrappedCheckedException;
+import com.andrewjamesjohnson.exceptions.ToLongFunctionWithCheckedException;
+import com.pholser.junit.quickcheck.Property;
+import com.pholser.junit.quickcheck.runner.JUnitQuickcheck;
+import org.junit.Assert;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+
+@RunWith(JUnitQuickcheck.class)
+public class AggregateByKeyTest {
+    private static int key(int i) {
+        return Math.floorMod(i, 7);
+    }
+
+    @Property
+    public void aggregateByKeyMatchesGroupingBy(List<Integer> list) {
+        Map<Integer, String> expected = list.stream().collect(Collectors.groupingBy(AggregateByKeyTest::key,
+                Collectors.mapping(String::valueOf, Collectors.joining(","))));
+
+        for (RichStream<Integer> stream : Arrays.asList(RichStream.of(list), RichStream.of(list).parallel())) {
+            Map<Integer, StringJoiner> joined = stream.aggregateByKey(AggregateByKeyTest::key, () -> new StringJoiner(","),
+                    (joiner, i) -> joiner.add(String.valueOf(i)), StringJoiner::merge);
+            Assert.assertEquals(expected, joined.entrySet().stream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().toString())));
+        }
+    }
+
+    @Property
+    public void aggregateByKeyUpdatesContainersInPlace(List<Integer> list) {
+        Map<Integer, long[]> sums = RichStream.of(list).parallel().aggregateByKey(AggregateByKeyTest::key, () -> new long[1],
+                (sum, i) -> sum[0] += i, (sum, other) -> sum[0] += other[0]);
+
+        Map<Integer, Long> expected = list.stream()
+                .collect(Collectors.groupingBy(AggregateByKeyTest::key, Collectors.summingLong(i -> i)));
+        Assert.assertEquals(expected.keySet(), sums.keySet());
+        expected.forEach((key, sum) -> Assert.assertEquals((long) sum, sums.get(key)[0]));
+    }
+
+    @Property
+    public void countByKeyMatchesGroupingBy(List<String> list) {
+        Map<Integer, Long> expected = list.stream().collect(Collectors.groupingBy(String::length, Collectors.counting()));
+
+        Assert.assertEquals(expected, RichStream.of(list).countByKey(String::length));
+        Assert.assertEquals(expected, RichStream.of(list).parallel().countByKey(String::length));
+    }
+
+    @Property
+    public void sumLongByKeyMatchesGroupingBy(List<Integer> list) {
+        Map<Integer, Long> expected = list.stream()
+                .collect(Collectors.groupingBy(AggregateByKeyTest::key, Collectors.summingLong(i -> i)));
+
+        Assert.assertEquals(expected, RichStream.of(list).sumLongByKey(AggregateByKeyTest::key, i -> i));
+        Assert.assertEquals(expected, RichStream.of(list).parallel().sumLongByKey(AggregateByKeyTest::key, i -> i));
+    }
+
+    @Property
+    public void sumDoubleByKeyMatchesGroupingBy(List<Integer> list) {
+        Map<Integer, Double> expected = list.stream()
+                .collect(Collectors.groupingBy(AggregateByKeyTest::key, Collectors.summingDouble(i -> i / 4.0)));
+
+        Map<Integer, Double> sequential = RichStream.of(list).sumDoubleByKey(AggregateByKeyTest::key, i -> i / 4.0);
+        Map<Integer, Double> parallel = RichStream.of(list).parallel().sumDoubleByKey(AggregateByKeyTest::key, i -> i / 4.0);
+        Assert.assertEquals(expected.keySet(), sequential.keySet());
+        Assert.assertEquals(expected.keySet(), parallel.keySet());
+        expected.forEach((key, sum) -> {
+            Assert.assertEquals(sum, sequential.get(key), 1e-6 * Math.max(1, Math.abs(sum)));
+            Assert.assertEquals(sum, parallel.get(key), 1e-6 * Math.max(1, Math.abs(sum)));
+        });
+    }
+
+    @Property
+    public void keyAndValueFunctionsMayBeCheckedSeparately(List<Integer> list) {
+        Map<Integer, Long> expected = RichStream.of(list).sumLongByKey(AggregateByKeyTest::key, i -> i);
+        Function<Integer, Integer> key = AggregateByKeyTest::key;
+        FunctionWithCheckedException<Integer, Integer> checkedKey = AggregateByKeyTest::key;
+        ToLongFunction<Integer> value = i -> i;
+        ToLongFunctionWithCheckedException<Integer> checkedValue = i -> i;
+
+        Assert.assertEquals(expected, RichStream.of(list).sumLongByKey(key, checkedValue));
+        Assert.assertEquals(expected, RichStream.of(list).sumLongByKey(checkedKey, value));
+    }
+
+    @Property
+    public void checkedKeyFunctionExceptionIsWrapped(List<Integer> list) {
+        try {
+            RichStream.of(list).countByKey(i -> {
+                throw new IOException();
+            });
+            Assert.assertTrue(list.isEmpty());
+        } catch (LambdaWrappedCheckedException e) {
+            Assert.assertTrue(e.getCause() instanceof IOException);
+        }
+    }
+}
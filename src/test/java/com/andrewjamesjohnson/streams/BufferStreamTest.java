@@ -0,0 +1,78 @@
+package com.andrewjamesjohnson.streams;
+
+import com.andrewjamesjohnson.io.RecordCodec;
+import com.pholser.junit.quickcheck.Property;
+import com.pholser.junit.quickcheck.runner.JUnitQuickcheck;
+import org.junit.Assert;
+import org.junit.runner.RunWith;
+
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.List;
+
+@RunWith(JUnitQuickcheck.class)
+public class BufferStreamTest {
+    // Each record holds an element followed by its square
+    private static final RecordCodec<Integer> CODEC = RecordCodec.of(12,
+            (buffer, offset) -> buffer.getInt(offset),
+            (buffer, offset, value) -> {
+                buffer.putInt(offset, value);
+                buffer.putLong(offset + 4, (long) value * value);
+            });
+
+    @Property
+    public void recordsRoundTripThroughBuffer(List<Integer> list) {
+        ByteBuffer buffer = RichStream.of(list).parallel().toByteBuffer(CODEC);
+        Assert.assertTrue(buffer.isDirect());
+        Assert.assertEquals(list.size() * 12, buffer.remaining());
+        Assert.assertEquals(list, RichStream.of(buffer, CODEC).toList());
+        Assert.assertEquals(list, RichStream.of(buffer, CODEC).parallel().toList());
+        for (int i = 0; i < list.size(); i++) {
+            Assert.assertEquals((long) list.get(i) * list.get(i), buffer.getLong(i * 12 + 4));
+        }
+    }
+
+    @Property
+    public void unsizedStreamsAreWrittenInOrder(List<Integer> list) {
+        ByteBuffer buffer = RichStream.of(list).parallel().filter(i -> i % 3 != 0).toByteBuffer(CODEC);
+        Assert.assertEquals(RichStream.of(list).filter(i -> i % 3 != 0).toList(), RichStream.of(buffer, CODEC).toList());
+    }
+
+    @Property
+    public void recordsAreReadFromThePosition(List<Integer> list) {
+        ByteBuffer buffer = RichStream.of(list).toByteBuffer(CODEC);
+        if (!list.isEmpty()) {
+            buffer.position(12);
+            Assert.assertEquals(list.subList(1, list.size()), RichStream.of(buffer, CODEC).parallel().toList());
+            Assert.assertEquals(12, buffer.position());
+        }
+    }
+
+    @Property
+    public void partialRecordsAreRejected(List<Integer> list) {
+        ByteBuffer buffer = ByteBuffer.allocate(list.size() * 12 + 5);
+        try {
+            RichStream.of(buffer, CODEC);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Property
+    public void primitiveBuffersRoundTrip(List<Integer> list) {
+        int[] ints = RichStream.of(list).mapToInt(Integer::intValue).toArray();
+        IntBuffer intBuffer = RichIntStream.of(IntBuffer.wrap(ints)).parallel().toIntBuffer();
+        Assert.assertArrayEquals(ints, RichIntStream.of(intBuffer).parallel().toArray());
+
+        long[] longs = RichStream.of(list).mapToLong(Integer::longValue).toArray();
+        LongBuffer longBuffer = RichLongStream.of(LongBuffer.wrap(longs)).filter(i -> i > 0).toLongBuffer();
+        Assert.assertArrayEquals(RichLongStream.of(longs).filter(i -> i > 0).toArray(), RichLongStream.of(longBuffer).toArray());
+
+        double[] doubles = RichStream.of(list).mapToDouble(Integer::doubleValue).toArray();
+        DoubleBuffer doubleBuffer = RichDoubleStream.of(DoubleBuffer.wrap(doubles)).toDoubleBuffer();
+        Assert.assertArrayEquals(doubles, RichDoubleStream.of(doubleBuffer).parallel().toArray(), 0);
+    }
+}
@@ -1,5 +1,7 @@
 package com.andrewjamesjohnson.streams;
 
+import com.andrewjamesjohnson.collections.LongObjectMap;
+import com.andrewjamesjohnson.exceptions.FunctionWithCheckedException;
 import com.pholser.junit.quickcheck.Property;
 import com.pholser.junit.quickcheck.runner.JUnitQuickcheck;
 import org.junit.Assert;
@@ -9,6 +11,8 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Collectors;
 
 @RunWith(JUnitQuickcheck.class)
 public class CollectionConversionTests {
@@ -44,4 +48,63 @@ public class CollectionConversionTests {
         Assert.assertEquals(list.size(), newMap.size());
         list.forEach(element -> Assert.assertEquals(element.toLowerCase(), newMap.get(element.toUpperCase())));
     }
-}
\ No newline at end of file
+
+    @Property
+    public void toMapMergesValuesWithTheSameKey(List<Integer> list) {
+        Map<Integer, Long> newMap = RichStream.of(list).toMap(i -> i % 10, i -> 1L, Long::sum);
+        Map<Integer, Long> expectedMap = list.stream().collect(Collectors.groupingBy(i -> i % 10, Collectors.counting()));
+        Assert.assertEquals(expectedMap, newMap);
+    }
+
+    @Property
+    public void toMapAsKeyMergesValuesOfEqualElements(List<Integer> list) {
+        Map<Integer, Integer> newMap = RichStream.of(list).map(i -> i % 10).toMapAsKey(i -> 1, Integer::sum);
+        Assert.assertEquals(list.size(), newMap.values().stream().mapToInt(Integer::intValue).sum());
+    }
+
+    @Property
+    public void toMapRejectsDuplicateKeys(List<Integer> list) {
+        try {
+            RichStream.of(list).toMapAsValue(i -> 0);
+            Assert.assertTrue(list.size() <= 1);
+        } catch (IllegalStateException e) {
+            Assert.assertTrue(list.size() > 1);
+        }
+    }
+
+    @Property
+    public void toMapWithCheckedExceptionProducesTheExpectedMap(List<String> list) {
+        FunctionWithCheckedException<String, String> keyFunction = String::toUpperCase;
+        Map<String, String> newMap = RichStream.of(list).parallel().toMap(keyFunction, String::toLowerCase, (first, second) -> first);
+        Assert.assertEquals(RichStream.of(list).toMap(String::toUpperCase, String::toLowerCase), newMap);
+    }
+
+    @Property
+    public void toConcurrentMapProducesTheExpectedMap(List<String> list) {
+        ConcurrentMap<String, String> newMap = RichStream.of(list).parallel().toConcurrentMap(String::toUpperCase, String::toLowerCase);
+        Assert.assertEquals(RichStream.of(list).toMap(String::toUpperCase, String::toLowerCase), newMap);
+    }
+
+    @Property
+    public void toConcurrentMapMergesValuesWithTheSameKey(List<Integer> list) {
+        Map<Integer, Long> newMap = RichStream.of(list).parallel().toConcurrentMap(i -> i % 10, i -> 1L, Long::sum);
+        Assert.assertEquals(RichStream.of(list).toMap(i -> i % 10, i -> 1L, Long::sum), newMap);
+    }
+
+    @Property
+    public void toLongObjectMapProducesTheExpectedMap(List<String> list) {
+        LongObjectMap<String> newMap = RichStream.of(list).distinct().toLongObjectMap(String::hashCode, String::toUpperCase);
+        Assert.assertEquals(new HashSet<>(list).size(), newMap.size());
+        list.forEach(element -> Assert.assertEquals(element.toUpperCase(), newMap.get(element.hashCode())));
+    }
+
+    @Property
+    public void toIntObjectMapRejectsDuplicateKeys(List<Integer> list) {
+        try {
+            RichStream.of(list).parallel().toIntObjectMap(i -> 0, i -> i);
+            Assert.assertTrue(list.size() <= 1);
+        } catch (IllegalStateException e) {
+            Assert.assertTrue(list.size() > 1);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.andrewjamesjohnson.streams;
+
+import com.andrewjamesjohnson.io.ElementSerializer;
+import com.andrewjamesjohnson.io.RecordCodec;
+import com.pholser.junit.quickcheck.Property;
+import com.pholser.junit.quickcheck.generator.InRange;
+import com.pholser.junit.quickcheck.runner.JUnitQuickcheck;
+import org.junit.Assert;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+@RunWith(JUnitQuickcheck.class)
+public class ExternalSortTest {
+    private static final ElementSerializer<Integer> INTS = ElementSerializer.of(
+            RecordCodec.of(Integer.BYTES, (buffer, offset) -> buffer.getInt(offset), (buffer, offset, value) -> buffer.putInt(offset, value)));
+
+    private static long countRunFiles() throws IOException {
+        try (Stream<Path> files = Files.list(Paths.get(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(file -> file.getFileName().toString().startsWith("sorted-run-")).count();
+        }
+    }
+
+    @Property
+    public void sortedExternalMatchesSorted(List<Integer> list, @InRange(minInt = 4, maxInt = 32) int runSize) {
+        List<Integer> expected = list.stream().sorted().collect(Collectors.toList());
+
+        Assert.assertEquals(expected, RichStream.of(list).sortedExternal(Comparator.naturalOrder(), INTS, runSize).toList());
+        Assert.assertEquals(expected, RichStream.of(list).parallel()
+                .sortedExternal(Comparator.naturalOrder(), INTS, runSize).toList());
+    }
+
+    @Property
+    public void sortedExternalIsStable(List<String> list, @InRange(minInt = 4, maxInt = 32) int runSize) {
+        Comparator<String> byLength = Comparator.comparingInt(String::length);
+        List<String> expected = list.stream().sorted(byLength).collect(Collectors.toList());
+
+        Assert.assertEquals(expected, RichStream.of(list).parallel()
+                .sortedExternal(byLength, ElementSerializer.strings(), runSize).toList());
+    }
+
+    @Property(trials = 10)
+    public void parallelUnsizedStreamIsSpilledRunByRun(@InRange(minInt = 50, maxInt = 200) int runSize) {
+        AtomicLong pulled = new AtomicLong();
+        AtomicLong spilled = new AtomicLong();
+        AtomicLong peak = new AtomicLong();
+        ElementSerializer<Integer> counting = ElementSerializer.of((value, buffer) -> {
+            INTS.encode(value, buffer);
+            spilled.incrementAndGet();
+        }, INTS::decode);
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        List<Integer> sorted;
+        try {
+            sorted = RichStream.of(IntStream.range(0, 100_000).map(i -> -i).boxed()).parallel(pool)
+                    .filter(i -> i % 3 != 0)
+                    .peek(i -> peak.accumulateAndGet(pulled.incrementAndGet() - spilled.get(), Math::max))
+                    .sortedExternal(Comparator.naturalOrder(), counting, runSize)
+                    .toList();
+        } finally {
+            pool.shutdown();
+        }
+
+        Assert.assertEquals(IntStream.range(0, 100_000).map(i -> -i).filter(i -> i % 3 != 0).sorted().boxed()
+                .collect(Collectors.toList()), sorted);
+        // Cutting runs out of batches of 1024 runs would read far more before spilling anything
+        Assert.assertTrue(peak.get() < 64L * runSize);
+    }
+
+    @Property
+    public void distinctExternalMatchesSortedDistinct(List<Integer> list, @InRange(minInt = 4, maxInt = 32) int runSize) {
+        List<Integer> withDuplicates = new ArrayList<>(list);
+        withDuplicates.addAll(list);
+        List<Integer> expected = list.stream().distinct().sorted().collect(Collectors.toList());
+
+        Assert.assertEquals(expected, RichStream.of(withDuplicates).parallel()
+                .distinctExternal(Comparator.naturalOrder(), INTS, runSize).toList());
+    }
+
+    @Property
+    public void runsAreMergedInSeveralPasses(List<Integer> list, @InRange(minInt = 2, maxInt = 4) int mergeWidth) {
+        ExternalSort<Integer> sort = new ExternalSort<>(Comparator.naturalOrder(), INTS, false, mergeWidth);
+        List<ExternalSort.Run> runs = RichStream.of(list).batched(3).map(sort::spill).toList();
+        List<Integer> merged = new ArrayList<>();
+        sort.mergeRuns(runs).forEachRemaining(merged::add);
+        sort.close();
+
+        Assert.assertEquals(list.stream().sorted().collect(Collectors.toList()), merged);
+    }
+
+    @Property
+    public void runFilesAreDeleted(List<String> list) throws IOException {
+        long before = countRunFiles();
+        Assert.assertEquals(list.stream().sorted().collect(Collectors.toList()), RichStream.of(list).filter(s -> true)
+                .sortedExternal(Comparator.naturalOrder(), ElementSerializer.strings(), 8).toList());
+        Assert.assertEquals(before, countRunFiles());
+
+        try (RichStream<String> sorted = RichStream.of(list).filter(s -> true)
+                .sortedExternal(Comparator.naturalOrder(), ElementSerializer.strings(), 8)) {
+            sorted.findFirst();
+        }
+        Assert.assertEquals(before, countRunFiles());
+    }
+
+    @Property
+    public void longElementsGrowReadBuffer(@InRange(minInt = 1, maxInt = 3) int runSize) {
+        List<String> list = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            StringBuilder builder = new StringBuilder();
+            for (int j = 0; j < 100000; j++) {
+                builder.append((char) ('a' + (i * 7 + j) % 26));
+            }
+            list.add(builder.toString());
+        }
+
+        Assert.assertEquals(list.stream().sorted().collect(Collectors.toList()), RichStream.of(list)
+                .sortedExternal(Comparator.naturalOrder(), ElementSerializer.strings(), runSize).toList());
+    }
+}
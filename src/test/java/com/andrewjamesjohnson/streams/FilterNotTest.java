@@ -1,5 +1,6 @@
 package com.andrewjamesjohnson.streams;
 
+import com.andrewjamesjohnson.exceptions.PredicateWithCheckedException;
 import com.pholser.junit.quickcheck.Property;
 import com.pholser.junit.quickcheck.runner.JUnitQuickcheck;
 import org.junit.Assert;
@@ -21,4 +22,11 @@ public class FilterNotTest {
         filterResult.stream().map(filterNotResult::contains).forEach(Assert::assertFalse);
         filterNotResult.stream().map(filterResult::contains).forEach(Assert::assertFalse);
     }
-}
\ No newline at end of file
+
+    @Property
+    public void filterNotWithCheckedExceptionMatchesFilterNot(Collection<Integer> collection) {
+        PredicateWithCheckedException<Integer> testPredicate = i -> i > 0;
+        List<Integer> expected = RichStream.of(collection).filterNot((Predicate<Integer>) i -> i > 0).toList();
+        Assert.assertEquals(expected, RichStream.of(collection).filterNot(testPredicate).toList());
+    }
+}
@@ -0,0 +1,119 @@
+package com.andrewjamesjohnson.streams;
+
+import com.andrewjamesjohnson.exceptions.LambdaWrappedCheckedException;
+import com.pholser.junit.quickcheck.Property;
+import com.pholser.junit.quickcheck.runner.JUnitQuickcheck;
+import org.junit.Assert;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@RunWith(JUnitQuickcheck.class)
+public class JoinTest {
+    private static List<String> nestedLoopJoin(List<Integer> first, List<Integer> second, boolean outer) {
+        List<String> joined = new ArrayList<>();
+        for (Integer i : first) {
+            boolean matched = false;
+            for (Integer j : second) {
+                if (key(i) == key(j)) {
+                    joined.add(i + ":" + j);
+                    matched = true;
+                }
+            }
+            if (!matched && outer) {
+                joined.add(i + ":null");
+            }
+        }
+        return joined;
+    }
+
+    private static int key(int i) {
+        return Math.floorMod(i, 10);
+    }
+
+    private static <T extends Comparable<T>> List<T> sorted(List<T> list) {
+        List<T> copy = new ArrayList<>(list);
+        Collections.sort(copy);
+        return copy;
+    }
+
+    @Property
+    public void joinMatchesNestedLoopJoin(List<Integer> first, List<Integer> second) {
+        List<String> expected = sorted(nestedLoopJoin(first, second, false));
+
+        List<String> joined = RichStream.of(first)
+                .join(RichStream.of(second), JoinTest::key, JoinTest::key, (i, j) -> i + ":" + j)
+                .toList();
+        List<String> parallelJoined = RichStream.of(first).parallel()
+                .join(RichStream.of(second).parallel(), JoinTest::key, JoinTest::key, (i, j) -> i + ":" + j)
+                .toList();
+
+        Assert.assertEquals(expected, sorted(joined));
+        Assert.assertEquals(expected, sorted(parallelJoined));
+    }
+
+    @Property
+    public void leftJoinKeepsOrderOfThisStream(List<Integer> first, List<Integer> second) {
+        List<String> expected = nestedLoopJoin(first, second, true);
+
+        Assert.assertEquals(expected, RichStream.of(first)
+                .leftJoin(RichStream.of(second), JoinTest::key, JoinTest::key, (i, j) -> i + ":" + j)
+                .toList());
+        Assert.assertEquals(expected, RichStream.of(first).parallel()
+                .leftJoin(RichStream.of(second).parallel(), JoinTest::key, JoinTest::key, (i, j) -> i + ":" + j)
+                .toList());
+    }
+
+    @Property
+    public void joinBuildsTableFromSmallerSide(List<Integer> first) {
+        List<Integer> larger = new ArrayList<>(first);
+        larger.addAll(first);
+        larger.add(0);
+        // The smaller side is this stream, so the output follows the order of the other stream
+        List<String> expected = nestedLoopJoin(larger, first, false).stream()
+                .map(s -> s.substring(s.indexOf(':') + 1) + ":" + s.substring(0, s.indexOf(':')))
+                .collect(Collectors.toList());
+
+        Assert.assertEquals(expected, RichStream.of(first)
+                .join(RichStream.of(larger), JoinTest::key, JoinTest::key, (i, j) -> i + ":" + j)
+                .toList());
+    }
+
+    @Property
+    public void cogroupGroupsBothStreamsByKey(List<Integer> first, List<Integer> second) {
+        List<CoGroup<Integer, Integer, Integer>> cogroups = RichStream.of(first).parallel()
+                .cogroup(RichStream.of(second), JoinTest::key, JoinTest::key)
+                .toList();
+
+        Map<Integer, List<Integer>> firstGroups = first.stream().collect(Collectors.groupingBy(JoinTest::key));
+        Map<Integer, List<Integer>> secondGroups = second.stream().collect(Collectors.groupingBy(JoinTest::key));
+        Assert.assertEquals(first.stream().map(JoinTest::key).distinct().collect(Collectors.toList()),
+                cogroups.stream().limit(firstGroups.size()).map(CoGroup::getKey).collect(Collectors.toList()));
+        Assert.assertEquals(cogroups.size(), cogroups.stream().map(CoGroup::getKey).distinct().count());
+        for (CoGroup<Integer, Integer, Integer> cogroup : cogroups) {
+            Assert.assertEquals(firstGroups.getOrDefault(cogroup.getKey(), Collections.emptyList()), cogroup.getLeft());
+            Assert.assertEquals(secondGroups.getOrDefault(cogroup.getKey(), Collections.emptyList()), cogroup.getRight());
+        }
+        Assert.assertTrue(cogroups.stream().map(CoGroup::getKey).collect(Collectors.toSet())
+                .containsAll(secondGroups.keySet()));
+    }
+
+    @Property
+    public void checkedKeyFunctionExceptionIsWrapped(List<Integer> first) {
+        try {
+            RichStream.of(first)
+                    .join(RichStream.of(Collections.singletonList(1)), i -> {
+                        throw new IOException();
+                    }, JoinTest::key, (i, j) -> i + j)
+                    .toList();
+            Assert.assertTrue(first.isEmpty());
+        } catch (LambdaWrappedCheckedException e) {
+            Assert.assertTrue(e.getCause() instanceof IOException);
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.andrewjamesjohnson.streams;
+
+import com.andrewjamesjohnson.exceptions.LambdaWrappedCheckedException;
+import com.pholser.junit.quickcheck.Property;
+import com.pholser.junit.quickcheck.generator.InRange;
+import com.pholser.junit.quickcheck.runner.JUnitQuickcheck;
+import org.junit.Assert;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@RunWith(JUnitQuickcheck.class)
+public class MapAsyncTest {
+    @Property
+    public void mapAsyncPreservesOrder(List<Integer> list, @InRange(minInt = 1, maxInt = 8) int maxInFlight) {
+        List<Integer> result = RichStream.of(list).mapAsync(i -> i * 2, maxInFlight).toList();
+        List<Integer> expected = RichStream.of(list).map(i -> i * 2).toList();
+        Assert.assertEquals(expected, result);
+    }
+
+    @Property
+    public void mapAsyncUnorderedProducesAllResults(List<Integer> list, @InRange(minInt = 1, maxInt = 8) int maxInFlight) {
+        List<Integer> result = new ArrayList<>(RichStream.of(list).mapAsyncUnordered(i -> i * 2, maxInFlight).toList());
+        List<Integer> expected = new ArrayList<>(RichStream.of(list).map(i -> i * 2).toList());
+        Collections.sort(result);
+        Collections.sort(expected);
+        Assert.assertEquals(expected, result);
+    }
+
+    @Property
+    public void mapAsyncNeverExceedsMaxInFlight(List<Integer> list, @InRange(minInt = 1, maxInt = 4) int maxInFlight) {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        try {
+            RichStream.of(list).mapAsync(i -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.yield();
+                running.decrementAndGet();
+                return i;
+            }, maxInFlight, executor).toList();
+        } finally {
+            executor.shutdown();
+        }
+        Assert.assertTrue(maxRunning.get() <= maxInFlight);
+    }
+
+    @Property
+    public void mapAsyncRethrowsWrappedCheckedExceptions(List<Integer> list) {
+        try {
+            RichStream.of(list).mapAsync(i -> {
+                throw new IOException();
+            }, 4).toList();
+            Assert.assertTrue(list.isEmpty());
+        } catch (LambdaWrappedCheckedException e) {
+            Assert.assertTrue(e.getCause() instanceof IOException);
+        }
+    }
+}
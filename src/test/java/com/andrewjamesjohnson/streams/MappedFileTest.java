@@ -0,0 +1,156 @@
+package com.andrewjamesjohnson.streams;
+
+import com.andrewjamesjohnson.io.RecordCodec;
+import com.pholser.junit.quickcheck.Property;
+import com.pholser.junit.quickcheck.runner.JUnitQuickcheck;
+import org.junit.Assert;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+@RunWith(JUnitQuickcheck.class)
+public class MappedFileTest {
+    private static final RecordCodec<Long> CODEC = RecordCodec.of(8,
+            (buffer, offset) -> buffer.getLong(offset),
+            (buffer, offset, value) -> buffer.putLong(offset, value));
+
+    // Lines of varying length, including empty and non-ASCII ones, with a mix of line terminators
+    private static String text(List<Integer> list) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < list.size(); i++) {
+            int value = list.get(i);
+            if (value % 5 != 0) {
+                text.append(value).append(value % 7 == 0 ? "\u00e9\u4e2d" : "");
+            }
+            if (i < list.size() - 1 || value % 2 == 0) {
+                text.append(value % 3 == 0 ? "\r\n" : "\n");
+            }
+        }
+        return text.toString();
+    }
+
+    private static Path write(String text) throws IOException {
+        Path path = Files.createTempFile("mapped", ".txt");
+        path.toFile().deleteOnExit();
+        Files.write(path, text.getBytes(StandardCharsets.UTF_8));
+        return path;
+    }
+
+    @Property
+    public void linesMatchReadAllLines(List<Integer> list) throws IOException {
+        Path path = write(text(list));
+        List<String> expected = Files.readAllLines(path);
+        try (RichStream<String> lines = RichStream.lines(path)) {
+            Assert.assertEquals(expected, lines.toList());
+        }
+        try (RichStream<String> lines = RichStream.lines(path)) {
+            Assert.assertEquals(expected, lines.parallel().toList());
+        }
+        Files.delete(path);
+    }
+
+    @Property
+    public void linesCrossingWindowsAreDecodedWhole(List<Integer> list) throws IOException {
+        Path path = write(text(list));
+        List<String> expected = Files.readAllLines(path);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Spliterator<String> spliterator = new MappedLinesSpliterator(channel, StandardCharsets.UTF_8, 0, channel.size(), 3);
+            Assert.assertEquals(expected, StreamSupport.stream(spliterator, true).collect(Collectors.toList()));
+        }
+        Files.delete(path);
+    }
+
+    @Property
+    public void splitsFallOnLineBoundaries(List<Integer> list) throws IOException {
+        Path path = write(text(list));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            Spliterator<String> suffix = new MappedLinesSpliterator(channel, StandardCharsets.UTF_8, 0, channel.size());
+            Spliterator<String> prefix = suffix.trySplit();
+            List<String> lines = new ArrayList<>();
+            if (prefix != null) {
+                prefix.forEachRemaining(lines::add);
+            }
+            suffix.forEachRemaining(lines::add);
+            Assert.assertEquals(Files.readAllLines(path), lines);
+        }
+        Files.delete(path);
+    }
+
+    @Property
+    public void otherCharsetsFallBackToReader(List<Integer> list) throws IOException {
+        Path path = Files.createTempFile("mapped", ".txt");
+        Files.write(path, text(list).getBytes(StandardCharsets.UTF_16));
+        try (RichStream<String> lines = RichStream.lines(path, StandardCharsets.UTF_16)) {
+            Assert.assertEquals(Files.readAllLines(path, StandardCharsets.UTF_16), lines.parallel().toList());
+        }
+        Files.delete(path);
+    }
+
+    @Property
+    public void recordsRoundTripThroughFile(List<Long> list) throws IOException {
+        Path path = Files.createTempFile("mapped", ".bin");
+        ByteBuffer buffer = RichStream.of(list).toByteBuffer(CODEC);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        try (RichStream<Long> records = RichStream.of(path, CODEC)) {
+            Assert.assertEquals(list, records.toList());
+        }
+        try (RichStream<Long> records = RichStream.of(path, CODEC)) {
+            Assert.assertEquals(list.stream().mapToLong(Long::longValue).sum(),
+                    records.parallel().mapToLong(Long::longValue).sum());
+        }
+        Files.delete(path);
+    }
+
+    @Property
+    public void recordsSplitAfterReadingHasStarted(List<Long> list) throws IOException {
+        Path path = Files.createTempFile("mapped", ".bin");
+        ByteBuffer buffer = RichStream.of(list).toByteBuffer(CODEC);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE, StandardOpenOption.READ)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            Spliterator<Long> suffix = new MappedRecordSpliterator<>(channel, CODEC, 0, list.size(), 2, null);
+            List<Long> records = new ArrayList<>();
+            suffix.tryAdvance(records::add);
+            // A window of two records is mapped now, but the records after it can still be split
+            Spliterator<Long> prefix = suffix.trySplit();
+            Assert.assertTrue(list.size() < 4 || prefix != null && prefix.estimateSize() >= suffix.estimateSize() - 1);
+            if (prefix != null) {
+                prefix.forEachRemaining(records::add);
+            }
+            suffix.forEachRemaining(records::add);
+            Assert.assertEquals(list, records);
+            Assert.assertEquals(list, StreamSupport.stream(
+                    new MappedRecordSpliterator<>(channel, CODEC, 0, list.size(), 3, null), true).collect(Collectors.toList()));
+        }
+        Files.delete(path);
+    }
+
+    @Property
+    public void partialRecordFilesAreRejected(List<Long> list) throws IOException {
+        Path path = Files.createTempFile("mapped", ".bin");
+        Files.write(path, new byte[list.size() * 8 + 3]);
+        try {
+            RichStream.of(path, CODEC);
+            Assert.fail();
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        Files.delete(path);
+    }
+}
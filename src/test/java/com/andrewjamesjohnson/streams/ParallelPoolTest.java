@@ -0,0 +1,85 @@
+package com.andrewjamesjohnson.streams;
+
+import com.andrewjamesjohnson.exceptions.LambdaWrappedCheckedException;
+import com.pholser.junit.quickcheck.Property;
+import com.pholser.junit.quickcheck.runner.JUnitQuickcheck;
+import org.junit.Assert;
+import org.junit.runner.RunWith;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+
+@RunWith(JUnitQuickcheck.class)
+public class ParallelPoolTest {
+    @SuppressWarnings("unchecked")
+    private static <E extends Exception> void throwUnchecked(Exception exception) throws E {
+        throw (E) exception;
+    }
+
+    @Property
+    public void parallelInPoolRunsInPool(List<Integer> list) {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        Set<ForkJoinPool> pools = ConcurrentHashMap.newKeySet();
+        try {
+            List<Integer> result = RichStream.of(list).parallel(pool)
+                    .peek(i -> pools.add(ForkJoinTask.getPool()))
+                    .map(i -> i * 2)
+                    .toList();
+            Assert.assertEquals(RichStream.of(list).map(i -> i * 2).toList(), result);
+        } finally {
+            pool.shutdown();
+        }
+        Assert.assertTrue(list.isEmpty() || pools.equals(Collections.singleton(pool)));
+    }
+
+    @Property
+    public void parallelInPoolPreservesPoolThroughConversions(List<Integer> list) {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            long sum = RichStream.of(list).parallel(pool)
+                    .mapToLong(i -> {
+                        Assert.assertSame(pool, ForkJoinTask.getPool());
+                        return i;
+                    })
+                    .sum();
+            Assert.assertEquals(RichStream.of(list).mapToLong(i -> i).sum(), sum);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Property
+    public void parallelInPoolRethrowsWrappedCheckedExceptions(List<Integer> list) {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try {
+            RichStream.of(list).parallel(pool).forEach(i -> {
+                throw new IOException();
+            });
+            Assert.assertTrue(list.isEmpty());
+        } catch (LambdaWrappedCheckedException e) {
+            Assert.assertTrue(e.getCause() instanceof IOException);
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Property
+    public void parallelInPoolRethrowsCheckedExceptionsThatCanBeUnwrapped(List<Integer> list) {
+        ForkJoinPool pool = new ForkJoinPool(2);
+        Consumer<Integer> action = i -> ParallelPoolTest.<RuntimeException>throwUnchecked(new IOException());
+        try {
+            LambdaWrappedCheckedException.unwrap(IOException.class, () -> RichStream.of(list).parallel(pool).forEach(action));
+            Assert.assertTrue(list.isEmpty());
+        } catch (IOException e) {
+            Assert.assertFalse(list.isEmpty());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.andrewjamesjohnson.streams;
+
+import com.pholser.junit.quickcheck.Property;
+import com.pholser.junit.quickcheck.runner.JUnitQuickcheck;
+import org.junit.Assert;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.function.DoublePredicate;
+
+@RunWith(JUnitQuickcheck.class)
+public class RichDoubleStreamTest {
+    @Property
+    public void filterNotReturnsOppositeElementsToFilter(List<Integer> list) {
+        DoublePredicate testPredicate = i -> i > 0;
+        double[] filterResult = RichStream.of(list).mapToDouble(Integer::doubleValue).filter(testPredicate).toArray();
+        double[] filterNotResult = RichStream.of(list).mapToDouble(Integer::doubleValue).filterNot(testPredicate).toArray();
+        Assert.assertEquals(list.size(), filterResult.length + filterNotResult.length);
+        for (double i : filterNotResult) {
+            Assert.assertFalse(testPredicate.test(i));
+        }
+    }
+
+    @Property
+    public void zipWithIndexProducesCorrectIndices(List<Integer> list) {
+        List<IndexedDouble> zippedList = RichStream.of(list).parallel().mapToDouble(Integer::doubleValue).zipWithIndex().toList();
+        Assert.assertEquals(list.size(), zippedList.size());
+        for (int i = 0; i < list.size(); i++) {
+            Assert.assertEquals(list.get(i).doubleValue(), zippedList.get(i).getValue(), 0);
+            Assert.assertEquals(i, zippedList.get(i).getIndex());
+        }
+    }
+
+    @Property
+    public void zipWithIndexCombinerMatchesIndexed(List<Integer> list) {
+        List<String> expected = RichStream.of(list).mapToDouble(Integer::doubleValue).zipWithIndex().map(Object::toString).toList();
+        List<String> combined = RichStream.of(list).parallel().mapToDouble(Integer::doubleValue)
+                .zipWithIndex((value, index) -> IndexedDouble.of(value, index).toString()).toList();
+        Assert.assertEquals(expected, combined);
+    }
+
+    @Property
+    public void zipCombinesElementsPositionally(List<Integer> first, List<Integer> second) {
+        double[] firstArray = RichStream.of(first).mapToDouble(Integer::doubleValue).toArray();
+        double[] secondArray = RichStream.of(second).mapToDouble(Integer::doubleValue).toArray();
+        double[] zipped = RichDoubleStream.of(firstArray).parallel().zip(RichDoubleStream.of(secondArray), (l, r) -> l - r).toArray();
+        Assert.assertEquals(Math.min(firstArray.length, secondArray.length), zipped.length);
+        for (int i = 0; i < zipped.length; i++) {
+            Assert.assertEquals(firstArray[i] - secondArray[i], zipped[i], 0);
+        }
+    }
+}
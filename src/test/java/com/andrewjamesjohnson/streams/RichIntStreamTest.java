@@ -0,0 +1,71 @@
+package com.andrewjamesjohnson.streams;
+
+import com.andrewjamesjohnson.collections.IntObjectMap;
+import com.andrewjamesjohnson.collections.IntSet;
+import com.pholser.junit.quickcheck.Property;
+import com.pholser.junit.quickcheck.runner.JUnitQuickcheck;
+import org.junit.Assert;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.IntPredicate;
+
+@RunWith(JUnitQuickcheck.class)
+public class RichIntStreamTest {
+    @Property
+    public void filterNotReturnsOppositeElementsToFilter(List<Integer> list) {
+        IntPredicate testPredicate = i -> i > 0;
+        int[] filterResult = RichStream.of(list).mapToInt(Integer::intValue).filter(testPredicate).toArray();
+        int[] filterNotResult = RichStream.of(list).mapToInt(Integer::intValue).filterNot(testPredicate).toArray();
+        Assert.assertEquals(list.size(), filterResult.length + filterNotResult.length);
+        for (int i : filterNotResult) {
+            Assert.assertFalse(testPredicate.test(i));
+        }
+    }
+
+    @Property
+    public void zipWithIndexProducesCorrectIndices(List<Integer> list) {
+        List<IndexedInt> zippedList = RichStream.of(list).parallel().mapToInt(Integer::intValue).zipWithIndex().toList();
+        Assert.assertEquals(list.size(), zippedList.size());
+        for (int i = 0; i < list.size(); i++) {
+            Assert.assertEquals(list.get(i).intValue(), zippedList.get(i).getValue());
+            Assert.assertEquals(i, zippedList.get(i).getIndex());
+        }
+    }
+
+    @Property
+    public void zipWithIndexCombinerMatchesIndexed(List<Integer> list) {
+        List<String> expected = RichStream.of(list).mapToInt(Integer::intValue).zipWithIndex().map(Object::toString).toList();
+        List<String> combined = RichStream.of(list).parallel().mapToInt(Integer::intValue)
+                .zipWithIndex((value, index) -> IndexedInt.of(value, index).toString()).toList();
+        Assert.assertEquals(expected, combined);
+    }
+
+    @Property
+    public void zipCombinesElementsPositionally(List<Integer> first, List<Integer> second) {
+        int[] firstArray = RichStream.of(first).mapToInt(Integer::intValue).toArray();
+        int[] secondArray = RichStream.of(second).mapToInt(Integer::intValue).toArray();
+        int[] zipped = RichIntStream.of(firstArray).parallel().zip(RichIntStream.of(secondArray), (l, r) -> l - r).toArray();
+        Assert.assertEquals(Math.min(firstArray.length, secondArray.length), zipped.length);
+        for (int i = 0; i < zipped.length; i++) {
+            Assert.assertEquals(firstArray[i] - secondArray[i], zipped[i]);
+        }
+    }
+
+    @Property
+    public void toIntSetContainsEveryElement(List<Integer> list) {
+        IntSet sequential = RichStream.of(list).mapToInt(Integer::intValue).toIntSet();
+        IntSet parallel = RichStream.of(list).parallel().mapToInt(Integer::intValue).toIntSet();
+        Assert.assertEquals(new HashSet<>(list).size(), sequential.size());
+        list.forEach(i -> Assert.assertTrue(sequential.contains(i)));
+        Assert.assertEquals(sequential, parallel);
+    }
+
+    @Property
+    public void toIntObjectMapMapsEachElement(List<Integer> list) {
+        IntObjectMap<String> map = RichStream.of(list).distinct().parallel().mapToInt(Integer::intValue).toIntObjectMap(i -> "v" + i);
+        Assert.assertEquals(new HashSet<>(list).size(), map.size());
+        list.forEach(i -> Assert.assertEquals("v" + i, map.get(i)));
+    }
+}
@@ -0,0 +1,71 @@
+package com.andrewjamesjohnson.streams;
+
+import com.andrewjamesjohnson.collections.LongObjectMap;
+import com.andrewjamesjohnson.collections.LongSet;
+import com.pholser.junit.quickcheck.Property;
+import com.pholser.junit.quickcheck.runner.JUnitQuickcheck;
+import org.junit.Assert;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.LongPredicate;
+
+@RunWith(JUnitQuickcheck.class)
+public class RichLongStreamTest {
+    @Property
+    public void filterNotReturnsOppositeElementsToFilter(List<Integer> list) {
+        LongPredicate testPredicate = i -> i > 0;
+        long[] filterResult = RichStream.of(list).mapToLong(Integer::longValue).filter(testPredicate).toArray();
+        long[] filterNotResult = RichStream.of(list).mapToLong(Integer::longValue).filterNot(testPredicate).toArray();
+        Assert.assertEquals(list.size(), filterResult.length + filterNotResult.length);
+        for (long i : filterNotResult) {
+            Assert.assertFalse(testPredicate.test(i));
+        }
+    }
+
+    @Property
+    public void zipWithIndexProducesCorrectIndices(List<Integer> list) {
+        List<IndexedLong> zippedList = RichStream.of(list).parallel().mapToLong(Integer::longValue).zipWithIndex().toList();
+        Assert.assertEquals(list.size(), zippedList.size());
+        for (int i = 0; i < list.size(); i++) {
+            Assert.assertEquals(list.get(i).longValue(), zippedList.get(i).getValue());
+            Assert.assertEquals(i, zippedList.get(i).getIndex());
+        }
+    }
+
+    @Property
+    public void zipWithIndexCombinerMatchesIndexed(List<Integer> list) {
+        List<String> expected = RichStream.of(list).mapToLong(Integer::longValue).zipWithIndex().map(Object::toString).toList();
+        List<String> combined = RichStream.of(list).parallel().mapToLong(Integer::longValue)
+                .zipWithIndex((value, index) -> IndexedLong.of(value, index).toString()).toList();
+        Assert.assertEquals(expected, combined);
+    }
+
+    @Property
+    public void zipCombinesElementsPositionally(List<Integer> first, List<Integer> second) {
+        long[] firstArray = RichStream.of(first).mapToLong(Integer::longValue).toArray();
+        long[] secondArray = RichStream.of(second).mapToLong(Integer::longValue).toArray();
+        long[] zipped = RichLongStream.of(firstArray).parallel().zip(RichLongStream.of(secondArray), (l, r) -> l - r).toArray();
+        Assert.assertEquals(Math.min(firstArray.length, secondArray.length), zipped.length);
+        for (int i = 0; i < zipped.length; i++) {
+            Assert.assertEquals(firstArray[i] - secondArray[i], zipped[i]);
+        }
+    }
+
+    @Property
+    public void toLongSetContainsEveryElement(List<Integer> list) {
+        LongSet sequential = RichStream.of(list).mapToLong(Integer::longValue).toLongSet();
+        LongSet parallel = RichStream.of(list).parallel().mapToLong(Integer::longValue).toLongSet();
+        Assert.assertEquals(new HashSet<>(list).size(), sequential.size());
+        list.forEach(i -> Assert.assertTrue(sequential.contains(i)));
+        Assert.assertEquals(sequential, parallel);
+    }
+
+    @Property
+    public void toLongObjectMapMapsEachElement(List<Integer> list) {
+        LongObjectMap<String> map = RichStream.of(list).distinct().parallel().mapToLong(Integer::longValue).toLongObjectMap(i -> "v" + i);
+        Assert.assertEquals(new HashSet<>(list).size(), map.size());
+        list.forEach(i -> Assert.assertEquals("v" + i, map.get(i)));
+    }
+}
@@ -0,0 +1,49 @@
+package com.andrewjamesjohnson.streams;
+
+import com.pholser.junit.quickcheck.Property;
+import com.pholser.junit.quickcheck.runner.JUnitQuickcheck;
+import org.junit.Assert;
+import org.junit.runner.RunWith;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RunWith(JUnitQuickcheck.class)
+public class StreamReuseTest {
+    @Property
+    public void reusingStreamAfterIntermediateOperationThrows(List<Integer> list) {
+        RichStream<Integer> base = RichStream.of(list);
+        RichStream<Integer> evens = base.filter(i -> i % 2 == 0);
+        try {
+            base.filter(i -> i % 2 != 0);
+            Assert.fail();
+        } catch (IllegalStateException expected) {
+        }
+        Assert.assertEquals(list.stream().filter(i -> i % 2 == 0).collect(Collectors.toList()), evens.toList());
+    }
+
+    @Property
+    public void mappingDoesNotChangeElementTypeOfEarlierStream(List<Integer> list) {
+        RichStream<Integer> base = RichStream.of(list);
+        RichStream<String> strings = base.map(i -> "x" + i);
+
+        Assert.assertFalse((Object) base == strings);
+        try {
+            base.forEach(i -> Assert.assertTrue(i instanceof Integer));
+            Assert.fail();
+        } catch (IllegalStateException expected) {
+        }
+        Assert.assertEquals(list.size(), strings.toList().size());
+    }
+
+    @Property
+    public void reusingPrimitiveStreamAfterIntermediateOperationThrows(List<Integer> list) {
+        RichIntStream base = RichStream.of(list).mapToInt(Integer::intValue);
+        base.map(i -> i + 1);
+        try {
+            base.map(i -> i - 1);
+            Assert.fail();
+        } catch (IllegalStateException expected) {
+        }
+    }
+}
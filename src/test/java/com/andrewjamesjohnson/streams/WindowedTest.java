@@ -0,0 +1,74 @@
+package com.andrewjamesjohnson.streams;
+
+import com.pholser.junit.quickcheck.Property;
+import com.pholser.junit.quickcheck.generator.InRange;
+import com.pholser.junit.quickcheck.runner.JUnitQuickcheck;
+import org.junit.Assert;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+@RunWith(JUnitQuickcheck.class)
+public class WindowedTest {
+    @Property
+    public void batchedProducesConsecutiveChunks(List<Integer> list, @InRange(minInt = 1, maxInt = 20) int size) {
+        List<List<Integer>> batches = RichStream.of(list).batched(size).toList();
+        Assert.assertEquals(expectedWindows(list, size, size, true), batches);
+    }
+
+    @Property
+    public void parallelBatchedProducesConsecutiveChunks(List<Integer> list, @InRange(minInt = 1, maxInt = 20) int size) {
+        List<List<Integer>> batches = RichStream.of(list).parallel().batched(size).toList();
+        Assert.assertEquals(expectedWindows(list, size, size, true), batches);
+    }
+
+    @Property
+    public void parallelBatchedOfUnsizedStreamProducesConsecutiveChunks(List<Integer> list, @InRange(minInt = 1, maxInt = 20) int size) {
+        List<Integer> filteredList = RichStream.of(list).filter(i -> i % 2 == 0).toList();
+        List<List<Integer>> batches = RichStream.of(list).parallel().filter(i -> i % 2 == 0).batched(size).toList();
+        Assert.assertEquals(expectedWindows(filteredList, size, size, true), batches);
+    }
+
+    @Property(trials = 10)
+    public void parallelBatchedOfUnsizedStreamBuffersAFractionOfIt(@InRange(minInt = 500, maxInt = 2000) int size) {
+        AtomicLong pulled = new AtomicLong();
+        AtomicLong processed = new AtomicLong();
+        AtomicLong peak = new AtomicLong();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            RichStream.of(IntStream.range(0, 1_000_000).boxed()).parallel(pool)
+                    .filter(i -> i % 3 != 0)
+                    .peek(i -> peak.accumulateAndGet(pulled.incrementAndGet() - processed.get(), Math::max))
+                    .batched(size)
+                    .forEach(batch -> processed.addAndGet(batch.size()));
+        } finally {
+            pool.shutdown();
+        }
+        Assert.assertEquals(pulled.get(), processed.get());
+        // Splitting off 1024 batches at a time would hold most of the stream at once
+        Assert.assertTrue(peak.get() < pulled.get() / 4);
+    }
+
+    @Property
+    public void windowedProducesOnlyCompleteWindows(List<Integer> list,
+                                                    @InRange(minInt = 1, maxInt = 10) int size,
+                                                    @InRange(minInt = 1, maxInt = 10) int step) {
+        List<List<Integer>> windows = RichStream.of(list).parallel().windowed(size, step).toList();
+        Assert.assertEquals(expectedWindows(list, size, step, false), windows);
+    }
+
+    private static List<List<Integer>> expectedWindows(List<Integer> list, int size, int step, boolean partial) {
+        List<List<Integer>> windows = new ArrayList<>();
+        for (int start = 0; start < list.size(); start += step) {
+            int end = Math.min(start + size, list.size());
+            if (end - start == size || partial) {
+                windows.add(new ArrayList<>(list.subList(start, end)));
+            }
+        }
+        return windows;
+    }
+}
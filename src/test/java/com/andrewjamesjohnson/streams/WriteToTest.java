@@ -0,0 +1,66 @@
+package com.andrewjamesjohnson.streams;
+
+import com.andrewjamesjohnson.io.ElementEncoder;
+import com.andrewjamesjohnson.io.RecordCodec;
+import com.pholser.junit.quickcheck.Property;
+import com.pholser.junit.quickcheck.runner.JUnitQuickcheck;
+import org.junit.Assert;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RunWith(JUnitQuickcheck.class)
+public class WriteToTest {
+    private static final RecordCodec<Integer> CODEC = RecordCodec.of(4,
+            (buffer, offset) -> buffer.getInt(offset),
+            (buffer, offset, value) -> buffer.putInt(offset, value));
+
+    @Property
+    public void linesAreWrittenInOrder(List<Integer> list) throws IOException {
+        Path path = Files.createTempFile("write", ".txt");
+        List<String> expected = list.stream().map(String::valueOf).collect(Collectors.toList());
+
+        Assert.assertEquals(list.size(), RichStream.of(list).writeTo(path, ElementEncoder.lines()));
+        Assert.assertEquals(expected, Files.readAllLines(path));
+
+        Assert.assertEquals(list.size(), RichStream.of(list).parallel().writeTo(path, ElementEncoder.lines()));
+        Assert.assertEquals(expected, Files.readAllLines(path));
+        Files.delete(path);
+    }
+
+    @Property
+    public void recordsRoundTripThroughFile(List<Integer> list) throws IOException {
+        Path path = Files.createTempFile("write", ".bin");
+        RichStream.of(list).parallel().filter(i -> i % 3 != 0).writeTo(path, ElementEncoder.of(CODEC));
+        try (RichStream<Integer> records = RichStream.of(path, CODEC)) {
+            Assert.assertEquals(RichStream.of(list).filter(i -> i % 3 != 0).toList(), records.toList());
+        }
+        Files.delete(path);
+    }
+
+    @Property
+    public void elementsLargerThanTheBufferAreWritten(List<Integer> list) throws IOException {
+        char[] chars = new char[ChannelWriter.BUFFER_SIZE * 3];
+        Arrays.fill(chars, 'x');
+        String large = new String(chars);
+        ByteArrayOutputStream sequential = new ByteArrayOutputStream();
+        ByteArrayOutputStream parallel = new ByteArrayOutputStream();
+
+        RichStream.of(list).map(i -> i % 100 == 0 ? large : String.valueOf(i))
+                .writeTo(Channels.newChannel(sequential), ElementEncoder.lines());
+        RichStream.of(list).parallel().map(i -> i % 100 == 0 ? large : String.valueOf(i))
+                .writeTo(Channels.newChannel(parallel), ElementEncoder.lines());
+
+        String expected = list.stream().map(i -> (i % 100 == 0 ? large : String.valueOf(i)) + "\n").collect(Collectors.joining());
+        Assert.assertEquals(expected, new String(sequential.toByteArray(), StandardCharsets.UTF_8));
+        Assert.assertEquals(expected, new String(parallel.toByteArray(), StandardCharsets.UTF_8));
+    }
+}
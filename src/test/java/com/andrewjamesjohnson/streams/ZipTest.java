@@ -1,5 +1,6 @@
 package com.andrewjamesjohnson.streams;
 
+import com.andrewjamesjohnson.functional.PairFunction;
 import com.pholser.junit.quickcheck.Property;
 import com.pholser.junit.quickcheck.runner.JUnitQuickcheck;
 import org.apache.commons.lang3.tuple.Pair;
@@ -7,6 +8,7 @@ import org.junit.Assert;
 import org.junit.runner.RunWith;
 
 import java.util.List;
+import java.util.Spliterator;
 
 @RunWith(JUnitQuickcheck.class)
 public class ZipTest {
@@ -20,7 +22,42 @@ public class ZipTest {
     @Property
     public void zippedStreamContentsAreCorrectlyPaired(List<String> first, List<String> second) {
         List<Pair<String, String>> zippedList = RichStream.of(first).zip(RichStream.of(second)).toList();
+        assertCorrectlyPaired(first, second, zippedList);
+    }
+
+    @Property
+    public void zippedStreamOfSizedStreamsIsSized(List<String> first, List<String> second) {
+        Spliterator<Pair<String, String>> spliterator = RichStream.of(first).zip(RichStream.of(second)).spliterator();
+        Assert.assertEquals(Math.min(first.size(), second.size()), spliterator.getExactSizeIfKnown());
+    }
+
+    @Property
+    public void parallelZippedStreamContentsAreCorrectlyPaired(List<String> first, List<String> second) {
+        List<Pair<String, String>> zippedList = RichStream.of(first).parallel().zip(RichStream.of(second)).toList();
+        assertCorrectlyPaired(first, second, zippedList);
+    }
+
+    @Property
+    public void parallelZippedStreamsOfEqualLengthAreCorrectlyPaired(List<String> first) {
+        String[] second = first.stream().map(String::toUpperCase).toArray(String[]::new);
+        List<Pair<String, String>> zippedList = RichStream.of(first).parallel().zip(RichStream.of(second)).toList();
+        Assert.assertEquals(first.size(), zippedList.size());
+        for (int i = 0; i < zippedList.size(); i++) {
+            Assert.assertEquals(first.get(i), zippedList.get(i).getLeft());
+            Assert.assertEquals(second[i], zippedList.get(i).getRight());
+        }
+    }
+
+    @Property
+    public void zipWithAppliesPairFunctionToElements(List<String> first, List<String> second) {
+        PairFunction<String, String, String> concat = (l, r) -> l + "|" + r;
+        List<String> expected = RichStream.of(first).zip(RichStream.of(second)).map(concat).toList();
+        Assert.assertEquals(expected, RichStream.of(first).zipWith(RichStream.of(second), concat).toList());
+        Assert.assertEquals(expected, RichStream.of(first).parallel().zipWith(RichStream.of(second), concat).toList());
+    }
 
+    private static void assertCorrectlyPaired(List<String> first, List<String> second, List<Pair<String, String>> zippedList) {
+        Assert.assertEquals(Math.min(first.size(), second.size()), zippedList.size());
         for (int i = 0; i < zippedList.size(); i++) {
             Pair<String, String> pair = zippedList.get(i);
             String firstElement = first.get(i);
@@ -30,4 +67,4 @@ public class ZipTest {
             Assert.assertEquals(secondElement, pair.getRight());
         }
     }
-}
\ No newline at end of file
+}
@@ -2,7 +2,6 @@ package com.andrewjamesjohnson.streams;
 
 import com.pholser.junit.quickcheck.Property;
 import com.pholser.junit.quickcheck.runner.JUnitQuickcheck;
-import org.apache.commons.lang3.tuple.Pair;
 import org.junit.Assert;
 import org.junit.runner.RunWith;
 
@@ -13,13 +12,36 @@ import java.util.stream.Collectors;
 public class ZipWithIndexTest {
     @Property
     public void zipWithIndexProducesCorrectIndices(List<String> list) {
-        List<Pair<String, Integer>> zippedList = RichStream.of(list).zipWithIndex().collect(Collectors.toList());
+        List<Indexed<String>> zippedList = RichStream.of(list).zipWithIndex().collect(Collectors.toList());
+        assertCorrectlyIndexed(list, zippedList);
+    }
+
+    @Property
+    public void parallelZipWithIndexProducesCorrectIndices(List<String> list) {
+        List<Indexed<String>> zippedList = RichStream.of(list).parallel().zipWithIndex().toList();
+        assertCorrectlyIndexed(list, zippedList);
+    }
+
+    @Property
+    public void parallelZipWithIndexOfUnsizedStreamProducesCorrectIndices(List<Integer> list) {
+        List<Integer> filteredList = list.stream().filter(i -> i % 2 == 0).collect(Collectors.toList());
+        List<Indexed<Integer>> zippedList = RichStream.of(list).parallel().filter(i -> i % 2 == 0).zipWithIndex().toList();
+        assertCorrectlyIndexed(filteredList, zippedList);
+    }
+
+    @Property
+    public void zipWithIndexCombinerMatchesIndexed(List<Integer> list) {
+        List<Long> expected = RichStream.of(list).zipWithIndex().map(indexed -> indexed.getValue() * indexed.getIndex()).toList();
+        Assert.assertEquals(expected, RichStream.of(list).zipWithIndex((value, index) -> value * index).toList());
+        Assert.assertEquals(expected, RichStream.of(list).parallel().filter(i -> true).zipWithIndex((value, index) -> value * index).toList());
+    }
+
+    private static <T> void assertCorrectlyIndexed(List<T> list, List<Indexed<T>> zippedList) {
         Assert.assertEquals(list.size(), zippedList.size());
         for (int i = 0; i < list.size(); i++) {
-            String element = list.get(i);
-            Pair<String, Integer> elementIndexPair = zippedList.get(i);
-            Assert.assertEquals(element, elementIndexPair.getKey());
-            Assert.assertEquals(Integer.valueOf(i), elementIndexPair.getRight());
+            Indexed<T> indexed = zippedList.get(i);
+            Assert.assertEquals(list.get(i), indexed.getValue());
+            Assert.assertEquals(i, indexed.getIndex());
         }
     }
-}
\ No newline at end of file
+}